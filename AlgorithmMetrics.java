@@ -0,0 +1,382 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+* This class counts where the runs of one algorithm spend their time and work, summed over all its runs in the JVM.
+* Runs add to the counters once per iteration from their own thread, the counters are LongAdders so concurrent runs do not contend,
+* and they are only read when a snapshot is exported by MetricsExporter.
+* Counters are kept only when metrics are enabled with the <i>metrics</i>, <i>metricsPort</i> or <i>metricsFile</i> system property,
+* otherwise runs have no metrics and pay nothing for them.
+* <ul>
+* <li>runs started, runs active, iterations, improvements of the best fitness and fitness function evaluations</li>
+* <li>nanoseconds spent in the fitness function, in the operators of the algorithm and in recording into the result file</li>
+* <li>bytes allocated by the thread of the run and hits and misses of its evaluation cache</li>
+* </ul>
+* @author Ashish Rana
+* @version 1.1
+* @see OptimizationAlgorithm
+* @see MetricsExporter
+* @since 1.1
+*/
+
+public final class AlgorithmMetrics{
+
+	/**
+	* Whether metrics are kept, set with the <i>metrics</i>, <i>metricsPort</i> or <i>metricsFile</i> system property.
+	* @since 1.1
+	*/
+	private static final boolean enabled = Boolean.getBoolean("metrics") || System.getProperty("metricsPort")!=null
+		|| System.getProperty("metricsFile")!=null;
+	/**
+	* Metrics of every algorithm, by algorithm name.
+	* @since 1.1
+	*/
+	private static final ConcurrentMap<String, AlgorithmMetrics> registry = new ConcurrentHashMap<>();
+	/**
+	* Thread bean measuring allocated bytes, <code>null</code> if the JVM can not measure them.
+	* @since 1.1
+	*/
+	private static final com.sun.management.ThreadMXBean allocationBean = allocationBean();
+
+	/**
+	* Name of the algorithm.
+	* @since 1.1
+	*/
+	private final String algorithmName;
+	/**
+	* Number of runs started.
+	* @since 1.1
+	*/
+	private final LongAdder runs = new LongAdder();
+	/**
+	* Number of runs going on.
+	* @since 1.1
+	*/
+	private final LongAdder activeRuns = new LongAdder();
+	/**
+	* Number of iterations completed.
+	* @since 1.1
+	*/
+	private final LongAdder iterations = new LongAdder();
+	/**
+	* Number of iterations which improved the best fitness.
+	* @since 1.1
+	*/
+	private final LongAdder improvements = new LongAdder();
+	/**
+	* Number of fitness function evaluations.
+	* @since 1.1
+	*/
+	private final LongAdder evaluations = new LongAdder();
+	/**
+	* Nanoseconds spent evaluating the fitness function.
+	* @since 1.1
+	*/
+	private final LongAdder fitnessNanos = new LongAdder();
+	/**
+	* Nanoseconds spent in the operators of the algorithm, i.e. its iterations without the fitness function.
+	* @since 1.1
+	*/
+	private final LongAdder operatorNanos = new LongAdder();
+	/**
+	* Nanoseconds spent recording into the result file and progress sink.
+	* @since 1.1
+	*/
+	private final LongAdder ioNanos = new LongAdder();
+	/**
+	* Bytes allocated by the threads of the runs during their iterations.
+	* @since 1.1
+	*/
+	private final LongAdder allocatedBytes = new LongAdder();
+	/**
+	* Number of evaluations answered by an evaluation cache.
+	* @since 1.1
+	*/
+	private final LongAdder cacheHits = new LongAdder();
+	/**
+	* Number of evaluations passed on by an evaluation cache.
+	* @since 1.1
+	*/
+	private final LongAdder cacheMisses = new LongAdder();
+
+	/**
+	* This creates the empty metrics of an algorithm.
+	* @param algorithmName This is the name of the algorithm
+	* @since 1.1
+	*/
+	private AlgorithmMetrics(String algorithmName)
+	{
+		this.algorithmName = algorithmName;
+	}
+
+	/**
+	* This method returns whether metrics are kept.
+	* @return boolean <i>true</i> if they are kept
+	* @since 1.1
+	*/
+	public static boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/**
+	* This method returns the metrics of an algorithm when metrics are enabled, the exporters selected with system properties are started with the first.
+	* @param algorithmName This is the name of the algorithm
+	* @return AlgorithmMetrics Metrics shared by all runs of the algorithm or <code>null</code> when metrics are disabled
+	* @see MetricsExporter
+	* @since 1.1
+	*/
+	public static AlgorithmMetrics forAlgorithm(String algorithmName)
+	{
+		if(!enabled)
+			return null;
+		MetricsExporter.startFromSystemProperties();
+		return registry.computeIfAbsent(algorithmName, AlgorithmMetrics::new);
+	}
+
+	/**
+	* This method returns the metrics of all algorithms which were run, ordered by name.
+	* @return List Metrics of the algorithms
+	* @since 1.1
+	*/
+	public static List<AlgorithmMetrics> all()
+	{
+		List<AlgorithmMetrics> all = new ArrayList<>(registry.values());
+		all.sort(Comparator.comparing(AlgorithmMetrics::getAlgorithmName));
+		return all;
+	}
+
+	/**
+	* This method returns the bean measuring the bytes allocated by a thread.
+	* @return com.sun.management.ThreadMXBean Bean or <code>null</code> if the JVM can not measure allocations
+	* @since 1.1
+	*/
+	private static com.sun.management.ThreadMXBean allocationBean()
+	{
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if(!(bean instanceof com.sun.management.ThreadMXBean))
+			return null;
+		com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean)bean;
+		try{
+			if(!allocation.isThreadAllocatedMemorySupported())
+				return null;
+			allocation.setThreadAllocatedMemoryEnabled(true);
+			return allocation;
+		}
+		catch(UnsupportedOperationException e){
+			return null;
+		}
+	}
+
+	/**
+	* This method returns the number of bytes the calling thread has allocated so far. Allocations of the threads of a ParallelEvaluator are not included.
+	* @return long Allocated bytes or 0 if the JVM can not measure them
+	* @since 1.1
+	*/
+	public static long allocatedBytes()
+	{
+		return allocationBean!=null ? allocationBean.getCurrentThreadAllocatedBytes() : 0;
+	}
+
+	/**
+	* This method counts the start of a run.
+	* @since 1.1
+	*/
+	public void runStarted()
+	{
+		runs.increment();
+		activeRuns.increment();
+	}
+
+	/**
+	* This method counts the end of a run.
+	* @since 1.1
+	*/
+	public void runFinished()
+	{
+		activeRuns.decrement();
+	}
+
+	/**
+	* This method adds one completed iteration of a run.
+	* @param evaluations This is the number of fitness function evaluations of the iteration
+	* @param fitnessNanos This is the time spent evaluating the fitness function
+	* @param operatorNanos This is the time spent in the operators
+	* @param improved This is <i>true</i> if the iteration improved the best fitness
+	* @param allocatedBytes This is the number of bytes allocated by the iteration
+	* @since 1.1
+	*/
+	public void iteration(long evaluations, long fitnessNanos, long operatorNanos, boolean improved, long allocatedBytes)
+	{
+		iterations.increment();
+		if(improved)
+			improvements.increment();
+		this.evaluations.add(evaluations);
+		this.fitnessNanos.add(fitnessNanos);
+		this.operatorNanos.add(operatorNanos);
+		this.allocatedBytes.add(allocatedBytes);
+	}
+
+	/**
+	* This method adds the work done before the first iteration of a run, i.e. the evaluation of the initial population.
+	* @param evaluations This is the number of fitness function evaluations
+	* @param fitnessNanos This is the time spent evaluating the fitness function
+	* @param operatorNanos This is the time spent initializing without the fitness function
+	* @since 1.1
+	*/
+	public void initialization(long evaluations, long fitnessNanos, long operatorNanos)
+	{
+		this.evaluations.add(evaluations);
+		this.fitnessNanos.add(fitnessNanos);
+		this.operatorNanos.add(operatorNanos);
+	}
+
+	/**
+	* This method adds the time spent recording an iteration.
+	* @param nanos This is the time spent
+	* @since 1.1
+	*/
+	public void io(long nanos)
+	{
+		ioNanos.add(nanos);
+	}
+
+	/**
+	* This method adds hits and misses of an evaluation cache.
+	* @param hits This is the number of new hits
+	* @param misses This is the number of new misses
+	* @see EvaluationCache
+	* @since 1.1
+	*/
+	public void cache(long hits, long misses)
+	{
+		cacheHits.add(hits);
+		cacheMisses.add(misses);
+	}
+
+	/**
+	* This method returns the name of the algorithm.
+	* @return String Name of the algorithm
+	* @since 1.1
+	*/
+	public String getAlgorithmName()
+	{
+		return algorithmName;
+	}
+
+	/**
+	* This method returns the number of runs started.
+	* @return long Runs
+	* @since 1.1
+	*/
+	public long getRuns()
+	{
+		return runs.sum();
+	}
+
+	/**
+	* This method returns the number of runs going on.
+	* @return long Active runs
+	* @since 1.1
+	*/
+	public long getActiveRuns()
+	{
+		return activeRuns.sum();
+	}
+
+	/**
+	* This method returns the number of iterations completed.
+	* @return long Iterations
+	* @since 1.1
+	*/
+	public long getIterations()
+	{
+		return iterations.sum();
+	}
+
+	/**
+	* This method returns the number of iterations which improved the best fitness.
+	* @return long Improvements
+	* @since 1.1
+	*/
+	public long getImprovements()
+	{
+		return improvements.sum();
+	}
+
+	/**
+	* This method returns the number of fitness function evaluations.
+	* @return long Evaluations
+	* @since 1.1
+	*/
+	public long getEvaluations()
+	{
+		return evaluations.sum();
+	}
+
+	/**
+	* This method returns the nanoseconds spent evaluating the fitness function.
+	* @return long Nanoseconds
+	* @since 1.1
+	*/
+	public long getFitnessNanos()
+	{
+		return fitnessNanos.sum();
+	}
+
+	/**
+	* This method returns the nanoseconds spent in the operators of the algorithm.
+	* @return long Nanoseconds
+	* @since 1.1
+	*/
+	public long getOperatorNanos()
+	{
+		return operatorNanos.sum();
+	}
+
+	/**
+	* This method returns the nanoseconds spent recording into the result file and progress sink.
+	* @return long Nanoseconds
+	* @since 1.1
+	*/
+	public long getIoNanos()
+	{
+		return ioNanos.sum();
+	}
+
+	/**
+	* This method returns the bytes allocated by the threads of the runs during their iterations.
+	* @return long Bytes
+	* @since 1.1
+	*/
+	public long getAllocatedBytes()
+	{
+		return allocatedBytes.sum();
+	}
+
+	/**
+	* This method returns the number of evaluations answered by an evaluation cache.
+	* @return long Cache hits
+	* @since 1.1
+	*/
+	public long getCacheHits()
+	{
+		return cacheHits.sum();
+	}
+
+	/**
+	* This method returns the number of evaluations passed on by an evaluation cache.
+	* @return long Cache misses
+	* @since 1.1
+	*/
+	public long getCacheMisses()
+	{
+		return cacheMisses.sum();
+	}
+}
@@ -0,0 +1,304 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+* This class writes the records of a run into a result file on a background thread, so the optimizer thread only copies
+* each record into a bounded ring buffer of preallocated slots. The writer thread drains all waiting records at once and hands them to
+* the encoder of the result format, which batches its output, e.g. the <i>.csv</i> format formats the numbers straight into a reused
+* StringBuilder without intermediate Strings and writes them in large batches.
+* The run waits when the ring buffer is full, so no record is ever dropped. There is exactly one recording thread and one writer thread.
+* @author Ashish Rana
+* @version 1.1
+* @see ResultSink
+* @see ResultFormat
+* @since 1.1
+*/
+
+public class AsyncResultWriter implements ResultSink{
+
+	/**
+	* Default number of records held by the ring buffer.
+	* @since 1.1
+	*/
+	public static final int DEFAULT_CAPACITY = 1024;
+	/**
+	* Smallest number of records held by the ring buffer, so the threads do not hand over every single record.
+	* @since 1.1
+	*/
+	private static final int MIN_CAPACITY = 16;
+	/**
+	* Number of records after which the writer thread releases their slots while draining.
+	* @since 1.1
+	*/
+	private static final int RELEASE_EVERY = 64;
+	/**
+	* Nanoseconds the writer thread parks when no record is waiting.
+	* @since 1.1
+	*/
+	private static final long IDLE_PARK_NANOS = 1000000;
+	/**
+	* Nanoseconds the recording thread parks when the ring buffer is full.
+	* @since 1.1
+	*/
+	private static final long FULL_PARK_NANOS = 10000;
+
+	/**
+	* Number of dimensions of every recorded chromosome.
+	* @since 1.1
+	*/
+	private final int dim;
+	/**
+	* Mask selecting the slot of a sequence number, the capacity is a power of two.
+	* @since 1.1
+	*/
+	private final int mask;
+	/**
+	* Iteration number of every slot.
+	* @since 1.1
+	*/
+	private final int[] iterations;
+	/**
+	* Function evaluations of every slot.
+	* @since 1.1
+	*/
+	private final long[] funEvals;
+	/**
+	* Time of every slot since the writer was opened in nanoseconds.
+	* @since 1.1
+	*/
+	private final long[] nanos;
+	/**
+	* Best fitness value of every slot.
+	* @since 1.1
+	*/
+	private final double[] fitness;
+	/**
+	* Best chromosome of every slot, row-major.
+	* @since 1.1
+	*/
+	private final double[] chromosomes;
+	/**
+	* Number of records handed to the writer thread, only written by the recording thread.
+	* @since 1.1
+	*/
+	private final AtomicLong published = new AtomicLong();
+	/**
+	* Number of records whose slots were released by the writer thread, only written by the writer thread.
+	* @since 1.1
+	*/
+	private final AtomicLong consumed = new AtomicLong();
+	/**
+	* Sequence number of the next record, a copy of <i>published</i> owned by the recording thread.
+	* @since 1.1
+	*/
+	private long next;
+	/**
+	* Whether no more records will be published.
+	* @since 1.1
+	*/
+	private volatile boolean closed;
+	/**
+	* Failure of the writer thread, an IOException or a RuntimeException of the encoder, reported to the recording thread.
+	* @since 1.1
+	*/
+	private volatile Exception failure;
+	/**
+	* Time the writer was opened, <i>System.nanoTime</i>.
+	* @since 1.1
+	*/
+	private final long start;
+	/**
+	* Stream of the file.
+	* @since 1.1
+	*/
+	private final OutputStream out;
+	/**
+	* Encoder of the records, only used by the writer thread.
+	* @since 1.1
+	*/
+	private final ResultFormat.Encoder encoder;
+	/**
+	* Thread formatting and writing the records.
+	* @since 1.1
+	*/
+	private final Thread writer;
+
+	/**
+	* This opens the result file, writes the header of the format and starts the writer thread with a ring buffer of <i>DEFAULT_CAPACITY</i> records.
+	* @param resultFileName This is the result file name
+	* @param format This is the format of the file
+	* @param dim This is the number of dimensions of the recorded chromosomes
+	* @exception IOException If the file can not be opened
+	* @since 1.1
+	*/
+	public AsyncResultWriter(String resultFileName, ResultFormat format, int dim) throws IOException
+	{
+		this(resultFileName, format, dim, DEFAULT_CAPACITY);
+	}
+
+	/**
+	* This opens the result file, writes the header of the format and starts the writer thread.
+	* @param resultFileName This is the result file name
+	* @param format This is the format of the file
+	* @param dim This is the number of dimensions of the recorded chromosomes
+	* @param capacity This is the number of records held by the ring buffer, rounded up to a power of two of at least 16
+	* @exception IOException If the file can not be opened
+	* @since 1.1
+	*/
+	public AsyncResultWriter(String resultFileName, ResultFormat format, int dim, int capacity) throws IOException
+	{
+		if(capacity<1 || capacity>1<<24)
+			throw new IllegalArgumentException("Invalid ring buffer capacity "+capacity);
+		capacity = Math.max(capacity, MIN_CAPACITY);
+		int slots = Integer.highestOneBit(capacity)==capacity ? capacity : Integer.highestOneBit(capacity)<<1;
+
+		this.dim = dim;
+		this.mask = slots-1;
+		this.iterations = new int[slots];
+		this.funEvals = new long[slots];
+		this.nanos = new long[slots];
+		this.fitness = new double[slots];
+		this.chromosomes = new double[slots*dim];
+
+		this.out = new FileOutputStream(resultFileName);
+		try{
+			this.encoder = format.open(out, dim);
+		}
+		catch(IOException e){
+			out.close();
+			throw e;
+		}
+		this.start = System.nanoTime();
+
+		this.writer = new Thread(this::drain, "ResultWriter-"+resultFileName);
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	* This method copies the record into the next slot of the ring buffer, waiting while the buffer is full.
+	* @param iteration This is the iteration number
+	* @param funEval This is the number of function evaluations so far or -1 when unknown
+	* @param fitness This is the best fitness value
+	* @param chromosome This is the best chromosome of at least <i>dim</i> entries
+	* @exception IOException If the writer thread failed or the sink is closed
+	* @since 1.1
+	*/
+	@Override
+	public void record(int iteration, long funEval, double fitness, double[] chromosome) throws IOException
+	{
+		if(closed)
+			throw new IOException("Result writer is closed");
+
+		while(next-consumed.get()>mask)
+		{
+			checkFailure();
+			if(!writer.isAlive())
+				throw new IOException("Result writer thread stopped");
+			LockSupport.unpark(writer);	// the writer thread may be idle parked
+			LockSupport.parkNanos(FULL_PARK_NANOS);
+			if(Thread.interrupted())
+				throw new InterruptedIOException("Interrupted while waiting for the result writer");
+		}
+		checkFailure();
+
+		int slot = (int)next&mask;
+		iterations[slot] = iteration;
+		funEvals[slot] = funEval;
+		nanos[slot] = System.nanoTime()-start;
+		this.fitness[slot] = fitness;
+		System.arraycopy(chromosome, 0, chromosomes, slot*dim, dim);
+		published.lazySet(++next);	// releases the slot contents to the writer thread
+	}
+
+	/**
+	* This method waits until every record is written and closes the file.
+	* @exception IOException If a record could not be written
+	* @since 1.1
+	*/
+	@Override
+	public void close() throws IOException
+	{
+		if(closed)
+			return;
+		closed = true;
+		LockSupport.unpark(writer);
+		boolean interrupted = false;
+		while(writer.isAlive())
+		{
+			try{
+				writer.join();
+			}
+			catch(InterruptedException e){
+				interrupted = true;
+			}
+		}
+		if(interrupted)
+			Thread.currentThread().interrupt();
+		checkFailure();
+	}
+
+	/**
+	* This method rethrows the failure of the writer thread on the recording thread, wrapped in an IOException whatever its type.
+	* @exception IOException If the writer thread failed
+	* @since 1.1
+	*/
+	private void checkFailure() throws IOException
+	{
+		Exception e = failure;
+		if(e!=null)
+			throw new IOException("Result file could not be written", e);
+	}
+
+	/**
+	* This method is the loop of the writer thread, it encodes all waiting records and releases their slots
+	* until the sink is closed and every record is written.
+	* @since 1.1
+	*/
+	private void drain()
+	{
+		long done = 0;
+		try{
+			while(true)
+			{
+				boolean last = closed;	// read before published, a record published before closing is always seen
+				long available = published.get();
+				if(available==done)
+				{
+					if(last)
+						break;
+					LockSupport.parkNanos(IDLE_PARK_NANOS);
+					continue;
+				}
+
+				for(;done<available;done++)
+				{
+					int slot = (int)done&mask;
+					encoder.append(iterations[slot], funEvals[slot], nanos[slot], fitness[slot], chromosomes, slot*dim);
+					if((done&(RELEASE_EVERY-1))==RELEASE_EVERY-1)
+						consumed.lazySet(done+1);
+				}
+				consumed.lazySet(done);
+			}
+			encoder.finish();
+			out.flush();
+		}
+		catch(IOException | RuntimeException e){
+			failure = e;	// a bug of the encoder must not end the file silently
+		}
+		finally{
+			consumed.set(Long.MAX_VALUE/2);	// never block the recording thread after the writer thread stopped
+			try{
+				out.close();
+			}
+			catch(IOException e){
+				if(failure==null)
+					failure = e;
+			}
+		}
+	}
+}
@@ -0,0 +1,187 @@
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
+
+/**
+* This class renders the convergence plot of every result file into a <i>.png</i> image or <i>.svg</i> document without any display,
+* using the drawing code of GraphPlotGui. Files are rendered concurrently on a fixed pool, every thread holds only the series and image
+* of the file it is rendering, so memory does not grow with the number of files.
+* It is configured with system properties.
+* <ul>
+* <li><i>plotFormat</i> - <i>png</i> (default) or <i>svg</i></li>
+* <li><i>width</i>, <i>height</i> - size of the plots, default 1000 x 500</li>
+* <li><i>output</i> - directory of the plots, default next to every result file</li>
+* <li><i>threads</i> - files rendered concurrently, default all available processors</li>
+* </ul>
+* @author Ashish Rana
+* @version 1.1
+* @see GraphPlotGui
+* @see PlotCanvas
+* @since 1.1
+*/
+
+public class BatchPlotRenderer{
+
+	/**
+	* Format of the plots, <i>png</i> or <i>svg</i>.
+	* @since 1.1
+	*/
+	private final String plotFormat;
+	/**
+	* Width of the plots.
+	* @since 1.1
+	*/
+	private final int width;
+	/**
+	* Height of the plots.
+	* @since 1.1
+	*/
+	private final int height;
+	/**
+	* Directory of the plots, <code>null</code> for the directory of every result file.
+	* @since 1.1
+	*/
+	private final File outputDir;
+
+	/**
+	* This creates a renderer of plots of the given format and size.
+	* @param plotFormat This is the format, <i>png</i> or <i>svg</i>
+	* @param width This is the width of the plots
+	* @param height This is the height of the plots
+	* @param outputDir This is the directory of the plots or <code>null</code> for the directory of every result file
+	* @exception IllegalArgumentException If the format is unknown or the size is not positive
+	* @since 1.1
+	*/
+	public BatchPlotRenderer(String plotFormat, int width, int height, File outputDir)
+	{
+		this.plotFormat = plotFormat.trim().toLowerCase(Locale.ROOT);
+		if(!this.plotFormat.equals("png") && !this.plotFormat.equals("svg"))
+			throw new IllegalArgumentException("Unknown plot format "+plotFormat);
+		if(width<=0 || height<=0)
+			throw new IllegalArgumentException("Plot size must be positive");
+		this.width = width;
+		this.height = height;
+		this.outputDir = outputDir;
+	}
+
+	/**
+	* This method renders the plot of one result file.
+	* @param resultFile This is the <i>.csv</i> or <i>.oarb</i> result file
+	* @return File Plot file
+	* @exception IOException If the result file can not be read or the plot can not be written
+	* @since 1.1
+	*/
+	public File render(String resultFile) throws IOException
+	{
+		File result = new File(resultFile);
+		String name = result.getName();
+		int dot = name.lastIndexOf('.');
+		File plotFile = new File(outputDir!=null ? outputDir : result.getAbsoluteFile().getParentFile(), (dot>0 ? name.substring(0, dot) : name)+"."+plotFormat);
+
+		GraphPlotGui panel = new GraphPlotGui(ResultFileLoader.load(resultFile, null));
+		if(plotFormat.equals("svg"))
+		{
+			SvgCanvas canvas = new SvgCanvas(width, height, panel.getFont());
+			panel.render(canvas, width, height);
+			try(Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(plotFile), StandardCharsets.UTF_8))){
+				canvas.writeTo(out);
+			}
+		}
+		else
+		{
+			BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			Graphics2D g2 = image.createGraphics();
+			try{
+				g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+				g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+				g2.setFont(panel.getFont());
+				panel.render(PlotCanvas.of(g2), width, height);
+			}
+			finally{
+				g2.dispose();
+			}
+			if(!ImageIO.write(image, "png", plotFile))
+				throw new IOException("No PNG writer available");
+		}
+		return plotFile;
+	}
+
+	/**
+	* This method renders the plots of all result files concurrently. A file that fails is reported and does not stop the others.
+	* @param resultFiles This is the list of result files
+	* @param threads This is the number of files rendered concurrently
+	* @return int Number of files that failed
+	* @exception InterruptedException If the calling thread is interrupted while waiting for the plots
+	* @since 1.1
+	*/
+	public int renderAll(List<String> resultFiles, int threads) throws InterruptedException
+	{
+		ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, resultFiles.size())));
+		try{
+			List<Future<File>> plots = new ArrayList<>(resultFiles.size());
+			for(String resultFile : resultFiles)
+				plots.add(pool.submit(() -> render(resultFile)));
+
+			int failed = 0;
+			for(int i=0;i<plots.size();i++)
+			{
+				try{
+					System.out.println("Plot "+(i+1)+"/"+plots.size()+" "+plots.get(i).get()+" created");
+				}
+				catch(ExecutionException e){
+					failed++;
+					System.err.println("Plot of "+resultFiles.get(i)+" failed: "+e.getCause());
+				}
+			}
+			return failed;
+		}
+		finally{
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	* This the main method which renders the plots of the given result files and directories of result files, configured with system properties.
+	* It runs headless unless the <i>java.awt.headless</i> property is set otherwise.
+	* @param args Result files and directories of result files
+	* @since 1.1
+	*/
+	public static void main(String[] args)
+	{
+		if(System.getProperty("java.awt.headless")==null)
+			System.setProperty("java.awt.headless", "true");
+		String output = System.getProperty("output");
+		int threads = Integer.getInteger("threads", Runtime.getRuntime().availableProcessors());
+		List<String> resultFiles = ResultFileLoader.resultFiles(args.length>0 ? args : new String[]{"."});
+
+		try{
+			BatchPlotRenderer renderer = new BatchPlotRenderer(System.getProperty("plotFormat", "png"), Integer.getInteger("width", 1000),
+				Integer.getInteger("height", 500), output!=null ? new File(output) : null);
+			if(renderer.outputDir!=null && !renderer.outputDir.isDirectory() && !renderer.outputDir.mkdirs())
+				throw new IOException("Can not create output directory "+renderer.outputDir);
+			int failed = renderer.renderAll(resultFiles, threads);
+			System.out.println((resultFiles.size()-failed)+" of "+resultFiles.size()+" plots created");
+			if(failed>0)
+				System.exit(1);
+		}
+		catch(Exception e){
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+}
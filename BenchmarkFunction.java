@@ -0,0 +1,801 @@
+import java.util.Locale;
+
+/**
+* This class is the base of the standard benchmark functions from <i>Nature Inspired Algorithms</i>, each one
+* carrying its own dimensions plus lower and upper bounds. Sub-classes only compute the raw function value,
+* rounding off with the precision policy and evaluating whole population blocks is done here.
+* The function of a run is selected with the <i>function</i> and <i>dim</i> system properties, e.g.
+* <i>-Dfunction=rastrigin -Ddim=30</i>, by default <i>Ackley's Function</i> with 10 dimensions is used.
+* The loops over the dimensions are computed by the fitness kernels, vectorized or scalar as selected at startup.
+* All functions except <i>Griewank</i> are separable, populations with partial sums are evaluated incrementally after single gene mutations.
+* @author Ashish Rana
+* @version 1.1
+* @see FitnessFunction
+* @since 1.1
+*/
+
+public abstract class BenchmarkFunction implements FitnessFunction{
+
+	/**
+	* Dimensions used when none are given.
+	* @since 1.1
+	*/
+	public static final int DEFAULT_DIM = 10;
+	/**
+	* Names of all the functions of the library, accepted by <i>forName</i>.
+	* @since 1.1
+	*/
+	public static final String[] NAMES = {"sphere", "rastrigin", "rosenbrock", "griewank", "schwefel", "ackley", "levy", "zakharov"};
+	/**
+	* Precision policy of the current run, read once from the <i>precision</i> system property.
+	* @since 1.1
+	*/
+	private static final PrecisionPolicy defaultPrecision = PrecisionPolicy.fromSystemProperty();
+	/**
+	* Fitness kernels of the current run, selected once from the <i>kernels</i> and <i>fastMath</i> system properties.
+	* @since 1.1
+	*/
+	private static final FitnessKernels defaultKernels = FitnessKernels.fromSystemProperties();
+
+	/**
+	* This variable represents the dimensions of the chromosome that is passed for fitness evaluation.
+	* @since 1.1
+	*/
+	protected final int dim;
+	/**
+	* This variable represents the lower bound value of each entry of dimensions of the chromosome.
+	* @since 1.1
+	*/
+	protected final double lBound;
+	/**
+	* This variable represents the upper bound value of each entry of dimensions of the chromosome.
+	* @since 1.1
+	*/
+	protected final double uBound;
+	/**
+	* This variable represents the precision policy applied on fitness values and generated chromosome values.
+	* @since 1.1
+	*/
+	protected PrecisionPolicy precision = defaultPrecision;
+	/**
+	* This variable represents the kernels computing the loops over the dimensions of the chromosome.
+	* @since 1.1
+	*/
+	protected FitnessKernels kernels = defaultKernels;
+
+	/**
+	* This sets up the dimensions and bounds of the function.
+	* @param dim This is the dimensions of the chromosome
+	* @param lBound This is the lower bound of each dimension
+	* @param uBound This is the upper bound of each dimension
+	* @exception IllegalArgumentException If dim is less than 1
+	* @since 1.1
+	*/
+	protected BenchmarkFunction(int dim, double lBound, double uBound)
+	{
+		if(dim<1)
+			throw new IllegalArgumentException("Dimensions must be positive "+dim);
+		this.dim = dim;
+		this.lBound = lBound;
+		this.uBound = uBound;
+	}
+
+	/**
+	* This method computes the raw function value of a chromosome without any rounding off.
+	* @param x This is array containing the chromosome starting at <i>offset</i>
+	* @param offset This is the index of the first dimension of the chromosome in <i>x</i>
+	* @return double Raw function value
+	* @since 1.1
+	*/
+	protected abstract double value(double[] x, int offset);
+
+	@Override
+	public double fitnessFunction(double[] x, int offset)
+	{
+		return precision.apply(value(x, offset));
+	}
+
+	@Override
+	public void evaluate(Population pop, int from, int to)
+	{
+		if(pop.sums!=null && this instanceof SeparableFunction)
+		{
+			((SeparableFunction)this).evaluateIncrementally(pop, from, to);
+			return;
+		}
+		double[] genes = pop.genes;
+		double[] fitness = pop.fitness;
+		PrecisionPolicy p = precision;
+		for(int i=from, off=from*dim;i<to;i++, off+=dim)
+			fitness[i] = p.apply(value(genes, off));
+	}
+
+	@Override
+	public int getDim()
+	{
+		return dim;
+	}
+
+	@Override
+	public double getLowerBound()
+	{
+		return lBound;
+	}
+
+	@Override
+	public double getUpperBound()
+	{
+		return uBound;
+	}
+
+	@Override
+	public PrecisionPolicy getPrecision()
+	{
+		return precision;
+	}
+
+	/**
+	* This method replaces the precision policy of this function.
+	* @param precision This is the new precision policy
+	* @return BenchmarkFunction This function, for chaining
+	* @since 1.1
+	*/
+	public BenchmarkFunction setPrecision(PrecisionPolicy precision)
+	{
+		this.precision = precision;
+		return this;
+	}
+
+	/**
+	* This method returns the kernels of this function.
+	* @return FitnessKernels Kernels computing the loops over the dimensions
+	* @since 1.1
+	*/
+	public FitnessKernels getKernels()
+	{
+		return kernels;
+	}
+
+	/**
+	* This method replaces the kernels of this function, e.g. to compare vector and scalar kernels in one JVM.
+	* @param kernels This is the new kernels
+	* @return BenchmarkFunction This function, for chaining
+	* @since 1.1
+	*/
+	public BenchmarkFunction setKernels(FitnessKernels kernels)
+	{
+		this.kernels = kernels;
+		return this;
+	}
+
+	@Override
+	public String getName()
+	{
+		return getClass().getSimpleName();
+	}
+
+	@Override
+	public String toString()
+	{
+		return getName()+"[dim="+dim+", bounds="+lBound+".."+uBound+", precision="+precision+", kernels="+kernels+"]";
+	}
+
+	/**
+	* This method creates the library function for the given name with the given dimensions and its standard bounds.
+	* @param name This is the function name, case insensitive, one of <i>NAMES</i>
+	* @param dim This is the dimensions of the chromosome
+	* @return BenchmarkFunction The function
+	* @exception IllegalArgumentException If the name is unknown
+	* @since 1.1
+	*/
+	public static BenchmarkFunction forName(String name, int dim)
+	{
+		switch(name.trim().toLowerCase(Locale.ROOT))
+		{
+			case "sphere": return new Sphere(dim);
+			case "rastrigin": return new Rastrigin(dim);
+			case "rosenbrock": return new Rosenbrock(dim);
+			case "griewank": return new Griewank(dim);
+			case "schwefel": return new Schwefel(dim);
+			case "ackley": return new Ackley(dim);
+			case "levy": return new Levy(dim);
+			case "zakharov": return new Zakharov(dim);
+			default: throw new IllegalArgumentException("Unknown benchmark function "+name);
+		}
+	}
+
+	/**
+	* This method creates the function selected by the <i>function</i> and <i>dim</i> system properties,
+	* by default <i>Ackley's Function</i> with 10 dimensions.
+	* @return BenchmarkFunction The function of the current run
+	* @since 1.1
+	*/
+	public static BenchmarkFunction fromSystemProperties()
+	{
+		return forName(System.getProperty("function", "ackley"), Integer.getInteger("dim", DEFAULT_DIM));
+	}
+
+	/**
+	* <i>Sphere Function</i>, sum of squares, bounds [-5.12, 5.12] and minimum 0 at origin.
+	* @since 1.1
+	*/
+	public static class Sphere extends BenchmarkFunction implements SeparableFunction{
+		public Sphere(int dim)
+		{
+			super(dim, -5.12, 5.12);
+		}
+
+		@Override
+		protected double value(double[] x, int offset)
+		{
+			return kernels.squares(x, offset, offset+dim);
+		}
+
+		@Override
+		public int partialSums()
+		{
+			return 1;
+		}
+
+		@Override
+		public void partialSums(double[] x, int offset, double[] sums, int at)
+		{
+			sums[at] = value(x, offset);
+		}
+
+		@Override
+		public void updatePartialSums(double[] x, int offset, int gene, double previous, double[] sums, int at)
+		{
+			double xi = x[offset+gene];
+			sums[at] += xi*xi - previous*previous;
+		}
+
+		@Override
+		public void prefixSums(double[] x, int offset, double[] prefix, int at)
+		{
+			double sum = 0;
+			prefix[at] = 0;
+			for(int j=0;j<dim;j++)
+			{
+				double xi = x[offset+j];
+				sum += xi*xi;
+				prefix[at+j+1] = sum;
+			}
+		}
+
+		@Override
+		public double valueOfSums(double[] sums, int at)
+		{
+			return sums[at];
+		}
+
+		@Override
+		public double absoluteSum(double[] sums, int at, int s)
+		{
+			// all terms are positive
+			return Math.abs(sums[at]);
+		}
+	}
+
+	/**
+	* <i>Rastrigin Function</i>, bounds [-5.12, 5.12] and minimum 0 at origin.
+	* @since 1.1
+	*/
+	public static class Rastrigin extends BenchmarkFunction implements SeparableFunction{
+		private static final double TWO_PI = 2*Math.PI;
+		private final double base;
+
+		public Rastrigin(int dim)
+		{
+			super(dim, -5.12, 5.12);
+			base = 10.0*dim;
+		}
+
+		@Override
+		protected double value(double[] x, int offset)
+		{
+			int end = offset+dim;
+			return base + kernels.squares(x, offset, end) - 10*kernels.cosines(x, offset, end, TWO_PI);
+		}
+
+		@Override
+		public int partialSums()
+		{
+			return 2;
+		}
+
+		@Override
+		public void partialSums(double[] x, int offset, double[] sums, int at)
+		{
+			int end = offset+dim;
+			sums[at] = kernels.squares(x, offset, end);
+			sums[at+1] = kernels.cosines(x, offset, end, TWO_PI);
+		}
+
+		@Override
+		public void updatePartialSums(double[] x, int offset, int gene, double previous, double[] sums, int at)
+		{
+			double xi = x[offset+gene];
+			sums[at] += xi*xi - previous*previous;
+			sums[at+1] += kernels.cosine(TWO_PI*xi) - kernels.cosine(TWO_PI*previous);
+		}
+
+		@Override
+		public void prefixSums(double[] x, int offset, double[] prefix, int at)
+		{
+			double squares = 0, cosines = 0;
+			prefix[at] = 0;
+			prefix[at+1] = 0;
+			for(int j=0, p=at+2;j<dim;j++, p+=2)
+			{
+				double xi = x[offset+j];
+				squares += xi*xi;
+				cosines += kernels.cosine(TWO_PI*xi);
+				prefix[p] = squares;
+				prefix[p+1] = cosines;
+			}
+		}
+
+		@Override
+		public double valueOfSums(double[] sums, int at)
+		{
+			return base + sums[at] - 10*sums[at+1];
+		}
+
+		@Override
+		public double absoluteSum(double[] sums, int at, int s)
+		{
+			// squares are positive, cosines at most 1
+			return s==0 ? Math.abs(sums[at]) : dim;
+		}
+
+		@Override
+		public double roundingOfValue(double value)
+		{
+			return ROUNDING_ERROR*(Math.abs(value)+base);
+		}
+	}
+
+	/**
+	* <i>Rosenbrock Function</i>, bounds [-5, 10] and minimum 0 at (1, ..., 1).
+	* @since 1.1
+	*/
+	public static class Rosenbrock extends BenchmarkFunction implements SeparableFunction{
+		public Rosenbrock(int dim)
+		{
+			super(dim, -5, 10);
+		}
+
+		@Override
+		protected double value(double[] x, int offset)
+		{
+			return kernels.rosenbrock(x, offset, offset+dim);
+		}
+
+		/**
+		* Term of the gene <i>xi</i> and its successor <i>next</i>.
+		*/
+		private static double term(double xi, double next)
+		{
+			double a = next - xi*xi;
+			double b = xi - 1;
+			return 100*a*a + b*b;
+		}
+
+		@Override
+		public int partialSums()
+		{
+			return 1;
+		}
+
+		@Override
+		public void partialSums(double[] x, int offset, double[] sums, int at)
+		{
+			sums[at] = value(x, offset);
+		}
+
+		@Override
+		public void updatePartialSums(double[] x, int offset, int gene, double previous, double[] sums, int at)
+		{
+			// the gene is part of the term of its predecessor and of its own term
+			int i = offset+gene;
+			double delta = 0;
+			if(gene>0)
+				delta += term(x[i-1], x[i]) - term(x[i-1], previous);
+			if(gene<dim-1)
+				delta += term(x[i], x[i+1]) - term(previous, x[i+1]);
+			sums[at] += delta;
+		}
+
+		@Override
+		public void prefixSums(double[] x, int offset, double[] prefix, int at)
+		{
+			double sum = 0;
+			prefix[at] = 0;
+			for(int j=0;j<dim;j++)
+			{
+				if(j<dim-1)
+					sum += term(x[offset+j], x[offset+j+1]);
+				prefix[at+j+1] = sum;
+			}
+		}
+
+		@Override
+		public void joinPartialSums(double[] x, int head, int tail, int cross, double[] sums, int at)
+		{
+			// the term of the last gene of the head belongs to the head parent, but pairs it with the first gene of the tail
+			if(cross>0 && cross<dim)
+				sums[at] += term(x[head+cross-1], x[tail+cross]) - term(x[head+cross-1], x[head+cross]);
+		}
+
+		@Override
+		public double valueOfSums(double[] sums, int at)
+		{
+			return sums[at];
+		}
+
+		@Override
+		public double absoluteSum(double[] sums, int at, int s)
+		{
+			// all terms are positive
+			return Math.abs(sums[at]);
+		}
+	}
+
+	/**
+	* <i>Griewank Function</i>, bounds [-600, 600] and minimum 0 at origin.
+	* @since 1.1
+	*/
+	public static class Griewank extends BenchmarkFunction{
+		/**
+		* <i>1/sqrt(i+1)</i> for every dimension, computed once instead of per evaluation.
+		*/
+		private final double[] invSqrt;
+
+		public Griewank(int dim)
+		{
+			super(dim, -600, 600);
+			invSqrt = new double[dim];
+			for(int i=0;i<dim;i++)
+				invSqrt[i] = 1/Math.sqrt(i+1);
+		}
+
+		@Override
+		protected double value(double[] x, int offset)
+		{
+			int end = offset+dim;
+			return kernels.squares(x, offset, end)/4000 - kernels.cosineProduct(x, offset, end, invSqrt) + 1;
+		}
+	}
+
+	/**
+	* <i>Schwefel Function</i>, bounds [-500, 500] and minimum 0 at (420.9687, ..., 420.9687).
+	* @since 1.1
+	*/
+	public static class Schwefel extends BenchmarkFunction implements SeparableFunction{
+		private final double base;
+
+		public Schwefel(int dim)
+		{
+			super(dim, -500, 500);
+			base = 418.9828872724338*dim;
+		}
+
+		@Override
+		protected double value(double[] x, int offset)
+		{
+			return base - kernels.schwefel(x, offset, offset+dim);
+		}
+
+		@Override
+		public int partialSums()
+		{
+			return 1;
+		}
+
+		@Override
+		public void partialSums(double[] x, int offset, double[] sums, int at)
+		{
+			sums[at] = kernels.schwefel(x, offset, offset+dim);
+		}
+
+		@Override
+		public void updatePartialSums(double[] x, int offset, int gene, double previous, double[] sums, int at)
+		{
+			double xi = x[offset+gene];
+			sums[at] += xi*kernels.sine(Math.sqrt(Math.abs(xi))) - previous*kernels.sine(Math.sqrt(Math.abs(previous)));
+		}
+
+		@Override
+		public void prefixSums(double[] x, int offset, double[] prefix, int at)
+		{
+			double sum = 0;
+			prefix[at] = 0;
+			for(int j=0;j<dim;j++)
+			{
+				double xi = x[offset+j];
+				sum += xi*kernels.sine(Math.sqrt(Math.abs(xi)));
+				prefix[at+j+1] = sum;
+			}
+		}
+
+		@Override
+		public double valueOfSums(double[] sums, int at)
+		{
+			return base - sums[at];
+		}
+
+		@Override
+		public double absoluteSum(double[] sums, int at, int s)
+		{
+			// every term is at most its gene
+			return Math.max(-lBound, uBound)*dim;
+		}
+
+		@Override
+		public double roundingOfValue(double value)
+		{
+			return ROUNDING_ERROR*(Math.abs(value)+base);
+		}
+	}
+
+	/**
+	* <i>Ackley's Function</i> as coded originally in this project, bounds [-35, 35] and minimum 0 at origin.
+	* @since 1.1
+	*/
+	public static class Ackley extends BenchmarkFunction implements SeparableFunction{
+		private static final double BASE = 20+Math.exp(1);
+
+		public Ackley(int dim)
+		{
+			super(dim, -35, 35);
+		}
+
+		@Override
+		protected double value(double[] x, int offset)
+		{
+			int end = offset+dim;
+			return value(kernels.squares(x, offset, end), kernels.cosines(x, offset, end, 1));
+		}
+
+		/**
+		* Function value from the sum of squares <i>termA</i> and the sum of cosines <i>termB</i>.
+		*/
+		private double value(double termA, double termB)
+		{
+			double finalTermA = 20*Math.exp(-0.02*Math.sqrt(termA/dim));
+			double finalTermB = Math.exp(termB/dim);
+			return BASE-finalTermA-finalTermB;
+		}
+
+		@Override
+		public int partialSums()
+		{
+			return 2;
+		}
+
+		@Override
+		public void partialSums(double[] x, int offset, double[] sums, int at)
+		{
+			int end = offset+dim;
+			sums[at] = kernels.squares(x, offset, end);
+			sums[at+1] = kernels.cosines(x, offset, end, 1);
+		}
+
+		@Override
+		public void updatePartialSums(double[] x, int offset, int gene, double previous, double[] sums, int at)
+		{
+			double xi = x[offset+gene];
+			sums[at] += xi*xi - previous*previous;
+			sums[at+1] += kernels.cosine(xi) - kernels.cosine(previous);
+		}
+
+		@Override
+		public void prefixSums(double[] x, int offset, double[] prefix, int at)
+		{
+			double squares = 0, cosines = 0;
+			prefix[at] = 0;
+			prefix[at+1] = 0;
+			for(int j=0, p=at+2;j<dim;j++, p+=2)
+			{
+				double xi = x[offset+j];
+				squares += xi*xi;
+				cosines += kernels.cosine(xi);
+				prefix[p] = squares;
+				prefix[p+1] = cosines;
+			}
+		}
+
+		@Override
+		public double valueOfSums(double[] sums, int at)
+		{
+			return value(sums[at], sums[at+1]);
+		}
+
+		@Override
+		public double absoluteSum(double[] sums, int at, int s)
+		{
+			// squares are positive, cosines at most 1
+			return s==0 ? Math.abs(sums[at]) : dim;
+		}
+
+		@Override
+		public double roundingOfValue(double value)
+		{
+			// both exponential terms are at most BASE
+			return ROUNDING_ERROR*(Math.abs(value)+2*BASE);
+		}
+	}
+
+	/**
+	* <i>Levy Function</i>, bounds [-10, 10] and minimum 0 at (1, ..., 1).
+	* @since 1.1
+	*/
+	public static class Levy extends BenchmarkFunction implements SeparableFunction{
+		public Levy(int dim)
+		{
+			super(dim, -10, 10);
+		}
+
+		@Override
+		protected double value(double[] x, int offset)
+		{
+			int last = offset+dim-1;
+			double w = 1 + (x[offset]-1)/4;
+			double s = kernels.sine(Math.PI*w);
+			double sum = s*s + kernels.levy(x, offset, last);
+			w = 1 + (x[last]-1)/4;
+			s = kernels.sine(2*Math.PI*w);
+			return sum + (w-1)*(w-1)*(1+s*s);
+		}
+
+		/**
+		* Terms of gene <i>gene</i> with value <i>xi</i>, the first and the last gene have extra terms.
+		*/
+		private double terms(int gene, double xi)
+		{
+			double w = 1 + (xi-1)/4;
+			double t = 0;
+			if(gene==0)
+			{
+				double s = kernels.sine(Math.PI*w);
+				t += s*s;
+			}
+			if(gene<dim-1)
+			{
+				double s = kernels.sine(Math.PI*w+1);
+				t += (w-1)*(w-1)*(1+10*s*s);
+			}
+			else
+			{
+				double s = kernels.sine(2*Math.PI*w);
+				t += (w-1)*(w-1)*(1+s*s);
+			}
+			return t;
+		}
+
+		@Override
+		public int partialSums()
+		{
+			return 1;
+		}
+
+		@Override
+		public void partialSums(double[] x, int offset, double[] sums, int at)
+		{
+			sums[at] = value(x, offset);
+		}
+
+		@Override
+		public void updatePartialSums(double[] x, int offset, int gene, double previous, double[] sums, int at)
+		{
+			sums[at] += terms(gene, x[offset+gene]) - terms(gene, previous);
+		}
+
+		@Override
+		public void prefixSums(double[] x, int offset, double[] prefix, int at)
+		{
+			double sum = 0;
+			prefix[at] = 0;
+			for(int j=0;j<dim;j++)
+			{
+				sum += terms(j, x[offset+j]);
+				prefix[at+j+1] = sum;
+			}
+		}
+
+		@Override
+		public double valueOfSums(double[] sums, int at)
+		{
+			return sums[at];
+		}
+
+		@Override
+		public double absoluteSum(double[] sums, int at, int s)
+		{
+			// all terms are positive
+			return Math.abs(sums[at]);
+		}
+	}
+
+	/**
+	* <i>Zakharov Function</i>, bounds [-5, 10] and minimum 0 at origin.
+	* @since 1.1
+	*/
+	public static class Zakharov extends BenchmarkFunction implements SeparableFunction{
+		public Zakharov(int dim)
+		{
+			super(dim, -5, 10);
+		}
+
+		@Override
+		protected double value(double[] x, int offset)
+		{
+			int end = offset+dim;
+			return value(kernels.squares(x, offset, end), kernels.weightedSum(x, offset, end));
+		}
+
+		/**
+		* Function value from the sum of squares and the sum of genes weighted by their position.
+		*/
+		private static double value(double sumSq, double weighted)
+		{
+			double sumW = 0.5*weighted;
+			double w2 = sumW*sumW;
+			return sumSq + w2 + w2*w2;
+		}
+
+		@Override
+		public int partialSums()
+		{
+			return 2;
+		}
+
+		@Override
+		public void partialSums(double[] x, int offset, double[] sums, int at)
+		{
+			int end = offset+dim;
+			sums[at] = kernels.squares(x, offset, end);
+			sums[at+1] = kernels.weightedSum(x, offset, end);
+		}
+
+		@Override
+		public void updatePartialSums(double[] x, int offset, int gene, double previous, double[] sums, int at)
+		{
+			double xi = x[offset+gene];
+			sums[at] += xi*xi - previous*previous;
+			sums[at+1] += (gene+1)*(xi-previous);
+		}
+
+		@Override
+		public void prefixSums(double[] x, int offset, double[] prefix, int at)
+		{
+			double squares = 0, weighted = 0;
+			prefix[at] = 0;
+			prefix[at+1] = 0;
+			for(int j=0, p=at+2;j<dim;j++, p+=2)
+			{
+				double xi = x[offset+j];
+				squares += xi*xi;
+				weighted += (j+1)*xi;
+				prefix[p] = squares;
+				prefix[p+1] = weighted;
+			}
+		}
+
+		@Override
+		public double valueOfSums(double[] sums, int at)
+		{
+			return value(sums[at], sums[at+1]);
+		}
+
+		@Override
+		public double absoluteSum(double[] sums, int at, int s)
+		{
+			if(s==0)
+				return Math.abs(sums[at]);
+			// Cauchy-Schwarz bounds the weighted genes with the sum of squares, sum (j+1)^2 = dim(dim+1)(2dim+1)/6
+			return Math.sqrt(Math.abs(sums[at])*dim*(dim+1.0)*(2.0*dim+1)/6);
+		}
+	}
+}
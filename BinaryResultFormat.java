@@ -0,0 +1,681 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+* This class is a compact binary result format. Records are collected into blocks of up to <i>BLOCK_ROWS</i> rows, every block stores
+* the iteration, fitness, evaluation count and time of its rows as fixed-width columns followed by the chromosome of every row
+* delta-encoded against the chromosome of the previous row, i.e. nothing when it did not change, only the changed genes when few of them changed
+* and all genes otherwise. Blocks are optionally compressed with Deflater.
+* <p>
+* Layout, all numbers big-endian:
+* <ul>
+* <li>file header - magic <i>OARB</i>, <i>short</i> version, <i>byte</i> flags (1 = deflate), <i>int</i> dim</li>
+* <li>block header - <i>int</i> rows, <i>int</i> raw length, <i>int</i> stored length, followed by the stored bytes</li>
+* <li>raw block - <i>int</i> iteration[rows], <i>double</i> fitness[rows], <i>long</i> funEval[rows], <i>long</i> nanos[rows],
+* then per row a <i>byte</i> kind: 0 unchanged, 1 sparse with <i>int</i> count and count times <i>int</i> index, <i>double</i> value, 2 dense with dim <i>double</i> values</li>
+* </ul>
+* The main method converts a binary result file back into the <i>.csv</i> layout.
+* @author Ashish Rana
+* @version 1.1
+* @see ResultFormat
+* @since 1.1
+*/
+
+public class BinaryResultFormat implements ResultFormat{
+
+	/**
+	* First bytes of every binary result file, <i>OARB</i>.
+	* @since 1.1
+	*/
+	static final int MAGIC = 0x4F415242;
+	/**
+	* Version of the layout.
+	* @since 1.1
+	*/
+	static final short VERSION = 1;
+	/**
+	* Flag of deflate compressed blocks.
+	* @since 1.1
+	*/
+	static final byte FLAG_DEFLATE = 1;
+	/**
+	* Maximum number of rows per block.
+	* @since 1.1
+	*/
+	static final int BLOCK_ROWS = 4096;
+	/**
+	* Length of the file header, i.e. the byte offset of the first block.
+	* @since 1.1
+	*/
+	static final int HEADER_LENGTH = 11;
+	/**
+	* Chromosome kinds of a row.
+	* @since 1.1
+	*/
+	static final byte UNCHANGED = 0, SPARSE = 1, DENSE = 2;
+
+	/**
+	* Whether blocks are compressed with Deflater.
+	* @since 1.1
+	*/
+	private final boolean compressed;
+
+	/**
+	* This creates the format.
+	* @param compressed This is <i>true</i> for deflate compressed blocks
+	* @since 1.1
+	*/
+	public BinaryResultFormat(boolean compressed)
+	{
+		this.compressed = compressed;
+	}
+
+	/**
+	* This method replaces the <i>.csv</i> extension of the file name with <i>.oarb</i>.
+	* @param resultFileName This is the result file name of the run
+	* @return String File name for this format
+	* @since 1.1
+	*/
+	@Override
+	public String fileName(String resultFileName)
+	{
+		return (resultFileName.endsWith(".csv") ? resultFileName.substring(0, resultFileName.length()-4) : resultFileName)+".oarb";
+	}
+
+	@Override
+	public Encoder open(OutputStream out, int dim) throws IOException
+	{
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeShort(VERSION);
+		data.writeByte(compressed ? FLAG_DEFLATE : 0);
+		data.writeInt(dim);
+		return new BlockEncoder(data, dim, compressed);
+	}
+
+	@Override
+	public String toString()
+	{
+		return compressed ? "binary-deflate" : "binary";
+	}
+
+	/**
+	* This class collects the rows of one file into blocks and writes every full block.
+	* @since 1.1
+	*/
+	private static final class BlockEncoder implements Encoder{
+		/**
+		* Stream of the file.
+		* @since 1.1
+		*/
+		private final DataOutputStream out;
+		/**
+		* Number of dimensions of every chromosome.
+		* @since 1.1
+		*/
+		private final int dim;
+		/**
+		* Compressor of the blocks or <code>null</code>.
+		* @since 1.1
+		*/
+		private final Deflater deflater;
+		/**
+		* Iteration column of the current block.
+		* @since 1.1
+		*/
+		private final int[] iterations = new int[BLOCK_ROWS];
+		/**
+		* Fitness column of the current block.
+		* @since 1.1
+		*/
+		private final double[] fitness = new double[BLOCK_ROWS];
+		/**
+		* Function evaluation column of the current block.
+		* @since 1.1
+		*/
+		private final long[] funEvals = new long[BLOCK_ROWS];
+		/**
+		* Time column of the current block.
+		* @since 1.1
+		*/
+		private final long[] nanos = new long[BLOCK_ROWS];
+		/**
+		* Number of rows in the current block.
+		* @since 1.1
+		*/
+		private int rows;
+		/**
+		* Delta-encoded chromosomes of the rows of the current block.
+		* @since 1.1
+		*/
+		private ByteBuffer chromosomes;
+		/**
+		* Chromosome of the previous row, <code>null</code> before the first row.
+		* @since 1.1
+		*/
+		private double[] previous;
+		/**
+		* Reused buffer of the raw block.
+		* @since 1.1
+		*/
+		private ByteBuffer raw;
+		/**
+		* Reused buffer of the compressed block.
+		* @since 1.1
+		*/
+		private byte[] stored = new byte[0];
+
+		BlockEncoder(DataOutputStream out, int dim, boolean compressed)
+		{
+			this.out = out;
+			this.dim = dim;
+			this.deflater = compressed ? new Deflater(Deflater.BEST_SPEED) : null;
+			this.chromosomes = ByteBuffer.allocate(Math.max(1024, 16*(8*dim+1)));
+		}
+
+		@Override
+		public void append(int iteration, long funEval, long nanos, double fitness, double[] x, int offset) throws IOException
+		{
+			iterations[rows] = iteration;
+			this.fitness[rows] = fitness;
+			funEvals[rows] = funEval;
+			this.nanos[rows] = nanos;
+			rows++;
+			encodeChromosome(x, offset);
+
+			if(rows==BLOCK_ROWS)
+				writeBlock();
+		}
+
+		/**
+		* This method appends the chromosome delta-encoded against the previous one.
+		* A changed gene costs 12 bytes sparse and 8 bytes dense, so the sparse form is used while fewer than two thirds of the genes changed.
+		* @param x This is the array holding the chromosome
+		* @param offset This is the index of the first gene in <i>x</i>
+		* @since 1.1
+		*/
+		private void encodeChromosome(double[] x, int offset)
+		{
+			int changed = dim;
+			if(previous!=null)
+			{
+				changed = 0;
+				for(int j=0;j<dim;j++)
+				{
+					if(Double.doubleToRawLongBits(x[offset+j])!=Double.doubleToRawLongBits(previous[j]))
+						changed++;
+				}
+			}
+			else
+				previous = new double[dim];
+
+			if(changed==0)
+			{
+				ensure(1);
+				chromosomes.put(UNCHANGED);
+			}
+			else if(changed*12<dim*8)
+			{
+				ensure(5+12*changed);
+				chromosomes.put(SPARSE).putInt(changed);
+				for(int j=0;j<dim;j++)
+				{
+					double v = x[offset+j];
+					if(Double.doubleToRawLongBits(v)!=Double.doubleToRawLongBits(previous[j]))
+					{
+						chromosomes.putInt(j).putDouble(v);
+						previous[j] = v;
+					}
+				}
+			}
+			else
+			{
+				ensure(1+8*dim);
+				chromosomes.put(DENSE);
+				for(int j=0;j<dim;j++)
+					chromosomes.putDouble(x[offset+j]);
+				System.arraycopy(x, offset, previous, 0, dim);
+			}
+		}
+
+		/**
+		* This method grows the chromosome buffer so that it has room for the given number of bytes.
+		* @param bytes This is the number of bytes to be appended
+		* @since 1.1
+		*/
+		private void ensure(int bytes)
+		{
+			if(chromosomes.remaining()<bytes)
+			{
+				ByteBuffer grown = ByteBuffer.allocate(Math.max(chromosomes.capacity()*2, chromosomes.position()+bytes));
+				chromosomes.flip();
+				grown.put(chromosomes);
+				chromosomes = grown;
+			}
+		}
+
+		/**
+		* This method writes the rows of the current block as columns followed by their chromosomes, compressed when selected.
+		* @exception IOException If the file can not be written
+		* @since 1.1
+		*/
+		private void writeBlock() throws IOException
+		{
+			if(rows==0)
+				return;
+
+			int rawLength = rows*(4+8+8+8)+chromosomes.position();
+			if(raw==null || raw.capacity()<rawLength)
+				raw = ByteBuffer.allocate(rawLength);
+			raw.clear();
+			for(int r=0;r<rows;r++)
+				raw.putInt(iterations[r]);
+			for(int r=0;r<rows;r++)
+				raw.putDouble(fitness[r]);
+			for(int r=0;r<rows;r++)
+				raw.putLong(funEvals[r]);
+			for(int r=0;r<rows;r++)
+				raw.putLong(nanos[r]);
+			raw.put(chromosomes.array(), 0, chromosomes.position());
+
+			byte[] bytes = raw.array();
+			int storedLength = rawLength;
+			if(deflater!=null)
+			{
+				deflater.reset();
+				deflater.setInput(bytes, 0, rawLength);
+				deflater.finish();
+				int bound = rawLength+rawLength/1000+64;
+				if(stored.length<bound)
+					stored = new byte[bound];
+				storedLength = 0;
+				while(!deflater.finished())
+				{
+					if(storedLength==stored.length)
+						stored = Arrays.copyOf(stored, stored.length*2);
+					storedLength += deflater.deflate(stored, storedLength, stored.length-storedLength);
+				}
+				bytes = stored;
+			}
+
+			out.writeInt(rows);
+			out.writeInt(rawLength);
+			out.writeInt(storedLength);
+			out.write(bytes, 0, storedLength);
+			rows = 0;
+			chromosomes.clear();
+		}
+
+		@Override
+		public void finish() throws IOException
+		{
+			writeBlock();
+			out.flush();
+			if(deflater!=null)
+				deflater.end();
+		}
+	}
+
+	/**
+	* This class reads the rows of a binary result file one after the other.
+	* @since 1.1
+	*/
+	public static final class Reader implements Closeable{
+		/**
+		* Stream of the file.
+		* @since 1.1
+		*/
+		private final DataInputStream in;
+		/**
+		* Number of dimensions of every chromosome.
+		* @since 1.1
+		*/
+		private final int dim;
+		/**
+		* Decompressor of the blocks or <code>null</code>.
+		* @since 1.1
+		*/
+		private final Inflater inflater;
+		/**
+		* Raw bytes of the current block.
+		* @since 1.1
+		*/
+		private ByteBuffer block;
+		/**
+		* Reused buffer of the stored bytes of compressed blocks.
+		* @since 1.1
+		*/
+		private byte[] stored = new byte[0];
+		/**
+		* Number of rows of the current block.
+		* @since 1.1
+		*/
+		private int rows;
+		/**
+		* Index of the current row in the current block.
+		* @since 1.1
+		*/
+		private int row = -1;
+		/**
+		* Iteration number of the current row.
+		* @since 1.1
+		*/
+		private int iteration;
+		/**
+		* Best fitness value of the current row.
+		* @since 1.1
+		*/
+		private double fitness;
+		/**
+		* Function evaluations of the current row.
+		* @since 1.1
+		*/
+		private long funEval;
+		/**
+		* Time of the current row since the start of the run.
+		* @since 1.1
+		*/
+		private long nanos;
+		/**
+		* Chromosome of the current row.
+		* @since 1.1
+		*/
+		private final double[] chromosome;
+		/**
+		* Byte offset of the block of the current row in the file.
+		* @since 1.1
+		*/
+		private long blockOffset = -1;
+		/**
+		* Byte offset of the next block in the file.
+		* @since 1.1
+		*/
+		private long position = HEADER_LENGTH;
+
+		/**
+		* This opens the file and reads its header.
+		* @param fileName This is the binary result file name
+		* @exception IOException If the file can not be read or is not a binary result file
+		* @since 1.1
+		*/
+		public Reader(String fileName) throws IOException
+		{
+			this(fileName, HEADER_LENGTH, null);
+		}
+
+		/**
+		* This opens the file at a block, the chromosome of its first row has to be known, e.g. from an earlier pass over the file.
+		* Decoding the first row again over its own chromosome gives it back, as changed genes are stored with their values.
+		* @param fileName This is the binary result file name
+		* @param blockOffset This is the byte offset of the block, see <i>getBlockOffset</i>
+		* @param firstChromosome This is the chromosome of the first row of the block, <code>null</code> at the first block
+		* @exception IOException If the file can not be read or is not a binary result file
+		* @since 1.1
+		*/
+		public Reader(String fileName, long blockOffset, double[] firstChromosome) throws IOException
+		{
+			FileInputStream file = new FileInputStream(fileName);
+			DataInputStream data = new DataInputStream(new BufferedInputStream(file, 1<<16));
+			try{
+				if(data.readInt()!=MAGIC)
+					throw new IOException(fileName+" is not a binary result file");
+				short version = data.readShort();
+				if(version!=VERSION)
+					throw new IOException("Unsupported binary result version "+version);
+				byte flags = data.readByte();
+				dim = data.readInt();
+				if(blockOffset!=HEADER_LENGTH)
+				{
+					// the buffered bytes after the header are dropped, reading goes on at the block
+					file.getChannel().position(blockOffset);
+					data = new DataInputStream(new BufferedInputStream(file, 1<<16));
+					position = blockOffset;
+				}
+				inflater = (flags&FLAG_DEFLATE)!=0 ? new Inflater() : null;
+				chromosome = firstChromosome!=null ? firstChromosome.clone() : new double[dim];
+				if(chromosome.length!=dim)
+					throw new IOException("Chromosome of "+chromosome.length+" genes for "+dim+" dimensions");
+			}
+			catch(IOException e){
+				data.close();
+				throw e;
+			}
+			in = data;
+		}
+
+		/**
+		* This method returns the number of dimensions of the chromosomes.
+		* @return int Number of dimensions
+		* @since 1.1
+		*/
+		public int getDim()
+		{
+			return dim;
+		}
+
+		/**
+		* This method moves to the next row.
+		* @return boolean <i>false</i> when there are no more rows
+		* @exception IOException If the file can not be read or is corrupt
+		* @since 1.1
+		*/
+		public boolean next() throws IOException
+		{
+			if(row+1>=rows && !readBlock())
+				return false;
+			row++;
+
+			iteration = block.getInt(4*row);
+			fitness = block.getDouble(4*rows+8*row);
+			funEval = block.getLong(12*rows+8*row);
+			nanos = block.getLong(20*rows+8*row);
+
+			byte kind = block.get();
+			if(kind==SPARSE)
+			{
+				int changed = block.getInt();
+				for(int k=0;k<changed;k++)
+				{
+					int j = block.getInt();
+					chromosome[j] = block.getDouble();
+				}
+			}
+			else if(kind==DENSE)
+			{
+				for(int j=0;j<dim;j++)
+					chromosome[j] = block.getDouble();
+			}
+			else if(kind!=UNCHANGED)
+				throw new IOException("Corrupt binary result file, chromosome kind "+kind);
+			return true;
+		}
+
+		/**
+		* This method reads the next block and positions the buffer at its first chromosome.
+		* @return boolean <i>false</i> at the end of the file
+		* @exception IOException If the file can not be read or is corrupt
+		* @since 1.1
+		*/
+		private boolean readBlock() throws IOException
+		{
+			int blockRows;
+			try{
+				blockRows = in.readInt();
+			}
+			catch(EOFException e){
+				return false;
+			}
+			int rawLength = in.readInt();
+			int storedLength = in.readInt();
+			if(blockRows<=0 || rawLength<blockRows*28 || storedLength<0)
+				throw new IOException("Corrupt binary result file, block of "+blockRows+" rows");
+			blockOffset = position;
+			position += 12+storedLength;
+
+			if(block==null || block.capacity()<rawLength)
+				block = ByteBuffer.allocate(rawLength);
+			block.clear();
+			if(inflater==null)
+				in.readFully(block.array(), 0, rawLength);
+			else
+			{
+				if(stored.length<storedLength)
+					stored = new byte[storedLength];
+				in.readFully(stored, 0, storedLength);
+				inflater.reset();
+				inflater.setInput(stored, 0, storedLength);
+				try{
+					if(inflater.inflate(block.array(), 0, rawLength)!=rawLength)
+						throw new IOException("Corrupt binary result file, short block");
+				}
+				catch(DataFormatException e){
+					throw new IOException("Corrupt binary result file", e);
+				}
+			}
+			block.limit(rawLength);
+			block.position(28*blockRows);
+			rows = blockRows;
+			row = -1;
+			return true;
+		}
+
+		/**
+		* This method returns the iteration number of the current row.
+		* @return int Iteration
+		* @since 1.1
+		*/
+		public int getIteration()
+		{
+			return iteration;
+		}
+
+		/**
+		* This method returns the best fitness value of the current row.
+		* @return double Fitness value
+		* @since 1.1
+		*/
+		public double getFitness()
+		{
+			return fitness;
+		}
+
+		/**
+		* This method returns the function evaluations of the current row, -1 when unknown.
+		* @return long Function evaluations
+		* @since 1.1
+		*/
+		public long getFunEval()
+		{
+			return funEval;
+		}
+
+		/**
+		* This method returns the time of the current row since the start of the run.
+		* @return long Nanoseconds
+		* @since 1.1
+		*/
+		public long getNanos()
+		{
+			return nanos;
+		}
+
+		/**
+		* This method returns the byte offset of the block of the current row, a Reader opened there continues with the first row of the block.
+		* @return long Byte offset in the file
+		* @since 1.1
+		*/
+		public long getBlockOffset()
+		{
+			return blockOffset;
+		}
+
+		/**
+		* This method returns whether the current row is the first row of its block.
+		* @return boolean <i>true</i> for the first row of a block
+		* @since 1.1
+		*/
+		public boolean isFirstOfBlock()
+		{
+			return row==0;
+		}
+
+		/**
+		* This method returns the chromosome of the current row, the array is reused for the next row.
+		* @return double[] Best chromosome
+		* @since 1.1
+		*/
+		public double[] getChromosome()
+		{
+			return chromosome;
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			if(inflater!=null)
+				inflater.end();
+			in.close();
+		}
+	}
+
+	/**
+	* This method converts a binary result file into the <i>.csv</i> layout.
+	* @param binaryFileName This is the binary result file name
+	* @param csvFileName This is the <i>.csv</i> file name
+	* @return long Number of converted rows
+	* @exception IOException If a file can not be read or written
+	* @since 1.1
+	*/
+	public static long toCsv(String binaryFileName, String csvFileName) throws IOException
+	{
+		long count = 0;
+		try(Reader reader = new Reader(binaryFileName);
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(csvFileName), 1<<16)){
+			Encoder csv = ResultFormat.Csv.INSTANCE.open(out, reader.getDim());
+			while(reader.next())
+			{
+				csv.append(reader.getIteration(), reader.getFunEval(), reader.getNanos(), reader.getFitness(), reader.getChromosome(), 0);
+				count++;
+			}
+			csv.finish();
+		}
+		return count;
+	}
+
+	/**
+	* This the main method which converts a binary result file into the <i>.csv</i> layout,
+	* e.g. <code>java BinaryResultFormat ResultDeAlgorithm.oarb ResultDeAlgorithm.csv</code>.
+	* Without a second argument the <i>.oarb</i> extension is replaced by <i>.csv</i>.
+	* @param args This is the binary file name and optionally the <i>.csv</i> file name
+	* @since 1.1
+	*/
+	public static void main(String[] args)
+	{
+		if(args.length<1)
+		{
+			System.out.println("Usage: java BinaryResultFormat <result.oarb> [result.csv]");
+			return;
+		}
+		String csvFileName = args.length>1 ? args[1] : args[0].replaceFirst("\\.oarb$", "")+".csv";
+		try{
+			long rows = toCsv(args[0], csvFileName);
+			System.out.println(rows+" rows converted into "+csvFileName);
+		}
+		catch(IOException e){
+			e.printStackTrace();
+		}
+	}
+}
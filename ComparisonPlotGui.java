@@ -0,0 +1,596 @@
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import javax.swing.JCheckBox;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+/**
+* This class plots the result files of several algorithms on shared axes with a legend, for comparing their convergence.
+* Result files are loaded in parallel. Repetitions of the same configuration, named <i>&lt;name&gt;-run&lt;n&gt;</i> by ExperimentRunner,
+* are streamed into a RunAggregate one run at a time and drawn as their mean with a band between the 10th and the 90th percentile,
+* single files are drawn as they are. The fitness axis can be switched to a logarithmic scale.
+* @author Ashish Rana
+* @version 1.1
+* @see GraphPlotGui
+* @see RunAggregate
+* @since 1.1
+*/
+
+public class ComparisonPlotGui extends JPanel{
+
+	private static final long serialVersionUID = 1L;
+	/**
+	* Result files compared when none are given.
+	* @since 1.1
+	*/
+	private static final String[] defaultResultFiles = {"ResultGeniticAlgorithm.csv", "ResultDeAlgorithm.csv", "ResultPsoAlgorithm.csv",
+		"ResultRandomizationAlgorithm.csv"};
+	/**
+	* Lower quantile of the band of repeated runs.
+	* @since 1.1
+	*/
+	private static final double lowerQuantile = 0.1;
+	/**
+	* Upper quantile of the band of repeated runs.
+	* @since 1.1
+	*/
+	private static final double upperQuantile = 0.9;
+	/**
+	* Line colors of the curves, used in turn.
+	* @since 1.1
+	*/
+	private static final Color[] palette = {new Color(44, 102, 230), new Color(220, 50, 47), new Color(40, 160, 60), new Color(240, 140, 0),
+		new Color(140, 70, 180), new Color(0, 150, 160), new Color(140, 90, 50), new Color(210, 60, 150)};
+	/**
+	* Stroke of the curves.
+	* @since 1.1
+	*/
+	private static final Stroke GRAPH_STROKE = new BasicStroke(2f);
+	/**
+	* Padding of inner content from the Gui Frame.
+	* @since 1.1
+	*/
+	private static final int padding = 25;
+	/**
+	* Padding of labels from the Gui Frame.
+	* @since 1.1
+	*/
+	private static final int labelPadding = 40;
+	/**
+	* Y-axis divisions on the linear scale.
+	* @since 1.1
+	*/
+	private static final int numberYDivisions = 10;
+	/**
+	* Color of graph grid.
+	* @since 1.1
+	*/
+	private static final Color gridColor = new Color(200, 200, 200, 200);
+
+	/**
+	* Curves plotted.
+	* @since 1.1
+	*/
+	private List<Curve> curves = new ArrayList<>();
+	/**
+	* Whether the fitness axis is logarithmic.
+	* @since 1.1
+	*/
+	private boolean logScale;
+	/**
+	* Offscreen image of the rendered graph, reused by repaints until the curves, the scale or the size change.
+	* @since 1.1
+	*/
+	private BufferedImage plotImage;
+	/**
+	* Whether the offscreen image shows the current curves.
+	* @since 1.1
+	*/
+	private boolean plotImageValid;
+
+	/**
+	* This class is one curve of the comparison, either a single run or the mean of repeated runs with its percentile band.
+	* @since 1.1
+	*/
+	public static final class Curve{
+		/**
+		* Label in the legend.
+		* @since 1.1
+		*/
+		final String label;
+		/**
+		* Points of the line.
+		* @since 1.1
+		*/
+		final ResultSeries line;
+		/**
+		* Lower and upper end of the band at every point of the line, <code>null</code> for a single run.
+		* @since 1.1
+		*/
+		final double[] lower, upper;
+
+		/**
+		* This creates the curve of a single run.
+		* @param label This is the label in the legend
+		* @param line This is the series of the run
+		* @since 1.1
+		*/
+		Curve(String label, ResultSeries line)
+		{
+			this.label = label;
+			this.line = line;
+			this.lower = null;
+			this.upper = null;
+		}
+
+		/**
+		* This creates the curve of repeated runs.
+		* @param aggregate This is the aggregate of the runs
+		* @since 1.1
+		*/
+		Curve(RunAggregate aggregate)
+		{
+			this.label = aggregate.getName()+" ("+aggregate.getRuns()+" runs, mean and "+Math.round(lowerQuantile*100)+"-"
+				+Math.round(upperQuantile*100)+"%)";
+			this.line = aggregate.meanSeries();
+			this.lower = new double[aggregate.size()];
+			this.upper = new double[aggregate.size()];
+			for(int c=0;c<aggregate.size();c++)
+			{
+				lower[c] = aggregate.lower(c);
+				upper[c] = aggregate.upper(c);
+			}
+		}
+	}
+
+	/**
+	* This constructor of class sets the curves to be plotted.
+	* @param curves This is the list of curves
+	* @param logScale This is <i>true</i> for a logarithmic fitness axis
+	* @since 1.1
+	*/
+	public ComparisonPlotGui(List<Curve> curves, boolean logScale)
+	{
+		this.curves = curves;
+		this.logScale = logScale;
+	}
+
+	/**
+	* This method sets the curves to be plotted.
+	* @param curves This is the list of curves
+	* @since 1.1
+	*/
+	public void setCurves(List<Curve> curves)
+	{
+		this.curves = curves;
+		plotImageValid = false;
+		repaint();
+	}
+
+	/**
+	* This method switches the fitness axis between linear and logarithmic scale.
+	* @param logScale This is <i>true</i> for a logarithmic fitness axis
+	* @since 1.1
+	*/
+	public void setLogScale(boolean logScale)
+	{
+		this.logScale = logScale;
+		plotImageValid = false;
+		repaint();
+	}
+
+	/**
+	* This method loads result files in parallel and turns them into curves. Files of the same configuration are aggregated in the order given,
+	* at most two files per thread are held in memory at a time.
+	* @param files This is the list of result files, <i>.csv</i> or <i>.oarb</i>
+	* @param threads This is the number of files loaded concurrently, values below 1 load one file at a time
+	* @param progress This is called with the number of loaded files, it may be <code>null</code>
+	* @return List Curves in the order of the first file of every configuration
+	* @exception IOException If a file can not be read
+	* @exception InterruptedException If the calling thread is interrupted
+	* @see RunAggregate
+	* @since 1.1
+	*/
+	public static List<Curve> load(List<String> files, int threads, IntConsumer progress) throws IOException, InterruptedException
+	{
+		threads = Math.max(1, Math.min(threads, files.size()));
+		Map<String, List<String>> groups = new LinkedHashMap<>();
+		for(String file : files)
+			groups.computeIfAbsent(configurationName(file), k -> new ArrayList<>()).add(file);
+
+		List<String> ordered = new ArrayList<>(files.size());
+		for(List<String> groupFiles : groups.values())
+			ordered.addAll(groupFiles);
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try{
+			ArrayDeque<Future<ResultSeries>> pending = new ArrayDeque<>();
+			List<Curve> curves = new ArrayList<>();
+			int next = 0, loaded = 0;
+			for(Map.Entry<String, List<String>> group : groups.entrySet())
+			{
+				int groupSize = group.getValue().size();
+				RunAggregate aggregate = groupSize>1 ? new RunAggregate(group.getKey(), lowerQuantile, upperQuantile) : null;
+				for(int i=0;i<groupSize;i++)
+				{
+					while(next<ordered.size() && pending.size()<2*threads)
+					{
+						String file = ordered.get(next++);
+						pending.add(pool.submit(() -> ResultFileLoader.load(file, null)));
+					}
+					ResultSeries series;
+					try{
+						series = pending.poll().get();
+					}
+					catch(ExecutionException e){
+						throw e.getCause() instanceof IOException ? (IOException)e.getCause() : new IOException(e.getCause());
+					}
+					if(aggregate!=null)
+						aggregate.add(series);
+					else
+						curves.add(new Curve(group.getKey(), series));
+					if(progress!=null)
+						progress.accept(++loaded);
+				}
+				if(aggregate!=null)
+					curves.add(new Curve(aggregate));
+			}
+			return curves;
+		}
+		finally{
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	* This method returns the name of the configuration of a result file, its name without directory, extension, <i>Result</i> prefix and run number.
+	* @param file This is the result file name
+	* @return String Name of the configuration
+	* @since 1.1
+	*/
+	static String configurationName(String file)
+	{
+		String name = new File(file).getName();
+		int dot = name.lastIndexOf('.');
+		if(dot>0)
+			name = name.substring(0, dot);
+		name = name.replaceFirst("-run\\d+$", "");
+		if(name.startsWith("Result") && name.length()>"Result".length())
+			name = name.substring("Result".length());
+		return name;
+	}
+
+	@Override
+	public Dimension getPreferredSize()
+	{
+		return new Dimension(1000, 500);
+	}
+
+	/**
+	* This method draws the graph from an offscreen image, which is rendered again only when the curves, the scale or the size change.
+	* @param g This is the Graphics object of the panel
+	* @since 1.1
+	*/
+	@Override
+	public void paintComponent(Graphics g)
+	{
+		super.paintComponent(g);
+		Graphics2D g2 = (Graphics2D)g;
+		AffineTransform transform = g2.getTransform();
+		int imageWidth = (int)Math.ceil(getWidth()*transform.getScaleX());
+		int imageHeight = (int)Math.ceil(getHeight()*transform.getScaleY());
+		if(imageWidth<=0 || imageHeight<=0)
+			return;
+
+		if(plotImage==null || plotImage.getWidth()!=imageWidth || plotImage.getHeight()!=imageHeight)
+		{
+			plotImage = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+			plotImageValid = false;
+		}
+		if(!plotImageValid)
+		{
+			Graphics2D imageGraphics = plotImage.createGraphics();
+			try{
+				imageGraphics.setComposite(AlphaComposite.Clear);
+				imageGraphics.fillRect(0, 0, imageWidth, imageHeight);
+				imageGraphics.setComposite(AlphaComposite.SrcOver);
+				imageGraphics.scale(transform.getScaleX(), transform.getScaleY());
+				imageGraphics.setFont(getFont());
+				imageGraphics.setColor(getBackground());
+				imageGraphics.fillRect(0, 0, getWidth(), getHeight());
+				renderPlot(imageGraphics, getWidth(), getHeight());
+			}
+			finally{
+				imageGraphics.dispose();
+			}
+			plotImageValid = true;
+		}
+		g2.drawImage(plotImage, 0, 0, getWidth(), getHeight(), null);
+	}
+
+	/**
+	* This method draws the grid, the axes, the bands and lines of all curves and the legend.
+	* @param g2 This is the Graphics object the graph is drawn with
+	* @param plotWidth This is the width of the area to draw in
+	* @param plotHeight This is the height of the area to draw in
+	* @since 1.1
+	*/
+	void renderPlot(Graphics2D g2, int plotWidth, int plotHeight)
+	{
+		g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		int left = padding+labelPadding, top = padding;
+		int areaWidth = Math.max(1, plotWidth-2*padding-labelPadding), areaHeight = Math.max(1, plotHeight-2*padding-labelPadding);
+		int bottom = top+areaHeight;
+
+		// shared ranges of all curves
+		double xFirst = Double.MAX_VALUE, xLast = -Double.MAX_VALUE;
+		double floor = Double.MAX_VALUE;
+		for(Curve curve : curves)
+		{
+			if(curve.line.size()==0)
+				continue;
+			xFirst = Math.min(xFirst, curve.line.iteration(0));
+			xLast = Math.max(xLast, curve.line.iteration(curve.line.size()-1));
+			floor = Math.min(floor, smallestPositive(curve.line.fitness(), curve.line.size()));
+			if(curve.lower!=null)
+				floor = Math.min(floor, smallestPositive(curve.lower, curve.lower.length));
+		}
+		boolean empty = xFirst>xLast;
+		if(floor==Double.MAX_VALUE)
+			floor = 1;
+		double yLow = Double.MAX_VALUE, yHigh = -Double.MAX_VALUE;
+		for(Curve curve : curves)
+		{
+			for(int i=0;i<curve.line.size();i++)
+			{
+				double y = scale(curve.line.fitness(i), floor);
+				double low = curve.lower!=null ? scale(curve.lower[i], floor) : y;
+				double high = curve.upper!=null ? scale(curve.upper[i], floor) : y;
+				yLow = Math.min(yLow, Math.min(y, low));
+				yHigh = Math.max(yHigh, Math.max(y, high));
+			}
+		}
+		if(logScale && !empty)
+		{
+			yLow = Math.floor(yLow);
+			yHigh = Math.max(Math.ceil(yHigh), yLow+1);
+		}
+		double xScale = xLast>xFirst ? areaWidth/(xLast-xFirst) : 0;
+		double yScale = yHigh>yLow ? areaHeight/(yHigh-yLow) : 0;
+
+		g2.setColor(Color.WHITE);
+		g2.fillRect(left, top, areaWidth, areaHeight);
+		FontMetrics metrics = g2.getFontMetrics();
+
+		// grid lines and labels of the y axis, one per decade on the logarithmic scale
+		if(!empty)
+		{
+			int divisions = logScale ? (int)Math.min(yHigh-yLow, 20) : numberYDivisions;
+			for(int i=0;i<=divisions;i++)
+			{
+				double value = yLow+(yHigh-yLow)*i/divisions;
+				int y = (int)(bottom-(value-yLow)*yScale);
+				g2.setColor(gridColor);
+				g2.drawLine(left+1, y, left+areaWidth, y);
+				g2.setColor(Color.BLACK);
+				String yLabel = logScale ? "1e"+Math.round(value) : ((long)(value*100))/100.0+"";
+				g2.drawString(yLabel, left-metrics.stringWidth(yLabel)-5, y+metrics.getHeight()/2-3);
+				g2.drawLine(left, y, left+3, y);
+			}
+
+			// and for x axis, labelled at round iteration numbers which fit next to each other
+			int maxLabels = Math.max(1, Math.min(20, areaWidth/(metrics.stringWidth((long)xLast+"")+10)));
+			long step = GraphPlotGui.tickStep((xLast-xFirst)/maxLabels);
+			for(long tick=(long)Math.ceil(xFirst/step)*step;tick<=xLast;tick+=step)
+			{
+				int x = (int)((tick-xFirst)*xScale+left);
+				g2.setColor(gridColor);
+				g2.drawLine(x, bottom-1, x, top);
+				g2.setColor(Color.BLACK);
+				String xLabel = tick+"";
+				g2.drawString(xLabel, x-metrics.stringWidth(xLabel)/2, bottom+metrics.getHeight()+3);
+				g2.drawLine(x, bottom, x, bottom-3);
+			}
+		}
+
+		g2.setColor(Color.BLACK);
+		g2.drawLine(left, bottom, left, top);
+		g2.drawLine(left, bottom, left+areaWidth, bottom);
+
+		// bands below all lines, then the lines
+		for(int k=0;k<curves.size();k++)
+		{
+			Curve curve = curves.get(k);
+			if(curve.lower==null || curve.line.size()==0)
+				continue;
+			int n = curve.line.size();
+			int[] xPoints = new int[2*n];
+			int[] yPoints = new int[2*n];
+			for(int i=0;i<n;i++)
+			{
+				int x = (int)((curve.line.iteration(i)-xFirst)*xScale+left);
+				xPoints[i] = x;
+				yPoints[i] = (int)(bottom-(scale(curve.upper[i], floor)-yLow)*yScale);
+				xPoints[2*n-1-i] = x;
+				yPoints[2*n-1-i] = (int)(bottom-(scale(curve.lower[i], floor)-yLow)*yScale);
+			}
+			Color color = palette[k%palette.length];
+			g2.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 50));
+			g2.fillPolygon(xPoints, yPoints, 2*n);
+		}
+
+		Stroke oldStroke = g2.getStroke();
+		g2.setStroke(GRAPH_STROKE);
+		for(int k=0;k<curves.size();k++)
+		{
+			ResultSeries line = curves.get(k).line;
+			int[] selected = new int[(int)Math.min(line.size(), 4L*(areaWidth+2))];
+			int points = Downsampler.m4(line.iterations(), line.fitness(), 0, line.size(), xFirst, xScale, selected);
+			int[] xPoints = new int[points];
+			int[] yPoints = new int[points];
+			for(int j=0;j<points;j++)
+			{
+				int i = selected[j];
+				xPoints[j] = (int)((line.iteration(i)-xFirst)*xScale+left);
+				yPoints[j] = (int)(bottom-(scale(line.fitness(i), floor)-yLow)*yScale);
+			}
+			g2.setColor(palette[k%palette.length]);
+			g2.drawPolyline(xPoints, yPoints, points);
+		}
+		g2.setStroke(oldStroke);
+
+		// legend in the upper right corner
+		int legendWidth = 0;
+		for(Curve curve : curves)
+			legendWidth = Math.max(legendWidth, metrics.stringWidth(curve.label));
+		legendWidth += 40;
+		int lineHeight = metrics.getHeight()+2;
+		int legendX = left+areaWidth-legendWidth-10, legendY = top+10;
+		if(!curves.isEmpty())
+		{
+			g2.setColor(new Color(255, 255, 255, 220));
+			g2.fillRect(legendX, legendY, legendWidth, lineHeight*curves.size()+8);
+			g2.setColor(gridColor);
+			g2.drawRect(legendX, legendY, legendWidth, lineHeight*curves.size()+8);
+		}
+		for(int k=0;k<curves.size();k++)
+		{
+			int y = legendY+4+lineHeight*k+lineHeight/2;
+			g2.setColor(palette[k%palette.length]);
+			g2.setStroke(GRAPH_STROKE);
+			g2.drawLine(legendX+8, y, legendX+28, y);
+			g2.setStroke(oldStroke);
+			g2.setColor(Color.BLACK);
+			g2.drawString(curves.get(k).label, legendX+34, y+metrics.getAscent()/2-1);
+		}
+	}
+
+	/**
+	* This method maps a fitness value onto the y axis, on the logarithmic scale values below the floor are drawn at the floor.
+	* @param value This is the fitness value
+	* @param floor This is the smallest positive value of all curves
+	* @return double Position on the y axis
+	* @since 1.1
+	*/
+	private double scale(double value, double floor)
+	{
+		return logScale ? Math.log10(Math.max(value, floor)) : value;
+	}
+
+	/**
+	* This method returns the smallest positive value of the first <i>n</i> values.
+	* @param values This is the array of values
+	* @param n This is the number of values
+	* @return double Smallest positive value or <i>Double.MAX_VALUE</i> if there is none
+	* @since 1.1
+	*/
+	private static double smallestPositive(double[] values, int n)
+	{
+		double min = Double.MAX_VALUE;
+		for(int i=0;i<n;i++)
+		{
+			if(values[i]>0 && values[i]<min)
+				min = values[i];
+		}
+		return min;
+	}
+
+	/**
+	* This the main method which compares the given result files and directories, by default the result files of the four algorithms.
+	* The fitness axis starts logarithmic with the <i>logScale</i> system property and can be switched in the window, the <i>threads</i>
+	* system property sets the number of files loaded concurrently.
+	* @param args Result files and directories of result files
+	* @since 1.1
+	*/
+	public static void main(String[] args)
+	{
+		List<String> files = new ArrayList<>();
+		if(args.length>0)
+			files = ResultFileLoader.resultFiles(args);
+		else
+		{
+			for(String file : defaultResultFiles)
+			{
+				if(new File(file).isFile())
+					files.add(file);
+			}
+		}
+		List<String> resultFiles = files;
+		int threads = Integer.getInteger("threads", Runtime.getRuntime().availableProcessors());
+		boolean logScale = Boolean.getBoolean("logScale");
+
+		SwingUtilities.invokeLater(() -> {
+			ComparisonPlotGui mainPanel = new ComparisonPlotGui(new ArrayList<>(), logScale);
+			JCheckBox logBox = new JCheckBox("Log scale", logScale);
+			logBox.addActionListener(e -> mainPanel.setLogScale(logBox.isSelected()));
+			JProgressBar progressBar = new JProgressBar(0, Math.max(1, resultFiles.size()));
+			progressBar.setStringPainted(true);
+			JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+			controls.add(logBox);
+			controls.add(progressBar);
+
+			JFrame frame = new JFrame("Comparison");
+			frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+			frame.getContentPane().add(mainPanel, BorderLayout.CENTER);
+			frame.getContentPane().add(controls, BorderLayout.SOUTH);
+			frame.pack();
+			frame.setLocationRelativeTo(null);
+			frame.setVisible(true);
+
+			new SwingWorker<List<Curve>, Integer>(){
+				@Override
+				protected List<Curve> doInBackground() throws Exception
+				{
+					return load(resultFiles, threads, loaded -> publish(loaded));
+				}
+
+				@Override
+				protected void process(List<Integer> loaded)
+				{
+					progressBar.setValue(loaded.get(loaded.size()-1));
+				}
+
+				@Override
+				protected void done()
+				{
+					progressBar.setVisible(false);
+					try{
+						mainPanel.setCurves(get());
+					}
+					catch(InterruptedException e){
+						Thread.currentThread().interrupt();
+					}
+					catch(ExecutionException e){
+						e.getCause().printStackTrace();
+					}
+				}
+			}.execute();
+		});
+	}
+}
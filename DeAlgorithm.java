@@ -1,11 +1,8 @@
-import java.util.ArrayList;
-import java.io.FileWriter;
-import java.io.IOException;
 
 /**
 * This class uses the fitness function to evaluate the chromosomes with differential evolution's algorithmic equation. Algorithmic equation uses the current best chromosome's and current chromosome's dimensions to create newer chromosome offspring.
 * Also, it writes iterations of improved chromosomes into a file with ending on best chromosome iteration.
-* This class also extends FitnessFunction class for using fitness function, lower and upper bounds plus dimensions specified in it.
+* This class uses the FitnessFunction selected for the run, see BenchmarkFunction, for fitness function, lower and upper bounds plus dimensions specified in it.
 * @author Ashish Rana
 * @version 1.0
 * @see FitnessFunction
@@ -13,7 +10,7 @@ import java.io.IOException;
 */
 
 
-public class DeAlgorithm extends FitnessFunction
+public class DeAlgorithm extends OptimizationAlgorithm
 {
 	/**
 	* Name of the algorithm being used.	
@@ -34,138 +31,124 @@ public class DeAlgorithm extends FitnessFunction
 	* Number of iterations in algorithms.	
 	* @since 1.0
 	*/
-	private final static int iterNumber = 2000;	// Iteration Number
+	private final static int defaultIterNumber = 2000;	// Iteration Number
 	/**
-	* Size of population in algorithm.	
+	* Default size of population in algorithm.	
 	* @since 1.0
 	*/
-	private final static int popSize = 100;		// Number of chromosomes
+	private final static int defaultPopSize = 100;		// Number of chromosomes
 	/**
-	* Maximum number of function evaluations in algorithm.	
+	* Default maximum number of function evaluations in algorithm.	
 	* @since 1.0
 	*/
-	private final static int maxFunEval = 90000; // Max Allowable Function Evaluation
+	private final static int defaultMaxFunEval = 90000; // Max Allowable Function Evaluation
 	/**
-	* Stores number of function evaluations in algorithm.	
+	* Population of chromosomes with fitness value, stored as a primitive row-major gene matrix.	
+	* @see Population
 	* @since 1.0
 	*/
-	private static int funEval = 0;	// Counting Function Evaluations
+	private Population pop ;	// Stores chromosome and fitness value 	
 	/**
-	* best-fitness value in the population.	
-	* @since 1.0
-	*/
-	private static double bestFitness = 99999999; // Store Best Fitness  
-	/**
-	* best-fitness chromosome in the population.	
-	* @since 1.0
-	*/
-	private static ArrayList<Double> bestChromosome;
-	/**
-	* resultant file name specific to algorithm.	
-	* @since 1.0
+	* Reusable trial population, offspring <i>i</i> of a generation competes with chromosome <i>i</i> of <i>pop</i>.
+	* @see Population
+	* @since 1.1
 	*/
-	private final static String resultFileName = "Result"+algorithmName+".csv";
+	private Population trial ;
 	/**
-	* File-header to be appended into result file.	
-	* @since 1.0
+	* Size of population in the run.
+	* @since 1.1
 	*/
-	private static final String fileHeader = "Iteration,Fitness,Chromosome"+"\n";
+	private final int popSize;
 	/**
-	* FileWriter Object for writing into result file.
-	* @see FileWriter	
-	* @since 1.0
+	* Evaluator scoring whole generations, sequential or on a ForkJoinPool.
+	* @see ParallelEvaluator
+	* @since 1.1
 	*/
-	private static FileWriter fileWriter = null;	 
+	private final ParallelEvaluator evaluator;
 	/**
-	* This class is used for storing chromosome along with fitness value.
-	* It provides structure for storing such values in tied up manner.
+	* This creates a run on the fitness function selected with the <i>function</i>, <i>dim</i> and <i>cache</i> system properties,
+	* evaluating with the parallelism selected with the <i>parallelism</i> system property.
+	* @see BenchmarkFunction
+	* @see ParallelEvaluator
 	* @since 1.0
 	*/
-	public static class Individual{
-		/**
-		* This stores an ArrayList of chromsome's dimension decimal values for an instance.
-		* @since 1.0
-		*/	
-		ArrayList<Double> chromosome; 
-		/**
-		* This stores a fitness value of chromosome for an instance.
-		* @since 1.0
-		*/
-		double fitness;
-		 
+	public DeAlgorithm()
+	{
+		this(EvaluationCache.fromSystemProperty(BenchmarkFunction.fromSystemProperties()), ParallelEvaluator.fromSystemProperty());
 	}
+
 	/**
-	* Population of chromosomes with fitness value.	
-	* @since 1.0
+	* This creates a run on the given fitness function and initialize <i>bestChromosome</i> to default values. 
+	* @param fObj This is the fitness function optimized in the run
+	* @param evaluator This is the evaluator scoring the generations, it can be shared between runs
+	* @see FitnessFunction
+	* @since 1.1
 	*/
-	private static ArrayList<Individual> pop ;	// Stores chromosome and fitness value 	
+	public DeAlgorithm(FitnessFunction fObj, ParallelEvaluator evaluator)
+	{
+		this(fObj, evaluator, defaultPopSize);
+	}
+
 	/**
-	* This initialize <i>bestChromosome</i> to default values when this constructor is called. 
+	* This creates a run on the given fitness function with the given population size.
+	* @param fObj This is the fitness function optimized in the run
+	* @param evaluator This is the evaluator scoring the generations, it can be shared between runs
+	* @param popSize This is the number of chromosomes in the population
+	* @exception IllegalArgumentException If <i>popSize</i> is less than 2
 	* @see FitnessFunction
-	* @since 1.0
+	* @since 1.1
 	*/
-	public DeAlgorithm()
+	public DeAlgorithm(FitnessFunction fObj, ParallelEvaluator evaluator, int popSize)
 	{
-		FitnessFunction fObj = new FitnessFunction(); 
-		bestChromosome = new ArrayList<>(fObj.dim);
-		bestChromosome = initializeList(bestChromosome);
-	
+		super(algorithmName, fObj, defaultIterNumber, defaultMaxFunEval);
+		if(popSize<2)
+			throw new IllegalArgumentException("Population size must be at least 2");
+		this.evaluator = evaluator;
+		this.popSize = popSize;
 	}
 
 	/**
 	* This method initialize all population of chromosomes with their dimensions and fitness function values.
-	* Also it binds them together into objects of Individual class.
-	* @see Individual
+	* Also it stores them together as rows of the Population gene matrix.
+	* @see Population
 	* @see FitnessFunction
 	* @since 1.0
 	*/
-		public static void initializeAll()
+	@Override
+	public void initializeAll()
 	{
-		pop = new ArrayList<Individual>(popSize);	// initialized to 100 capacity
+		int dim = fObj.getDim();
+		double lBound = fObj.getLowerBound(), uBound = fObj.getUpperBound();
 	
-		FitnessFunction fObj = new FitnessFunction(); 
+		pop = new Population(popSize, dim);	// initialized to 100 chromosomes by default
+		trial = new Population(popSize, dim);
 	
+		double[] genes = pop.genes;
 		for(int i=0;i<popSize;i++)
 		{
-			ArrayList<Double> chromosome = new ArrayList<>(fObj.dim);
-		
-			for(int j=0;j<fObj.dim;j++)
+			int off = pop.offset(i);
+			for(int j=0;j<dim;j++)
 			{
 			// Adding chromosome's value with rounded value		
-				chromosome.add(fObj.round(((Math.random() * (fObj.uBound - fObj.lBound)) + fObj.lBound),2));
+				genes[off+j] = fObj.quantize(((rng.nextDouble() * (uBound - lBound)) + lBound));
 			}
-		
-			Individual inst = new Individual();
-		
-			inst.fitness = fObj.fitnessFunction(chromosome);
-			funEval++;
-			inst.chromosome = chromosome;
-		
-			pop.add(inst);
 		}
+		
+		evaluate(evaluator, pop, 0, popSize);
 	}
 
 	/**
-	* This method creates a deepcopy i.e. a seperate copy of chromosome that will not be side effected by originals manipulation. A seperate copy of the object is created with same values as <i>copyFrom</i> parameter.   
+	* This method creates a deepcopy i.e. a seperate copy of chromosome that will not be side effected by originals manipulation. The values of <i>copyFrom</i> parameter are copied into <i>copyTo</i>.   
 	* @param copyTo This the chromosome in which the values copied into.
-	* @param copyFrom This is the chromosome from which the values copied from iteratively
-	* @return ArrayList This is the new copied <i>double</i> value containing chromosome which is returned
-	* @exception NullPointerException This exception is throwned while accessing null list
-	* @exception IndexOutOfBoundsException If the index accessed is out of bounds of list's size
-	* @see Individual
+	* @param copyFrom This is the chromosome from which the values copied from
+	* @return double[] This is the <i>copyTo</i> chromosome holding the copied values
+	* @exception NullPointerException This exception is throwned while accessing null array
+	* @exception IndexOutOfBoundsException If <i>copyTo</i> is shorter than <i>copyFrom</i>
 	* @since 1.0
 	*/
-	public ArrayList<Double> deepCopy(ArrayList<Double> copyTo,ArrayList<Double> copyFrom)
+	public double[] deepCopy(double[] copyTo,double[] copyFrom)
 	{	
-	
-		FitnessFunction fObj = new FitnessFunction(); 
-	
-		for(int i=0;i<copyFrom.size();i++)
-		{
-			copyTo.set(i,copyFrom.get(i));
-				
-		}
-	
+		System.arraycopy(copyFrom, 0, copyTo, 0, copyFrom.length);
 		return copyTo;
 	}
 
@@ -177,87 +160,91 @@ public class DeAlgorithm extends FitnessFunction
 	* @since 1.0
 	*/
 
+	@Override
 	public void memorizeGlobalBest(){
 		
-		FitnessFunction fObj = new FitnessFunction(); 
-				
-		for(Individual p : pop)
-		{
-			if(p.fitness < bestFitness)
-			{
-				bestFitness = p.fitness;
-				bestChromosome = deepCopy(bestChromosome, p.chromosome);
-				System.out.println("New BestChromosome Found  "+bestChromosome);	
-			}
-			
-		}
+		memorizeGlobalBest(pop);
 	}
 
 	/**
-	* This method is used for stuffing default values into arraylist which can later be manipulated.
-	* @param list This is a list passed with size zero
-	* @return ArrayList This is a list with size of <i>dim</i> in FitnessFunction class
-	* @exception NullPointerException This exception is throwned while accessing null list
-	* @see FitnessFunction
-	* @since 1.0
+	* This method returns the population of the run.
+	* @return Population Current population
+	* @since 1.1
 	*/
-	
-	public ArrayList<Double> initializeList(ArrayList<Double> list)
+
+	@Override
+	protected Population getPopulation()
 	{
-		FitnessFunction fObj = new FitnessFunction(); 
-		for(int i=0;i<fObj.dim;i++)
-			list.add(i,0.00);
-	
-		return list;
+		return pop;
+	}
+
+	/**
+	* This method performs one generation of differential evolution.
+	* The iteration itself is counted as one more function evaluation, as this algorithm always did.
+	* @since 1.1
+	*/
+
+	@Override
+	public void iterate()
+	{
+		deOperation();
+		funEval++;
 	}
 
 	/**
 	* This method is used for randomly picking up one chromosome from the population and performing differential evolution manipulation with current best chromosome. Which generates one offsprings with different fitness values.
 	* After calculating and comparing the fitness of parent and corresponding offspring it also replaces them with best fitness valued chromosome respectively.
-	* @see Individual
+	* Generations are synchronous, all offsprings are created from the current generation, evaluated together and then replace their parents.
+	* @see Population
 	* @see FitnessFunction
+	* @see ParallelEvaluator
 	* @since 1.0
 	*/
 	  
 	public void deOperation()
 	{
-		FitnessFunction fObj = new FitnessFunction(); 
+		int dim = fObj.getDim();
+		double lBound = fObj.getLowerBound(), uBound = fObj.getUpperBound();
+		double[] genes = pop.genes;
+		double[] newChild = trial.genes;
 		
 		for(int i=0;i<popSize;i++)
 		{
-			int indA = (int)(Math.random()*(popSize-1));
-			int indB = (int)(Math.random()*(popSize-1));
+			int indA = (int)(rng.nextDouble()*(popSize-1));
+			int indB = (int)(rng.nextDouble()*(popSize-1));
 			
-			ArrayList<Double> newChild = new ArrayList<>();
-			for(int j=0;j<fObj.dim;j++)
+			int off = pop.offset(i);
+			int offA = pop.offset(indA);
+			int offB = pop.offset(indB);
+			for(int j=0;j<dim;j++)
 			{
-				if(Math.random()<=crossRate)
+				if(rng.nextDouble()<=crossRate)
 				{
-					double constValue = pop.get(i).chromosome.get(j) + inertia*( pop.get(indB).chromosome.get(j) - pop.get(indA).chromosome.get(j) );
+					double constValue = genes[off+j] + inertia*( genes[offB+j] - genes[offA+j] );
 					
-					if(constValue<fObj.lBound)
-						constValue = fObj.round(((Math.random() * (fObj.uBound - fObj.lBound)) + fObj.lBound),2);
+					if(constValue<lBound)
+						constValue = fObj.quantize(((rng.nextDouble() * (uBound - lBound)) + lBound));
 					
-					if(constValue>fObj.lBound)
-						constValue = fObj.round(((Math.random() * (fObj.uBound - fObj.lBound)) + fObj.lBound),2);	
+					if(constValue>lBound)
+						constValue = fObj.quantize(((rng.nextDouble() * (uBound - lBound)) + lBound));	
 					
-					newChild.add(fObj.round(constValue,2));
+					newChild[off+j] = fObj.quantize(constValue);
 				
 				}
 				else
 				{
-					newChild.add(pop.get(i).chromosome.get(j));
+					newChild[off+j] = genes[off+j];
 				}
 			}
-			
-			double newChildFitness = fObj.fitnessFunction(newChild);
-			
-			funEval++;
-			
-			if(newChildFitness < pop.get(i).fitness)
+		}
+		
+		evaluate(evaluator, trial, 0, popSize);
+		
+		for(int i=0;i<popSize;i++)
+		{
+			if(trial.fitness[i] < pop.fitness[i])
 			{
-				pop.get(i).fitness = newChildFitness;
-				pop.get(i).chromosome = deepCopy(pop.get(i).chromosome, newChild);
+				pop.copyRow(trial, i, i);
 			}		
 		}	
 	
@@ -276,52 +263,7 @@ public class DeAlgorithm extends FitnessFunction
 	public static void main(String[] args)
 	{
 		DeAlgorithm deObj = new DeAlgorithm(); 
-		deObj.initializeAll();
-	
-		deObj.bestChromosome = deObj.pop.get(0).chromosome;
-		deObj.bestFitness = deObj.pop.get(0).fitness;
-	
-	
-		try{
-				deObj.fileWriter = new FileWriter(deObj.resultFileName);
-				deObj.fileWriter.append(fileHeader);
-			
-				for(int i=0;i<iterNumber;i++)
-				{
-					deObj.deOperation();
-					deObj.memorizeGlobalBest();
-					
-					if(i%1==0)
-					{
-						deObj.fileWriter.append(i+","+deObj.bestFitness+","+deObj.bestChromosome+"\n");
-					}
-					
-					if(funEval>maxFunEval)
-						break;
-					
-					funEval++;
-				
-				}
-			
-				System.out.println("CSV file created");
-			
-		}
-		catch (Exception e){
-			e.printStackTrace();
-		}
-		finally{
-			try {
-				fileWriter.flush();
-			  	fileWriter.close();
-			}
-			catch(IOException e){
-			    e.printStackTrace();
-			 }
-		}            
+		deObj.runFromMain();
 	}
 
-	
-
-
-
 }
@@ -0,0 +1,125 @@
+/**
+* This class reduces a series of points to the few points that decide how its line looks at a given pixel width.
+* The points are grouped by the pixel column of their x value and the first, the last, the smallest and the largest value of every column are kept,
+* in their original order (M4 aggregation). A line drawn through these points covers exactly the pixels of the line through all points,
+* so peaks and drops are never lost, while at most four points per column are drawn.
+* @author Ashish Rana
+* @version 1.1
+* @see GraphPlotGui
+* @since 1.1
+*/
+
+public final class Downsampler{
+
+	private Downsampler()
+	{
+	}
+
+	/**
+	* This method selects the indices of the points drawn for the range <i>[from, to)</i>. Point <i>i</i> lies in pixel column
+	* <i>floor((x[i]-origin)*scale)</i>, the x values must not decrease. NaN values are kept only as first or last point of a column.
+	* @param x This is the array of x values, e.g. iteration numbers
+	* @param values This is the array of values
+	* @param from This is the index of the first point
+	* @param to This is the index after the last point
+	* @param origin This is the x value at the left edge of the first column
+	* @param scale This is the number of columns per unit of x
+	* @param out This is the array receiving the selected indices in ascending order, it must hold <i>to-from</i> indices
+	* or four indices per column spanned by the range
+	* @return int Number of selected indices
+	* @exception ArrayIndexOutOfBoundsException If the output array is too small
+	* @since 1.1
+	*/
+	public static int m4(int[] x, double[] values, int from, int to, double origin, double scale, int[] out)
+	{
+		int n = 0;
+		int start = from;
+		while(start<to)
+		{
+			long column = column(x[start], origin, scale);
+			int end = start+1;
+			int min = start, max = start;
+			while(end<to && column(x[end], origin, scale)==column)
+			{
+				if(values[end]<values[min] || values[min]!=values[min])
+					min = end;
+				if(values[end]>values[max] || values[max]!=values[max])
+					max = end;
+				end++;
+			}
+			int last = end-1;
+			out[n++] = start;
+			int lo = Math.min(min, max), hi = Math.max(min, max);
+			if(lo!=start)
+				out[n++] = lo;
+			if(hi!=lo && hi!=start)
+				out[n++] = hi;
+			if(last!=hi && last!=start)
+				out[n++] = last;
+			start = end;
+		}
+		return n;
+	}
+
+	/**
+	* This method selects the same indices as <i>m4(x, values, from, to, origin, scale, out)</i> in time proportional to the number of columns
+	* instead of the number of points: the end of every column is found by binary search over the x values and its smallest and largest value
+	* are looked up in the pyramid of the values.
+	* @param x This is the array of x values, e.g. iteration numbers
+	* @param values This is the array of values indexed by the pyramid
+	* @param from This is the index of the first point
+	* @param to This is the index after the last point
+	* @param origin This is the x value at the left edge of the first column
+	* @param scale This is the number of columns per unit of x
+	* @param pyramid This is the pyramid of the values, it must include <i>[from, to)</i>
+	* @param out This is the array receiving the selected indices in ascending order, it must hold four indices per column spanned by the range
+	* @return int Number of selected indices
+	* @exception ArrayIndexOutOfBoundsException If the output array is too small
+	* @see MinMaxPyramid
+	* @since 1.1
+	*/
+	public static int m4(int[] x, double[] values, int from, int to, double origin, double scale, MinMaxPyramid pyramid, int[] out)
+	{
+		int n = 0;
+		int start = from;
+		while(start<to)
+		{
+			long column = column(x[start], origin, scale);
+			int lo = start+1, hi = to;
+			while(lo<hi)
+			{
+				int mid = (lo+hi)>>>1;
+				if(column(x[mid], origin, scale)==column)
+					lo = mid+1;
+				else
+					hi = mid;
+			}
+			int end = lo;
+			int last = end-1;
+			int min = pyramid.argMin(start, end), max = pyramid.argMax(start, end);
+			out[n++] = start;
+			int first = Math.min(min, max), second = Math.max(min, max);
+			if(first!=start)
+				out[n++] = first;
+			if(second!=first && second!=start)
+				out[n++] = second;
+			if(last!=second && last!=start)
+				out[n++] = last;
+			start = end;
+		}
+		return n;
+	}
+
+	/**
+	* This method returns the pixel column of an x value.
+	* @param x This is the x value
+	* @param origin This is the x value at the left edge of the first column
+	* @param scale This is the number of columns per unit of x
+	* @return long Column
+	* @since 1.1
+	*/
+	private static long column(int x, double origin, double scale)
+	{
+		return (long)Math.floor((x-origin)*scale);
+	}
+}
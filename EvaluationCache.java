@@ -0,0 +1,450 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+* This class is a bounded memoization cache in front of a fitness function, so a chromosome which was already evaluated is not evaluated again.
+* Chromosomes are keyed by the bit patterns of their quantized gene values, i.e. the genes rounded with the precision policy of the function,
+* which are hashed and compared as primitives without boxing or copying the chromosome.
+* Entries are stored in flat primitive arrays split into independently locked segments, each one evicting with the CLOCK algorithm
+* (second chance) once full, and the number of entries follows from a memory cap.
+* Hits, misses and evictions are counted for reporting.
+* The cache only pays off for expensive fitness functions, the library functions are cheaper than a lookup.
+* The cache of a run is selected with the <i>cache</i> system property, the memory cap in megabytes, by default no cache is used.
+* @author Ashish Rana
+* @version 1.1
+* @see FitnessFunction
+* @since 1.1
+*/
+
+public class EvaluationCache implements FitnessFunction{
+
+	/**
+	* Number of segments, a power of two selected by the highest bits of the hash.
+	* @since 1.1
+	*/
+	private static final int SEGMENTS = 16;
+	/**
+	* Fitness function evaluated on a miss.
+	* @since 1.1
+	*/
+	private final FitnessFunction fObj;
+	/**
+	* Number of dimensions of every cached chromosome.
+	* @since 1.1
+	*/
+	private final int dim;
+	/**
+	* Independently locked parts of the cache.
+	* @since 1.1
+	*/
+	private final Segment[] segments;
+	/**
+	* Number of evaluations answered from the cache.
+	* @since 1.1
+	*/
+	private final LongAdder hits = new LongAdder();
+	/**
+	* Number of evaluations passed to the fitness function.
+	* @since 1.1
+	*/
+	private final LongAdder misses = new LongAdder();
+	/**
+	* Number of entries evicted to make room for new ones.
+	* @since 1.1
+	*/
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	* This creates a cache in front of the fitness function holding as many entries as fit into the memory cap.
+	* @param fObj This is the fitness function evaluated on a miss
+	* @param maxBytes This is the memory cap of the cached entries in bytes
+	* @exception IllegalArgumentException If not even one entry per segment fits into the memory cap
+	* @since 1.1
+	*/
+	public EvaluationCache(FitnessFunction fObj, long maxBytes)
+	{
+		this.fObj = fObj;
+		this.dim = fObj.getDim();
+
+		long entries = maxBytes/bytesPerEntry(dim)/SEGMENTS;
+		long maxEntries = (Integer.MAX_VALUE/2)/Math.max(dim, 1);
+		if(entries<1)
+			throw new IllegalArgumentException("Memory cap of "+maxBytes+" bytes is too small for the evaluation cache");
+
+		this.segments = new Segment[SEGMENTS];
+		for(int s=0;s<SEGMENTS;s++)
+			segments[s] = new Segment((int)Math.min(entries, maxEntries));
+	}
+
+	/**
+	* This method wraps the fitness function into a cache when the <i>cache</i> system property gives a memory cap in megabytes.
+	* @param fObj This is the fitness function of the run
+	* @return FitnessFunction The cached fitness function or <i>fObj</i> itself when no cache is selected
+	* @since 1.1
+	*/
+	public static FitnessFunction fromSystemProperty(FitnessFunction fObj)
+	{
+		int megabytes = Integer.getInteger("cache", 0);
+		return megabytes>0 ? new EvaluationCache(fObj, megabytes*1024L*1024L) : fObj;
+	}
+
+	/**
+	* This method returns the memory used by one entry, i.e. its key, fitness value, hash, chain link, reference bit and hash bucket.
+	* @param dim This is the number of dimensions of the chromosomes
+	* @return long Bytes per entry
+	* @since 1.1
+	*/
+	static long bytesPerEntry(int dim)
+	{
+		return 8L*dim+8+8+4+1+8;
+	}
+
+	/**
+	* This method returns the key of a gene, the bit pattern of the quantized value with negative zero folded into zero.
+	* @param d This is the gene value
+	* @return long Key of the gene
+	* @since 1.1
+	*/
+	private long key(double d)
+	{
+		double q = fObj.quantize(d);
+		return q==0 ? 0L : Double.doubleToLongBits(q);
+	}
+
+	/**
+	* This method hashes the quantized genes of a chromosome.
+	* @param x This is the array holding the chromosome
+	* @param offset This is the index of the first gene
+	* @return long Hash of the chromosome
+	* @since 1.1
+	*/
+	private long hash(double[] x, int offset)
+	{
+		long h = dim;
+		for(int j=0;j<dim;j++)
+			h = h*0x9E3779B97F4A7C15L+key(x[offset+j]);
+		h ^= h>>>33;	// finalizer of MurmurHash3, spreads the bits into the segment and bucket bits
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h>>>33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		return h^(h>>>33);
+	}
+
+	/**
+	* This method returns the cached fitness value of the chromosome or evaluates it with the fitness function and caches it.
+	* The fitness function is called outside of any lock, so evaluations run concurrently.
+	* @param x This is array containing double values of chromosome/particle starting at <i>offset</i>.
+	* @param offset This is the index of the first dimension of the chromosome in <i>x</i>.
+	* @return double Fitness value
+	* @since 1.1
+	*/
+	@Override
+	public double fitnessFunction(double[] x, int offset)
+	{
+		long hash = hash(x, offset);
+		Segment segment = segments[(int)(hash>>>60)];
+
+		double cached = segment.get(x, offset, hash);
+		if(cached==cached)	// not NaN
+		{
+			hits.increment();
+			return cached;
+		}
+
+		misses.increment();
+		double value = fObj.fitnessFunction(x, offset);
+		segment.put(x, offset, hash, value);
+		return value;
+	}
+
+	@Override
+	public int getDim()
+	{
+		return dim;
+	}
+
+	@Override
+	public double getLowerBound()
+	{
+		return fObj.getLowerBound();
+	}
+
+	@Override
+	public double getUpperBound()
+	{
+		return fObj.getUpperBound();
+	}
+
+	@Override
+	public String getName()
+	{
+		return fObj.getName();
+	}
+
+	@Override
+	public PrecisionPolicy getPrecision()
+	{
+		return fObj.getPrecision();
+	}
+
+	@Override
+	public double quantize(double d)
+	{
+		return fObj.quantize(d);
+	}
+
+	/**
+	* This method returns the number of evaluations answered from the cache.
+	* @return long Hits
+	* @since 1.1
+	*/
+	public long getHits()
+	{
+		return hits.sum();
+	}
+
+	/**
+	* This method returns the number of evaluations passed to the fitness function.
+	* @return long Misses
+	* @since 1.1
+	*/
+	public long getMisses()
+	{
+		return misses.sum();
+	}
+
+	/**
+	* This method returns the number of entries evicted to make room for new ones.
+	* @return long Evictions
+	* @since 1.1
+	*/
+	public long getEvictions()
+	{
+		return evictions.sum();
+	}
+
+	/**
+	* This method returns the share of evaluations answered from the cache.
+	* @return double Hit rate between 0 and 1
+	* @since 1.1
+	*/
+	public double getHitRate()
+	{
+		long h = getHits(), total = h+getMisses();
+		return total==0 ? 0 : (double)h/total;
+	}
+
+	/**
+	* This method returns the number of cached entries.
+	* @return int Entries
+	* @since 1.1
+	*/
+	public int size()
+	{
+		int size = 0;
+		for(Segment segment : segments)
+			size += segment.size();
+		return size;
+	}
+
+	/**
+	* This method returns the maximum number of cached entries.
+	* @return long Capacity
+	* @since 1.1
+	*/
+	public long capacity()
+	{
+		return (long)segments[0].capacity*SEGMENTS;
+	}
+
+	/**
+	* This method returns a printable summary of the cache counters.
+	* @return String Summary of hits, misses, hit rate, evictions and entries
+	* @since 1.1
+	*/
+	public String statistics()
+	{
+		return String.format("Evaluation cache: hits=%d, misses=%d, hit rate=%.2f%%, evictions=%d, entries=%d/%d",
+			getHits(), getMisses(), 100*getHitRate(), getEvictions(), size(), capacity());
+	}
+
+	@Override
+	public String toString()
+	{
+		return "EvaluationCache["+fObj+"]";
+	}
+
+	/**
+	* This class is one part of the cache with its own lock. Entry <i>e</i> keeps its key in <i>keys[e*dim, (e+1)*dim)</i> and is linked
+	* into the chain of its hash bucket, a CLOCK hand sweeping over the entries evicts the first one not referenced since the last sweep.
+	* @since 1.1
+	*/
+	private final class Segment{
+		/**
+		* Maximum number of entries.
+		* @since 1.1
+		*/
+		final int capacity;
+		/**
+		* Quantized gene bits of every entry, row-major.
+		* @since 1.1
+		*/
+		final long[] keys;
+		/**
+		* Fitness value of every entry.
+		* @since 1.1
+		*/
+		final double[] values;
+		/**
+		* Full hash of every entry, compared before the keys.
+		* @since 1.1
+		*/
+		final long[] hashes;
+		/**
+		* Next entry in the chain of the same bucket or -1.
+		* @since 1.1
+		*/
+		final int[] next;
+		/**
+		* Whether the entry was hit since the CLOCK hand passed it.
+		* @since 1.1
+		*/
+		final boolean[] referenced;
+		/**
+		* First entry of every bucket or -1, twice as many buckets as entries.
+		* @since 1.1
+		*/
+		final int[] buckets;
+		/**
+		* Number of entries in use.
+		* @since 1.1
+		*/
+		int size;
+		/**
+		* Position of the CLOCK hand.
+		* @since 1.1
+		*/
+		int hand;
+
+		Segment(int capacity)
+		{
+			this.capacity = capacity;
+			this.keys = new long[capacity*dim];
+			this.values = new double[capacity];
+			this.hashes = new long[capacity];
+			this.next = new int[capacity];
+			this.referenced = new boolean[capacity];
+			this.buckets = new int[Integer.highestOneBit(capacity)*2];
+			Arrays.fill(buckets, -1);
+		}
+
+		/**
+		* This method returns the cached fitness value of the chromosome and marks its entry referenced.
+		* A <i>NaN</i> fitness value is cached like any other but always reads as a miss.
+		* @param x This is the array holding the chromosome
+		* @param offset This is the index of the first gene
+		* @param hash This is the hash of the chromosome
+		* @return double Fitness value or <i>NaN</i> when it is not cached
+		* @since 1.1
+		*/
+		synchronized double get(double[] x, int offset, long hash)
+		{
+			int e = find(x, offset, hash);
+			if(e<0)
+				return Double.NaN;
+			referenced[e] = true;
+			return values[e];
+		}
+
+		/**
+		* This method caches the fitness value of the chromosome, evicting an entry when the segment is full.
+		* Nothing is done when another thread cached the chromosome meanwhile.
+		* @param x This is the array holding the chromosome
+		* @param offset This is the index of the first gene
+		* @param hash This is the hash of the chromosome
+		* @param value This is the fitness value
+		* @since 1.1
+		*/
+		synchronized void put(double[] x, int offset, long hash, double value)
+		{
+			if(find(x, offset, hash)>=0)
+				return;
+
+			int e = size<capacity ? size++ : evict();
+			for(int j=0, k=e*dim;j<dim;j++, k++)
+				keys[k] = key(x[offset+j]);
+			values[e] = value;
+			hashes[e] = hash;
+			referenced[e] = false;
+
+			int b = bucket(hash);
+			next[e] = buckets[b];
+			buckets[b] = e;
+		}
+
+		/**
+		* This method returns the number of entries in use.
+		* @return int Entries
+		* @since 1.1
+		*/
+		synchronized int size()
+		{
+			return size;
+		}
+
+		private int bucket(long hash)
+		{
+			return (int)hash&(buckets.length-1);
+		}
+
+		private int find(double[] x, int offset, long hash)
+		{
+			for(int e=buckets[bucket(hash)];e>=0;e=next[e])
+			{
+				if(hashes[e]==hash && matches(e, x, offset))
+					return e;
+			}
+			return -1;
+		}
+
+		private boolean matches(int e, double[] x, int offset)
+		{
+			for(int j=0, k=e*dim;j<dim;j++, k++)
+			{
+				if(keys[k]!=key(x[offset+j]))
+					return false;
+			}
+			return true;
+		}
+
+		/**
+		* This method advances the CLOCK hand to the first entry not referenced since its last pass, giving the passed ones a second chance,
+		* and unlinks it from its bucket.
+		* @return int Index of the freed entry
+		* @since 1.1
+		*/
+		private int evict()
+		{
+			while(referenced[hand])
+			{
+				referenced[hand] = false;
+				hand = (hand+1)%capacity;
+			}
+			int e = hand;
+			hand = (hand+1)%capacity;
+
+			int b = bucket(hashes[e]);
+			if(buckets[b]==e)
+				buckets[b] = next[e];
+			else
+			{
+				int p = buckets[b];
+				while(next[p]!=e)
+					p = next[p];
+				next[p] = next[e];
+			}
+			evictions.increment();
+			return e;
+		}
+	}
+}
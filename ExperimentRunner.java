@@ -0,0 +1,207 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+* This class executes many independent optimization runs concurrently in one JVM on a thread pool, e.g. 30 repetitions of every
+* algorithm on every benchmark function, so JVM startup and JIT warmup are paid only once.
+* Every run writes its own result file into the output directory and a summary line of every run is written into <i>ExperimentSummary.csv</i>.
+* The experiment is configured with system properties:
+* <ul>
+* <li><i>algorithms</i> - comma separated short names of algorithms, default <i>ga,de,pso,random</i></li>
+* <li><i>functions</i> - comma separated benchmark function names, default <i>ackley</i></li>
+* <li><i>dim</i> - dimensions of the functions, default 10</li>
+* <li><i>runs</i> - repetitions of every algorithm and function, default 30</li>
+* <li><i>threads</i> - runs executed concurrently, default all available processors</li>
+* <li><i>output</i> - directory of the result files, default <i>results</i></li>
+* <li><i>seed</i> - master seed, default drawn at random and printed</li>
+* </ul>
+* Every run is seeded from the master seed, its algorithm, function and repetition, so each run draws the same numbers whichever thread executes it
+* and however many runs execute at once. The seed of every run is written into the summary.
+* @author Ashish Rana
+* @version 1.1
+* @see OptimizationAlgorithm
+* @since 1.1
+*/
+
+public class ExperimentRunner{
+
+	/**
+	* File-header of the summary file.
+	* @since 1.1
+	*/
+	private static final String summaryHeader = "Algorithm,Function,Run,BestFitness,FunEval,Iterations,Millis,Seed,StoppedBy"+"\n";
+
+	/**
+	* This class describes one run of the experiment.
+	* @since 1.1
+	*/
+	public static class Run{
+		/**
+		* Short name of the algorithm.
+		* @since 1.1
+		*/
+		final String algorithm;
+		/**
+		* Name of the benchmark function.
+		* @since 1.1
+		*/
+		final String function;
+		/**
+		* Repetition number of the algorithm and function.
+		* @since 1.1
+		*/
+		final int repetition;
+
+		public Run(String algorithm, String function, int repetition)
+		{
+			this.algorithm = algorithm;
+			this.function = function;
+			this.repetition = repetition;
+		}
+	}
+
+	/**
+	* Dimensions of the benchmark functions.
+	* @since 1.1
+	*/
+	private final int dim;
+	/**
+	* Directory of the result files.
+	* @since 1.1
+	*/
+	private final File outputDir;
+	/**
+	* Evaluator shared by all the runs, sequential by default as the runs themselves are executed concurrently.
+	* @since 1.1
+	*/
+	private final ParallelEvaluator evaluator;
+
+	/**
+	* This creates a runner writing into the given directory.
+	* @param dim This is the dimensions of the benchmark functions
+	* @param outputDir This is the directory of the result files, it is created when missing
+	* @param evaluator This is the evaluator shared by all the runs
+	* @since 1.1
+	*/
+	public ExperimentRunner(int dim, File outputDir, ParallelEvaluator evaluator)
+	{
+		this.dim = dim;
+		this.outputDir = outputDir;
+		this.evaluator = evaluator;
+	}
+
+	/**
+	* This method creates every combination of algorithm, function and repetition.
+	* @param algorithms This is the short names of the algorithms
+	* @param functions This is the names of the benchmark functions
+	* @param runs This is the repetitions of every combination
+	* @return List Runs of the experiment
+	* @since 1.1
+	*/
+	public static List<Run> plan(String[] algorithms, String[] functions, int runs)
+	{
+		List<Run> plan = new ArrayList<>(algorithms.length*functions.length*runs);
+		for(String algorithm : algorithms)
+			for(String function : functions)
+				for(int r=0;r<runs;r++)
+					plan.add(new Run(algorithm.trim(), function.trim(), r));
+		return plan;
+	}
+
+	/**
+	* This method executes one run on the calling thread and returns its summary line, the run is seeded from the master seed and its description.
+	* @param run This is the run to be executed
+	* @return String Summary line of the run
+	* @exception IOException If the result file can not be written
+	* @since 1.1
+	*/
+	public String execute(Run run) throws IOException
+	{
+		FitnessFunction fObj = BenchmarkFunction.forName(run.function, dim);
+		OptimizationAlgorithm algorithm = OptimizationAlgorithm.forName(run.algorithm, fObj, evaluator);
+		algorithm.setVerbose(false);
+		algorithm.setSeed(Rng.derive(Rng.masterSeed(), run.algorithm.toLowerCase(Locale.ROOT)+"/"+run.function+"/"+run.repetition));
+		algorithm.setResultFileName(new File(outputDir, "Result"+algorithm.getAlgorithmName()+"-"+run.function+"-run"+run.repetition+".csv").getPath());
+
+		long start = System.nanoTime();
+		algorithm.run();
+		long millis = (System.nanoTime()-start)/1000000;
+
+		return algorithm.getAlgorithmName()+","+run.function+","+run.repetition+","+algorithm.getBestFitness()+","
+			+algorithm.getFunEval()+","+algorithm.getIterations()+","+millis+","+algorithm.getSeed()+","+algorithm.getStoppedBy()+"\n";
+	}
+
+	/**
+	* This method executes all the runs concurrently on a pool of threads and writes the summary file once all of them are done.
+	* Summary lines keep the order of the runs.
+	* @param runs This is the runs to be executed
+	* @param threads This is the number of runs executed concurrently
+	* @exception IOException If the output directory or a result file can not be written
+	* @exception InterruptedException If the calling thread is interrupted while waiting for the runs
+	* @since 1.1
+	*/
+	public void executeAll(List<Run> runs, int threads) throws IOException, InterruptedException
+	{
+		if(!outputDir.isDirectory() && !outputDir.mkdirs())
+			throw new IOException("Can not create output directory "+outputDir);
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try{
+			List<Future<String>> results = new ArrayList<>(runs.size());
+			for(Run run : runs)
+				results.add(pool.submit(() -> execute(run)));
+
+			try(FileWriter summary = new FileWriter(new File(outputDir, "ExperimentSummary.csv"))){
+				summary.append(summaryHeader);
+				int done = 0;
+				for(Future<String> result : results)
+				{
+					summary.append(result.get());
+					System.out.println("Run "+(++done)+"/"+runs.size()+" done");
+				}
+			}
+			catch(ExecutionException e){
+				throw new IOException("Run failed", e.getCause());
+			}
+		}
+		finally{
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	* This the main method which executes the experiment configured with system properties.
+	* @param args Unused
+	* @since 1.1
+	*/
+	public static void main(String[] args)
+	{
+		String[] algorithms = System.getProperty("algorithms", "ga,de,pso,random").split(",");
+		String[] functions = System.getProperty("functions", "ackley").split(",");
+		int runs = Integer.getInteger("runs", 30);
+		int threads = Integer.getInteger("threads", Runtime.getRuntime().availableProcessors());
+		File outputDir = new File(System.getProperty("output", "results"));
+
+		System.out.println("Master seed "+Rng.masterSeed());
+		ParallelEvaluator evaluator = ParallelEvaluator.fromSystemProperty();
+		ExperimentRunner runner = new ExperimentRunner(Integer.getInteger("dim", BenchmarkFunction.DEFAULT_DIM), outputDir, evaluator);
+		try{
+			runner.executeAll(plan(algorithms, functions, runs), threads);
+			System.out.println("Experiment summary created in "+outputDir);
+		}
+		catch(Exception e){
+			e.printStackTrace();
+		}
+		finally{
+			evaluator.shutdown();
+		}
+	}
+}
@@ -1,80 +1,121 @@
-import java.util.ArrayList;
-import java.math.BigDecimal;
-
 /**
-* From <i>Nature Inspired Algorithms</i> predefined <i>Ackley's Function</i> coded.
-* FitnessFunction class contains fitness function whose
+* FitnessFunction interface describes the fitness function whose
 * value will be optimized with optimization algorithms,
-* functionality of this class involves calculating the fitness
-* value of a chromosome and returning it.
+* functionality of implementations involves calculating the fitness
+* value of a chromosome and returning it, along with the dimensions and bounds of the chromosome.
+* Standard functions from <i>Nature Inspired Algorithms</i> like <i>Ackley's Function</i> are provided by BenchmarkFunction.
 * <p>
-*  
+*
 * @author Ashish Rana
-* @version 1.0
+* @version 1.1
+* @see BenchmarkFunction
 * @since 07-02-2018
-* 
+*
 */
 
-public class FitnessFunction{
+public interface FitnessFunction{
 
 	/**
-	* This variable represents the dimensions of the chromosome that is passed for fitness evaluation.
-	* @since 1.0
+	* This method returns the dimensions of the chromosome that is passed for fitness evaluation.
+	* @return int Number of dimensions
+	* @since 1.1
 	*/
-	public int dim = 10; // assumption
+	int getDim();
+
 	/**
-	* This variable represents the lower bound value of each entry of dimensions of the chromosome that is passed for fitness evaluation.
-	* @since 1.0
+	* This method returns the lower bound value of each entry of dimensions of the chromosome that is passed for fitness evaluation.
+	* @return double X(i) value's lower bound defined by function
+	* @since 1.1
 	*/
-	public int lBound = -35;	// X(i) value's lower bound defined by function 
+	double getLowerBound();
+
 	/**
-	* This variable represents the upper bound value of each entry of dimensions of the chromosome that is passed for fitness evaluation.
-	* @since 1.0
+	* This method returns the upper bound value of each entry of dimensions of the chromosome that is passed for fitness evaluation.
+	* @return double X(i) value's upper bound defined by function
+	* @since 1.1
 	*/
-	public int uBound = 35;	// X(i) value's upper bound defined by function
+	double getUpperBound();
 
-	
-	/** 
-	* This method takes takes an arraylist of chromosome as input and evaluates the
-	* fitness value and returns it back with rounded off value.
-	* @param x This is arraylist of chromosomes containing double values of chromosome/particle.
+	/**
+	* This method returns the name of the function, used for naming results.
+	* @return String Name of the function
+	* @since 1.1
+	*/
+	String getName();
+
+	/**
+	* This method returns the precision policy applied on fitness values and generated chromosome values.
+	* @return PrecisionPolicy Precision of the function
+	* @see PrecisionPolicy
+	* @since 1.1
+	*/
+	PrecisionPolicy getPrecision();
+
+	/**
+	* This method takes a primitive gene block and the offset of a chromosome inside it as input and evaluates the
+	* fitness value and returns it back with rounded off value. Chromosome stored in a Population is evaluated
+	* in place with <i>offset</i> being <i>Population.offset(i)</i>.
+	* Implementations must not keep state between calls so chromosomes can be evaluated from many threads.
+	* @param x This is array containing double values of chromosome/particle starting at <i>offset</i>.
+	* @param offset This is the index of the first dimension of the chromosome in <i>x</i>.
 	* @return double This is the returned fitness value rounded off to desired accuracy.
-	* @exception NullPointerException when invoked by <code>null</code> ArrayList Object.
-	* @since 1.0
+	* @exception NullPointerException when invoked by <code>null</code> array.
+	* @see Population
+	* @since 1.1
 	*/
+	double fitnessFunction(double[] x, int offset);
 
-	public double fitnessFunction(ArrayList<Double> x){
-	
-		double termA = 0;
-		double termB = 0;	
-	
-		for(int i=0;i<dim;i++)
-		{
-			termA = termA + x.get(i)*x.get(i);
-			termB = termB + Math.cos(x.get(i));
-		 
-		}
-		double finalTermA = 20*Math.exp(-0.02*Math.sqrt(termA/dim));
-		double finalTermB = Math.exp(termB/dim);
-		double result = 20+Math.exp(1)-finalTermA-finalTermB;	
-		return round(result, 2);
+	/**
+	* This method takes a whole chromosome array as input and evaluates the
+	* fitness value and returns it back with rounded off value.
+	* @param x This is array of chromosome containing double values of chromosome/particle.
+	* @return double This is the returned fitness value rounded off to desired accuracy.
+	* @exception NullPointerException when invoked by <code>null</code> array.
+	* @since 1.1
+	*/
+	default double fitnessFunction(double[] x){
+		return fitnessFunction(x, 0);
+	}
 
-		}
+	/**
+	* This method evaluates the chromosomes <i>[from, to)</i> of a population block at once and stores the fitness values into the population.
+	* Implementations override it to hoist constants out of the loop over the block.
+	* @param pop This is the population whose chromosomes are evaluated
+	* @param from This is the index of the first chromosome evaluated
+	* @param to This is the index after the last chromosome evaluated
+	* @see Population
+	* @since 1.1
+	*/
+	default void evaluate(Population pop, int from, int to){
+		double[] genes = pop.genes;
+		double[] fitness = pop.fitness;
+		for(int i=from;i<to;i++)
+			fitness[i] = fitnessFunction(genes, pop.offset(i));
+	}
 
+	/**
+	* This method applies the precision policy of this fitness function on a value,
+	* it is used for every generated chromosome value so genes and fitness values share the same precision.
+	* @param d This is decimal value as input
+	* @return double Value with the precision of the policy
+	* @see PrecisionPolicy
+	* @since 1.1
+	*/
+	default double quantize(double d){
+		return getPrecision().apply(d);
+	}
 
 	/**
 	* This is method that takes the fitness value and the decimal digit to be
 	* rounded off as arguement and evaluates the rounded off value.
+	* Rounding is HALF_UP on the decimal representation of the value, done arithmetically without any allocation.
 	* @param d This is decimal fitness value as input
 	* @param decimalPlace This specifies the number of digits to be rounded off to.
 	* @return double Rounded off double value is returned
 	* @since 1.0
-	* @see BigDecimal 
-	*/	
-
-	public static double round(double d, int decimalPlace){
-        BigDecimal bd = new BigDecimal(Double.toString(d));
-        bd = bd.setScale(decimalPlace, BigDecimal.ROUND_HALF_UP);
-        return bd.doubleValue();
-    }	
+	* @see PrecisionPolicy.QuantizedPrecision
+	*/
+	static double round(double d, int decimalPlace){
+		return PrecisionPolicy.QuantizedPrecision.round(d, decimalPlace);
+	}
 }
@@ -0,0 +1,155 @@
+import java.util.Locale;
+
+/**
+* This interface holds the loops over the dimensions of a chromosome the benchmark functions are built from, so they can be computed
+* with SIMD instructions of the Vector API where it is available and with plain loops everywhere else.
+* The kernels of a run are selected once at startup with system properties:
+* <ul>
+* <li><i>kernels</i> - <i>auto</i> (default) for the vector kernels when the <i>jdk.incubator.vector</i> module is added to the JVM
+* with <i>--add-modules jdk.incubator.vector</i> and the scalar kernels otherwise, <i>vector</i> or <i>scalar</i></li>
+* <li><i>fastMath</i> - <i>true</i> for polynomial approximations of sine and cosine with an absolute error below 1e-8,
+* for exploratory runs where a few more evaluations matter more than the last digits</li>
+* </ul>
+* The vector kernels add up the dimensions in a different order than the scalar kernels, so their sums can differ in the last bits.
+* Ranges are given as indices <i>[from, to)</i> into the gene array, e.g. <i>[offset, offset+dim)</i> of a chromosome in a Population.
+* @author Ashish Rana
+* @version 1.1
+* @see BenchmarkFunction
+* @see ScalarKernels
+* @since 1.1
+*/
+
+public interface FitnessKernels{
+
+	/**
+	* This method returns the sum of the squares.
+	* @param x This is the gene array
+	* @param from This is the index of the first gene
+	* @param to This is the index after the last gene
+	* @return double Sum of <i>x[i]<sup>2</sup></i>
+	* @since 1.1
+	*/
+	double squares(double[] x, int from, int to);
+
+	/**
+	* This method returns the sum of the cosines of the scaled genes.
+	* @param x This is the gene array
+	* @param from This is the index of the first gene
+	* @param to This is the index after the last gene
+	* @param scale This is the factor of every gene
+	* @return double Sum of <i>cos(scale*x[i])</i>
+	* @since 1.1
+	*/
+	double cosines(double[] x, int from, int to, double scale);
+
+	/**
+	* This method returns the product of the cosines of the genes, each scaled by its own factor.
+	* @param x This is the gene array
+	* @param from This is the index of the first gene
+	* @param to This is the index after the last gene
+	* @param scales This is the factor of every gene, <i>scales[i-from]</i> for gene <i>i</i>
+	* @return double Product of <i>cos(scales[i-from]*x[i])</i>
+	* @since 1.1
+	*/
+	double cosineProduct(double[] x, int from, int to, double[] scales);
+
+	/**
+	* This method returns the sum of the genes weighted by their position, starting at 1.
+	* @param x This is the gene array
+	* @param from This is the index of the first gene
+	* @param to This is the index after the last gene
+	* @return double Sum of <i>(i-from+1)*x[i]</i>
+	* @since 1.1
+	*/
+	double weightedSum(double[] x, int from, int to);
+
+	/**
+	* This method returns the sum of the terms of the <i>Schwefel Function</i>.
+	* @param x This is the gene array
+	* @param from This is the index of the first gene
+	* @param to This is the index after the last gene
+	* @return double Sum of <i>x[i]*sin(sqrt(|x[i]|))</i>
+	* @since 1.1
+	*/
+	double schwefel(double[] x, int from, int to);
+
+	/**
+	* This method returns the sum of the terms of the <i>Rosenbrock Function</i>, each one of a gene and its successor.
+	* @param x This is the gene array
+	* @param from This is the index of the first gene
+	* @param to This is the index after the last gene, which is only used as successor
+	* @return double Sum of <i>100*(x[i+1]-x[i]<sup>2</sup>)<sup>2</sup> + (x[i]-1)<sup>2</sup></i> for <i>i</i> in <i>[from, to-1)</i>
+	* @since 1.1
+	*/
+	double rosenbrock(double[] x, int from, int to);
+
+	/**
+	* This method returns the sum of the inner terms of the <i>Levy Function</i>.
+	* @param x This is the gene array
+	* @param from This is the index of the first gene
+	* @param to This is the index after the last gene
+	* @return double Sum of <i>(w-1)<sup>2</sup>*(1+10*sin<sup>2</sup>(pi*w+1))</i> with <i>w = 1+(x[i]-1)/4</i>
+	* @since 1.1
+	*/
+	double levy(double[] x, int from, int to);
+
+	/**
+	* This method returns the cosine of a single value computed like the cosines of the other kernels, so terms of a single gene
+	* added to or taken from sums of these kernels cancel with the terms inside them.
+	* @param x This is the argument in radians
+	* @return double Cosine of <i>x</i>
+	* @since 1.1
+	*/
+	double cosine(double x);
+
+	/**
+	* This method returns the sine of a single value computed like the sines of the other kernels.
+	* @param x This is the argument in radians
+	* @return double Sine of <i>x</i>
+	* @see #cosine(double)
+	* @since 1.1
+	*/
+	double sine(double x);
+
+	/**
+	* This method returns the kernels selected with the <i>kernels</i> and <i>fastMath</i> system properties.
+	* @return FitnessKernels Kernels of the run
+	* @exception IllegalArgumentException If the kernels are unknown
+	* @exception IllegalStateException If the vector kernels are selected but not available
+	* @since 1.1
+	*/
+	static FitnessKernels fromSystemProperties()
+	{
+		return forName(System.getProperty("kernels", "auto"), Boolean.getBoolean("fastMath"));
+	}
+
+	/**
+	* This method returns the kernels of the given name.
+	* @param name This is <i>auto</i>, <i>vector</i> or <i>scalar</i>, case insensitive
+	* @param fastMath This is <i>true</i> for approximations of sine and cosine
+	* @return FitnessKernels Kernels
+	* @exception IllegalArgumentException If the name is unknown
+	* @exception IllegalStateException If the vector kernels are requested but not available
+	* @since 1.1
+	*/
+	static FitnessKernels forName(String name, boolean fastMath)
+	{
+		switch(name.trim().toLowerCase(Locale.ROOT))
+		{
+			case "scalar": return new ScalarKernels(fastMath);
+			case "vector":
+			{
+				FitnessKernels vector = ScalarKernels.vectorKernels(fastMath);
+				if(vector==null)
+					throw new IllegalStateException("Vector kernels need the gradle build and --add-modules jdk.incubator.vector");
+				return vector;
+			}
+			case "auto":
+			{
+				FitnessKernels vector = ScalarKernels.vectorKernels(fastMath);
+				return vector!=null ? vector : new ScalarKernels(fastMath);
+			}
+			default: throw new IllegalArgumentException("Unknown kernels "+name);
+		}
+	}
+}
@@ -1,12 +1,9 @@
-import java.util.ArrayList;
-import java.io.FileWriter;
-import java.io.IOException;
 
 
 /**
 * This class uses the fitness function to evaluate the chromosomes with genetic algorithmic processes like crossover and mutations.
 * Also, it writes iterations of improved chromosomes into a file with ending on best chromosome iteration.
-* This class also extends FitnessFunction class for using fitness function, lower and upper bounds plus dimensions specified in it.
+* This class uses the FitnessFunction selected for the run, see BenchmarkFunction, for fitness function, lower and upper bounds plus dimensions specified in it.
 * @author Ashish Rana
 * @version 1.0
 * @see FitnessFunction
@@ -14,12 +11,12 @@ import java.io.IOException;
 */
 	
 
-public class GeneticAlgorithm extends FitnessFunction{
+public class GeneticAlgorithm extends OptimizationAlgorithm{
 
-			/**
-			* Name of the algorithm being used.	
-			* @since 1.0
-			*/
+	/**
+	* Name of the algorithm being used.	
+	* @since 1.0
+	*/
 	private final static String algorithmName = "GeniticAlgorithm"; // Algo Name
 	/**
 	* One point cross-over rate.	
@@ -32,148 +29,163 @@ public class GeneticAlgorithm extends FitnessFunction{
 	*/
 	private final static double mutRate = 0.1;		// Mutation Rate
 	/**
-	* Number of iterations in algorithm.	
+	* Default number of iterations in algorithm.	
 	* @since 1.0
 	*/
-	private final static int iterNumber = 2000;	// Iteration Number
+	private final static int defaultIterNumber = 2000;	// Iteration Number
 	/**
-	* Size of population in algorithm.	
+	* Default size of population in algorithm.	
 	* @since 1.0
 	*/
-	private final static int popSize = 100;		// Number of chromosomes
+	private final static int defaultPopSize = 100;		// Number of chromosomes
 	/**
-	* Maximum number of function evaluations in algorithm.	
+	* Default maximum number of function evaluations in algorithm.	
 	* @since 1.0
 	*/
-	private final static int maxFunEval = 90000; // Max Allowable Function Evaluation
+	private final static int defaultMaxFunEval = 90000; // Max Allowable Function Evaluation
+
+
 	/**
-	* Stores number of function evaluations in algorithm.	
+	* Population of chromosomes with fitness value, stored as a primitive row-major gene matrix.	
+	* @see Population
 	* @since 1.0
 	*/
-	private static int funEval = 0;	// Counting Function Evaluations
+	private Population pop ;	// Stores chromosome and fitness value 	
 	/**
-	* best-fitness value in the population.	
-	* @since 1.0
+	* Reusable offspring batch for crossover and mutation, all children of one operator pass are stored in it and evaluated together.
+	* @see Population
+	* @since 1.1
 	*/
-	private static double bestFitness = 99999999; // Store Best Fitness
+	private Population children ;
 	/**
-	* best-fitness chromosome in the population.	
-	* @since 1.0
+	* Index of the parent in <i>pop</i> which child <i>k</i> of the batch competes with.
+	* @since 1.1
 	*/
-	private static ArrayList<Double> bestChromosome;
+	private int[] parents ;
 	/**
-	* File-header to be appended into result file.	
-	* @since 1.0
+	* Fitness of every chromosome of <i>pop</i> while deciding which crossover children of a batch replace their parents.
+	* @since 1.1
 	*/
-	private static final String fileHeader = "Iteration,Fitness,Chromosome"+"\n";
+	private double[] current ;
 	/**
-	* FileWriter Object for writing into result file.
-	* @see FileWriter	
-	* @since 1.0
+	* Size of population in the run.
+	* @since 1.1
 	*/
-	private static FileWriter fileWriter = null;	 
-
-
+	private final int popSize;
 	/**
-	* This class is used for storing chromosome along with fitness value.
-	* It provides structure for storing such values in tied up manner.
-	* @since 1.0
+	* Evaluator scoring the offspring batches, sequential or on a ForkJoinPool.
+	* @see ParallelEvaluator
+	* @since 1.1
 	*/
-	public static class Individual{
-		/**
-		* This stores an ArrayList of chromsome's dimension decimal values for an instance.
-		* @since 1.0
-		*/	
-		ArrayList<Double> chromosome ; 
-		/**
-		* This stores a fitness value of chromosome for an instance.
-		* @since 1.0
-		*/
-		double fitness ; 
-	}
+	private final ParallelEvaluator evaluator;
+
 	/**
-	* Population of chromosomes with fitness value.	
+	* This creates a run on the fitness function selected with the <i>function</i>, <i>dim</i> and <i>cache</i> system properties,
+	* evaluating with the parallelism selected with the <i>parallelism</i> system property.
+	* @see BenchmarkFunction
+	* @see ParallelEvaluator
 	* @since 1.0
 	*/
-	private static ArrayList<Individual> pop ;	// Stores chromosome and fitness value 	
+	
+	public GeneticAlgorithm()
+	{
+		this(EvaluationCache.fromSystemProperty(BenchmarkFunction.fromSystemProperties()), ParallelEvaluator.fromSystemProperty());
+	}
+
 	/**
-	* resultant file name specific to algorithm.	
-	* @since 1.0
+	* This creates a run on the given fitness function and initialize <i>bestChromosome</i> to default values. 
+	* @param fObj This is the fitness function optimized in the run
+	* @param evaluator This is the evaluator scoring the offspring batches, it can be shared between runs
+	* @see FitnessFunction
+	* @since 1.1
 	*/
-	private final static String resultFileName = "Result"+algorithmName+".csv";
+	
+	public GeneticAlgorithm(FitnessFunction fObj, ParallelEvaluator evaluator)
+	{
+		this(fObj, evaluator, defaultPopSize);
+	}
 
 	/**
-	* This initialize <i>bestChromosome</i> to default values when this constructor is called. 
+	* This creates a run on the given fitness function with the given population size.
+	* @param fObj This is the fitness function optimized in the run
+	* @param evaluator This is the evaluator scoring the offspring batches, it can be shared between runs
+	* @param popSize This is the number of chromosomes in the population
+	* @exception IllegalArgumentException If <i>popSize</i> is less than 2
 	* @see FitnessFunction
-	* @since 1.0
+	* @since 1.1
 	*/
-	
-	public GeneticAlgorithm()
+
+	public GeneticAlgorithm(FitnessFunction fObj, ParallelEvaluator evaluator, int popSize)
 	{
-		FitnessFunction fObj = new FitnessFunction(); 
-		bestChromosome = new ArrayList<>(fObj.dim);
-		bestChromosome = initializeList(bestChromosome);
-	
+		super(algorithmName, fObj, defaultIterNumber, defaultMaxFunEval);
+		if(popSize<2)
+			throw new IllegalArgumentException("Population size must be at least 2");
+		this.evaluator = evaluator;
+		this.popSize = popSize;
 	}
 
 	
 	/**
 	* This method initialize all population of chromosomes with their dimensions and fitness function values.
-	* Also it binds them together into objects of Individual class.
-	* @see Individual
+	* Also it stores them together as rows of the Population gene matrix.
+	* @see Population
 	* @see FitnessFunction
 	* @since 1.0
 	*/
 
-	public static void initializeAll()
+	@Override
+	public void initializeAll()
 	{
-		pop = new ArrayList<Individual>(popSize);	// initialized to 100 capacity
+		int dim = fObj.getDim();
+		double lBound = fObj.getLowerBound(), uBound = fObj.getUpperBound();
 	
-		FitnessFunction fObj = new FitnessFunction(); 
+		pop = new Population(popSize, dim);	// initialized to 100 chromosomes by default
+		children = new Population(2*popSize, dim);	// crossover creates up to two children per chromosome
+		parents = new int[2*popSize];
+		// with full precision the rounding errors of updated sums show in every fitness value, which would all be evaluated in full again
+		if(fObj instanceof SeparableFunction && !(fObj.getPrecision() instanceof PrecisionPolicy.FullPrecision))
+		{
+			// mutated children are evaluated from the partial sums of their parents and the mutated gene
+			int sums = ((SeparableFunction)fObj).partialSums();
+			pop.enablePartialSums(sums);
+			children.enablePartialSums(sums);
+			// crossover children are evaluated from the prefix sums of their parents, as long as these take a small part of the heap
+			if(8.0*(popSize+children.size())*(dim+1)*sums < Runtime.getRuntime().maxMemory()/4)
+			{
+				pop.enablePrefixSums();
+				children.enablePrefixSums();
+				current = new double[popSize];
+			}
+		}
 	
+		double[] genes = pop.genes;
 		for(int i=0;i<popSize;i++)
 		{
-			ArrayList<Double> chromosome = new ArrayList<>(fObj.dim);
-		
-			for(int j=0;j<fObj.dim;j++)
+			int off = pop.offset(i);
+			for(int j=0;j<dim;j++)
 			{
 			// Adding chromosome's value with rounded value		
-				chromosome.add(fObj.round(((Math.random() * (fObj.uBound - fObj.lBound)) + fObj.lBound),2));
+				genes[off+j] = fObj.quantize(((rng.nextDouble() * (uBound - lBound)) + lBound));
 			}
-		
-			Individual inst = new Individual();
-		
-			inst.fitness = fObj.fitnessFunction(chromosome);
-			funEval++;
-			inst.chromosome = chromosome;
-		
-			pop.add(inst);
 		}
+		
+		evaluate(evaluator, pop, 0, popSize);
 	}
 
 	
 
 	/**
-	* This method creates a deepcopy i.e. a seperate copy of chromosome that will not be side effected by originals manipulation. A seperate copy of the object is created with same values as <i>copyFrom</i> parameter.   
+	* This method creates a deepcopy i.e. a seperate copy of chromosome that will not be side effected by originals manipulation. The values of <i>copyFrom</i> parameter are copied into <i>copyTo</i>.   
 	* @param copyTo This the chromosome in which the values copied into.
-	* @param copyFrom This is the chromosome from which the values copied from iteratively
-	* @return ArrayList This is the new copied <i>double</i> value containing chromosome which is returned
-	* @exception NullPointerException This exception is throwned while accessing null list
-	* @exception IndexOutOfBoundsException If the index accessed is out of bounds of list's size
-	* @see Individual
+	* @param copyFrom This is the chromosome from which the values copied from
+	* @return double[] This is the <i>copyTo</i> chromosome holding the copied values
+	* @exception NullPointerException This exception is throwned while accessing null array
+	* @exception IndexOutOfBoundsException If <i>copyTo</i> is shorter than <i>copyFrom</i>
 	* @since 1.0
 	*/
-	public static ArrayList<Double> deepCopy(ArrayList<Double> copyTo,ArrayList<Double> copyFrom)
+	public double[] deepCopy(double[] copyTo,double[] copyFrom)
 	{	
-	
-		FitnessFunction fObj = new FitnessFunction(); 
-	
-		for(int i=0;i<copyFrom.size();i++)
-		{
-			copyTo.set(i,copyFrom.get(i));
-				
-		}
-	
+		System.arraycopy(copyFrom, 0, copyTo, 0, copyFrom.length);
 		return copyTo;
 	}
 
@@ -186,169 +198,169 @@ public class GeneticAlgorithm extends FitnessFunction{
 	* @since 1.0
 	*/
 
-	public static void memorizeGlobalBest(){
+	@Override
+	public void memorizeGlobalBest(){
 		
-		FitnessFunction fObj = new FitnessFunction(); 
-		for(Individual p : pop)
-		{
-			if(p.fitness < bestFitness)
-			{
-				bestFitness = p.fitness;
-				bestChromosome = deepCopy(bestChromosome, p.chromosome);
-				System.out.println("New BestChromosome Found  "+bestChromosome);	
-			}
-		}
+		memorizeGlobalBest(pop);
 	}
 
+	/**
+	* This method returns the population of the run.
+	* @return Population Current population
+	* @since 1.1
+	*/
+
+	@Override
+	protected Population getPopulation()
+	{
+		return pop;
+	}
 
 	/**
-	* This method is used for stuffing default values into arraylist which can later be manipulated.
-	* @param list This is a list passed with size zero
-	* @return ArrayList This is a list with size of <i>dim</i> in FitnessFunction class
-	* @exception NullPointerException This exception is throwned while accessing null list
-	* @see FitnessFunction
-	* @since 1.0
+	* This method performs one generation of genetic algorithm, i.e. crossover followed by mutations.
+	* @since 1.1
 	*/
 
-	public static ArrayList<Double> initializeList(ArrayList<Double> list)
+	@Override
+	public void iterate()
 	{
-		FitnessFunction fObj = new FitnessFunction(); 
-		for(int i=0;i<fObj.dim;i++)
-			list.add(i,0.00);
-	
-		return list;
+		crossGene();
+		mutateGene();
 	}
 
 
 	/**
 	* This method is used for randomly picking up two chromosome from the population and performing one point crossover for them. Which generates two offsprings with different fitness values.
 	* After calculating and comparing the fitness of parent and corresponding offsprings it also replaces them with best fitness valued chromosome respectively.
-	* @see Individual
+	* All the offsprings of one pass are created from the current population first and evaluated together as one batch, then they replace their parents in the order they were created.
+	* For separable fitness functions with prefix sums the offsprings are evaluated from the prefix sums of their parents and their genes are only written when they replace a parent.
+	* @see Population
 	* @see FitnessFunction
+	* @see ParallelEvaluator
+	* @see SeparableFunction
 	* @since 1.0
 	*/
 
 
-	public static void crossGene(){
+	public void crossGene(){
 	
-		FitnessFunction fObj = new FitnessFunction(); 
+		int dim = fObj.getDim();
+		double[] genes = pop.genes;
+		double[] childGenes = children.genes;
+		boolean prefixSums = children.hasPrefixSums();
+		int count = 0;
+
+		if(prefixSums)
+			((SeparableFunction)fObj).refreshPrefixSums(pop);
 	
 		for(int i=0;i<popSize;i++)	
 		{
-			if(Math.random()<=crossRate)
+			if(rng.nextDouble()<=crossRate)
 			{
-				int indA = (int)(Math.random()*(popSize-1));
-				int indB = (int)(Math.random()*(popSize-1));
-			
-				int crossIndex = (int)(Math.random()*(fObj.dim-2));
+				int indA = (int)(rng.nextDouble()*(popSize-1));
+				int indB = (int)(rng.nextDouble()*(popSize-1));
 			
-				Individual parA = new Individual();
-				parA.chromosome = new ArrayList<Double>(fObj.dim);			
-				
-				parA.chromosome = initializeList(parA.chromosome);
-			
-				parA.chromosome = deepCopy(parA.chromosome, pop.get(indA).chromosome);
-				
-				Individual parB = new Individual();			
-				parB.chromosome = new ArrayList<Double>(fObj.dim);
-			
-				parB.chromosome = initializeList(parB.chromosome);
+				int crossIndex = (int)(rng.nextDouble()*(dim-2));
 			
-				parB.chromosome = deepCopy(parB.chromosome, pop.get(indB).chromosome);
-			
-				Individual childA = new Individual();			
-				childA.chromosome = new ArrayList<Double>(fObj.dim);	
-				Individual childB = new Individual();			
-				childB.chromosome = new ArrayList<Double>(fObj.dim);	
-			
-				for(int j=0;j<fObj.dim;j++)
+				// childA takes head of parent A and tail of parent B, childB the other way round
+				if(prefixSums)
 				{
-			
-					if(j<crossIndex)
-					{
-						childA.chromosome.add(j,parA.chromosome.get(j));
-						childB.chromosome.add(j,parB.chromosome.get(j));
-					}
-					else
-					{
-						childA.chromosome.add(j,parB.chromosome.get(j));
-						childB.chromosome.add(j,parA.chromosome.get(j));
-					}	
-			
+					children.cross(count, pop, indA, indB, crossIndex);
+					children.cross(count+1, pop, indB, indA, crossIndex);
 				}
-						
-				double childAFitness = fObj.fitnessFunction(childA.chromosome);
-				funEval++;
-			
-				double childBFitness = fObj.fitnessFunction(childB.chromosome);
-				funEval++;
-			
-			
-				if(childAFitness < pop.get(indA).fitness)
+				else
 				{
-					pop.get(indA).fitness = childAFitness;
-					pop.get(indA).chromosome = deepCopy(pop.get(indA).chromosome ,childA.chromosome);
-			}
-			
-				if(childBFitness < pop.get(indB).fitness)
-				{
-					pop.get(indB).fitness = childBFitness;
-					pop.get(indB).chromosome = deepCopy(pop.get(indB).chromosome , childB.chromosome);
+					int offA = pop.offset(indA);
+					int offB = pop.offset(indB);
+					int childA = children.offset(count);
+					int childB = children.offset(count+1);
+				
+					System.arraycopy(genes, offA, childGenes, childA, crossIndex);
+					System.arraycopy(genes, offB+crossIndex, childGenes, childA+crossIndex, dim-crossIndex);
+					System.arraycopy(genes, offB, childGenes, childB, crossIndex);
+					System.arraycopy(genes, offA+crossIndex, childGenes, childB+crossIndex, dim-crossIndex);
 				}
+			
+				parents[count++] = indA;
+				parents[count++] = indB;
 			}
-		}	
+		}
+		
+		replaceParents(count);
 	}
 
 
 	/**
 	* This method is used for randomly picking up one chromosome from the population and mutating one chromosome value to generate new child chromosome.
 	* After calculating and comparing the fitness of parent and corresponding offspring it also replaces parent with best fitness valued chromosome.
-	* @see Individual
+	* All the offsprings of one pass are created from the current population first and evaluated together as one batch, then they replace their parents in the order they were created.
+	* For separable fitness functions the offsprings carry the partial sums of their parents and only the terms of the mutated gene are evaluated.
+	* @see Population
 	* @see FitnessFunction
+	* @see ParallelEvaluator
+	* @see SeparableFunction
 	* @since 1.0
 	*/
 
-	public static void mutateGene()
+	public void mutateGene()
 	{
-		FitnessFunction fObj = new FitnessFunction(); 
+		int dim = fObj.getDim();
+		double lBound = fObj.getLowerBound(), uBound = fObj.getUpperBound();
+		int count = 0;
 	
 		for(int i=0;i<popSize;i++)
 		{
-			if(Math.random()<=mutRate)
+			if(rng.nextDouble()<=mutRate)
 			{
-				int ind = (int)(Math.random()*(popSize-1));
-			
-				Individual par = new Individual();			
-				par.chromosome = new ArrayList<Double>();	
-			
-				par.chromosome = initializeList(par.chromosome);
-			
-				par.chromosome = deepCopy(par.chromosome, pop.get(ind).chromosome);
-			
-				int mutIndex = (int)(Math.random()*(fObj.dim-1));
-			
-				Individual child = new Individual();			
-				child.chromosome = new ArrayList<Double>(fObj.dim);	
+				int ind = (int)(rng.nextDouble()*(popSize-1));
 			
-				child.chromosome = initializeList(child.chromosome);
+				int mutIndex = (int)(rng.nextDouble()*(dim-1));
 			
-				child.chromosome = deepCopy(child.chromosome, pop.get(ind).chromosome); 	
+				children.copyRowToMutate(pop, ind, count);
 			
-				child.chromosome.set(mutIndex, fObj.round(((Math.random()*(fObj.uBound - fObj.lBound))+fObj.lBound),2)); 
-			
-				double childFitness = fObj.fitnessFunction(child.chromosome);
-				funEval++;
-			
-				if(childFitness < pop.get(ind).fitness)
-				{
-					pop.get(ind).fitness = childFitness;
-					pop.get(ind).chromosome = deepCopy(pop.get(ind).chromosome,child.chromosome);
-				}
+				children.mutate(count, mutIndex, fObj.quantize(((rng.nextDouble()*(uBound - lBound))+lBound))); 
 			
+				parents[count++] = ind;
 			}
 	
 		}
+		
+		replaceParents(count);
+	}
+
+	/**
+	* This method evaluates the first <i>count</i> offsprings of the batch and replaces each parent whose offspring has a better fitness value.
+	* Replacement goes in the order of the batch, so a later offspring competes with a parent already replaced by an earlier one.
+	* @param count This is the number of offsprings in the batch
+	* @see ParallelEvaluator
+	* @since 1.1
+	*/
+
+	private void replaceParents(int count)
+	{
+		evaluate(evaluator, children, 0, count);
 
+		if(children.hasPrefixSums())
+		{
+			// crossover offsprings replacing a parent are written out before any parent, their genes are taken from, is replaced
+			System.arraycopy(pop.fitness, 0, current, 0, popSize);
+			for(int k=0;k<count;k++)
+			{
+				if(children.fitness[k] < current[parents[k]])
+				{
+					current[parents[k]] = children.fitness[k];
+					children.materialize(k);
+				}
+			}
+		}
+		
+		for(int k=0;k<count;k++)
+		{
+			if(children.fitness[k] < pop.fitness[parents[k]])
+			{
+				pop.copyRow(children, k, parents[k]);
+			}
+		}
 	}
 
 	/**
@@ -361,51 +373,7 @@ public class GeneticAlgorithm extends FitnessFunction{
 	public static void main(String[] args)
 	{
 		GeneticAlgorithm genObj = new GeneticAlgorithm(); 
-		genObj.initializeAll();
-	
-		genObj.bestChromosome = genObj.pop.get(0).chromosome;
-		genObj.bestFitness = genObj.pop.get(0).fitness;
-	
-	
-		try{
-				genObj.fileWriter = new FileWriter(genObj.resultFileName);
-				genObj.fileWriter.append(fileHeader);
-			
-				for(int i=0;i<iterNumber;i++)
-				{
-					genObj.crossGene();
-					genObj.mutateGene();
-					genObj.memorizeGlobalBest();
-				
-				
-				
-					
-					if(i%1==0)
-					{
-						genObj.fileWriter.append(i+","+genObj.bestFitness+","+genObj.bestChromosome+"\n");
-					}
-					
-					if(funEval>maxFunEval)
-						break;
-					
-				
-				}
-			
-				System.out.println("CSV file created");
-			
-		}
-		catch (Exception e){
-			e.printStackTrace();
-		}
-		finally{
-			try {
-				fileWriter.flush();
-			  	fileWriter.close();
-			}
-			catch(IOException e){
-			    e.printStackTrace();
-			 }
-		}            
+		genObj.runFromMain();
 	}
 
 }
@@ -1,25 +1,34 @@
+import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Point;
 import java.awt.RenderingHints;
 import java.awt.Stroke;
+import java.awt.BorderLayout;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.IOException;
 /**
 * This class reads from a <i>.csv</i> file and produces a plot of graph between fitness values and number of iterations.
+* The file is loaded by ResultFileLoader on a background thread while a progress bar is shown.
+* The mouse wheel zooms into the iterations under the cursor, dragging pans and a double click shows all iterations again;
+* hovering shows the iteration, fitness and best chromosome of the closest point.
 * Also, it extends JPanel class and uses its paintComponent method to make the complete plot the graph.
 * For original non-modfied source-code refer {@link https://stackoverflow.com/questions/8693342/drawing-a-simple-line-graph-in-java }
 * @author Ashish Rana
@@ -80,10 +89,143 @@ public class GraphPlotGui extends JPanel{
 	*/
     private static final Stroke GRAPH_STROKE = new BasicStroke(2f);
     /**
-	*fitness value plot list Gui by default.	
+	* Default result file plotted when no file is given.	
+	* @since 1.1
+	*/
+    private static final String defaultResultFile = "ResultGeniticAlgorithm.csv";
+    /**
+	*fitness value plot series Gui by default, stored in primitive arrays.	
+	* @see ResultSeries
 	* @since 1.0
 	*/
-    private List<Double> fitnessValues;
+    private ResultSeries fitnessValues;
+    /**
+	* Smallest fitness value, updated whenever the values are set.	
+	* @since 1.1
+	*/
+    private double minValue;
+    /**
+	* Largest fitness value, updated whenever the values are set.	
+	* @since 1.1
+	*/
+    private double maxValue;
+    /**
+	* Offscreen image of the rendered graph, reused by repaints until the values or the size change.	
+	* @since 1.1
+	*/
+    private BufferedImage plotImage;
+    /**
+	* Whether the offscreen image shows the current values.	
+	* @since 1.1
+	*/
+    private boolean plotImageValid;
+    /**
+	* Horizontal and vertical scale of the device the offscreen image was created for.	
+	* @since 1.1
+	*/
+    private double imageScaleX, imageScaleY;
+    /**
+	* Number of values drawn on the offscreen image.	
+	* @since 1.1
+	*/
+    private int drawnSize;
+    /**
+	* Whether the offscreen image shows the downsampled line without point marks.	
+	* @since 1.1
+	*/
+    private boolean renderedDownsampled;
+    /**
+	* First and last iteration on the x axis.	
+	* @since 1.1
+	*/
+    private double xFirst, xLast;
+    /**
+	* Lowest and highest fitness value on the y axis.	
+	* @since 1.1
+	*/
+    private double yLow, yHigh;
+    /**
+	* Timer draining the feed of a running optimizer at the frame rate, <code>null</code> when fixed values are shown.	
+	* @see LiveFeed
+	* @since 1.1
+	*/
+    private Timer liveTimer;
+    /**
+	* Frames per second of the live plot, set with the <i>frameRate</i> system property.	
+	* @since 1.1
+	*/
+    private static final int frameRate = Math.max(1, Integer.getInteger("frameRate", 25));
+    /**
+	* Initial length of the x axis of the live plot in iterations.	
+	* @since 1.1
+	*/
+    private static final int liveIterations = 100;
+    /**
+	* Room left below the best fitness of the live plot, relative to the range of the values.	
+	* @since 1.1
+	*/
+    private static final double liveHeadroom = 0.25;
+    /**
+	* Index of the smallest and largest fitness value of every range of the series, for drawing and scaling zoomed views.	
+	* @see MinMaxPyramid
+	* @since 1.1
+	*/
+    private MinMaxPyramid pyramid;
+    /**
+	* Whether only the iterations from viewFirst to viewLast are shown.	
+	* @since 1.1
+	*/
+    private boolean zoomed;
+    /**
+	* First and last iteration shown when zoomed.	
+	* @since 1.1
+	*/
+    private double viewFirst, viewLast;
+    /**
+	* First and last iteration on the x axis as drawn, the whole axis or the zoomed view.	
+	* @since 1.1
+	*/
+    private double shownFirst, shownLast;
+    /**
+	* Lowest and highest fitness value on the y axis as drawn, fitted to the values in view when zoomed.	
+	* @since 1.1
+	*/
+    private double shownLow, shownHigh;
+    /**
+	* Factor the shown iterations change by per step of the mouse wheel.	
+	* @since 1.1
+	*/
+    private static final double zoomStep = 1.25;
+    /**
+	* Fewest iterations shown when zoomed in.	
+	* @since 1.1
+	*/
+    private static final double minimumView = 4;
+    /**
+	* Index of the point under the mouse, -1 when there is none.	
+	* @since 1.1
+	*/
+    private int hoverRow = -1;
+    /**
+	* Index of the point whose chromosome is in chromosomeText, -1 when there is none.	
+	* @since 1.1
+	*/
+    private int chromosomeRow = -1;
+    /**
+	* Chromosome of the point chromosomeRow, read from the result file when it is hovered.	
+	* @since 1.1
+	*/
+    private String chromosomeText;
+    /**
+	* Whether a chromosome is being read from the result file.	
+	* @since 1.1
+	*/
+    private boolean chromosomeLoading;
+    /**
+	* Longest chromosome text shown in the tool tip.	
+	* @since 1.1
+	*/
+    private static final int maxChromosomeText = 120;
 	
 	
 	/**
@@ -92,7 +234,36 @@ public class GraphPlotGui extends JPanel{
 	* @since 1.0
 	*/
 	public GraphPlotGui(List<Double> fitnessValues) {
+        this(toSeries(fitnessValues));
+    }
+
+	/**
+	* This constructor of class sets the series of fitness values which will be plotted along y-axis of graph.
+	* @param fitnessValues This is the series of iterations and fitness values to be plotted
+	* @see ResultSeries
+	* @since 1.1
+	*/
+	public GraphPlotGui(ResultSeries fitnessValues) {
         this.fitnessValues = fitnessValues;
+        updateExtrema();
+        Inspector inspector = new Inspector();
+        addMouseListener(inspector);
+        addMouseMotionListener(inspector);
+        addMouseWheelListener(inspector);
+    }
+
+	/**
+	* This method converts a list of fitness values of consecutive iterations into a series.
+	* @param fitnessValues This is the list of fitness values
+	* @return ResultSeries Series of the values
+	* @since 1.1
+	*/
+	private static ResultSeries toSeries(List<Double> fitnessValues) {
+        double[] values = new double[fitnessValues.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = fitnessValues.get(i);
+        }
+        return new ResultSeries("values", values);
     }
 	
 	/**
@@ -109,125 +280,493 @@ public class GraphPlotGui extends JPanel{
 	
 	/**
 	* This method overrides super class method and also calls it for pre-setting(i.e. base setting of the panel) all the things in GUI.
-	* Main task of this method is to draw everything from graph, its background grid, plot line and label along with all the axis values.
+	* The graph is drawn into an offscreen image by renderPlot, which is reused by later repaints until the values or the size of the panel change.
 	* @param g This Graphics class object will be containing and manipulating all information about the graph GUI plot
 	* @exception NullPointerException This exception will thrown when g is null
-	* @exception IndexOutOfBoundsException This exception thrown index higher or lower than permitted value is accessed
 	* @since 1.0
 	*/ 
 	@Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
         Graphics2D g2 = (Graphics2D) g;
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        AffineTransform transform = g2.getTransform();
+        int imageWidth = (int) Math.ceil(getWidth() * transform.getScaleX());
+        int imageHeight = (int) Math.ceil(getHeight() * transform.getScaleY());
+        if (imageWidth <= 0 || imageHeight <= 0) {
+            return;
+        }
 
-        double xScale = ((double) getWidth() - (2 * padding) - labelPadding) / (fitnessValues.size() - 1);
-        double yScale = ((double) getHeight() - 2 * padding - labelPadding) / (getMaxValue() - getMinValue());
+        if (plotImage == null || plotImage.getWidth() != imageWidth || plotImage.getHeight() != imageHeight
+                || imageScaleX != transform.getScaleX() || imageScaleY != transform.getScaleY()) {
+            plotImage = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+            imageScaleX = transform.getScaleX();
+            imageScaleY = transform.getScaleY();
+            plotImageValid = false;
+        }
+        if (!plotImageValid) {
+            Graphics2D imageGraphics = createImageGraphics();
+            try {
+                imageGraphics.setComposite(AlphaComposite.Clear);
+                imageGraphics.fillRect(0, 0, getWidth(), getHeight());
+                imageGraphics.setComposite(AlphaComposite.SrcOver);
+                renderPlot(PlotCanvas.of(imageGraphics), getWidth(), getHeight());
+            } finally {
+                imageGraphics.dispose();
+            }
+            plotImageValid = true;
+        }
+        g2.drawImage(plotImage, 0, 0, getWidth(), getHeight(), null);
 
-        List<Point> graphPoints = new ArrayList<>();
-        for (int i = 0; i < fitnessValues.size(); i++) {
-            int x1 = (int) (i * xScale + padding + labelPadding);
-            int y1 = (int) ((getMaxValue() - fitnessValues.get(i)) * yScale + padding);
-            graphPoints.add(new Point(x1, y1));
+        // mark the point under the mouse
+        if (hoverRow >= 0 && hoverRow < fitnessValues.size()) {
+            int x = xPosition(hoverRow, getWidth());
+            int y = yPosition(hoverRow, getHeight());
+            g2.setColor(lineColor.darker());
+            g2.setStroke(GRAPH_STROKE);
+            g2.drawOval(x - 2 * pointWidth, y - 2 * pointWidth, 4 * pointWidth, 4 * pointWidth);
         }
+    }
 
-        // draw white background
-        g2.setColor(Color.WHITE);
-        g2.fillRect(padding + labelPadding, padding, getWidth() - (2 * padding) - labelPadding, getHeight() - 2 * padding - labelPadding);
-        g2.setColor(Color.BLACK);
+	/**
+	* This method returns a Graphics object drawing on the offscreen image in the coordinates of the panel.
+	* @return Graphics2D Graphics of the offscreen image, to be disposed by the caller
+	* @since 1.1
+	*/
+	private Graphics2D createImageGraphics() {
+        Graphics2D imageGraphics = plotImage.createGraphics();
+        imageGraphics.scale(imageScaleX, imageScaleY);
+        imageGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        imageGraphics.setFont(getFont());
+        return imageGraphics;
+    }
+
+	/**
+	* This method draws the whole graph onto a canvas of the given size, e.g. for saving it as an image or SVG document.
+	* The panel does not need to be shown, so it can be used off the event dispatch thread and without a display.
+	* @param canvas This is the canvas the graph is drawn on
+	* @param plotWidth This is the width of the canvas
+	* @param plotHeight This is the height of the canvas
+	* @see BatchPlotRenderer
+	* @since 1.1
+	*/
+	public void render(PlotCanvas canvas, int plotWidth, int plotHeight) {
+        boolean downsampled = renderedDownsampled;
+        int drawn = drawnSize;
+        renderPlot(canvas, plotWidth, plotHeight);
+        renderedDownsampled = downsampled;
+        drawnSize = drawn;
+    }
+
+	/**
+	* This method draws everything from graph, its background grid, plot line and label along with all the axis values.
+	* The x axis is scaled by iteration number, so sampled result files keep their true spacing.
+	* When zoomed only the points in view are looked at, found by binary search, and the line is clipped to the graph area.
+	* @param canvas This is the canvas the graph is drawn on
+	* @param plotWidth This is the width of the area to draw in
+	* @param plotHeight This is the height of the area to draw in
+	* @see PlotCanvas
+	* @since 1.1
+	*/
+	private void renderPlot(PlotCanvas canvas, int plotWidth, int plotHeight) {
+        int size = fitnessValues.size();
+        updateView();
+        int areaWidth = plotWidth - (2 * padding) - labelPadding;
+        double xScale = xScale(plotWidth);
+
+        // draw background of the panel and white background of the graph
+        canvas.setColor(getBackground());
+        canvas.fillRect(0, 0, plotWidth, plotHeight);
+        canvas.setColor(Color.WHITE);
+        canvas.fillRect(padding + labelPadding, padding, areaWidth, plotHeight - 2 * padding - labelPadding);
+        canvas.setColor(Color.BLACK);
 
         // create hatch marks and grid lines for y axis.
         for (int i = 0; i < numberYDivisions + 1; i++) {
             int x0 = padding + labelPadding;
             int x1 = pointWidth + padding + labelPadding;
-            int y0 = getHeight() - ((i * (getHeight() - padding * 2 - labelPadding)) / numberYDivisions + padding + labelPadding);
+            int y0 = plotHeight - ((i * (plotHeight - padding * 2 - labelPadding)) / numberYDivisions + padding + labelPadding);
             int y1 = y0;
-            if (fitnessValues.size() > 0) {
-                g2.setColor(gridColor);
-                g2.drawLine(padding + labelPadding + 1 + pointWidth, y0, getWidth() - padding, y1);
-                g2.setColor(Color.BLACK);
-                String yLabel = ((int) ((getMinValue() + (getMaxValue() - getMinValue()) * ((i * 1.0) / numberYDivisions)) * 100)) / 100.0 + "";
-                FontMetrics metrics = g2.getFontMetrics();
+            if (size > 0) {
+                canvas.setColor(gridColor);
+                canvas.drawLine(padding + labelPadding + 1 + pointWidth, y0, plotWidth - padding, y1);
+                canvas.setColor(Color.BLACK);
+                String yLabel = ((int) ((shownLow + (shownHigh - shownLow) * ((i * 1.0) / numberYDivisions)) * 100)) / 100.0 + "";
+                FontMetrics metrics = canvas.getFontMetrics();
                 int labelWidth = metrics.stringWidth(yLabel);
-                g2.drawString(yLabel, x0 - labelWidth - 5, y0 + (metrics.getHeight() / 2) - 3);
+                canvas.drawString(yLabel, x0 - labelWidth - 5, y0 + (metrics.getHeight() / 2) - 3);
             }
-            g2.drawLine(x0, y0, x1, y1);
+            canvas.drawLine(x0, y0, x1, y1);
         }
 
-        // and for x axis
-        for (int i = 0; i < fitnessValues.size(); i++) {
-            if (fitnessValues.size() > 1) {
-                int x0 = i * (getWidth() - padding * 2 - labelPadding) / (fitnessValues.size() - 1) + padding + labelPadding;
-                int x1 = x0;
-                int y0 = getHeight() - padding - labelPadding;
-                int y1 = y0 - pointWidth;
-                if ((i % ((int) ((fitnessValues.size() / 20.0)) + 1)) == 0) {
-                    g2.setColor(gridColor);
-                    g2.drawLine(x0, getHeight() - padding - labelPadding - 1 - pointWidth, x1, padding);
-                    g2.setColor(Color.BLACK);
-                    String xLabel = i + "";
-                    FontMetrics metrics = g2.getFontMetrics();
-                    int labelWidth = metrics.stringWidth(xLabel);
-                    g2.drawString(xLabel, x0 - labelWidth / 2, y0 + metrics.getHeight() + 3);
-                }
-                g2.drawLine(x0, y0, x1, y1);
+        // and for x axis, labelled at round iteration numbers which fit next to each other
+        if (size > 0) {
+            FontMetrics metrics = canvas.getFontMetrics();
+            int maxLabels = Math.max(1, Math.min(20, areaWidth / (metrics.stringWidth((long) shownLast + "") + 10)));
+            long step = tickStep((shownLast - shownFirst) / maxLabels);
+            int y0 = plotHeight - padding - labelPadding;
+            for (long tick = (long) Math.ceil(shownFirst / step) * step; tick <= shownLast; tick += step) {
+                int x0 = (int) ((tick - shownFirst) * xScale + padding + labelPadding);
+                canvas.setColor(gridColor);
+                canvas.drawLine(x0, y0 - 1 - pointWidth, x0, padding);
+                canvas.setColor(Color.BLACK);
+                String xLabel = tick + "";
+                int labelWidth = metrics.stringWidth(xLabel);
+                canvas.drawString(xLabel, x0 - labelWidth / 2, y0 + metrics.getHeight() + 3);
+                canvas.drawLine(x0, y0, x0, y0 - pointWidth);
             }
         }
 
         // create x and y axes 
-        g2.drawLine(padding + labelPadding, getHeight() - padding - labelPadding, padding + labelPadding, padding);
-        g2.drawLine(padding + labelPadding, getHeight() - padding - labelPadding, getWidth() - padding, getHeight() - padding - labelPadding);
-
-        Stroke oldStroke = g2.getStroke();
-        g2.setColor(lineColor);
-        g2.setStroke(GRAPH_STROKE);
-        for (int i = 0; i < graphPoints.size() - 1; i++) {
-            int x1 = graphPoints.get(i).x;
-            int y1 = graphPoints.get(i).y;
-            int x2 = graphPoints.get(i + 1).x;
-            int y2 = graphPoints.get(i + 1).y;
-            g2.drawLine(x1, y1, x2, y2);
-        }
-
-        g2.setStroke(oldStroke);
-        g2.setColor(pointColor);
-        for (int i = 0; i < graphPoints.size(); i++) {
-            int x = graphPoints.get(i).x - pointWidth / 2;
-            int y = graphPoints.get(i).y - pointWidth / 2;
-            int ovalW = pointWidth;
-            int ovalH = pointWidth;
-            g2.fillOval(x, y, ovalW, ovalH);
+        canvas.drawLine(padding + labelPadding, plotHeight - padding - labelPadding, padding + labelPadding, padding);
+        canvas.drawLine(padding + labelPadding, plotHeight - padding - labelPadding, plotWidth - padding, plotHeight - padding - labelPadding);
+
+        int from = visibleFrom();
+        int to = visibleTo();
+        renderedDownsampled = to - from > Math.max(1, areaWidth);
+        drawnSize = size;
+        canvas.setClip(padding + labelPadding, padding, areaWidth + 1, plotHeight - 2 * padding - labelPadding + 1);
+        drawSeries(canvas, from, to, plotWidth, plotHeight);
+        canvas.clearClip();
+    }
+
+	/**
+	* This method sets the axes as drawn, the whole axes or the zoomed view with the y axis fitted to the values in view.
+	* @since 1.1
+	*/
+	private void updateView() {
+        if (!zoomed) {
+            shownFirst = xFirst;
+            shownLast = xLast;
+            shownLow = yLow;
+            shownHigh = yHigh;
+            return;
+        }
+        shownFirst = viewFirst;
+        shownLast = viewLast;
+        int from = visibleFrom();
+        int to = visibleTo();
+        if (from < to) {
+            double[] values = fitnessValues.fitness();
+            shownLow = values[pyramid.argMin(from, to)];
+            shownHigh = values[pyramid.argMax(from, to)];
+        }
+        if (!(shownHigh > shownLow)) {
+            double margin = span(shownLow, shownHigh) / 2;
+            shownLow -= margin;
+            shownHigh += margin;
         }
     }
+
+	/**
+	* This method returns the index of the first point drawn, the last point left of the shown iterations when there is one.
+	* @return int Index of the first point
+	* @since 1.1
+	*/
+	private int visibleFrom() {
+        return Math.max(0, fitnessValues.lowerBound(shownFirst, 0, fitnessValues.size()) - 1);
+    }
+
+	/**
+	* This method returns the index after the last point drawn, which is the first point right of the shown iterations when there is one.
+	* @return int Index after the last point
+	* @since 1.1
+	*/
+	private int visibleTo() {
+        int size = fitnessValues.size();
+        return Math.min(size, fitnessValues.lowerBound(Math.nextUp(shownLast), 0, size) + 1);
+    }
+
+	/**
+	* This method draws the line through the points <i>[from, to)</i>, starting at point <i>from-1</i> when there is one.
+	* When there are more values than pixel columns the line is drawn through the points selected by Downsampler, so at most four points per column
+	* are drawn without losing any peak, and the points themselves and their hatch marks are only drawn when every value has its own column.
+	* For many more points than columns the smallest and largest value of every column are looked up in the pyramid instead of scanning the points.
+	* @param canvas This is the canvas the graph is drawn on
+	* @param from This is the index of the first point
+	* @param to This is the index after the last point
+	* @param plotWidth This is the width of the area to draw in
+	* @param plotHeight This is the height of the area to draw in
+	* @return int[] Smallest and largest x coordinate drawn, or <code>null</code> when nothing was drawn
+	* @see Downsampler
+	* @since 1.1
+	*/
+	private int[] drawSeries(PlotCanvas canvas, int from, int to, int plotWidth, int plotHeight) {
+        if (from >= to) {
+            return null;
+        }
+        int[] iterations = fitnessValues.iterations();
+        double[] values = fitnessValues.fitness();
+        int areaWidth = Math.max(1, plotWidth - (2 * padding) - labelPadding);
+        double xScale = xScale(plotWidth);
+        double yScale = yScale(plotHeight);
+
+        int[] selected = new int[(int) Math.min(to - from, 4L * (areaWidth + 2))];
+        int count = to - from > 8L * (areaWidth + 2)
+                ? Downsampler.m4(iterations, values, from, to, shownFirst, xScale, pyramid, selected)
+                : Downsampler.m4(iterations, values, from, to, shownFirst, xScale, selected);
+        int start = from > 0 ? 1 : 0;
+        int points = start + count;
+        int[] xPoints = new int[points];
+        int[] yPoints = new int[points];
+        for (int k = 0; k < points; k++) {
+            int i = k < start ? from - 1 : selected[k - start];
+            xPoints[k] = (int) ((iterations[i] - shownFirst) * xScale + padding + labelPadding);
+            yPoints[k] = (int) ((shownHigh - values[i]) * yScale + padding);
+        }
+
+        if (!renderedDownsampled) {
+            canvas.setColor(Color.BLACK);
+            int y0 = plotHeight - padding - labelPadding;
+            for (int k = start; k < points; k++) {
+                canvas.drawLine(xPoints[k], y0, xPoints[k], y0 - pointWidth);
+            }
+        }
+
+        Stroke oldStroke = canvas.getStroke();
+        canvas.setColor(lineColor);
+        canvas.setStroke(GRAPH_STROKE);
+        canvas.drawPolyline(xPoints, yPoints, points);
+
+        canvas.setStroke(oldStroke);
+        if (!renderedDownsampled) {
+            canvas.setColor(pointColor);
+            for (int k = start; k < points; k++) {
+                int x = xPoints[k] - pointWidth / 2;
+                int y = yPoints[k] - pointWidth / 2;
+                int ovalW = pointWidth;
+                int ovalH = pointWidth;
+                canvas.fillOval(x, y, ovalW, ovalH);
+            }
+        }
+        return new int[]{xPoints[0], xPoints[points - 1]};
+    }
+
+	/**
+	* This method returns the number of pixels per iteration along the x axis.
+	* @param plotWidth This is the width of the area to draw in
+	* @return double Pixels per iteration
+	* @since 1.1
+	*/
+	private double xScale(int plotWidth) {
+        return shownLast > shownFirst ? (plotWidth - 2.0 * padding - labelPadding) / (shownLast - shownFirst) : 0;
+    }
+
+	/**
+	* This method returns the number of pixels per unit of fitness along the y axis.
+	* @param plotHeight This is the height of the area to draw in
+	* @return double Pixels per unit of fitness
+	* @since 1.1
+	*/
+	private double yScale(int plotHeight) {
+        return shownHigh > shownLow ? (plotHeight - 2.0 * padding - labelPadding) / (shownHigh - shownLow) : 0;
+    }
+
+	/**
+	* This method returns the x coordinate of a point as drawn on the panel.
+	* @param row This is the index of the point
+	* @param plotWidth This is the width of the area drawn in
+	* @return int X coordinate
+	* @since 1.1
+	*/
+	private int xPosition(int row, int plotWidth) {
+        return (int) ((fitnessValues.iteration(row) - shownFirst) * xScale(plotWidth) + padding + labelPadding);
+    }
+
+	/**
+	* This method returns the y coordinate of a point as drawn on the panel.
+	* @param row This is the index of the point
+	* @param plotHeight This is the height of the area drawn in
+	* @return int Y coordinate
+	* @since 1.1
+	*/
+	private int yPosition(int row, int plotHeight) {
+        return (int) ((shownHigh - fitnessValues.fitness(row)) * yScale(plotHeight) + padding);
+    }
+
+	/**
+	* This method returns the distance of the x axis labels, the smallest of 1, 2 or 5 times a power of ten not below the given distance.
+	* @param minStep This is the smallest distance of the labels in iterations
+	* @return long Distance of the labels in iterations
+	* @since 1.1
+	*/
+	static long tickStep(double minStep) {
+        if (!(minStep > 1)) {
+            return 1;
+        }
+        long power = 1;
+        while (power * 10 <= minStep) {
+            power *= 10;
+        }
+        for (long factor : new long[]{1, 2, 5, 10}) {
+            if (factor * power >= minStep) {
+                return factor * power;
+            }
+        }
+        return 10 * power;
+    }
 	
 	/**
-	* This method returns the minimum value from the list of fitness values.
+	* This method returns the minimum value from the list of fitness values, it is computed once whenever the values are set.
 	* @return double This contains minValue from the list that will be plotted in the graph
 	* @since 1.0
 	*/	
 	
 	public double getMinValue() {
-        double minValue = Double.MAX_VALUE;
-        for (Double value : fitnessValues) {
-            minValue = Math.min(minValue, value);
-        }
         return minValue;
     }
 
 	
 	/**
-	* This method returns the maximum value from the list of fitness values.
+	* This method returns the maximum value from the list of fitness values, it is computed once whenever the values are set.
 	* @return double This contains maxValue from the list that will be plotted in the graph
 	* @since 1.0
 	*/
 		
 	public double getMaxValue() {
-        double maxValue = Double.MIN_VALUE;
-        for (Double value : fitnessValues) {
-            maxValue = Math.max(maxValue, value);
-        }
         return maxValue;
     }
+
+	/**
+	* This method computes the minimum and maximum of the fitness values in a single pass and fits the axes to the values.
+	* It also builds the pyramid of the values and shows all iterations.
+	* @since 1.1
+	*/
+	private void updateExtrema() {
+        minValue = Double.MAX_VALUE;
+        maxValue = Double.MIN_VALUE;
+        addExtrema(0);
+        int size = fitnessValues.size();
+        xFirst = size > 0 ? fitnessValues.iteration(0) : 0;
+        xLast = size > 0 ? fitnessValues.iteration(size - 1) : 0;
+        yLow = minValue;
+        yHigh = maxValue;
+        pyramid = new MinMaxPyramid(fitnessValues);
+        zoomed = false;
+        hoverRow = -1;
+        chromosomeRow = -1;
+        chromosomeText = null;
+        updateView();
+    }
+
+	/**
+	* This method includes the fitness values from the given index on into the minimum and maximum.
+	* @param from This is the index of the first value not included yet
+	* @since 1.1
+	*/
+	private void addExtrema(int from) {
+        double[] values = fitnessValues.fitness();
+        for (int i = from; i < fitnessValues.size(); i++) {
+            minValue = Math.min(minValue, values[i]);
+            maxValue = Math.max(maxValue, values[i]);
+        }
+    }
+
+	/**
+	* This method shows the values of a running optimizer, which are drained from the feed at the frame rate of the Gui.
+	* Only the new part of the line is drawn onto the offscreen image, the whole graph is drawn again only when the axes have to grow.
+	* The x axis doubles whenever the run passes its end and the y axis leaves some room below the best fitness, so this happens rarely.
+	* While zoomed every frame is drawn again, as the y axis follows the values in view.
+	* @param feed This is the feed the optimizer records into
+	* @see LiveFeed
+	* @since 1.1
+	*/
+	public void watch(LiveFeed feed) {
+        setValue(new ResultSeries("live", 1024));
+        liveTimer = new Timer(1000 / frameRate, e -> {
+            boolean finished = feed.isClosed();
+            int from = fitnessValues.size();
+            if (feed.drainTo(fitnessValues) > 0) {
+                appendLive(from);
+            }
+            if (finished) {
+                ((Timer) e.getSource()).stop();
+            }
+        });
+        liveTimer.start();
+    }
+
+	/**
+	* This method shows the points of the live series from the given index on, growing the axes when they do not fit.
+	* @param from This is the index of the first new point
+	* @since 1.1
+	*/
+	private void appendLive(int from) {
+        int size = fitnessValues.size();
+        addExtrema(from);
+        pyramid.update();
+        boolean axesChanged = zoomed;
+        if (from == 0) {
+            xFirst = fitnessValues.iteration(0);
+            xLast = xFirst + liveIterations;
+            yLow = minValue - liveHeadroom * span(minValue, maxValue);
+            yHigh = maxValue;
+            axesChanged = true;
+        }
+        while (fitnessValues.iteration(size - 1) > xLast) {
+            xLast = xFirst + 2 * (xLast - xFirst);
+            axesChanged = true;
+        }
+        if (minValue < yLow) {
+            yLow = minValue - liveHeadroom * span(minValue, yHigh);
+            axesChanged = true;
+        }
+        if (maxValue > yHigh) {
+            yHigh = maxValue + liveHeadroom * span(yLow, maxValue);
+            axesChanged = true;
+        }
+
+        int areaWidth = getWidth() - (2 * padding) - labelPadding;
+        if (axesChanged || !plotImageValid || plotImage == null || drawnSize != from || renderedDownsampled != (size > Math.max(1, areaWidth))) {
+            plotImageValid = false;
+            repaint();
+            return;
+        }
+        updateView();
+        Graphics2D imageGraphics = createImageGraphics();
+        int[] drawn;
+        try {
+            drawn = drawSeries(PlotCanvas.of(imageGraphics), from, size, getWidth(), getHeight());
+        } finally {
+            imageGraphics.dispose();
+        }
+        drawnSize = size;
+        if (drawn != null) {
+            repaint(drawn[0] - pointWidth - 2, 0, drawn[1] - drawn[0] + 2 * pointWidth + 4, getHeight());
+        }
+    }
+
+	/**
+	* This method returns the distance of two values, or the magnitude of the value when they are equal, and at least 1 for zero.
+	* @param low This is the smaller value
+	* @param high This is the larger value
+	* @return double Distance of the values
+	* @since 1.1
+	*/
+	private static double span(double low, double high) {
+        double span = high - low;
+        return span > 0 ? span : Math.max(Math.abs(high), 1);
+    }
+
+	/**
+	* This method opens a Gui window showing the values of a running optimizer, closing the window ends the program and with it the run.
+	* @param title This is the title of the window, e.g. the algorithm name
+	* @param feed This is the feed the optimizer records into
+	* @see LiveFeed
+	* @since 1.1
+	*/
+	public static void showLive(String title, LiveFeed feed) {
+        SwingUtilities.invokeLater(() -> {
+            GraphPlotGui mainPanel = new GraphPlotGui(new ResultSeries(title, 0));
+            mainPanel.setPreferredSize(new Dimension(600, 300));
+            JFrame frame = new JFrame(title);
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.getContentPane().add(mainPanel);
+            frame.pack();
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+            mainPanel.watch(feed);
+        });
+    }
 	
 	/**
 	* This method is setter method that is used for assinging fitness values to the member of this class.
@@ -236,83 +775,366 @@ public class GraphPlotGui extends JPanel{
 	*/
 	
     public void setValue(List<Double> fitnessValues) {
+        setValue(toSeries(fitnessValues));
+    }
+
+	/**
+	* This method is setter method that is used for assinging the series of fitness values to the member of this class.
+	* @param fitnessValues This is the series of iterations and fitness values to be plotted
+	* @since 1.1
+	*/
+	
+    public void setValue(ResultSeries fitnessValues) {
+        if (liveTimer != null) {
+            liveTimer.stop();
+            liveTimer = null;
+        }
         this.fitnessValues = fitnessValues;
+        updateExtrema();
+        plotImageValid = false;
         invalidate();
         this.repaint();
     }
 	
 	/**
 	* This method is getter method that is used for getting fitness values from the member of this class.
+	* The list is a copy of the plotted series.
 	* @return List This returned list contains double type fitness values to corresponding fitness function that are to be plotted
 	* @since 1.0
 	*/
 	
     public List<Double> getfintnessValues() {
-        return fitnessValues;
+        List<Double> values = new ArrayList<>(fitnessValues.size());
+        for (int i = 0; i < fitnessValues.size(); i++) {
+            values.add(fitnessValues.fitness(i));
+        }
+        return values;
     }
 	
 	/**
-	* This method is called by main method and does all the work in the program. Reads the <i>.csv</i> file, load the Gui content and displays it. 
-	* @see JFrame
-	* @since 1.0
+	* This method zooms the x axis by the given number of steps around the iteration at the given x coordinate,
+	* zooming out until all iterations are shown again.
+	* @param x This is the x coordinate on the panel that stays at its iteration
+	* @param steps This is the number of steps, positive to zoom out and negative to zoom in
+	* @since 1.1
 	*/
-	
-	private static void createAndShowGui() {
-        List<Double> fitnessValues = new ArrayList<>();
-        
-        String csvFile = "ResultGeniticAlgorithm.csv";
-        BufferedReader br = null;
-        String line = "";
-        String cvsSplitBy = ",";
-        try {
-            br = new BufferedReader(new FileReader(csvFile));
-            int i=0;
-            while ((line = br.readLine()) != null) {
-                String[] csvData = line.split(cvsSplitBy);
-				if(i>0)
-				fitnessValues.add(Double.parseDouble(csvData[1]));
-
-            	i++;
-			}
-
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            if (br != null) {
+	private void zoom(int x, double steps) {
+        double fullSpan = xLast - xFirst;
+        if (fitnessValues.size() < 2 || !(fullSpan > 0)) {
+            return;
+        }
+        updateView();
+        double shownSpan = shownLast - shownFirst;
+        double anchor = Math.max(shownFirst, Math.min(shownLast, iterationAt(x)));
+        double span = Math.max(Math.min(fullSpan, minimumView), shownSpan * Math.pow(zoomStep, steps));
+        if (span >= fullSpan) {
+            zoomed = false;
+        } else {
+            showIterations(anchor - (anchor - shownFirst) * span / shownSpan, span);
+        }
+        plotImageValid = false;
+        repaint();
+    }
+
+	/**
+	* This method moves the zoomed view along the x axis, keeping it within the iterations of the series.
+	* @param dx This is the distance in pixels, positive to show earlier iterations
+	* @since 1.1
+	*/
+	private void pan(int dx) {
+        double xScale = xScale(getWidth());
+        if (!zoomed || xScale == 0 || dx == 0) {
+            return;
+        }
+        showIterations(viewFirst - dx / xScale, viewLast - viewFirst);
+        plotImageValid = false;
+        repaint();
+    }
+
+	/**
+	* This method shows the given iterations, moved to lie within the iterations of the series.
+	* @param first This is the first iteration shown
+	* @param span This is the number of iterations shown
+	* @since 1.1
+	*/
+	private void showIterations(double first, double span) {
+        viewFirst = Math.max(xFirst, Math.min(xLast - span, first));
+        viewLast = viewFirst + span;
+        zoomed = true;
+    }
+
+	/**
+	* This method shows all iterations again.
+	* @since 1.1
+	*/
+	private void resetZoom() {
+        if (zoomed) {
+            zoomed = false;
+            plotImageValid = false;
+            repaint();
+        }
+    }
+
+	/**
+	* This method returns the iteration at an x coordinate of the panel.
+	* @param x This is the x coordinate
+	* @return double Iteration
+	* @since 1.1
+	*/
+	private double iterationAt(int x) {
+        double xScale = xScale(getWidth());
+        return xScale > 0 ? shownFirst + (x - padding - labelPadding) / xScale : shownFirst;
+    }
+
+	/**
+	* This method finds the point closest to the mouse by binary search over the points in view and shows its values in the tool tip.
+	* The chromosome is read from the result file in the background the first time the point is hovered.
+	* @param x This is the x coordinate of the mouse
+	* @param y This is the y coordinate of the mouse
+	* @since 1.1
+	*/
+	private void hover(int x, int y) {
+        int from = visibleFrom();
+        int to = visibleTo();
+        int row = -1;
+        if (from < to && x >= padding + labelPadding && x <= getWidth() - padding && y >= padding && y <= getHeight() - padding - labelPadding) {
+            row = fitnessValues.nearest(iterationAt(x), from, to);
+        }
+        if (row == hoverRow) {
+            return;
+        }
+        repaintHover();
+        hoverRow = row;
+        repaintHover();
+        updateToolTip();
+        if (row >= 0 && row != chromosomeRow && !chromosomeLoading && fitnessValues.getSource() != null) {
+            chromosomeLoading = true;
+            new ChromosomeLoader(fitnessValues, row).execute();
+        }
+    }
+
+	/**
+	* This method repaints the mark of the point under the mouse.
+	* @since 1.1
+	*/
+	private void repaintHover() {
+        if (hoverRow >= 0 && hoverRow < fitnessValues.size()) {
+            int x = xPosition(hoverRow, getWidth());
+            int y = yPosition(hoverRow, getHeight());
+            repaint(x - 3 * pointWidth, y - 3 * pointWidth, 6 * pointWidth, 6 * pointWidth);
+        }
+    }
+
+	/**
+	* This method sets the tool tip to the iteration, fitness and chromosome of the point under the mouse.
+	* @since 1.1
+	*/
+	private void updateToolTip() {
+        if (hoverRow < 0) {
+            setToolTipText(null);
+            return;
+        }
+        String chromosome;
+        if (fitnessValues.getSource() == null) {
+            chromosome = "not stored";
+        } else if (hoverRow == chromosomeRow) {
+            chromosome = chromosomeText.length() > maxChromosomeText ? chromosomeText.substring(0, maxChromosomeText) + "..." : chromosomeText;
+        } else {
+            chromosome = "loading...";
+        }
+        setToolTipText("<html>Iteration " + fitnessValues.iteration(hoverRow) + "<br>Fitness " + fitnessValues.fitness(hoverRow)
+                + "<br>Chromosome " + chromosome.replace("&", "&amp;").replace("<", "&lt;") + "</html>");
+    }
+
+	/**
+	* This class handles the mouse: the wheel zooms, dragging pans, a double click shows all iterations and moving inspects the closest point.
+	* @see MouseAdapter
+	* @since 1.1
+	*/
+	private final class Inspector extends MouseAdapter {
+		/**
+		* X coordinate of the mouse at the last drag event.
+		* @since 1.1
+		*/
+		private int dragX;
+
+		@Override
+		public void mouseWheelMoved(MouseWheelEvent e) {
+            zoom(e.getX(), e.getPreciseWheelRotation());
+            hover(e.getX(), e.getY());
+        }
+
+		@Override
+		public void mousePressed(MouseEvent e) {
+            dragX = e.getX();
+        }
+
+		@Override
+		public void mouseDragged(MouseEvent e) {
+            pan(e.getX() - dragX);
+            dragX = e.getX();
+            hover(e.getX(), e.getY());
+        }
+
+		@Override
+		public void mouseClicked(MouseEvent e) {
+            if (e.getClickCount() == 2) {
+                resetZoom();
+            }
+        }
+
+		@Override
+		public void mouseMoved(MouseEvent e) {
+            hover(e.getX(), e.getY());
+        }
+
+		@Override
+		public void mouseExited(MouseEvent e) {
+            hover(-1, -1);
+        }
+	}
+
+	/**
+	* This class reads the chromosome of one point from the result file off the event dispatch thread.
+	* Only one is read at a time, when the mouse has moved on meanwhile the chromosome of the point now hovered is read next.
+	* @see ResultFileLoader
+	* @see SwingWorker
+	* @since 1.1
+	*/
+	private final class ChromosomeLoader extends SwingWorker<String, Void> {
+		/**
+		* Series the point belongs to.
+		* @since 1.1
+		*/
+		private final ResultSeries series;
+		/**
+		* Index of the point.
+		* @since 1.1
+		*/
+		private final int row;
+
+		ChromosomeLoader(ResultSeries series, int row) {
+            this.series = series;
+            this.row = row;
+        }
+
+		@Override
+		protected String doInBackground() throws Exception {
+            return ResultFileLoader.loadChromosome(series, row);
+        }
+
+		@Override
+		protected void done() {
+            chromosomeLoading = false;
+            if (series == fitnessValues) {
                 try {
-                    br.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
+                    chromosomeText = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    chromosomeText = "not readable (" + e.getCause().getMessage() + ")";
                 }
+                chromosomeRow = row;
+                updateToolTip();
+            }
+            if (hoverRow >= 0 && hoverRow != chromosomeRow && fitnessValues.getSource() != null) {
+                chromosomeLoading = true;
+                new ChromosomeLoader(fitnessValues, hoverRow).execute();
             }
         }
-        
-        GraphPlotGui mainPanel = new GraphPlotGui(fitnessValues);
+	}
+
+	/**
+	* This method is called by main method and does all the work in the program. Shows the Gui with a progress bar at once and loads the result file
+	* on a background thread, the graph is drawn when the file is loaded.
+	* @param resultFile This is the <i>.csv</i> or <i>.oarb</i> result file to be plotted
+	* @see JFrame
+	* @see Loader
+	* @since 1.0
+	*/
+	
+	private static void createAndShowGui(String resultFile) {
+        GraphPlotGui mainPanel = new GraphPlotGui(new ResultSeries(resultFile, 0));
         mainPanel.setPreferredSize(new Dimension(600, 300));
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
         JFrame frame = new JFrame("DrawGraph");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.getContentPane().add(mainPanel);
+        frame.getContentPane().add(mainPanel, BorderLayout.CENTER);
+        frame.getContentPane().add(progressBar, BorderLayout.SOUTH);
         frame.pack();
         frame.setLocationRelativeTo(null);
         frame.setVisible(true);
-        
+
+        Loader loader = new Loader(resultFile, mainPanel, progressBar);
+        loader.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                progressBar.setValue((Integer) e.getNewValue());
+            }
+        });
+        loader.execute();
     }
+
+	/**
+	* This class loads a result file with ResultFileLoader off the event dispatch thread and hands the series to the panel when it is done.
+	* @see ResultFileLoader
+	* @see SwingWorker
+	* @since 1.1
+	*/
+	private static final class Loader extends SwingWorker<ResultSeries, Void> {
+		/**
+		* Result file to be loaded.
+		* @since 1.1
+		*/
+		private final String resultFile;
+		/**
+		* Panel the loaded series is plotted on.
+		* @since 1.1
+		*/
+		private final GraphPlotGui panel;
+		/**
+		* Progress bar hidden once the file is loaded.
+		* @since 1.1
+		*/
+		private final JProgressBar progressBar;
+
+		Loader(String resultFile, GraphPlotGui panel, JProgressBar progressBar) {
+            this.resultFile = resultFile;
+            this.panel = panel;
+            this.progressBar = progressBar;
+        }
+
+		@Override
+		protected ResultSeries doInBackground() throws Exception {
+            return ResultFileLoader.load(resultFile, this::setProgress);
+        }
+
+		@Override
+		protected void done() {
+            progressBar.setVisible(false);
+            try {
+                panel.setValue(get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+            }
+        }
+	}
 	
 	
 	/**
 	* This is the main method which is having purpose of invoking a private method that will initialize and draw the GUI.Also it is responsible for running the GUI.  
-	* @param args Unused
+	* @param args The result file to be plotted, by default <i>ResultGeniticAlgorithm.csv</i>
 	* @since 1.0
-	* @exception NullPointerException This exception can get thrown with empty list in file or in absence of the file 
-	* @exception IndexOutOfBoundsException This exception thrown index higher or lower than permitted value is accessed
 	*/
 	
 	public static void main(String[] args) {
+      String resultFile = args.length > 0 ? args[0] : defaultResultFile;
       SwingUtilities.invokeLater(new Runnable() {
          public void run() {
-            createAndShowGui();
+            createAndShowGui(resultFile);
          }
       });
    }
@@ -0,0 +1,443 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+* This class evolves K sub-populations (islands) of genetic algorithm or differential evolution on separate threads which exchange their
+* best chromosomes every <i>migrationInterval</i> generations. Migrants are copied into immutable objects and handed to the receiving island
+* through a lock-free queue, so islands never wait for each other, the receiving island takes them in at its next generation in place of its worst chromosomes.
+* The result file contains the best chromosome over all islands of every generation.
+* The model is configured with system properties:
+* <ul>
+* <li><i>algorithm</i> - <i>ga</i> (default) or <i>de</i></li>
+* <li><i>islands</i> - number of islands, default all available processors</li>
+* <li><i>topology</i> - <i>ring</i> (default), <i>full</i> or <i>random</i></li>
+* <li><i>migrationInterval</i> - generations between migrations, default 10</li>
+* <li><i>migrants</i> - chromosomes sent per migration, default 2</li>
+* </ul>
+* together with the <i>function</i>, <i>dim</i>, <i>precision</i> and <i>cache</i> properties of the fitness function and the <i>sampling</i> and <i>resultFormat</i> properties of the result file.
+* Every island has its own random number generator seeded from the master seed of Rng, as islands do not wait for each other
+* the generation a migrant arrives in still depends on the timing of the threads.
+* @author Ashish Rana
+* @version 1.1
+* @see OptimizationAlgorithm
+* @since 1.1
+*/
+
+public class IslandModel{
+
+	/**
+	* This enum describes which islands receive the migrants of an island.
+	* @since 1.1
+	*/
+	public enum Topology{
+		/**
+		* Island <i>k</i> sends to island <i>k+1</i>, the last one to the first.
+		*/
+		RING,
+		/**
+		* Every island sends to all the other islands.
+		*/
+		FULLY_CONNECTED,
+		/**
+		* Every island sends to one other island picked at random on every migration.
+		*/
+		RANDOM;
+
+		/**
+		* This method returns the topology for the given name, <i>ring</i>, <i>full</i> or <i>random</i>.
+		* @param name This is the topology name, case insensitive
+		* @return Topology The topology
+		* @exception IllegalArgumentException If the name is unknown
+		* @since 1.1
+		*/
+		public static Topology forName(String name)
+		{
+			switch(name.trim().toLowerCase(Locale.ROOT))
+			{
+				case "ring": return RING;
+				case "full": case "fully_connected": return FULLY_CONNECTED;
+				case "random": return RANDOM;
+				default: throw new IllegalArgumentException("Unknown topology "+name);
+			}
+		}
+	}
+
+	/**
+	* This class is an immutable copy of a chromosome sent from one island to another.
+	* @since 1.1
+	*/
+	static final class Migrant{
+		final double[] genes;
+		final double fitness;
+
+		Migrant(double[] genes, double fitness)
+		{
+			this.genes = genes;
+			this.fitness = fitness;
+		}
+	}
+
+	/**
+	* This class records an improvement of the best chromosome of an island.
+	* @since 1.1
+	*/
+	static final class Improvement{
+		final int generation;
+		final double fitness;
+		final double[] chromosome;
+
+		Improvement(int generation, double fitness, double[] chromosome)
+		{
+			this.generation = generation;
+			this.fitness = fitness;
+			this.chromosome = chromosome;
+		}
+	}
+
+	/**
+	* Algorithm run of every island.
+	* @since 1.1
+	*/
+	private final OptimizationAlgorithm[] islands;
+	/**
+	* Incoming migrants of every island, written by the sending islands and drained by the owning island.
+	* @since 1.1
+	*/
+	private final List<ConcurrentLinkedQueue<Migrant>> inbox;
+	/**
+	* Improvements of the best chromosome of every island, only touched by the island's own thread while running.
+	* @since 1.1
+	*/
+	private final List<List<Improvement>> history;
+	/**
+	* Islands receiving the migrants of an island.
+	* @since 1.1
+	*/
+	private final Topology topology;
+	/**
+	* Number of generations between migrations.
+	* @since 1.1
+	*/
+	private final int migrationInterval;
+	/**
+	* Number of best chromosomes sent per migration.
+	* @since 1.1
+	*/
+	private final int migrants;
+	/**
+	* Random number generator of every island choosing the receivers of the random topology.
+	* @since 1.1
+	*/
+	private final RandomGenerator[] routes;
+
+	/**
+	* This creates the islands, each one a separate run of the algorithm on the fitness function.
+	* @param algorithm This is the short name of the algorithm, <i>ga</i> or <i>de</i>
+	* @param fObj This is the fitness function optimized by every island
+	* @param islandCount This is the number of islands
+	* @param topology This is the islands receiving the migrants of an island
+	* @param migrationInterval This is the number of generations between migrations
+	* @param migrants This is the number of best chromosomes sent per migration
+	* @exception IllegalArgumentException If the algorithm has no population or a count is not positive
+	* @since 1.1
+	*/
+	public IslandModel(String algorithm, FitnessFunction fObj, int islandCount, Topology topology, int migrationInterval, int migrants)
+	{
+		if(islandCount<1 || migrationInterval<1 || migrants<1)
+			throw new IllegalArgumentException("Islands, migration interval and migrants must be positive");
+		if(!"ga".equalsIgnoreCase(algorithm.trim()) && !"de".equalsIgnoreCase(algorithm.trim()))
+			throw new IllegalArgumentException("Island model supports ga and de, not "+algorithm);
+
+		this.topology = topology;
+		this.migrationInterval = migrationInterval;
+		this.migrants = migrants;
+		this.islands = new OptimizationAlgorithm[islandCount];
+		this.inbox = new ArrayList<>(islandCount);
+		this.history = new ArrayList<>(islandCount);
+		this.routes = new RandomGenerator[islandCount];
+		long seed = Rng.derive(Rng.masterSeed(), "island/"+algorithm.trim().toLowerCase(Locale.ROOT));
+
+		ParallelEvaluator sequential = new ParallelEvaluator(1);	// islands themselves are the parallel unit
+		for(int k=0;k<islandCount;k++)
+		{
+			islands[k] = OptimizationAlgorithm.forName(algorithm, fObj, sequential);
+			islands[k].setVerbose(false);
+			islands[k].setResultFileName(null);	// the model writes the result of all islands
+			islands[k].setSeed(Rng.derive(seed, k));
+			routes[k] = Rng.create(Rng.derive(Rng.derive(seed, k), "routes"));
+			inbox.add(new ConcurrentLinkedQueue<>());
+			history.add(new ArrayList<>());
+		}
+	}
+
+	/**
+	* This method evolves all the islands concurrently and returns once every island has finished.
+	* @exception InterruptedException If the calling thread is interrupted while waiting for the islands
+	* @exception ExecutionException If an island failed
+	* @since 1.1
+	*/
+	public void run() throws InterruptedException, ExecutionException
+	{
+		ExecutorService pool = Executors.newFixedThreadPool(islands.length);
+		try{
+			List<Future<?>> running = new ArrayList<>(islands.length);
+			for(int k=0;k<islands.length;k++)
+			{
+				final int island = k;
+				running.add(pool.submit(() -> {
+					evolve(island);
+					return null;
+				}));
+			}
+			for(Future<?> f : running)
+				f.get();
+		}
+		finally{
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	* This method evolves one island on the calling thread with the run loop of OptimizationAlgorithm until its termination criterion is met,
+	* by default once its iterations or function evaluations are used up. The island takes its migrants in before every generation,
+	* and after every generation remembers an improvement of its best chromosome and sends its migrants every <i>migrationInterval</i> generations.
+	* @param k This is the island index
+	* @exception IOException If the progress of the island can not be recorded
+	* @see OptimizationAlgorithm.IterationHook
+	* @since 1.1
+	*/
+	private void evolve(int k) throws IOException
+	{
+		List<Improvement> improvements = history.get(k);
+		islands[k].setIterationHook(new OptimizationAlgorithm.IterationHook(){
+			@Override
+			public void beforeIteration(OptimizationAlgorithm island, int g)
+			{
+				immigrate(k);
+			}
+
+			@Override
+			public void afterIteration(OptimizationAlgorithm island, int g)
+			{
+				if(improvements.isEmpty() || island.getBestFitness()<improvements.get(improvements.size()-1).fitness)
+					improvements.add(new Improvement(g, island.getBestFitness(), island.getBestChromosome()));
+
+				if(g>=0 && (g+1)%migrationInterval==0)
+					emigrate(k);
+			}
+		});
+		islands[k].run();
+	}
+
+	/**
+	* This method sends copies of the best chromosomes of island <i>k</i> to the inbox of its receiving islands.
+	* @param k This is the sending island index
+	* @since 1.1
+	*/
+	private void emigrate(int k)
+	{
+		int count = islands.length;
+		if(count<2)
+			return;
+
+		Population pop = islands[k].getPopulation();
+		Migrant[] best = selectBest(pop, Math.min(migrants, pop.size));
+
+		switch(topology)
+		{
+			case RING:
+				send(best, (k+1)%count);
+				break;
+			case FULLY_CONNECTED:
+				for(int t=0;t<count;t++)
+					if(t!=k)
+						send(best, t);
+				break;
+			case RANDOM:
+				int t = routes[k].nextInt(count-1);
+				send(best, t<k ? t : t+1);
+				break;
+		}
+	}
+
+	/**
+	* This method copies the <i>n</i> best chromosomes of the population into migrants.
+	* @param pop This is the population of the sending island
+	* @param n This is the number of migrants
+	* @return Migrant[] Copies of the best chromosomes, best first
+	* @since 1.1
+	*/
+	private static Migrant[] selectBest(Population pop, int n)
+	{
+		Migrant[] best = new Migrant[n];
+		boolean[] taken = new boolean[pop.size];
+		for(int m=0;m<n;m++)
+		{
+			int b = -1;
+			for(int i=0;i<pop.size;i++)
+			{
+				if(!taken[i] && (b<0 || pop.fitness[i]<pop.fitness[b]))
+					b = i;
+			}
+			taken[b] = true;
+			double[] genes = new double[pop.dim];
+			pop.copyRowTo(b, genes);
+			best[m] = new Migrant(genes, pop.fitness[b]);
+		}
+		return best;
+	}
+
+	/**
+	* This method hands the migrants to the inbox of island <i>t</i>, migrants are immutable so they are shared by all receivers.
+	* @param best This is the migrants
+	* @param t This is the receiving island index
+	* @since 1.1
+	*/
+	private void send(Migrant[] best, int t)
+	{
+		ConcurrentLinkedQueue<Migrant> queue = inbox.get(t);
+		for(Migrant m : best)
+			queue.offer(m);
+	}
+
+	/**
+	* This method takes all the waiting migrants of island <i>k</i> in, each one replacing the worst chromosome of the island when it is better.
+	* @param k This is the receiving island index
+	* @since 1.1
+	*/
+	private void immigrate(int k)
+	{
+		ConcurrentLinkedQueue<Migrant> queue = inbox.get(k);
+		Population pop = null;
+		Migrant m;
+		while((m = queue.poll())!=null)
+		{
+			if(pop==null)
+				pop = islands[k].getPopulation();
+			int worst = pop.worstIndex();
+			if(m.fitness<pop.fitness[worst])
+				pop.setRow(m.genes, worst, m.fitness);
+		}
+	}
+
+	/**
+	* This method returns the best fitness value over all islands.
+	* @return double Best fitness value
+	* @since 1.1
+	*/
+	public double getBestFitness()
+	{
+		return islands[bestIsland()].getBestFitness();
+	}
+
+	/**
+	* This method returns a copy of the best chromosome over all islands.
+	* @return double[] Best chromosome
+	* @since 1.1
+	*/
+	public double[] getBestChromosome()
+	{
+		return islands[bestIsland()].getBestChromosome();
+	}
+
+	/**
+	* This method returns the index of the island holding the best chromosome, first one wins on ties.
+	* @return int Island index
+	* @since 1.1
+	*/
+	private int bestIsland()
+	{
+		int best = 0;
+		for(int k=1;k<islands.length;k++)
+			if(islands[k].getBestFitness()<islands[best].getBestFitness())
+				best = k;
+		return best;
+	}
+
+	/**
+	* This method returns the number of function evaluations over all islands.
+	* @return long Function evaluations
+	* @since 1.1
+	*/
+	public long getFunEval()
+	{
+		long total = 0;
+		for(OptimizationAlgorithm island : islands)
+			total += island.getFunEval();
+		return total;
+	}
+
+	/**
+	* This method writes the best chromosome over all islands of the generations selected by the sampling policy into a <i>.csv</i> file
+	* with the usual result layout, the last generation is always written.
+	* It must be called after <i>run</i> has returned.
+	* @param resultFileName This is the result file name
+	* @param samplingPolicy This is the policy selecting the written generations
+	* @param resultFormat This is the format of the file, function evaluations are not stored per generation
+	* @exception IOException If the file can not be written
+	* @see SamplingPolicy
+	* @see ResultFormat
+	* @since 1.1
+	*/
+	public void writeResult(String resultFileName, SamplingPolicy samplingPolicy, ResultFormat resultFormat) throws IOException
+	{
+		int generations = 0;
+		for(OptimizationAlgorithm island : islands)
+			generations = Math.max(generations, island.getIterations());
+
+		int[] next = new int[islands.length];	// index of the first improvement not yet applied per island
+		Improvement best = null;
+		try(ResultSink sink = new AsyncResultWriter(resultFormat.fileName(resultFileName), resultFormat, islands[0].getFitnessFunction().getDim())){
+			for(int g=-1;g<generations;g++)
+			{
+				Improvement previous = best;
+				for(int k=0;k<islands.length;k++)
+				{
+					List<Improvement> improvements = history.get(k);
+					while(next[k]<improvements.size() && improvements.get(next[k]).generation<=g)
+					{
+						Improvement imp = improvements.get(next[k]++);
+						if(best==null || imp.fitness<best.fitness)
+							best = imp;
+					}
+				}
+				if(g>=0 && (samplingPolicy.sample(g, best!=previous) || g==generations-1))
+					sink.record(g, -1, best.fitness, best.chromosome);
+			}
+		}
+	}
+
+	/**
+	* This the main method which evolves the islands configured with system properties and stores the result in <i>ResultIsland&lt;algorithm&gt;.csv</i>.
+	* @param args Unused
+	* @since 1.1
+	*/
+	public static void main(String[] args)
+	{
+		String algorithm = System.getProperty("algorithm", "ga");
+		FitnessFunction fObj = EvaluationCache.fromSystemProperty(BenchmarkFunction.fromSystemProperties());
+		IslandModel model = new IslandModel(algorithm, fObj,
+			Integer.getInteger("islands", Runtime.getRuntime().availableProcessors()),
+			Topology.forName(System.getProperty("topology", "ring")),
+			Integer.getInteger("migrationInterval", 10), Integer.getInteger("migrants", 2));
+		try{
+			model.run();
+			model.writeResult("ResultIsland"+model.islands[0].getAlgorithmName()+".csv", SamplingPolicy.fromSystemProperty(), ResultFormat.fromSystemProperty());
+			System.out.println("Best fitness "+model.getBestFitness()+" after "+model.getFunEval()+" function evaluations");
+			System.out.println("CSV file created");
+			if(fObj instanceof EvaluationCache)
+				System.out.println(((EvaluationCache)fObj).statistics());
+		}
+		catch(Exception e){
+			e.printStackTrace();
+		}
+	}
+}
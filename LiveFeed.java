@@ -0,0 +1,93 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+* This class hands the sampled iterations of a running optimizer to GraphPlotGui within the same JVM.
+* The run records into a lock-free queue and never waits for the Gui, the Gui drains the queue at its frame rate and appends the points to its series.
+* Only the iteration number and the best fitness are passed on, the chromosome stays in the result file.
+* @author Ashish Rana
+* @version 1.1
+* @see GraphPlotGui
+* @see OptimizationAlgorithm
+* @since 1.1
+*/
+
+public class LiveFeed implements ResultSink{
+
+	/**
+	* Points recorded by the run and not drained by the Gui yet.
+	* @since 1.1
+	*/
+	private final ConcurrentLinkedQueue<Point> queue = new ConcurrentLinkedQueue<>();
+	/**
+	* Whether the run has finished, set after its last point was recorded.
+	* @since 1.1
+	*/
+	private volatile boolean closed = false;
+
+	/**
+	* This class is one recorded iteration.
+	* @since 1.1
+	*/
+	private static final class Point{
+		/**
+		* Iteration number.
+		* @since 1.1
+		*/
+		final int iteration;
+		/**
+		* Best fitness value of the iteration.
+		* @since 1.1
+		*/
+		final double fitness;
+
+		Point(int iteration, double fitness)
+		{
+			this.iteration = iteration;
+			this.fitness = fitness;
+		}
+	}
+
+	@Override
+	public void record(int iteration, long funEval, double fitness, double[] chromosome)
+	{
+		queue.offer(new Point(iteration, fitness));
+	}
+
+	/**
+	* This method marks the run as finished, points recorded before stay available to <i>drainTo</i>.
+	* @since 1.1
+	*/
+	@Override
+	public void close()
+	{
+		closed = true;
+	}
+
+	/**
+	* This method returns whether the run has finished. When it returns <i>true</i>, a following <i>drainTo</i> returns every remaining point.
+	* @return boolean <i>true</i> once the run has finished
+	* @since 1.1
+	*/
+	public boolean isClosed()
+	{
+		return closed;
+	}
+
+	/**
+	* This method moves all points recorded so far into the series, in the order they were recorded.
+	* @param series This is the series the points are appended to
+	* @return int Number of appended points
+	* @since 1.1
+	*/
+	public int drainTo(ResultSeries series)
+	{
+		int count = 0;
+		Point point;
+		while((point = queue.poll())!=null)
+		{
+			series.add(point.iteration, point.fitness);
+			count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,293 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
+
+/**
+* This class exports the AlgorithmMetrics of all algorithms as a JSON snapshot and in the Prometheus text format.
+* It is configured with system properties and started with the first run that keeps metrics.
+* <ul>
+* <li><i>metricsFile</i> - JSON file the snapshot is written to periodically and at exit</li>
+* <li><i>metricsInterval</i> - seconds between two snapshots, default 10</li>
+* <li><i>metricsPort</i> - port of a local HTTP server answering <i>/metrics</i> in the Prometheus format and <i>/metrics.json</i> with the snapshot,
+* 0 for any free port</li>
+* </ul>
+* Snapshots contain the counters and the rates derived from them, evaluations per second are measured since the previous snapshot of the same exporter.
+* The exporter threads are daemons, so they do not keep the JVM running once the runs are done.
+* @author Ashish Rana
+* @version 1.1
+* @see AlgorithmMetrics
+* @since 1.1
+*/
+
+public final class MetricsExporter{
+
+	/**
+	* Whether the exporters selected with system properties are started.
+	* @since 1.1
+	*/
+	private static final AtomicBoolean started = new AtomicBoolean();
+	/**
+	* Time the exporter class was loaded, the start of the first measurement interval.
+	* @since 1.1
+	*/
+	private static final long startNanos = System.nanoTime();
+
+	/**
+	* Time of the previous snapshot.
+	* @since 1.1
+	*/
+	private long previousNanos = startNanos;
+	/**
+	* Evaluations of every algorithm at the previous snapshot.
+	* @since 1.1
+	*/
+	private final Map<String, Long> previousEvaluations = new HashMap<>();
+
+	/**
+	* This method starts the exporters selected with the <i>metricsFile</i> and <i>metricsPort</i> system properties, only the first call starts them.
+	* A failing exporter is reported and does not stop the runs.
+	* @since 1.1
+	*/
+	static void startFromSystemProperties()
+	{
+		if(!started.compareAndSet(false, true))
+			return;
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "metrics-exporter");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		String fileName = System.getProperty("metricsFile");
+		if(fileName!=null)
+		{
+			File file = new File(fileName);
+			MetricsExporter exporter = new MetricsExporter();
+			long interval = Math.max(1, Long.getLong("metricsInterval", 10));
+			scheduler.scheduleAtFixedRate(() -> exporter.writeSnapshot(file), interval, interval, TimeUnit.SECONDS);
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> exporter.writeSnapshot(file), "metrics-snapshot"));
+		}
+
+		Integer port = Integer.getInteger("metricsPort");
+		if(port!=null)
+		{
+			// created on the daemon thread, whose daemon status the server threads inherit
+			scheduler.execute(() -> {
+				try{
+					HttpServer server = serve(port);
+					System.out.println("Metrics served on http://"+server.getAddress().getHostString()+":"+server.getAddress().getPort()+"/metrics");
+				}
+				catch(IOException e){
+					System.err.println("Metrics server not started: "+e);
+				}
+			});
+		}
+	}
+
+	/**
+	* This method starts a HTTP server on the loopback interface answering <i>/metrics</i> in the Prometheus format
+	* and <i>/metrics.json</i> with the JSON snapshot.
+	* @param port This is the port of the server, 0 for any free port
+	* @return HttpServer Started server, to be stopped by the caller
+	* @exception IOException If the port can not be bound
+	* @since 1.1
+	*/
+	public static HttpServer serve(int port) throws IOException
+	{
+		HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		MetricsExporter exporter = new MetricsExporter();
+		server.createContext("/metrics", exchange -> respond(exchange, "text/plain; version=0.0.4; charset=utf-8", prometheus()));
+		server.createContext("/metrics.json", exchange -> respond(exchange, "application/json", exporter.json()));
+		server.start();
+		return server;
+	}
+
+	/**
+	* This method answers a HTTP request with the given text.
+	* @param exchange This is the request
+	* @param contentType This is the content type of the text
+	* @param text This is the text
+	* @exception IOException If the answer can not be sent
+	* @since 1.1
+	*/
+	private static void respond(HttpExchange exchange, String contentType, String text) throws IOException
+	{
+		try{
+			byte[] body = text.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", contentType);
+			if(exchange.getRequestMethod().equals("HEAD"))
+			{
+				exchange.sendResponseHeaders(200, -1);
+				return;
+			}
+			exchange.sendResponseHeaders(200, body.length);
+			try(OutputStream out = exchange.getResponseBody()){
+				out.write(body);
+			}
+		}
+		finally{
+			exchange.close();
+		}
+	}
+
+	/**
+	* This method writes the JSON snapshot into a file. The snapshot is written next to it first and then moved, so readers never see half a snapshot.
+	* @param file This is the file
+	* @since 1.1
+	*/
+	public void writeSnapshot(File file)
+	{
+		try{
+			File temp = new File(file.getAbsoluteFile().getParentFile(), file.getName()+".tmp");
+			Files.write(temp.toPath(), json().getBytes(StandardCharsets.UTF_8));
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch(IOException e){
+			System.err.println("Metrics snapshot not written: "+e);
+		}
+	}
+
+	/**
+	* This method returns the JSON snapshot of the metrics of all algorithms.
+	* @return String JSON object with the time of the snapshot and one object per algorithm
+	* @since 1.1
+	*/
+	public synchronized String json()
+	{
+		long now = System.nanoTime();
+		double seconds = Math.max(1e-9, (now-previousNanos)/1e9);
+		previousNanos = now;
+
+		StringBuilder json = new StringBuilder(1024);
+		json.append("{\n  \"timestamp\": ").append(System.currentTimeMillis());
+		json.append(",\n  \"uptimeSeconds\": ").append(number((now-startNanos)/1e9));
+		json.append(",\n  \"algorithms\": [");
+		boolean first = true;
+		for(AlgorithmMetrics metrics : AlgorithmMetrics.all())
+		{
+			long evaluations = metrics.getEvaluations();
+			Long previous = previousEvaluations.put(metrics.getAlgorithmName(), evaluations);
+			long iterations = metrics.getIterations();
+			long cacheLookups = metrics.getCacheHits()+metrics.getCacheMisses();
+
+			json.append(first ? "\n    {" : ",\n    {");
+			first = false;
+			json.append("\"algorithm\": \"").append(label(metrics.getAlgorithmName())).append('"');
+			field(json, "runs", metrics.getRuns());
+			field(json, "activeRuns", metrics.getActiveRuns());
+			field(json, "iterations", iterations);
+			field(json, "evaluations", evaluations);
+			field(json, "evaluationsPerSecond", number((evaluations-(previous!=null ? previous : 0))/seconds));
+			field(json, "improvements", metrics.getImprovements());
+			field(json, "improvementsPerIteration", number(iterations>0 ? (double)metrics.getImprovements()/iterations : 0));
+			field(json, "fitnessSeconds", number(metrics.getFitnessNanos()/1e9));
+			field(json, "operatorSeconds", number(metrics.getOperatorNanos()/1e9));
+			field(json, "ioSeconds", number(metrics.getIoNanos()/1e9));
+			field(json, "allocatedBytes", metrics.getAllocatedBytes());
+			field(json, "allocatedBytesPerIteration", number(iterations>0 ? (double)metrics.getAllocatedBytes()/iterations : 0));
+			field(json, "cacheHits", metrics.getCacheHits());
+			field(json, "cacheMisses", metrics.getCacheMisses());
+			field(json, "cacheHitRate", number(cacheLookups>0 ? (double)metrics.getCacheHits()/cacheLookups : 0));
+			json.append('}');
+		}
+		return json.append("\n  ]\n}\n").toString();
+	}
+
+	/**
+	* This method appends a field to a JSON object.
+	* @param json This is the JSON text
+	* @param name This is the name of the field
+	* @param value This is the value of the field
+	* @since 1.1
+	*/
+	private static void field(StringBuilder json, String name, Object value)
+	{
+		json.append(", \"").append(name).append("\": ").append(value);
+	}
+
+	/**
+	* This method formats a number for JSON, which has no NaN or infinity.
+	* @param value This is the number
+	* @return String Formatted number
+	* @since 1.1
+	*/
+	private static String number(double value)
+	{
+		return Double.isFinite(value) ? String.format(Locale.ROOT, "%.6g", value) : "0";
+	}
+
+	/**
+	* This method returns the metrics of all algorithms in the Prometheus text format, times in seconds and every algorithm as a label.
+	* @return String Metrics in the Prometheus text format
+	* @since 1.1
+	*/
+	public static String prometheus()
+	{
+		List<AlgorithmMetrics> all = AlgorithmMetrics.all();
+		StringBuilder text = new StringBuilder(2048);
+		metric(text, all, "optimizer_runs_total", "counter", "Runs started.", AlgorithmMetrics::getRuns);
+		metric(text, all, "optimizer_active_runs", "gauge", "Runs going on.", AlgorithmMetrics::getActiveRuns);
+		metric(text, all, "optimizer_iterations_total", "counter", "Iterations completed.", AlgorithmMetrics::getIterations);
+		metric(text, all, "optimizer_improvements_total", "counter", "Iterations which improved the best fitness.", AlgorithmMetrics::getImprovements);
+		metric(text, all, "optimizer_evaluations_total", "counter", "Fitness function evaluations.", AlgorithmMetrics::getEvaluations);
+		metric(text, all, "optimizer_allocated_bytes_total", "counter", "Bytes allocated by the threads of the runs.", AlgorithmMetrics::getAllocatedBytes);
+		metric(text, all, "optimizer_cache_hits_total", "counter", "Evaluations answered by the evaluation cache.", AlgorithmMetrics::getCacheHits);
+		metric(text, all, "optimizer_cache_misses_total", "counter", "Evaluations passed on by the evaluation cache.", AlgorithmMetrics::getCacheMisses);
+
+		text.append("# HELP optimizer_phase_seconds_total Time spent per phase of the runs.\n");
+		text.append("# TYPE optimizer_phase_seconds_total counter\n");
+		for(AlgorithmMetrics metrics : all)
+		{
+			String labels = "{algorithm=\""+label(metrics.getAlgorithmName())+"\",phase=\"";
+			text.append("optimizer_phase_seconds_total").append(labels).append("fitness\"} ").append(metrics.getFitnessNanos()/1e9).append('\n');
+			text.append("optimizer_phase_seconds_total").append(labels).append("operators\"} ").append(metrics.getOperatorNanos()/1e9).append('\n');
+			text.append("optimizer_phase_seconds_total").append(labels).append("io\"} ").append(metrics.getIoNanos()/1e9).append('\n');
+		}
+		return text.toString();
+	}
+
+	/**
+	* This method appends the help and type line of a metric followed by its sample for every algorithm.
+	* @param text This is the Prometheus text
+	* @param all This is the metrics of all algorithms
+	* @param name This is the metric name
+	* @param type This is the metric type
+	* @param help This is the help text
+	* @param value This is the counter of the metric
+	* @since 1.1
+	*/
+	private static void metric(StringBuilder text, List<AlgorithmMetrics> all, String name, String type, String help, ToLongFunction<AlgorithmMetrics> value)
+	{
+		text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+		for(AlgorithmMetrics metrics : all)
+			text.append(name).append("{algorithm=\"").append(label(metrics.getAlgorithmName())).append("\"} ").append(value.applyAsLong(metrics)).append('\n');
+	}
+
+	/**
+	* This method escapes a label value or JSON string.
+	* @param value This is the value
+	* @return String Escaped value
+	* @since 1.1
+	*/
+	private static String label(String value)
+	{
+		return value.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+}
@@ -0,0 +1,195 @@
+import java.util.Arrays;
+
+/**
+* This class answers which value of an index range of a series is the smallest and which the largest in logarithmic time.
+* Level <i>k</i> stores the index of the smallest and of the largest value of every aligned block of <i>2<sup>k+4</sup></i> values,
+* a range is covered by the largest aligned blocks that fit and the at most 15 values at either end are scanned.
+* The levels take about a quarter of the memory of the values. Values appended to the series are included with <i>update</i>.
+* NaN values are never reported unless the whole range is NaN.
+* @author Ashish Rana
+* @version 1.1
+* @see Downsampler
+* @see GraphPlotGui
+* @since 1.1
+*/
+
+public class MinMaxPyramid{
+
+	/**
+	* Base two logarithm of the block size of the lowest level.
+	* @since 1.1
+	*/
+	private static final int BASE_SHIFT = 4;
+
+	/**
+	* Series indexed.
+	* @since 1.1
+	*/
+	private final ResultSeries series;
+	/**
+	* Index of the smallest value of every block, per level.
+	* @since 1.1
+	*/
+	private int[][] min = new int[0][];
+	/**
+	* Index of the largest value of every block, per level.
+	* @since 1.1
+	*/
+	private int[][] max = new int[0][];
+	/**
+	* Number of values of the series included.
+	* @since 1.1
+	*/
+	private int size = 0;
+
+	/**
+	* This creates the pyramid of a series.
+	* @param series This is the series
+	* @since 1.1
+	*/
+	public MinMaxPyramid(ResultSeries series)
+	{
+		this.series = series;
+		update();
+	}
+
+	/**
+	* This method includes the values appended to the series since the last call, only the blocks they fall into are recomputed.
+	* @since 1.1
+	*/
+	public void update()
+	{
+		int newSize = series.size();
+		if(newSize==size)
+			return;
+		double[] values = series.fitness();
+		int levels = 0;
+		while((newSize>>(BASE_SHIFT+levels))>0)
+			levels++;
+		if(levels>min.length)
+		{
+			min = Arrays.copyOf(min, levels);
+			max = Arrays.copyOf(max, levels);
+		}
+
+		for(int k=0;k<levels;k++)
+		{
+			int shift = BASE_SHIFT+k;
+			int blocks = newSize>>shift;
+			int[] levelMin = min[k], levelMax = max[k];
+			if(levelMin==null || levelMin.length<blocks)
+			{
+				int capacity = Math.max(blocks, levelMin==null ? 16 : levelMin.length+(levelMin.length>>1));
+				levelMin = min[k] = levelMin==null ? new int[capacity] : Arrays.copyOf(levelMin, capacity);
+				levelMax = max[k] = levelMax==null ? new int[capacity] : Arrays.copyOf(levelMax, capacity);
+			}
+			for(int b=size>>shift;b<blocks;b++)
+			{
+				if(k==0)
+				{
+					int from = b<<shift;
+					int lo = from, hi = from;
+					for(int i=from+1;i<from+(1<<shift);i++)
+					{
+						lo = smaller(values, lo, i);
+						hi = larger(values, hi, i);
+					}
+					levelMin[b] = lo;
+					levelMax[b] = hi;
+				}
+				else
+				{
+					int[] belowMin = min[k-1], belowMax = max[k-1];
+					levelMin[b] = smaller(values, belowMin[2*b], belowMin[2*b+1]);
+					levelMax[b] = larger(values, belowMax[2*b], belowMax[2*b+1]);
+				}
+			}
+		}
+		size = newSize;
+	}
+
+	/**
+	* This method returns the index of the smallest value in <i>[from, to)</i>.
+	* @param from This is the first index, it must be below <i>to</i>
+	* @param to This is the index after the last one
+	* @return int Index of the smallest value
+	* @since 1.1
+	*/
+	public int argMin(int from, int to)
+	{
+		return query(from, to, true);
+	}
+
+	/**
+	* This method returns the index of the largest value in <i>[from, to)</i>.
+	* @param from This is the first index, it must be below <i>to</i>
+	* @param to This is the index after the last one
+	* @return int Index of the largest value
+	* @since 1.1
+	*/
+	public int argMax(int from, int to)
+	{
+		return query(from, to, false);
+	}
+
+	/**
+	* This method returns the index of the smallest or largest value in <i>[from, to)</i>.
+	* @param from This is the first index
+	* @param to This is the index after the last one
+	* @param smallest This is <i>true</i> for the smallest value
+	* @return int Index of the value
+	* @since 1.1
+	*/
+	private int query(int from, int to, boolean smallest)
+	{
+		double[] values = series.fitness();
+		int best = from;
+		int i = from+1;
+		while(i<to)
+		{
+			int k = -1;
+			while(k+1<min.length && ((i>>(BASE_SHIFT+k+1))<<(BASE_SHIFT+k+1))==i && i+(1<<(BASE_SHIFT+k+1))<=Math.min(to, size))
+				k++;
+			int candidate;
+			if(k<0)
+			{
+				candidate = i;
+				i++;
+			}
+			else
+			{
+				int b = i>>(BASE_SHIFT+k);
+				candidate = smallest ? min[k][b] : max[k][b];
+				i += 1<<(BASE_SHIFT+k);
+			}
+			best = smallest ? smaller(values, best, candidate) : larger(values, best, candidate);
+		}
+		return best;
+	}
+
+	/**
+	* This method returns the index of the smaller of two values, preferring values that are not NaN and the earlier index on ties.
+	* @param values This is the array of values
+	* @param a This is the first index
+	* @param b This is the second index
+	* @return int Index of the smaller value
+	* @since 1.1
+	*/
+	private static int smaller(double[] values, int a, int b)
+	{
+		return values[b]<values[a] || (values[a]!=values[a] && values[b]==values[b]) ? b : a;
+	}
+
+	/**
+	* This method returns the index of the larger of two values, preferring values that are not NaN and the earlier index on ties.
+	* @param values This is the array of values
+	* @param a This is the first index
+	* @param b This is the second index
+	* @return int Index of the larger value
+	* @since 1.1
+	*/
+	private static int larger(double[] values, int a, int b)
+	{
+		return values[b]>values[a] || (values[a]!=values[a] && values[b]==values[b]) ? b : a;
+	}
+}
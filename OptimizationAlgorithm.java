@@ -0,0 +1,752 @@
+import java.io.IOException;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+* This class holds everything an optimization algorithm run shares, i.e. its fitness function, function evaluation count, best chromosome
+* and the result file, together with the run loop which iterates the algorithm and writes improved chromosomes into the result file.
+* Every run is a self-contained instance, so many runs can execute concurrently in one JVM.
+* Every run draws its random numbers from its own generator, seeded from the master seed of Rng, so a run is reproduced by its seed.
+* Algorithms extend it and only provide their initialization and one iteration of their process.
+* @author Ashish Rana
+* @version 1.1
+* @see ExperimentRunner
+* @since 1.1
+*/
+
+public abstract class OptimizationAlgorithm{
+
+	/**
+	* This interface is called by the run loop around every iteration, e.g. by IslandModel to exchange migrants between islands.
+	* Both methods are called on the thread of the run.
+	* @since 1.1
+	*/
+	public interface IterationHook{
+
+		/**
+		* This method is called before an iteration.
+		* @param run This is the run
+		* @param iteration This is the iteration number, starting at 0
+		* @since 1.1
+		*/
+		default void beforeIteration(OptimizationAlgorithm run, int iteration)
+		{
+		}
+
+		/**
+		* This method is called after an iteration once the best chromosome is remembered, and after the initialization with iteration -1.
+		* It is called before the termination criterion is checked.
+		* @param run This is the run
+		* @param iteration This is the iteration number, -1 for the initialization
+		* @since 1.1
+		*/
+		default void afterIteration(OptimizationAlgorithm run, int iteration)
+		{
+		}
+	}
+
+	/**
+	* File-header to be appended into result file.
+	* @since 1.0
+	*/
+	protected static final String fileHeader = "Iteration,Fitness,Chromosome"+"\n";
+	/**
+	* Name of the algorithm being used.
+	* @since 1.0
+	*/
+	protected final String algorithmName;
+	/**
+	* Fitness function optimized in the run.
+	* @see FitnessFunction
+	* @since 1.1
+	*/
+	protected final FitnessFunction fObj;
+	/**
+	* Number of iterations in algorithm.
+	* @since 1.0
+	*/
+	protected final int iterNumber;
+	/**
+	* Maximum number of function evaluations in algorithm.
+	* @since 1.0
+	*/
+	protected final int maxFunEval;
+	/**
+	* Stores number of function evaluations in algorithm.
+	* @since 1.0
+	*/
+	protected int funEval = 0;	// Counting Function Evaluations
+	/**
+	* Number of iterations completed by the run.
+	* @since 1.1
+	*/
+	protected int iterations = 0;
+	/**
+	* best-fitness value in the population.
+	* @since 1.0
+	*/
+	protected double bestFitness = Double.POSITIVE_INFINITY; // Store Best Fitness
+	/**
+	* best-fitness chromosome in the population.
+	* @since 1.0
+	*/
+	protected final double[] bestChromosome;
+	/**
+	* resultant file name of the run, by default specific to algorithm, <code>null</code> for no result file.
+	* @since 1.0
+	*/
+	protected String resultFileName;
+	/**
+	* Sink storing the sampled iterations into the result file while the run is going on.
+	* @see AsyncResultWriter
+	* @since 1.1
+	*/
+	protected ResultSink resultSink = null;
+	/**
+	* Additional sink receiving the same sampled iterations as the result file, e.g. the live plot, <code>null</code> if there is none.
+	* @see LiveFeed
+	* @since 1.1
+	*/
+	protected ResultSink progressSink = null;
+	/**
+	* Policy selecting the iterations stored in the result file.
+	* @see SamplingPolicy
+	* @since 1.1
+	*/
+	protected SamplingPolicy samplingPolicy = SamplingPolicy.fromSystemProperty();
+	/**
+	* Format of the result file.
+	* @see ResultFormat
+	* @since 1.1
+	*/
+	protected ResultFormat resultFormat = ResultFormat.fromSystemProperty();
+	/**
+	* Whether every new best chromosome is printed on the console.
+	* @since 1.1
+	*/
+	protected boolean verbose = true;
+	/**
+	* Seed of the random number generator of the run.
+	* @see Rng
+	* @since 1.1
+	*/
+	protected long seed;
+	/**
+	* Random number generator of the run, used by all its operators and by no other run.
+	* @see Rng
+	* @since 1.1
+	*/
+	protected RandomGenerator rng;
+	/**
+	* Metrics of the algorithm the run adds to, <code>null</code> when metrics are disabled.
+	* @see AlgorithmMetrics
+	* @since 1.1
+	*/
+	protected AlgorithmMetrics metrics;
+	/**
+	* Criterion deciding when the run stops, by default any of the iteration and evaluation budgets or the criterion of the
+	* <i>termination</i> system property.
+	* @see TerminationCriterion
+	* @since 1.1
+	*/
+	protected TerminationCriterion termination;
+	/**
+	* Hook called around every iteration, <code>null</code> if there is none.
+	* @see IterationHook
+	* @since 1.1
+	*/
+	protected IterationHook iterationHook = null;
+	/**
+	* Criterion which stopped the run, <code>null</code> before the run is finished.
+	* @since 1.1
+	*/
+	private TerminationCriterion stoppedBy;
+	/**
+	* Nanoseconds the run has spent evaluating the fitness function, only measured when metrics are kept.
+	* @since 1.1
+	*/
+	private long fitnessNanos = 0;
+	/**
+	* Generation going on, -1 during the initialization, for the flight recorder events.
+	* @see RunEvents
+	* @since 1.1
+	*/
+	private volatile int generation = -1;
+
+	/**
+	* This initialize <i>bestChromosome</i> to default values and names the result file after the algorithm.
+	* @param algorithmName This is the name of the algorithm
+	* @param fObj This is the fitness function optimized in the run
+	* @param iterNumber This is the number of iterations of the run
+	* @param maxFunEval This is the maximum number of function evaluations of the run
+	* @see FitnessFunction
+	* @since 1.1
+	*/
+	protected OptimizationAlgorithm(String algorithmName, FitnessFunction fObj, int iterNumber, int maxFunEval)
+	{
+		this.algorithmName = algorithmName;
+		this.fObj = fObj;
+		this.iterNumber = iterNumber;
+		this.maxFunEval = maxFunEval;
+		this.bestChromosome = new double[fObj.getDim()];
+		this.resultFileName = "Result"+algorithmName+".csv";
+		this.metrics = AlgorithmMetrics.forAlgorithm(algorithmName);
+		this.seed = Rng.seedOf(algorithmName);
+		this.rng = Rng.create(seed);
+		this.termination = TerminationCriterion.fromSystemProperty(iterNumber, maxFunEval);
+	}
+
+	/**
+	* This method initialize all population of chromosomes with their dimensions and fitness function values.
+	* @since 1.0
+	*/
+	public abstract void initializeAll();
+
+	/**
+	* This method performs one iteration of the algorithm's process on the population.
+	* @since 1.1
+	*/
+	public abstract void iterate();
+
+	/**
+	* This method is used for remembering best fitness and corresponding chromosome to it.
+	* @since 1.0
+	*/
+	public abstract void memorizeGlobalBest();
+
+	/**
+	* This method remembers the best fitness and corresponding chromosome of the given population when it is better than the current best.
+	* @param source This is the population searched for a better chromosome
+	* @see Population
+	* @since 1.1
+	*/
+	protected void memorizeGlobalBest(Population source)
+	{
+		double[] fitness = source.fitness;
+		for(int i=0;i<source.size;i++)
+		{
+			if(fitness[i] < bestFitness)
+			{
+				bestFitness = fitness[i];
+				source.copyRowTo(i, bestChromosome);
+				if(verbose)
+					System.out.println("New BestChromosome Found  "+Population.toString(bestChromosome));
+			}
+		}
+	}
+
+	/**
+	* This method evaluates the chromosomes <i>[from, to)</i> of the population with the evaluator and counts them as function evaluations.
+	* The time spent is measured when metrics are kept and recorded as flight recorder event.
+	* @param evaluator This is the evaluator
+	* @param pop This is the population evaluated
+	* @param from This is the index of the first chromosome evaluated
+	* @param to This is the index after the last chromosome evaluated
+	* @see ParallelEvaluator
+	* @since 1.1
+	*/
+	protected final void evaluate(ParallelEvaluator evaluator, Population pop, int from, int to)
+	{
+		RunEvents.EvaluationBatch event = new RunEvents.EvaluationBatch();
+		event.begin();
+		if(metrics==null)
+			evaluator.evaluate(fObj, pop, from, to);
+		else
+		{
+			long start = System.nanoTime();
+			evaluator.evaluate(fObj, pop, from, to);
+			fitnessNanos += System.nanoTime()-start;
+		}
+		funEval += to-from;
+		event.end();
+		if(event.shouldCommit())
+		{
+			event.algorithm = algorithmName;
+			event.generation = generation;
+			event.size = to-from;
+			event.funEval = funEval;
+			event.commit();
+		}
+	}
+
+	/**
+	* This method evaluates the chromosomes <i>[from, to)</i> of the population on the calling thread for the worker threads of asynchronous
+	* algorithms, which count their evaluations themselves and add them on the thread of the run with countEvaluations.
+	* The time spent is measured when metrics are kept and recorded as flight recorder event of the generation going on.
+	* @param pop This is the population evaluated
+	* @param from This is the index of the first chromosome evaluated
+	* @param to This is the index after the last chromosome evaluated
+	* @param funEval This is the number of function evaluations of the run including these ones, for the flight recorder event
+	* @return long Nanoseconds spent in the fitness function, 0 when metrics are not kept
+	* @since 1.1
+	*/
+	protected final long evaluateConcurrently(Population pop, int from, int to, int funEval)
+	{
+		RunEvents.EvaluationBatch event = new RunEvents.EvaluationBatch();
+		event.begin();
+		long nanos = 0;
+		if(metrics==null)
+			fObj.evaluate(pop, from, to);
+		else
+		{
+			long start = System.nanoTime();
+			fObj.evaluate(pop, from, to);
+			nanos = System.nanoTime()-start;
+		}
+		event.end();
+		if(event.shouldCommit())
+		{
+			event.algorithm = algorithmName;
+			event.generation = generation;
+			event.size = to-from;
+			event.funEval = funEval;
+			event.commit();
+		}
+		return nanos;
+	}
+
+	/**
+	* This method counts function evaluations done by worker threads together with the time they spent in the fitness function.
+	* It must be called on the thread of the run.
+	* @param count This is the number of function evaluations
+	* @param nanos This is the nanoseconds spent in the fitness function
+	* @see #evaluateConcurrently(Population, int, int, int)
+	* @since 1.1
+	*/
+	protected final void countEvaluations(int count, long nanos)
+	{
+		funEval += count;
+		fitnessNanos += nanos;
+	}
+
+	/**
+	* This method evaluates one chromosome and counts it as function evaluation. The time spent is measured when metrics are kept,
+	* there is no flight recorder event for single chromosomes as the event of the generation covers them.
+	* @param chromosome This is the chromosome
+	* @return double Fitness value
+	* @since 1.1
+	*/
+	protected final double evaluate(double[] chromosome)
+	{
+		funEval++;
+		if(metrics==null)
+			return fObj.fitnessFunction(chromosome);
+		long start = System.nanoTime();
+		double fitness = fObj.fitnessFunction(chromosome);
+		fitnessNanos += System.nanoTime()-start;
+		return fitness;
+	}
+
+	/**
+	* This method returns the population evolved by the algorithm, it is used for exchanging chromosomes between runs.
+	* Algorithms without a population return <code>null</code>.
+	* @return Population Current population or <code>null</code>
+	* @see IslandModel
+	* @since 1.1
+	*/
+	protected Population getPopulation()
+	{
+		return null;
+	}
+
+	/**
+	* This method runs the algorithm <i>(i.e. intialize, iterate and terminate)</i> and stores the result of best chromosome of the iterations
+	* selected by the sampling policy in the <i>.csv</i> file, the last iteration is always stored.
+	* Rows are written by a background thread, so the run only copies the best chromosome of a sampled iteration.
+	* The run stops once the termination criterion is met after an iteration, by default after <i>iterNumber</i> iterations or once
+	* <i>maxFunEval</i> function evaluations are exceeded, and never later than <i>iterNumber</i> iterations.
+	* When metrics are kept every iteration adds its evaluations, improvement, allocations and the time spent in the fitness function and in the operators.
+	* Every iteration and improvement is also emitted as flight recorder event, see RunEvents.
+	* The iteration hook, if any, is called around every iteration, see IterationHook.
+	* @exception IOException If the result file can not be written
+	* @see AsyncResultWriter
+	* @since 1.1
+	*/
+	public void run() throws IOException
+	{
+		if(metrics!=null)
+			metrics.runStarted();
+		EvaluationCache cache = metrics!=null && fObj instanceof EvaluationCache ? (EvaluationCache)fObj : null;
+		long cacheHits = cache!=null ? cache.getHits() : 0, cacheMisses = cache!=null ? cache.getMisses() : 0;
+
+		try{
+				stoppedBy = null;
+				termination.start(this);
+				generation = -1;
+				long start = metrics!=null ? System.nanoTime() : 0;
+				initializeAll();
+				memorizeGlobalBest();
+				if(metrics!=null)
+					metrics.initialization(funEval, fitnessNanos, System.nanoTime()-start-fitnessNanos);
+
+				if(iterationHook!=null)
+					iterationHook.afterIteration(this, -1);
+
+				if(resultFileName!=null)
+					resultSink = new AsyncResultWriter(resultFormat.fileName(resultFileName), resultFormat, bestChromosome.length);
+				int recorded = -1;
+
+				for(int i=0;i<iterNumber;i++)
+				{
+					if(iterationHook!=null)
+						iterationHook.beforeIteration(this, i);
+					double previousBest = bestFitness;
+					int previousFunEval = funEval;
+					long previousFitnessNanos = fitnessNanos;
+					long allocated = metrics!=null ? AlgorithmMetrics.allocatedBytes() : 0;
+					long iterationStart = metrics!=null ? System.nanoTime() : 0;
+					generation = i;
+					RunEvents.Generation event = new RunEvents.Generation();
+					event.begin();
+					iterate();
+					memorizeGlobalBest();
+					iterations = i+1;
+					event.end();
+					if(event.shouldCommit())
+					{
+						event.algorithm = algorithmName;
+						event.generation = i;
+						event.funEval = funEval;
+						event.bestFitness = bestFitness;
+						event.improved = bestFitness<previousBest;
+						event.commit();
+					}
+					if(bestFitness<previousBest)
+					{
+						RunEvents.Improvement improvement = new RunEvents.Improvement();
+						if(improvement.isEnabled())
+						{
+							improvement.algorithm = algorithmName;
+							improvement.generation = i;
+							improvement.funEval = funEval;
+							improvement.previousFitness = previousBest;
+							improvement.bestFitness = bestFitness;
+							improvement.commit();
+						}
+					}
+
+					if(metrics!=null)
+					{
+						long inFitness = fitnessNanos-previousFitnessNanos;
+						metrics.iteration(funEval-previousFunEval, inFitness, System.nanoTime()-iterationStart-inFitness, bestFitness<previousBest,
+							AlgorithmMetrics.allocatedBytes()-allocated);
+						if(cache!=null)
+						{
+							long hits = cache.getHits(), misses = cache.getMisses();
+							metrics.cache(hits-cacheHits, misses-cacheMisses);
+							cacheHits = hits;
+							cacheMisses = misses;
+						}
+					}
+
+					if(iterationHook!=null)
+						iterationHook.afterIteration(this, i);
+
+					if(samplingPolicy.sample(i, bestFitness<previousBest))
+					{
+						record(i);
+						recorded = i;
+					}
+
+					if(termination.isMet(this))
+					{
+						stoppedBy = termination instanceof TerminationCriterion.AnyOf && ((TerminationCriterion.AnyOf)termination).getMet()!=null
+							? ((TerminationCriterion.AnyOf)termination).getMet() : termination;
+						break;
+					}
+				}
+				if(stoppedBy==null)
+					stoppedBy = new TerminationCriterion.Iterations(iterNumber);
+
+				if(iterations>0 && recorded!=iterations-1)
+					record(iterations-1);
+		}
+		finally{
+			if(metrics!=null)
+				metrics.runFinished();
+			if(progressSink!=null)
+				progressSink.close();
+			if(resultSink!=null)
+			{
+				resultSink.close();
+				resultSink = null;
+			}
+		}
+	}
+
+	/**
+	* This method records the best fitness and chromosome of an iteration into the result file, if there is one, and the progress sink.
+	* The time spent, including any wait for the writer thread, is measured as I/O when metrics are kept.
+	* @param iteration This is the iteration number
+	* @exception IOException If the result file can not be written
+	* @since 1.1
+	*/
+	private void record(int iteration) throws IOException
+	{
+		long start = metrics!=null ? System.nanoTime() : 0;
+		if(resultSink!=null)
+			resultSink.record(iteration, funEval, bestFitness, bestChromosome);
+		if(progressSink!=null)
+			progressSink.record(iteration, funEval, bestFitness, bestChromosome);
+		if(metrics!=null)
+			metrics.io(System.nanoTime()-start);
+	}
+
+	/**
+	* This method runs the algorithm from a main method, printing any failure.
+	* With the <i>live</i> system property set the convergence is plotted by GraphPlotGui while the run is going on.
+	* The master seed is printed, so the run can be repeated with the <i>seed</i> system property.
+	* @since 1.1
+	*/
+	protected void runFromMain()
+	{
+		if(!Rng.isSeeded())
+			System.out.println("Master seed "+Rng.masterSeed()+", repeat the run with -Dseed="+Rng.masterSeed());
+		try{
+			if(Boolean.getBoolean("live"))
+			{
+				LiveFeed feed = new LiveFeed();
+				setProgressSink(feed);
+				GraphPlotGui.showLive(algorithmName, feed);
+			}
+			run();
+			System.out.println("Stopped after "+iterations+" iterations and "+funEval+" function evaluations by "+stoppedBy);
+			System.out.println(resultFormat==ResultFormat.Csv.INSTANCE ? "CSV file created" : "Result file "+getResultFileName()+" created");
+			if(fObj instanceof EvaluationCache)
+				System.out.println(((EvaluationCache)fObj).statistics());
+		}
+		catch (Exception e){
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	* This method creates a run of the algorithm with the given short name, <i>ga</i>, <i>de</i>, <i>pso</i> or <i>random</i>.
+	* @param name This is the short name of the algorithm, case insensitive
+	* @param fObj This is the fitness function optimized in the run
+	* @param evaluator This is the evaluator scoring populations, it can be shared between runs
+	* @return OptimizationAlgorithm New run of the algorithm
+	* @exception IllegalArgumentException If the name is unknown
+	* @since 1.1
+	*/
+	public static OptimizationAlgorithm forName(String name, FitnessFunction fObj, ParallelEvaluator evaluator)
+	{
+		switch(name.trim().toLowerCase(Locale.ROOT))
+		{
+			case "ga": return new GeneticAlgorithm(fObj, evaluator);
+			case "de": return new DeAlgorithm(fObj, evaluator);
+			case "pso": return new PsoAlgorithm(fObj, evaluator);
+			case "random": return new RandomizationAlgorithm(fObj);
+			default: throw new IllegalArgumentException("Unknown algorithm "+name);
+		}
+	}
+
+	/**
+	* This method returns the name of the algorithm.
+	* @return String Name of the algorithm
+	* @since 1.1
+	*/
+	public String getAlgorithmName()
+	{
+		return algorithmName;
+	}
+
+	/**
+	* This method returns the fitness function optimized in the run.
+	* @return FitnessFunction Fitness function of the run
+	* @since 1.1
+	*/
+	public FitnessFunction getFitnessFunction()
+	{
+		return fObj;
+	}
+
+	/**
+	* This method returns the best fitness value found so far.
+	* @return double Best fitness value
+	* @since 1.1
+	*/
+	public double getBestFitness()
+	{
+		return bestFitness;
+	}
+
+	/**
+	* This method returns a copy of the best chromosome found so far.
+	* @return double[] Best chromosome
+	* @since 1.1
+	*/
+	public double[] getBestChromosome()
+	{
+		return bestChromosome.clone();
+	}
+
+	/**
+	* This method returns the number of function evaluations done so far.
+	* @return int Function evaluations
+	* @since 1.1
+	*/
+	public int getFunEval()
+	{
+		return funEval;
+	}
+
+	/**
+	* This method returns the number of iterations completed so far.
+	* @return int Iterations
+	* @since 1.1
+	*/
+	public int getIterations()
+	{
+		return iterations;
+	}
+
+	/**
+	* This method returns the name of the result file of the run, with the extension of its result format.
+	* @return String Result file name or <code>null</code> if the run writes no result file
+	* @since 1.1
+	*/
+	public String getResultFileName()
+	{
+		return resultFileName!=null ? resultFormat.fileName(resultFileName) : null;
+	}
+
+	/**
+	* This method sets the name of the result file of the run.
+	* @param resultFileName This is the result file name, <code>null</code> for no result file
+	* @since 1.1
+	*/
+	public void setResultFileName(String resultFileName)
+	{
+		this.resultFileName = resultFileName;
+	}
+
+	/**
+	* This method sets the hook called around every iteration of the run.
+	* @param iterationHook This is the hook, <code>null</code> for none
+	* @see IterationHook
+	* @since 1.1
+	*/
+	public void setIterationHook(IterationHook iterationHook)
+	{
+		this.iterationHook = iterationHook;
+	}
+
+	/**
+	* This method sets the policy selecting the iterations stored in the result file.
+	* @param samplingPolicy This is the sampling policy
+	* @see SamplingPolicy
+	* @since 1.1
+	*/
+	public void setSamplingPolicy(SamplingPolicy samplingPolicy)
+	{
+		this.samplingPolicy = samplingPolicy;
+	}
+
+	/**
+	* This method sets an additional sink receiving the same sampled iterations as the result file, it is closed at the end of the run.
+	* @param progressSink This is the sink or <code>null</code> for none
+	* @see LiveFeed
+	* @since 1.1
+	*/
+	public void setProgressSink(ResultSink progressSink)
+	{
+		this.progressSink = progressSink;
+	}
+
+	/**
+	* This method sets the format of the result file, the extension of the result file name is adapted to it.
+	* @param resultFormat This is the result format
+	* @see ResultFormat
+	* @since 1.1
+	*/
+	public void setResultFormat(ResultFormat resultFormat)
+	{
+		this.resultFormat = resultFormat;
+	}
+
+	/**
+	* This method returns the seed of the random number generator of the run.
+	* @return long Seed
+	* @since 1.1
+	*/
+	public long getSeed()
+	{
+		return seed;
+	}
+
+	/**
+	* This method seeds the run with a new generator of the algorithm selected in Rng, it must be called before the run is started.
+	* @param seed This is the seed
+	* @see Rng
+	* @since 1.1
+	*/
+	public void setSeed(long seed)
+	{
+		this.seed = seed;
+		this.rng = Rng.create(seed);
+	}
+
+	/**
+	* This method sets the random number generator of the run, e.g. a stream split off another generator.
+	* It must be called before the run is started and not be shared with other threads.
+	* @param rng This is the generator
+	* @since 1.1
+	*/
+	public void setRng(RandomGenerator rng)
+	{
+		this.rng = rng;
+	}
+
+	/**
+	* This method sets the metrics the run adds to, e.g. to keep metrics of a run when they are not enabled with system properties.
+	* @param metrics This is the metrics or <code>null</code> for none
+	* @see AlgorithmMetrics
+	* @since 1.1
+	*/
+	public void setMetrics(AlgorithmMetrics metrics)
+	{
+		this.metrics = metrics;
+	}
+
+	/**
+	* This method returns the termination criterion of the run.
+	* @return TerminationCriterion Criterion deciding when the run stops
+	* @since 1.1
+	*/
+	public TerminationCriterion getTermination()
+	{
+		return termination;
+	}
+
+	/**
+	* This method replaces the termination criterion of the run, it must be called before the run is started.
+	* The run still stops after <i>iterNumber</i> iterations, other budgets apply only if they are part of the criterion.
+	* @param termination This is the new criterion, only used by this run
+	* @since 1.1
+	*/
+	public void setTermination(TerminationCriterion termination)
+	{
+		this.termination = termination;
+	}
+
+	/**
+	* This method returns the criterion which stopped the run, e.g. a target or the evaluation budget.
+	* @return TerminationCriterion Criterion met or <code>null</code> before the run is finished
+	* @since 1.1
+	*/
+	public TerminationCriterion getStoppedBy()
+	{
+		return stoppedBy;
+	}
+
+	/**
+	* This method sets whether every new best chromosome is printed on the console.
+	* @param verbose This is <i>true</i> for printing
+	* @since 1.1
+	*/
+	public void setVerbose(boolean verbose)
+	{
+		this.verbose = verbose;
+	}
+}
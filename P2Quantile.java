@@ -0,0 +1,156 @@
+import java.util.Arrays;
+
+/**
+* This class estimates a quantile of a stream of values in constant memory with the P<sup>2</sup> algorithm of Jain and Chlamtac.
+* Five markers track the minimum, the maximum, the quantile and two quantiles halfway to the extremes, their heights are adjusted
+* by piecewise-parabolic interpolation as values arrive. Up to five values the quantile is exact.
+* @author Ashish Rana
+* @version 1.1
+* @see RunAggregate
+* @since 1.1
+*/
+
+public class P2Quantile{
+
+	/**
+	* Estimated quantile, between 0 and 1.
+	* @since 1.1
+	*/
+	private final double p;
+	/**
+	* Heights of the markers, the first values seen until five have arrived.
+	* @since 1.1
+	*/
+	private final double[] height = new double[5];
+	/**
+	* Positions of the markers, counted from 1.
+	* @since 1.1
+	*/
+	private final double[] position = {1, 2, 3, 4, 5};
+	/**
+	* Desired positions of the markers.
+	* @since 1.1
+	*/
+	private final double[] desired;
+	/**
+	* Increments of the desired positions per value.
+	* @since 1.1
+	*/
+	private final double[] increment;
+	/**
+	* Number of values seen.
+	* @since 1.1
+	*/
+	private long count = 0;
+
+	/**
+	* This creates an estimator of the given quantile.
+	* @param p This is the quantile, e.g. 0.5 for the median
+	* @exception IllegalArgumentException If the quantile is not between 0 and 1
+	* @since 1.1
+	*/
+	public P2Quantile(double p)
+	{
+		if(!(p>=0 && p<=1))
+			throw new IllegalArgumentException("Quantile must be between 0 and 1");
+		this.p = p;
+		this.desired = new double[]{1, 1+2*p, 1+4*p, 3+2*p, 5};
+		this.increment = new double[]{0, p/2, p, (1+p)/2, 1};
+	}
+
+	/**
+	* This method adds a value to the stream, NaN values are ignored.
+	* @param x This is the value
+	* @since 1.1
+	*/
+	public void add(double x)
+	{
+		if(x!=x)
+			return;
+		if(count<5)
+		{
+			height[(int)count++] = x;
+			if(count==5)
+				Arrays.sort(height);
+			return;
+		}
+		count++;
+
+		int k;
+		if(x<height[0])
+		{
+			height[0] = x;
+			k = 0;
+		}
+		else if(x>=height[4])
+		{
+			height[4] = x;
+			k = 3;
+		}
+		else
+		{
+			k = 0;
+			while(x>=height[k+1])
+				k++;
+		}
+		for(int i=k+1;i<5;i++)
+			position[i]++;
+		for(int i=0;i<5;i++)
+			desired[i] += increment[i];
+
+		for(int i=1;i<4;i++)
+		{
+			double d = desired[i]-position[i];
+			if((d>=1 && position[i+1]-position[i]>1) || (d<=-1 && position[i-1]-position[i]<-1))
+			{
+				int s = d>0 ? 1 : -1;
+				double q = parabolic(i, s);
+				if(!(height[i-1]<q && q<height[i+1]))
+					q = height[i]+s*(height[i+s]-height[i])/(position[i+s]-position[i]);
+				height[i] = q;
+				position[i] += s;
+			}
+		}
+	}
+
+	/**
+	* This method returns the parabolic prediction of the height of marker <i>i</i> moved by <i>s</i> positions.
+	* @param i This is the marker
+	* @param s This is the direction, 1 or -1
+	* @return double Predicted height
+	* @since 1.1
+	*/
+	private double parabolic(int i, int s)
+	{
+		double n0 = position[i-1], n1 = position[i], n2 = position[i+1];
+		return height[i]+s/(n2-n0)*((n1-n0+s)*(height[i+1]-height[i])/(n2-n1)+(n2-n1-s)*(height[i]-height[i-1])/(n1-n0));
+	}
+
+	/**
+	* This method returns the estimated quantile of the values added so far, NaN when there are none.
+	* @return double Estimated quantile
+	* @since 1.1
+	*/
+	public double get()
+	{
+		if(count==0)
+			return Double.NaN;
+		if(count<=5)
+		{
+			double[] sorted = Arrays.copyOf(height, (int)count);
+			Arrays.sort(sorted);
+			return sorted[(int)Math.round(p*(count-1))];
+		}
+		return height[2];
+	}
+
+	/**
+	* This method returns the number of values added so far.
+	* @return long Number of values
+	* @since 1.1
+	*/
+	public long getCount()
+	{
+		return count;
+	}
+}
@@ -0,0 +1,136 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+* This class evaluates the fitness of a block of chromosomes stored in a Population, either sequentially on the calling thread
+* or split into sub-blocks across a ForkJoinPool. Only the fitness values are computed here, chromosomes are generated and
+* selected by the algorithms on their own thread, so a run gives the same results with any parallelism level.
+* The parallelism level of a run is selected with the <i>parallelism</i> system property, <i>1</i> (default) evaluates sequentially
+* and <i>0</i> uses all available processors.
+* @author Ashish Rana
+* @version 1.1
+* @see FitnessFunction#evaluate(Population, int, int)
+* @since 1.1
+*/
+
+public class ParallelEvaluator{
+
+	/**
+	* Number of sub-blocks created per worker thread, more than one so that uneven evaluation times get balanced by work stealing.
+	* @since 1.1
+	*/
+	private static final int BLOCKS_PER_THREAD = 4;
+	/**
+	* Number of threads evaluating chromosomes.
+	* @since 1.1
+	*/
+	private final int parallelism;
+	/**
+	* Pool of worker threads, <code>null</code> when evaluating sequentially.
+	* @since 1.1
+	*/
+	private final ForkJoinPool pool;
+
+	/**
+	* This creates an evaluator with the given number of worker threads.
+	* @param parallelism This is the number of threads, <i>1</i> evaluates on the calling thread and <i>0</i> uses all available processors
+	* @exception IllegalArgumentException If parallelism is negative
+	* @since 1.1
+	*/
+	public ParallelEvaluator(int parallelism)
+	{
+		if(parallelism<0)
+			throw new IllegalArgumentException("Negative parallelism "+parallelism);
+		if(parallelism==0)
+			parallelism = Runtime.getRuntime().availableProcessors();
+
+		this.parallelism = parallelism;
+		this.pool = parallelism>1 ? new ForkJoinPool(parallelism) : null;
+	}
+
+	/**
+	* This method creates the evaluator selected by the <i>parallelism</i> system property.
+	* @return ParallelEvaluator Evaluator of the current run
+	* @since 1.1
+	*/
+	public static ParallelEvaluator fromSystemProperty()
+	{
+		return new ParallelEvaluator(Integer.getInteger("parallelism", 1));
+	}
+
+	/**
+	* This method returns the number of threads evaluating chromosomes.
+	* @return int Parallelism level
+	* @since 1.1
+	*/
+	public int getParallelism()
+	{
+		return parallelism;
+	}
+
+	/**
+	* This method evaluates the chromosomes <i>[from, to)</i> of the population and stores their fitness values into it.
+	* It returns once every chromosome is evaluated.
+	* @param fObj This is the fitness function, it must be safe to call from many threads
+	* @param pop This is the population evaluated
+	* @param from This is the index of the first chromosome evaluated
+	* @param to This is the index after the last chromosome evaluated
+	* @since 1.1
+	*/
+	public void evaluate(FitnessFunction fObj, Population pop, int from, int to)
+	{
+		int count = to-from;
+		if(pool==null || count<2)
+		{
+			fObj.evaluate(pop, from, to);
+			return;
+		}
+
+		int grain = Math.max(1, count/(parallelism*BLOCKS_PER_THREAD));
+		pool.invoke(new EvaluateBlock(fObj, pop, from, to, grain));
+	}
+
+	/**
+	* This method stops the worker threads, the evaluator must not be used afterwards.
+	* @since 1.1
+	*/
+	public void shutdown()
+	{
+		if(pool!=null)
+			pool.shutdown();
+	}
+
+	/**
+	* This class splits a block of chromosomes in halves until it is small enough and then evaluates it with the batch method of the fitness function.
+	* @since 1.1
+	*/
+	private static final class EvaluateBlock extends RecursiveAction{
+
+		private static final long serialVersionUID = 1L;
+
+		private final FitnessFunction fObj;
+		private final Population pop;
+		private final int from, to, grain;
+
+		EvaluateBlock(FitnessFunction fObj, Population pop, int from, int to, int grain)
+		{
+			this.fObj = fObj;
+			this.pop = pop;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if(to-from<=grain)
+			{
+				fObj.evaluate(pop, from, to);
+				return;
+			}
+			int mid = (from+to)>>>1;
+			invokeAll(new EvaluateBlock(fObj, pop, from, mid, grain), new EvaluateBlock(fObj, pop, mid, to, grain));
+		}
+	}
+}
@@ -0,0 +1,186 @@
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Stroke;
+
+/**
+* This interface is the drawing surface of GraphPlotGui, with just the operations its graph is drawn with.
+* The same drawing code thus renders into the Gui, into images through <i>of(Graphics2D)</i> and into SVG documents through SvgCanvas.
+* @author Ashish Rana
+* @version 1.1
+* @see GraphPlotGui
+* @see SvgCanvas
+* @since 1.1
+*/
+
+public interface PlotCanvas{
+
+	/**
+	* This method sets the color of the following drawing operations.
+	* @param color This is the color, its alpha value is kept
+	* @since 1.1
+	*/
+	void setColor(Color color);
+
+	/**
+	* This method returns the stroke lines are drawn with.
+	* @return Stroke Current stroke
+	* @since 1.1
+	*/
+	Stroke getStroke();
+
+	/**
+	* This method sets the stroke lines are drawn with.
+	* @param stroke This is the stroke
+	* @since 1.1
+	*/
+	void setStroke(Stroke stroke);
+
+	/**
+	* This method returns the metrics of the font labels are drawn with.
+	* @return FontMetrics Metrics of the font
+	* @since 1.1
+	*/
+	FontMetrics getFontMetrics();
+
+	/**
+	* This method draws a line.
+	* @param x1 This is the x coordinate of the start
+	* @param y1 This is the y coordinate of the start
+	* @param x2 This is the x coordinate of the end
+	* @param y2 This is the y coordinate of the end
+	* @since 1.1
+	*/
+	void drawLine(int x1, int y1, int x2, int y2);
+
+	/**
+	* This method draws a line through the given points.
+	* @param xPoints This is the array of x coordinates
+	* @param yPoints This is the array of y coordinates
+	* @param points This is the number of points
+	* @since 1.1
+	*/
+	void drawPolyline(int[] xPoints, int[] yPoints, int points);
+
+	/**
+	* This method fills a rectangle.
+	* @param x This is the x coordinate of the upper left corner
+	* @param y This is the y coordinate of the upper left corner
+	* @param width This is the width
+	* @param height This is the height
+	* @since 1.1
+	*/
+	void fillRect(int x, int y, int width, int height);
+
+	/**
+	* This method fills the oval inside a rectangle.
+	* @param x This is the x coordinate of the upper left corner
+	* @param y This is the y coordinate of the upper left corner
+	* @param width This is the width
+	* @param height This is the height
+	* @since 1.1
+	*/
+	void fillOval(int x, int y, int width, int height);
+
+	/**
+	* This method draws a text.
+	* @param text This is the text
+	* @param x This is the x coordinate of its start
+	* @param y This is the y coordinate of its baseline
+	* @since 1.1
+	*/
+	void drawString(String text, int x, int y);
+
+	/**
+	* This method restricts the following drawing operations to a rectangle.
+	* @param x This is the x coordinate of the upper left corner
+	* @param y This is the y coordinate of the upper left corner
+	* @param width This is the width
+	* @param height This is the height
+	* @since 1.1
+	*/
+	void setClip(int x, int y, int width, int height);
+
+	/**
+	* This method removes the restriction of <i>setClip</i>.
+	* @since 1.1
+	*/
+	void clearClip();
+
+	/**
+	* This method returns a canvas drawing with the given Graphics object.
+	* @param g2 This is the Graphics object
+	* @return PlotCanvas Canvas drawing with it
+	* @since 1.1
+	*/
+	static PlotCanvas of(Graphics2D g2)
+	{
+		return new PlotCanvas(){
+			@Override
+			public void setColor(Color color)
+			{
+				g2.setColor(color);
+			}
+
+			@Override
+			public Stroke getStroke()
+			{
+				return g2.getStroke();
+			}
+
+			@Override
+			public void setStroke(Stroke stroke)
+			{
+				g2.setStroke(stroke);
+			}
+
+			@Override
+			public FontMetrics getFontMetrics()
+			{
+				return g2.getFontMetrics();
+			}
+
+			@Override
+			public void drawLine(int x1, int y1, int x2, int y2)
+			{
+				g2.drawLine(x1, y1, x2, y2);
+			}
+
+			@Override
+			public void drawPolyline(int[] xPoints, int[] yPoints, int points)
+			{
+				g2.drawPolyline(xPoints, yPoints, points);
+			}
+
+			@Override
+			public void fillRect(int x, int y, int width, int height)
+			{
+				g2.fillRect(x, y, width, height);
+			}
+
+			@Override
+			public void fillOval(int x, int y, int width, int height)
+			{
+				g2.fillOval(x, y, width, height);
+			}
+
+			@Override
+			public void drawString(String text, int x, int y)
+			{
+				g2.drawString(text, x, y);
+			}
+
+			@Override
+			public void setClip(int x, int y, int width, int height)
+			{
+				g2.setClip(x, y, width, height);
+			}
+
+			@Override
+			public void clearClip()
+			{
+				g2.setClip(null);
+			}
+		};
+	}
+}
@@ -0,0 +1,566 @@
+import java.util.Arrays;
+
+/**
+* This class stores a whole population of chromosomes in one contiguous primitive block.
+* Genes are kept row-major in a single <i>double</i> array of <i>size x dim</i> entries, so chromosome <i>i</i>
+* occupies indices <i>[i*dim, (i+1)*dim)</i>, and fitness values are kept in a parallel <i>double</i> array.
+* This avoids boxing every gene into a Double and allocating a list per chromosome.
+* For separable fitness functions every chromosome can also carry its partial sums, so a chromosome changed in a single gene
+* with <i>mutate</i> is evaluated from the terms of that gene alone, and the prefix sums of the partial sums over its genes,
+* so a one-point crossover child made with <i>cross</i> is evaluated from the prefix sums of its parents before its genes are written.
+* @author Ashish Rana
+* @version 1.1
+* @since 1.1
+*/
+
+public class Population{
+
+	/**
+	* Number of chromosomes stored in the population.
+	* @since 1.1
+	*/
+	final int size;
+	/**
+	* Number of dimensions of every chromosome in the population.
+	* @since 1.1
+	*/
+	final int dim;
+	/**
+	* Row-major gene matrix, chromosome <i>i</i> starts at index <i>i*dim</i>.
+	* @since 1.1
+	*/
+	final double[] genes;
+	/**
+	* Fitness value of every chromosome, parallel to the rows of <i>genes</i>.
+	* @since 1.1
+	*/
+	final double[] fitness;
+	/**
+	* Marks a chromosome whose genes were not changed with <i>mutate</i> since its last evaluation.
+	* @since 1.1
+	*/
+	static final int UNCHANGED = -1;
+	/**
+	* Marks a chromosome changed with <i>mutate</i> in more than one gene since its last evaluation.
+	* @since 1.1
+	*/
+	static final int MULTIPLE = -2;
+	/**
+	* Number of partial sums of every chromosome, 0 while partial sums are not enabled.
+	* @since 1.1
+	*/
+	int sumCount = 0;
+	/**
+	* Partial sums of the chromosomes, <i>sumCount</i> per chromosome, NaN when they have to be computed in full,
+	* <code>null</code> while partial sums are not enabled.
+	* @see SeparableFunction
+	* @since 1.1
+	*/
+	double[] sums;
+	/**
+	* Bounds of the rounding errors of the partial sums against their exact values, <i>sumCount</i> per chromosome.
+	* @see SeparableFunction#ROUNDING_ERROR
+	* @since 1.1
+	*/
+	double[] sumErrors;
+	/**
+	* Dimension of the single gene changed with <i>mutate</i> since the last evaluation of every chromosome, or <i>UNCHANGED</i> or <i>MULTIPLE</i>.
+	* @since 1.1
+	*/
+	int[] changedGene;
+	/**
+	* Value of the changed gene at the last evaluation of every chromosome.
+	* @since 1.1
+	*/
+	double[] previousGene;
+	/**
+	* Prefix sums of the partial sums of the chromosomes, <i>(dim+1)*sumCount</i> per chromosome, entry <i>m*sumCount+s</i> of a chromosome
+	* holding partial sum <i>s</i> over its genes <i>[0, m)</i>, <code>null</code> while prefix sums are not enabled.
+	* @since 1.1
+	*/
+	double[] prefix;
+	/**
+	* Whether the prefix sums of every chromosome match its genes.
+	* @since 1.1
+	*/
+	boolean[] prefixValid;
+	/**
+	* Bounds of the rounding errors of all prefix sums of a partial sum against their exact values, <i>sumCount</i> per chromosome.
+	* Those of crossover children are set at their evaluation already, for the prefix sums written by <i>materialize</i>.
+	* @since 1.1
+	*/
+	double[] prefixErrors;
+	/**
+	* Population holding the parents of the crossover children of this population.
+	* @since 1.1
+	*/
+	Population crossSource;
+	/**
+	* Parent giving the head, i.e. the genes before the crossing point, of every crossover child.
+	* @since 1.1
+	*/
+	int[] crossHead;
+	/**
+	* Parent giving the tail, i.e. the genes from the crossing point on, of every crossover child.
+	* @since 1.1
+	*/
+	int[] crossTail;
+	/**
+	* Crossing point of every crossover child whose genes are not written yet, -1 for all other chromosomes.
+	* @since 1.1
+	*/
+	int[] crossPoint;
+
+	/**
+	* This allocates the gene matrix and fitness array for the given population size and dimensions.
+	* @param size This is the number of chromosomes in the population
+	* @param dim This is the number of dimensions of every chromosome
+	* @exception IllegalArgumentException If size or dim is negative or the gene matrix would not fit into an array
+	* @since 1.1
+	*/
+	public Population(int size, int dim)
+	{
+		if(size<0 || dim<0 || (long)size*dim>Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Invalid population size "+size+" x "+dim);
+
+		this.size = size;
+		this.dim = dim;
+		this.genes = new double[size*dim];
+		this.fitness = new double[size];
+	}
+
+	/**
+	* This method lets every chromosome carry the partial sums of a separable fitness function, which are computed at its next evaluation.
+	* @param count This is the number of partial sums of the function
+	* @see SeparableFunction#partialSums()
+	* @since 1.1
+	*/
+	public void enablePartialSums(int count)
+	{
+		sumCount = count;
+		sums = new double[size*count];
+		Arrays.fill(sums, Double.NaN);
+		sumErrors = new double[size*count];
+		changedGene = new int[size];
+		Arrays.fill(changedGene, UNCHANGED);
+		previousGene = new double[size];
+	}
+
+	/**
+	* This method returns whether the chromosomes carry partial sums.
+	* @return boolean <i>true</i> if partial sums are enabled
+	* @since 1.1
+	*/
+	public boolean hasPartialSums()
+	{
+		return sums!=null;
+	}
+
+	/**
+	* This method lets every chromosome carry the prefix sums of its partial sums, which takes <i>(dim+1)*sumCount</i> doubles per chromosome.
+	* They are computed at the next full evaluation of a chromosome.
+	* @exception IllegalStateException If partial sums are not enabled
+	* @exception IllegalArgumentException If the prefix sums would not fit into an array
+	* @since 1.1
+	*/
+	public void enablePrefixSums()
+	{
+		if(sums==null)
+			throw new IllegalStateException("Prefix sums need partial sums");
+		long length = (long)size*(dim+1)*sumCount;
+		if(length>Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Prefix sums of "+size+" x "+dim+" chromosomes do not fit into an array");
+		prefix = new double[(int)length];
+		prefixValid = new boolean[size];
+		prefixErrors = new double[size*sumCount];
+		crossHead = new int[size];
+		crossTail = new int[size];
+		crossPoint = new int[size];
+		Arrays.fill(crossPoint, -1);
+	}
+
+	/**
+	* This method returns whether the chromosomes carry prefix sums.
+	* @return boolean <i>true</i> if prefix sums are enabled
+	* @since 1.1
+	*/
+	public boolean hasPrefixSums()
+	{
+		return prefix!=null;
+	}
+
+	/**
+	* This method returns the index of the first prefix sum of a chromosome.
+	* @param i This is the chromosome index
+	* @return int Offset of the prefix sums of the chromosome
+	* @since 1.1
+	*/
+	int prefixOffset(int i)
+	{
+		return i*(dim+1)*sumCount;
+	}
+
+	/**
+	* This method marks the partial sums of a chromosome to be computed in full at its next evaluation.
+	* @param i This is the chromosome index
+	* @since 1.1
+	*/
+	private void invalidate(int i)
+	{
+		if(sums!=null)
+		{
+			sums[i*sumCount] = Double.NaN;
+			changedGene[i] = UNCHANGED;
+		}
+		if(prefix!=null)
+		{
+			prefixValid[i] = false;
+			crossPoint[i] = -1;
+		}
+	}
+
+	/**
+	* This method makes chromosome <i>i</i> the one-point crossover child of two chromosomes of the source population, the genes
+	* of <i>head</i> before the crossing point followed by the genes of <i>tail</i>. Its genes are only written by <i>materialize</i>,
+	* so a child rejected after its evaluation costs neither a full evaluation nor a copy. The source population must not change
+	* before the child is materialized.
+	* @param i This is the chromosome index of the child
+	* @param source This is the population holding the parents, with the same partial sums
+	* @param head This is the parent giving the genes before the crossing point
+	* @param tail This is the parent giving the genes from the crossing point on
+	* @param cross This is the crossing point
+	* @exception IllegalStateException If prefix sums are not enabled
+	* @since 1.1
+	*/
+	public void cross(int i, Population source, int head, int tail, int cross)
+	{
+		if(prefix==null)
+			throw new IllegalStateException("Crossover children need prefix sums");
+		crossSource = source;
+		crossHead[i] = head;
+		crossTail[i] = tail;
+		crossPoint[i] = cross;
+		changedGene[i] = UNCHANGED;
+		sums[i*sumCount] = Double.NaN;
+		prefixValid[i] = false;
+	}
+
+	/**
+	* This method writes the genes of a crossover child made with <i>cross</i>. Its prefix sums are derived from the prefix sums of
+	* its parents with additions only, the terms spanning the crossing point are taken from the partial sums of its evaluation.
+	* Chromosomes which are not crossover children are left unchanged.
+	* @param i This is the chromosome index of the child
+	* @since 1.1
+	*/
+	public void materialize(int i)
+	{
+		int cross = crossPoint!=null ? crossPoint[i] : -1;
+		if(cross<0)
+			return;
+		Population src = crossSource;
+		int head = crossHead[i], tail = crossTail[i];
+		System.arraycopy(src.genes, head*dim, genes, i*dim, cross);
+		System.arraycopy(src.genes, tail*dim+cross, genes, i*dim+cross, dim-cross);
+		crossPoint[i] = -1;
+
+		if(src.prefixValid[head] && src.prefixValid[tail] && !Double.isNaN(sums[i*sumCount]))
+		{
+			int k = sumCount;
+			int to = prefixOffset(i), h = src.prefixOffset(head), t = src.prefixOffset(tail);
+			System.arraycopy(src.prefix, h, prefix, to, cross*k);
+			// from the crossing point on the prefix sums of the tail parent, shifted to end at the partial sums of the child
+			for(int s=0;s<k;s++)
+			{
+				double shift = sums[i*k+s] - src.prefix[t+dim*k+s];
+				for(int m=cross;m<=dim;m++)
+					prefix[to+m*k+s] = src.prefix[t+m*k+s] + shift;
+			}
+			prefixValid[i] = true;
+		}
+		else
+			invalidate(i);
+	}
+
+	/**
+	* This method returns the number of chromosomes in the population.
+	* @return int Number of chromosomes
+	* @since 1.1
+	*/
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	* This method returns the number of dimensions of every chromosome.
+	* @return int Number of dimensions
+	* @since 1.1
+	*/
+	public int dim()
+	{
+		return dim;
+	}
+
+	/**
+	* This method returns the backing gene matrix, it is shared and not copied.
+	* Chromosomes written through it are evaluated in full, they must not be changed with <i>mutate</i> before their next evaluation as well.
+	* @return double[] Row-major gene matrix
+	* @since 1.1
+	*/
+	public double[] genes()
+	{
+		return genes;
+	}
+
+	/**
+	* This method returns the backing fitness array, it is shared and not copied.
+	* @return double[] Fitness value of every chromosome
+	* @since 1.1
+	*/
+	public double[] fitness()
+	{
+		return fitness;
+	}
+
+	/**
+	* This method returns the index in the gene matrix where chromosome <i>i</i> starts.
+	* @param i This is the chromosome index
+	* @return int Offset of the first gene of the chromosome
+	* @since 1.1
+	*/
+	public int offset(int i)
+	{
+		return i*dim;
+	}
+
+	/**
+	* This method returns a single gene of a chromosome.
+	* @param i This is the chromosome index
+	* @param j This is the dimension index
+	* @return double Gene value
+	* @since 1.1
+	*/
+	public double get(int i, int j)
+	{
+		return genes[i*dim+j];
+	}
+
+	/**
+	* This method sets a single gene of a chromosome.
+	* @param i This is the chromosome index
+	* @param j This is the dimension index
+	* @param value This is the new gene value
+	* @since 1.1
+	*/
+	public void set(int i, int j, double value)
+	{
+		genes[i*dim+j] = value;
+		invalidate(i);
+	}
+
+	/**
+	* This method changes a single gene of a chromosome like <i>set</i>, but with partial sums enabled the next evaluation of the
+	* chromosome only updates the terms of this gene, as long as no other gene is changed before.
+	* @param i This is the chromosome index
+	* @param j This is the dimension index
+	* @param value This is the new gene value
+	* @see SeparableFunction
+	* @since 1.1
+	*/
+	public void mutate(int i, int j, double value)
+	{
+		int off = i*dim+j;
+		if(prefix!=null)
+			prefixValid[i] = false;
+		if(sums!=null)
+		{
+			if(changedGene[i]==UNCHANGED)
+			{
+				changedGene[i] = j;
+				previousGene[i] = genes[off];
+			}
+			else if(changedGene[i]!=j)
+				changedGene[i] = MULTIPLE;
+		}
+		genes[off] = value;
+	}
+
+	/**
+	* This method copies chromosome <i>from</i> over chromosome <i>to</i> together with its fitness value.
+	* @param from This is the index of the chromosome copied from
+	* @param to This is the index of the chromosome copied into
+	* @since 1.1
+	*/
+	public void copyRow(int from, int to)
+	{
+		copyRow(this, from, to);
+	}
+
+	/**
+	* This method copies a chromosome of another population with the same dimensions into this population together with its fitness value,
+	* and its partial sums and prefix sums if both populations carry the same ones.
+	* @param src This is the population copied from
+	* @param from This is the index of the chromosome in <i>src</i>
+	* @param to This is the index of the chromosome copied into
+	* @exception IllegalStateException If the chromosome copied from is a crossover child which is not materialized
+	* @since 1.1
+	*/
+	public void copyRow(Population src, int from, int to)
+	{
+		copyRow(src, from, to, true);
+	}
+
+	/**
+	* This method copies a chromosome of another population like <i>copyRow</i>, but leaves out its prefix sums, for a chromosome
+	* changed with <i>mutate</i> right after, which would invalidate them. Its partial sums are copied, so the mutated chromosome
+	* is still evaluated from the terms of the changed gene.
+	* @param src This is the population copied from
+	* @param from This is the index of the chromosome in <i>src</i>
+	* @param to This is the index of the chromosome copied into
+	* @exception IllegalStateException If the chromosome copied from is a crossover child which is not materialized
+	* @since 1.1
+	*/
+	public void copyRowToMutate(Population src, int from, int to)
+	{
+		copyRow(src, from, to, false);
+	}
+
+	/**
+	* This method copies a chromosome of another population together with its fitness value and partial sums, and its prefix sums if asked for.
+	* @param src This is the population copied from
+	* @param from This is the index of the chromosome in <i>src</i>
+	* @param to This is the index of the chromosome copied into
+	* @param withPrefix This is whether the prefix sums are copied, otherwise they are marked to be recomputed
+	* @since 1.1
+	*/
+	private void copyRow(Population src, int from, int to, boolean withPrefix)
+	{
+		if(src.crossPoint!=null && src.crossPoint[from]>=0)
+			throw new IllegalStateException("Crossover child "+from+" is not materialized");
+		System.arraycopy(src.genes, from*dim, genes, to*dim, dim);
+		fitness[to] = src.fitness[from];
+		if(sums!=null)
+		{
+			if(src.sumCount==sumCount)
+			{
+				System.arraycopy(src.sums, from*sumCount, sums, to*sumCount, sumCount);
+				System.arraycopy(src.sumErrors, from*sumCount, sumErrors, to*sumCount, sumCount);
+				changedGene[to] = src.changedGene[from];
+				previousGene[to] = src.previousGene[from];
+			}
+			else
+				invalidate(to);
+		}
+		if(prefix!=null)
+		{
+			crossPoint[to] = -1;
+			prefixValid[to] = withPrefix && src.prefix!=null && src.sumCount==sumCount && src.prefixValid[from];
+			if(prefixValid[to])
+			{
+				System.arraycopy(src.prefix, src.prefixOffset(from), prefix, prefixOffset(to), (dim+1)*sumCount);
+				System.arraycopy(src.prefixErrors, from*sumCount, prefixErrors, to*sumCount, sumCount);
+			}
+		}
+	}
+
+	/**
+	* This method copies the genes of chromosome <i>i</i> into the given array.
+	* @param i This is the chromosome index
+	* @param copyTo This is the array of at least <i>dim</i> entries copied into
+	* @since 1.1
+	*/
+	public void copyRowTo(int i, double[] copyTo)
+	{
+		System.arraycopy(genes, i*dim, copyTo, 0, dim);
+	}
+
+	/**
+	* This method overwrites the genes of chromosome <i>i</i> from the given array and sets its fitness value.
+	* @param copyFrom This is the array of at least <i>dim</i> entries copied from
+	* @param i This is the chromosome index
+	* @param fit This is the fitness value of the copied chromosome
+	* @since 1.1
+	*/
+	public void setRow(double[] copyFrom, int i, double fit)
+	{
+		System.arraycopy(copyFrom, 0, genes, i*dim, dim);
+		fitness[i] = fit;
+		invalidate(i);
+	}
+
+	/**
+	* This method returns the index of the chromosome with the lowest fitness value, first one wins on ties.
+	* @return int Index of the best chromosome or -1 for an empty population
+	* @since 1.1
+	*/
+	public int bestIndex()
+	{
+		int best = -1;
+		for(int i=0;i<size;i++)
+		{
+			if(best<0 || fitness[i]<fitness[best])
+				best = i;
+		}
+		return best;
+	}
+
+	/**
+	* This method returns the index of the chromosome with the highest fitness value, first one wins on ties.
+	* @return int Index of the worst chromosome or -1 for an empty population
+	* @since 1.1
+	*/
+	public int worstIndex()
+	{
+		int worst = -1;
+		for(int i=0;i<size;i++)
+		{
+			if(worst<0 || fitness[i]>fitness[worst])
+				worst = i;
+		}
+		return worst;
+	}
+
+	/**
+	* This method formats chromosome <i>i</i> the same way as an ArrayList of Double is printed, e.g. <i>[1.5, -2.25]</i>.
+	* @param i This is the chromosome index
+	* @return String Printable chromosome
+	* @since 1.1
+	*/
+	public String rowToString(int i)
+	{
+		return toString(genes, i*dim, dim);
+	}
+
+	/**
+	* This method formats a whole chromosome array the same way as an ArrayList of Double is printed.
+	* @param x This is the chromosome
+	* @return String Printable chromosome
+	* @since 1.1
+	*/
+	public static String toString(double[] x)
+	{
+		return toString(x, 0, x.length);
+	}
+
+	/**
+	* This method formats <i>dim</i> genes starting at <i>offset</i> the same way as an ArrayList of Double is printed,
+	* so result files keep their original layout.
+	* @param x This is the array holding the chromosome
+	* @param offset This is the index of the first gene
+	* @param dim This is the number of genes
+	* @return String Printable chromosome
+	* @since 1.1
+	*/
+	public static String toString(double[] x, int offset, int dim)
+	{
+		StringBuilder sb = new StringBuilder(dim*8+2);
+		sb.append('[');
+		for(int j=0;j<dim;j++)
+		{
+			if(j>0)
+				sb.append(", ");
+			sb.append(x[offset+j]);
+		}
+		return sb.append(']').toString();
+	}
+}
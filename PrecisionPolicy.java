@@ -0,0 +1,188 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+* This interface decides the precision with which fitness values and generated chromosome values are stored.
+* Two policies are provided, <i>FullPrecision</i> which keeps values untouched and <i>QuantizedPrecision</i>
+* which rounds them off to a fixed number of decimal places exactly as <i>BigDecimal</i> HALF_UP rounding of
+* <i>Double.toString</i> does, but with pure arithmetic so nothing is allocated per call.
+* The policy of a run is selected with the <i>precision</i> system property, either <i>full</i> or the number of decimal places (default <i>2</i>).
+* @author Ashish Rana
+* @version 1.1
+* @see FitnessFunction
+* @since 1.1
+*/
+
+public interface PrecisionPolicy{
+
+	/**
+	* This method applies the precision policy on a value.
+	* @param value This is the value to be stored
+	* @return double Value with the precision of this policy
+	* @since 1.1
+	*/
+	double apply(double value);
+
+	/**
+	* This method returns the policy for the given name, <i>full</i> for no rounding or the number of decimal places for quantized rounding.
+	* @param name This is the name of the policy
+	* @return PrecisionPolicy Policy for the name
+	* @exception IllegalArgumentException If the name is neither <i>full</i> nor a non negative number
+	* @since 1.1
+	*/
+	static PrecisionPolicy forName(String name)
+	{
+		if("full".equalsIgnoreCase(name.trim()))
+			return FullPrecision.INSTANCE;
+		try{
+			return new QuantizedPrecision(Integer.parseInt(name.trim()));
+		}
+		catch(NumberFormatException e){
+			throw new IllegalArgumentException("Unknown precision policy "+name, e);
+		}
+	}
+
+	/**
+	* This method returns the policy selected by the <i>precision</i> system property, by default values are rounded off to 2 decimal places.
+	* @return PrecisionPolicy Policy for the current run
+	* @since 1.1
+	*/
+	static PrecisionPolicy fromSystemProperty()
+	{
+		return forName(System.getProperty("precision", "2"));
+	}
+
+	/**
+	* This policy keeps values with full double precision, nothing gets rounded off.
+	* @since 1.1
+	*/
+	public static final class FullPrecision implements PrecisionPolicy{
+		/**
+		* Shared instance as the policy carries no state.
+		* @since 1.1
+		*/
+		public static final FullPrecision INSTANCE = new FullPrecision();
+
+		private FullPrecision()
+		{
+		}
+
+		@Override
+		public double apply(double value)
+		{
+			return value;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "full";
+		}
+	}
+
+	/**
+	* This policy rounds values off to a fixed number of decimal places with HALF_UP rounding.
+	* Results are bit-for-bit equal to <i>new BigDecimal(Double.toString(d)).setScale(decimalPlace, HALF_UP).doubleValue()</i>,
+	* so result files of earlier runs can be reproduced.
+	* @since 1.1
+	*/
+	public static final class QuantizedPrecision implements PrecisionPolicy{
+		/**
+		* Powers of ten which are exactly representable as double.
+		* @since 1.1
+		*/
+		private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+		/**
+		* Largest scaled magnitude handled arithmetically, beyond it doubles are too coarse for the fast path and BigDecimal is used.
+		* @since 1.1
+		*/
+		private static final double FAST_LIMIT = 1e12;
+		/**
+		* Number of decimal places kept.
+		* @since 1.1
+		*/
+		private final int decimalPlace;
+
+		/**
+		* This creates a policy rounding off to the given decimal places.
+		* @param decimalPlace This specifies the number of digits to be rounded off to
+		* @exception IllegalArgumentException If decimalPlace is negative
+		* @since 1.1
+		*/
+		public QuantizedPrecision(int decimalPlace)
+		{
+			if(decimalPlace<0)
+				throw new IllegalArgumentException("Negative decimal places "+decimalPlace);
+			this.decimalPlace = decimalPlace;
+		}
+
+		/**
+		* This method returns the number of decimal places kept.
+		* @return int Decimal places
+		* @since 1.1
+		*/
+		public int getDecimalPlace()
+		{
+			return decimalPlace;
+		}
+
+		@Override
+		public double apply(double value)
+		{
+			return round(value, decimalPlace);
+		}
+
+		@Override
+		public String toString()
+		{
+			return Integer.toString(decimalPlace);
+		}
+
+		/**
+		* This method rounds a value off to the given decimal places with HALF_UP rounding of its shortest decimal representation.
+		* The rounded magnitude is <i>n / 10^decimalPlace</i> where <i>n</i> is the smallest integer whose upper tie point
+		* <i>(2n+1) / (2*10^decimalPlace)</i>, taken as the nearest double, is above the magnitude. A value equal to that double
+		* is printed as the tie itself by <i>Double.toString</i>, which is why ties compare with <i>&gt;=</i> and round away from zero.
+		* @param d This is decimal value as input
+		* @param decimalPlace This specifies the number of digits to be rounded off to
+		* @return double Rounded off double value is returned
+		* @exception NumberFormatException If d is NaN or infinite, like BigDecimal does
+		* @since 1.1
+		*/
+		public static double round(double d, int decimalPlace)
+		{
+			double s = Math.abs(d);
+			if(decimalPlace>=POW10.length || !(s*POW10[decimalPlace] < FAST_LIMIT))
+				return roundBigDecimal(d, decimalPlace);
+
+			double scale = POW10[decimalPlace];
+			double twiceScale = 2*scale;
+			long n = (long)(s*scale);
+			// s*scale can be off by one ulp, move n until s lies in [tie(n-1), tie(n))
+			while(n>0 && s<(2*n-1)/twiceScale)
+				n--;
+			while(s>=(2*n+1)/twiceScale)
+				n++;
+
+			if(n==0)
+				return 0.0;
+			double r = n/scale;
+			return d<0 ? -r : r;
+		}
+
+		/**
+		* This method is the reference rounding through BigDecimal, used for values outside of the arithmetic range.
+		* @param d This is decimal value as input
+		* @param decimalPlace This specifies the number of digits to be rounded off to
+		* @return double Rounded off double value is returned
+		* @see BigDecimal
+		* @since 1.1
+		*/
+		static double roundBigDecimal(double d, int decimalPlace)
+		{
+			BigDecimal bd = new BigDecimal(Double.toString(d));
+			bd = bd.setScale(decimalPlace, RoundingMode.HALF_UP);
+			return bd.doubleValue();
+		}
+	}
+}
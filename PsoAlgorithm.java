@@ -1,19 +1,32 @@
-import java.util.ArrayList;
-import java.io.FileWriter;
-import java.io.IOException;
 
 
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
 /**
 * This class uses the fitness function to evaluate the particles with particle swarm optimization algorithmic process.
 * Also, it writes iterations of improved chromosomes into a file with ending on best chromosome iteration.
-* This class also extends FitnessFunction class for using fitness function, lower and upper bounds plus dimensions specified in it.
+* This class uses the FitnessFunction selected for the run, see BenchmarkFunction, for fitness function, lower and upper bounds plus dimensions specified in it.
+* Positions, velocities and personal bests of the particles are rows of flat primitive arrays allocated once per run, so the memory of a run
+* does not grow with its iterations. The velocity equation is selected with the <i>velocity</i> system property, see VelocityUpdate.
+* With the <i>async</i> system property set the particles are moved asynchronously by worker threads, one per level of <i>parallelism</i>,
+* each owning a block of particles which it moves, evaluates and compares with the swarm's best particle on its own without waiting for the others.
+* The swarm's best particle is published as immutable snapshot, so fast evaluations never wait for slow ones. An iteration of an asynchronous
+* run ends once as many particles were moved as the swarm holds, as the threads do not wait for each other the run can not be repeated by its seed.
+* Workers run up to one iteration ahead of the run, unless its termination criterion reads the population, e.g. <i>diversity</i>, then they are
+* held after every iteration while the criterion is checked.
 * @author Ashish Rana
 * @version 1.0
 * @see FitnessFunction
 * @since 07-02-2018
 */
 
-public class PsoAlgorithm extends FitnessFunction
+public class PsoAlgorithm extends OptimizationAlgorithm
 {
 	/**
 	* Name of the algorithm being used.	
@@ -21,6 +34,86 @@ public class PsoAlgorithm extends FitnessFunction
 	*/
 	private final static String algorithmName = "PsoAlgorithm"; // Algo Name
 	/**
+	* This enum describes the velocity equation moving the particles. Both pull a particle towards its own best and the swarm's best particle
+	* with random weights, they differ in how the previous velocity is damped.
+	* @since 1.1
+	*/
+	public enum VelocityUpdate{
+		/**
+		* The previous velocity is scaled by the inertia weight <i>0.8</i>, with both acceleration constants <i>1.5</i>.
+		*/
+		INERTIA(iWeight, constA, constB, 1),
+		/**
+		* Constriction factor of Clerc and Kennedy, the whole velocity is scaled by <i>0.7298</i> with both acceleration constants <i>2.05</i>,
+		* which lets the swarm converge without an inertia weight.
+		*/
+		CONSTRICTION(1, 2.05, 2.05, 0.7298437881283576);
+
+		/**
+		* Weight of the previous velocity.
+		* @since 1.1
+		*/
+		final double inertia;
+		/**
+		* Acceleration constant towards the particle's own best.
+		* @since 1.1
+		*/
+		final double cognitive;
+		/**
+		* Acceleration constant towards the swarm's best particle.
+		* @since 1.1
+		*/
+		final double social;
+		/**
+		* Factor the new velocity is scaled with.
+		* @since 1.1
+		*/
+		final double constriction;
+
+		/**
+		* This creates a velocity equation with its constants.
+		* @param inertia This is the weight of the previous velocity
+		* @param cognitive This is the acceleration constant towards the particle's own best
+		* @param social This is the acceleration constant towards the swarm's best particle
+		* @param constriction This is the factor the new velocity is scaled with
+		* @since 1.1
+		*/
+		VelocityUpdate(double inertia, double cognitive, double social, double constriction)
+		{
+			this.inertia = inertia;
+			this.cognitive = cognitive;
+			this.social = social;
+			this.constriction = constriction;
+		}
+
+		/**
+		* This method returns the velocity equation for the given name, <i>inertia</i> or <i>constriction</i>.
+		* @param name This is the name of the velocity equation, case insensitive
+		* @return VelocityUpdate The velocity equation
+		* @exception IllegalArgumentException If the name is unknown
+		* @since 1.1
+		*/
+		public static VelocityUpdate forName(String name)
+		{
+			switch(name.trim().toLowerCase(Locale.ROOT))
+			{
+				case "inertia": return INERTIA;
+				case "constriction": return CONSTRICTION;
+				default: throw new IllegalArgumentException("Unknown velocity update "+name);
+			}
+		}
+
+		/**
+		* This method returns the velocity equation selected by the <i>velocity</i> system property, by default <i>inertia</i>.
+		* @return VelocityUpdate Velocity equation for the current run
+		* @since 1.1
+		*/
+		public static VelocityUpdate fromSystemProperty()
+		{
+			return forName(System.getProperty("velocity", "inertia"));
+		}
+	}
+	/**
 	* PSO's first constant in evaluating equation.	
 	* @since 1.0
 	*/
@@ -46,123 +139,275 @@ public class PsoAlgorithm extends FitnessFunction
 	*/
 	private final static double velUpperBound = 1;		// Velocity Upper Bound
 	/**
-	* Number of iterations in algorithm.	
+	* Default number of iterations in algorithm.	
 	* @since 1.0
 	*/
-	private final static int iterNumber = 2000;	// Iteration Number 	
+	private final static int defaultIterNumber = 2000;	// Iteration Number 	
 	/**
-	* Size of population in algorithm.	
+	* Default size of population in algorithm.	
 	* @since 1.0
 	*/
-	private final static int popSize = 100;		// Number of chromosomes
+	private final static int defaultPopSize = 100;		// Number of chromosomes
 	/**
-	* Maximum number of function evaluations in algorithm.	
+	* Default maximum number of function evaluations in algorithm.	
 	* @since 1.0
 	*/
-	private final static int maxFunEval = 90000; // Max Allowable Function Evaluation
+	private final static int defaultMaxFunEval = 90000; // Max Allowable Function Evaluation
+	
 	/**
-	* Stores number of function evaluations in algorithm.	
+	* Population of particles with fitness value of its own, stored as a primitive row-major gene matrix.	
+	* @see Population
 	* @since 1.0
 	*/
-	private static int funEval = 0;	// Counting Function Evaluations
+
+	private Population pop ;	// Stores particle and fitness value 	
 	/**
-	* best-fitness value in the population.	
-	* @since 1.0
+	* Velocity vector of every particle, row-major and parallel to the rows of <i>pop</i>.
+	* Its size is fixed to <i>popSize x dim</i> for the whole run.
+	* @since 1.1
 	*/
-	private static double bestFitness = 99999999; // Store Best Fitness  
+	double[] velocity ;
 	/**
-	* best-fitness particle in the population.	
-	* @since 1.0
+	* Personal best particle of every particle with its fitness value, parallel to the rows of <i>pop</i>.
+	* @see Population
+	* @since 1.1
 	*/
-	private static ArrayList<Double> bestParticle;
+	Population pBest ;
 	/**
-	* resultant file name specific to algorithm.	
-	* @since 1.0
+	* Size of population in the run.
+	* @since 1.1
 	*/
-	private final static String resultFileName = "Result"+algorithmName+".csv";
+	private final int popSize;
 	/**
-	* File-header to be appended into result file.	
-	* @since 1.0
+	* Evaluator scoring the whole swarm, sequential or on a ForkJoinPool.
+	* @see ParallelEvaluator
+	* @since 1.1
 	*/
-	private static final String fileHeader = "Iteration,Fitness,Chromosome"+"\n";
+	private final ParallelEvaluator evaluator;
 	/**
-	* FileWriter Object for writing into result file.
-	* @see FileWriter	
-	* @since 1.0
+	* Whether particles are moved asynchronously by worker threads.
+	* @since 1.1
 	*/
-	private static FileWriter fileWriter = null;	 
-	
+	private boolean async;
 	/**
-	* This class is used for storing chromosome along with fitness value. Also it stores all the velocity dimensions of the given chromosome.
-	* Extra Information about the swarm is also stored. With current best fitness value and best particle's dimensions. 
-	* It provides structure for storing such values in tied up manner.
-	* @since 1.0
+	* Best particle of the swarm during an asynchronous run, replaced by compare-and-set whenever a worker finds a better one.
+	* @see Best
+	* @since 1.1
 	*/
-	public static class Individual{
-		ArrayList<Double> particle; 
-		ArrayList<Double> velocity; 
-		ArrayList<Double> pBest; 
-		double fitness;
-		double pBestCollective;
-		 
-	}
+	private AtomicReference<Best> globalBest;
+	/**
+	* Worker threads of an asynchronous run, <code>null</code> when none are running.
+	* @since 1.1
+	*/
+	private Thread[] workers;
+	/**
+	* Whether the worker threads stop after their current particle.
+	* @since 1.1
+	*/
+	private volatile boolean stopping;
+	/**
+	* Permit taken by a worker thread before moving a particle, every iteration issues <i>popSize</i> of them,
+	* so the workers are at most one iteration ahead of the run and stop shortly after it. Without the iteration issued ahead the workers
+	* are held once an iteration is done, so the termination criterion reads a population which is not moving.
+	* @since 1.1
+	*/
+	private Semaphore issued;
+	/**
+	* Permit released for every particle moved by a worker thread, an iteration takes <i>popSize</i> of them.
+	* @since 1.1
+	*/
+	private Semaphore moved;
+	/**
+	* Number of particles moved and evaluated by the worker threads.
+	* @since 1.1
+	*/
+	private AtomicInteger moves;
+	/**
+	* First failure of a worker thread, <code>null</code> while they all work.
+	* @since 1.1
+	*/
+	private AtomicReference<Throwable> failure;
+	/**
+	* Nanoseconds the worker threads spent in the fitness function, only measured when metrics are kept.
+	* @since 1.1
+	*/
+	private LongAdder fitnessTime;
+	/**
+	* Function evaluations counted when the worker threads were started.
+	* @since 1.1
+	*/
+	private int funEvalAtStart;
+	/**
+	* Particles moved by the worker threads which are already counted as function evaluations of the run.
+	* @since 1.1
+	*/
+	private int countedMoves;
+	/**
+	* Nanoseconds of the worker threads already counted as time of the run in the fitness function.
+	* @since 1.1
+	*/
+	private long countedNanos;
+	/**
+	* Velocity equation moving the particles.
+	* @see VelocityUpdate
+	* @since 1.1
+	*/
+	private volatile VelocityUpdate velocityUpdate;
 
 	/**
-	* Population of particles with fitness value of its own, velocity vector of its own dimensions, current best fitness value and current best particle.	
-	* @since 1.0
+	* This class is an immutable snapshot of the best particle of the swarm, shared by the worker threads of an asynchronous run.
+	* @since 1.1
 	*/
+	static final class Best{
+		final double fitness;
+		final double[] position;
 
-	private static ArrayList<Individual> pop ;	// Stores chromosome and fitness value 	
+		Best(double fitness, double[] position)
+		{
+			this.fitness = fitness;
+			this.position = position;
+		}
+	}
 
 	/**
-	* This initialize <i>bestParticle</i> to default values when this constructor is called. 
-	* @see FitnessFunction
+	* This creates a run on the fitness function selected with the <i>function</i>, <i>dim</i> and <i>cache</i> system properties,
+	* evaluating with the parallelism selected with the <i>parallelism</i> system property.
+	* @see BenchmarkFunction
+	* @see ParallelEvaluator
 	* @since 1.0
 	*/
 	
 	public PsoAlgorithm()
 	{
-		FitnessFunction fObj = new FitnessFunction(); 
-		bestParticle = new ArrayList<>(fObj.dim);
-		bestParticle = initializeList(bestParticle);
+		this(EvaluationCache.fromSystemProperty(BenchmarkFunction.fromSystemProperties()), ParallelEvaluator.fromSystemProperty());
+	}
+
+	/**
+	* This creates a run on the given fitness function and initialize the best particle to default values. 
+	* @param fObj This is the fitness function optimized in the run
+	* @param evaluator This is the evaluator scoring the swarm, it can be shared between runs
+	* @see FitnessFunction
+	* @since 1.1
+	*/
 	
+	public PsoAlgorithm(FitnessFunction fObj, ParallelEvaluator evaluator)
+	{
+		this(fObj, evaluator, defaultPopSize);
+	}
+
+	/**
+	* This creates a run on the given fitness function with the given population size.
+	* @param fObj This is the fitness function optimized in the run
+	* @param evaluator This is the evaluator scoring the swarm, it can be shared between runs
+	* @param popSize This is the number of particles in the population
+	* @exception IllegalArgumentException If <i>popSize</i> is less than 2
+	* @see FitnessFunction
+	* @since 1.1
+	*/
+
+	public PsoAlgorithm(FitnessFunction fObj, ParallelEvaluator evaluator, int popSize)
+	{
+		super(algorithmName, fObj, defaultIterNumber, defaultMaxFunEval);
+		if(popSize<2)
+			throw new IllegalArgumentException("Population size must be at least 2");
+		this.evaluator = evaluator;
+		this.popSize = popSize;
+		this.velocityUpdate = VelocityUpdate.fromSystemProperty();
+		this.async = Boolean.getBoolean("async");
+	}
+
+	/**
+	* This method returns whether particles are moved asynchronously by worker threads.
+	* @return boolean <i>true</i> for an asynchronous run
+	* @since 1.1
+	*/
+	public boolean isAsync()
+	{
+		return async;
+	}
+
+	/**
+	* This method sets whether particles are moved asynchronously by worker threads, one per level of parallelism of the evaluator.
+	* @param async This is <i>true</i> for an asynchronous run
+	* @return PsoAlgorithm This run
+	* @exception IllegalStateException If the worker threads are running
+	* @since 1.1
+	*/
+	public PsoAlgorithm setAsync(boolean async)
+	{
+		if(workers!=null)
+			throw new IllegalStateException("Worker threads are running");
+		this.async = async;
+		return this;
+	}
+
+	/**
+	* This method returns the velocity equation moving the particles.
+	* @return VelocityUpdate Velocity equation of the run
+	* @since 1.1
+	*/
+	public VelocityUpdate getVelocityUpdate()
+	{
+		return velocityUpdate;
+	}
+
+	/**
+	* This method sets the velocity equation moving the particles, it can be changed between iterations.
+	* @param velocityUpdate This is the velocity equation
+	* @return PsoAlgorithm This run
+	* @exception NullPointerException If <i>velocityUpdate</i> is <code>null</code>
+	* @since 1.1
+	*/
+	public PsoAlgorithm setVelocityUpdate(VelocityUpdate velocityUpdate)
+	{
+		if(velocityUpdate==null)
+			throw new NullPointerException("velocityUpdate");
+		this.velocityUpdate = velocityUpdate;
+		return this;
 	}
 
 	/**
 	* This method initialize all population of particles with their dimensions and fitness function values.
-	* Also it binds them together into objects of Individual class.
-	* @see Individual
+	* Also it stores them together as rows of the Population gene matrix.
+	* @see Population
 	* @see FitnessFunction
 	* @since 1.0
 	*/
 	
-	public static void initializeAll()
+	@Override
+	public void initializeAll()
 	{
-		pop = new ArrayList<Individual>(popSize);	// initialized to 100 capacity
+		int dim = fObj.getDim();
+		double lBound = fObj.getLowerBound(), uBound = fObj.getUpperBound();
 	
-		FitnessFunction fObj = new FitnessFunction(); 
+		pop = new Population(popSize, dim);	// initialized to 100 particles by default
+		pBest = new Population(popSize, dim);
+		velocity = new double[popSize*dim];
 	
+		double[] particle = pop.genes;
 		for(int i=0;i<popSize;i++)
 		{
-			ArrayList<Double> chromosome = new ArrayList<>(fObj.dim);
-			ArrayList<Double> velocity = new ArrayList<>(fObj.dim);
-			for(int j=0;j<fObj.dim;j++)
+			int off = pop.offset(i);
+			for(int j=0;j<dim;j++)
 			{
 			// Adding chromosome's value with rounded value		
-				chromosome.add(fObj.round(((Math.random() * (fObj.uBound - fObj.lBound)) + fObj.lBound),2));
+				particle[off+j] = fObj.quantize(((rng.nextDouble() * (uBound - lBound)) + lBound));
 				
-				velocity.add(fObj.round(((Math.random() * (velUpperBound - velLowerBound)) + velLowerBound),2));
+				velocity[off+j] = fObj.quantize(((rng.nextDouble() * (velUpperBound - velLowerBound)) + velLowerBound));
 			}
-			
-			Individual inst = new Individual();
+		}
 		
-			inst.fitness = fObj.fitnessFunction(chromosome);
-			funEval++;
-			inst.particle = chromosome;
-			inst.velocity = velocity;
-			inst.pBest = chromosome;
-			inst.pBestCollective =  fObj.fitnessFunction(chromosome);
-			pop.add(inst);
+		evaluate(evaluator, pop, 0, popSize);
+		
+		for(int i=0;i<popSize;i++)
+			pBest.copyRow(pop, i, i);
+
+		if(async)
+		{
+			int b = pBest.bestIndex();
+			double[] position = new double[dim];
+			pBest.copyRowTo(b, position);
+			globalBest = new AtomicReference<>(new Best(pBest.fitness[b], position));
 		}
 	}
 
@@ -174,115 +419,287 @@ public class PsoAlgorithm extends FitnessFunction
 	* @since 1.0
 	*/
 	
-	public static void memorizeGlobalBest(){
+	@Override
+	public void memorizeGlobalBest(){
 		
-		FitnessFunction fObj = new FitnessFunction(); 
-		for(Individual p : pop)
+		if(!async)
 		{
-			if(p.pBestCollective < bestFitness)
-			{
-				bestFitness = p.pBestCollective;
-				bestParticle = deepCopy(bestParticle, p.pBest);
-				System.out.println("New BestChromosome Found  "+bestParticle);	
-			}
+			memorizeGlobalBest(pBest);
+			return;
+		}
+		Best best = globalBest.get();
+		if(best.fitness < bestFitness)
+		{
+			bestFitness = best.fitness;
+			System.arraycopy(best.position, 0, bestChromosome, 0, bestChromosome.length);
+			if(verbose)
+				System.out.println("New BestChromosome Found  "+Population.toString(bestChromosome));
 		}
 	}
 
 	/**
-	* This method creates a deepcopy i.e. a seperate copy of chromosome that will not be side effected by originals manipulation. A seperate copy of the object is created with same values as <i>copyFrom</i> parameter.   
-	* @param copyTo This the particle in which the values copied into.
-	* @param copyFrom This is the particle from which the values copied from iteratively
-	* @return ArrayList This is the new copied <i>double</i> value containing particle which is returned
-	* @exception NullPointerException This exception is throwned while accessing null list
-	* @exception IndexOutOfBoundsException If the index accessed is out of bounds of list's size
-	* @see Individual
-	* @since 1.0
+	* This method returns the population of the run.
+	* @return Population Current population
+	* @since 1.1
 	*/
 
-	public static ArrayList<Double> deepCopy(ArrayList<Double> copyTo,ArrayList<Double> copyFrom)
-	{	
-	
-		FitnessFunction fObj = new FitnessFunction(); 
-	
-		for(int i=0;i<copyFrom.size();i++)
+	@Override
+	protected Population getPopulation()
+	{
+		return pop;
+	}
+
+	/**
+	* This method performs one generation of particle swarm optimization. In an asynchronous run it starts the worker threads
+	* on the first call and waits until they moved as many particles as the swarm holds.
+	* @exception IllegalStateException If a worker thread failed
+	* @since 1.1
+	*/
+
+	@Override
+	public void iterate()
+	{
+		if(!async)
 		{
-			copyTo.set(i,copyFrom.get(i));
-				
+			psoOperation();
+			return;
 		}
-	
-		return copyTo;
+		if(workers==null)
+			startWorkers();
+		issued.release(popSize);
+		moved.acquireUninterruptibly(popSize);
+		countMoves();
+		if(failure.get()!=null)
+			throw new IllegalStateException("Particle worker failed", failure.get());
 	}
 
 	/**
-	* This method is used for stuffing default values into arraylist which can later be manipulated.
-	* @param list This is a list passed with size zero
-	* @return ArrayList This is a list with size of <i>dim</i> in FitnessFunction class
-	* @exception NullPointerException This exception is throwned while accessing null list
-	* @see FitnessFunction
-	* @since 1.0
+	* This method runs the algorithm like OptimizationAlgorithm.run and stops the worker threads of an asynchronous run afterwards.
+	* The particles moved by the workers while the run was stopping are counted as function evaluations as well.
+	* @exception IOException If the result file can not be written
+	* @since 1.1
 	*/
-	
-	public static ArrayList<Double> initializeList(ArrayList<Double> list)
+	@Override
+	public void run() throws IOException
 	{
-		FitnessFunction fObj = new FitnessFunction(); 
-		for(int i=0;i<fObj.dim;i++)
-			list.add(i,0.00);
-	
-		return list;
+		try{
+			super.run();
+		}
+		finally{
+			stopWorkers();
+		}
+	}
+
+	/**
+	* This method starts one worker thread per level of parallelism of the evaluator, at most one per particle, each owning a block of particles.
+	* @since 1.1
+	*/
+	private void startWorkers()
+	{
+		int count = Math.min(evaluator.getParallelism(), popSize);
+		stopping = false;
+		issued = new Semaphore(termination.readsPopulation() ? 0 : popSize);
+		moved = new Semaphore(0);
+		moves = new AtomicInteger();
+		fitnessTime = new LongAdder();
+		countedMoves = 0;
+		countedNanos = 0;
+		failure = new AtomicReference<>();
+		funEvalAtStart = funEval;
+		workers = new Thread[count];
+		for(int w=0;w<count;w++)
+		{
+			int from = w*popSize/count, to = (w+1)*popSize/count;
+			RandomGenerator random = Rng.create(Rng.derive(seed, w));
+			workers[w] = new Thread(() -> work(from, to, random), algorithmName+"-worker-"+w);
+			workers[w].setDaemon(true);
+		}
+		for(Thread worker : workers)
+			worker.start();
+	}
+
+	/**
+	* This method stops the worker threads and waits for them, nothing is done when none are running.
+	* @since 1.1
+	*/
+	private void stopWorkers()
+	{
+		if(workers==null)
+			return;
+		stopping = true;
+		issued.release(workers.length);
+		try{
+			for(Thread worker : workers)
+				worker.join();
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+		countMoves();
+		workers = null;
 	}
 
+	/**
+	* This method counts the particles moved by the worker threads since the last call as function evaluations of the run,
+	* together with the time they spent in the fitness function.
+	* @since 1.1
+	*/
+	private void countMoves()
+	{
+		int count = moves.get();
+		long nanos = fitnessTime.sum();
+		countEvaluations(count-countedMoves, nanos-countedNanos);
+		countedMoves = count;
+		countedNanos = nanos;
+	}
 
 	/**
-	* This method is used for randomly picking up two chromosome from the population and performing one point crossover for them. Which generates two offsprings with different fitness values.
-	* After calculating and comparing the fitness of parent and corresponding offsprings it also replaces them with best fitness valued chromosome respectively.
-	* @see Individual
+	* This method is the loop of a worker thread, moving and evaluating its particles one after the other towards the latest best particle
+	* of the swarm until the run stops, taking an issued permit for every particle. A failure stops all workers and wakes the run up.
+	* @param from This is the index of the first particle of the worker
+	* @param to This is the index after the last particle of the worker
+	* @param random This is the random number generator of the worker
+	* @since 1.1
+	*/
+	private void work(int from, int to, RandomGenerator random)
+	{
+		try{
+			for(int i=from;;i = i+1<to ? i+1 : from)
+			{
+				issued.acquireUninterruptibly();
+				if(stopping)
+					break;
+				Best best = globalBest.get();
+				moveParticle(i, best.position, random, velocityUpdate);
+				long nanos = evaluateConcurrently(pop, i, i+1, funEvalAtStart+moves.get()+1);
+				if(nanos>0)
+					fitnessTime.add(nanos);
+				double fitness = pop.fitness[i];
+				if(fitness<=pBest.fitness[i])
+				{
+					pBest.copyRow(pop, i, i);
+					if(fitness<best.fitness)
+						publish(fitness, i);
+				}
+				moves.incrementAndGet();
+				moved.release();
+			}
+		}
+		catch(RuntimeException | Error e){
+			failure.compareAndSet(null, e);
+			stopping = true;
+			moved.release(popSize);
+		}
+	}
+
+	/**
+	* This method publishes particle <i>i</i> as the best particle of the swarm unless another worker published a particle at least as good meanwhile.
+	* @param fitness This is the fitness value of the particle
+	* @param i This is the index of the particle
+	* @since 1.1
+	*/
+	private void publish(double fitness, int i)
+	{
+		double[] position = new double[pop.dim];
+		pop.copyRowTo(i, position);
+		Best candidate = new Best(fitness, position);
+		Best current;
+		do{
+			current = globalBest.get();
+			if(fitness>=current.fitness)
+				return;
+		}
+		while(!globalBest.compareAndSet(current, candidate));
+	}
+
+	/**
+	* This method creates a deepcopy i.e. a seperate copy of chromosome that will not be side effected by originals manipulation. The values of <i>copyFrom</i> parameter are copied into <i>copyTo</i>.   
+	* @param copyTo This the particle in which the values copied into.
+	* @param copyFrom This is the particle from which the values copied from
+	* @return double[] This is the <i>copyTo</i> particle holding the copied values
+	* @exception NullPointerException This exception is throwned while accessing null array
+	* @exception IndexOutOfBoundsException If <i>copyTo</i> is shorter than <i>copyFrom</i>
+	* @since 1.0
+	*/
+
+	public double[] deepCopy(double[] copyTo,double[] copyFrom)
+	{	
+		System.arraycopy(copyFrom, 0, copyTo, 0, copyFrom.length);
+		return copyTo;
+	}
+
+	/**
+	* This method is used for moving every particle of the swarm with pso's velocity equation towards its own best and the swarm's best particle.
+	* After evaluating the moved particles it also replaces the best particle of every particle with the moved one when it is not worse.
+	* Generations are synchronous, the whole swarm is moved first and then evaluated together.
+	* Velocities are updated in place, the velocity array keeps its <i>popSize x dim</i> entries for the whole run.
+	* @see VelocityUpdate
+	* @see Population
 	* @see FitnessFunction
+	* @see ParallelEvaluator
 	* @since 1.0
 	*/
 
-	public static void psoOperation()
+	public void psoOperation()
 	{
-		FitnessFunction fObj = new FitnessFunction(); 
+		VelocityUpdate update = velocityUpdate;
+		for(int i=0;i<popSize;i++)
+			moveParticle(i, bestChromosome, rng, update);
+		
+		evaluate(evaluator, pop, 0, popSize);
+		
 		for(int i=0;i<popSize;i++)
 		{
-			for(int j=0;j<fObj.dim;j++)
+			if(pop.fitness[i]<=pBest.fitness[i])
 			{
-				double randA = Math.random();
-				double randB = Math.random();
-				
-				pop.get(i).velocity.add(j,iWeight*pop.get(i).velocity.get(j) + constA*randA*(pop.get(i).pBest.get(j)-pop.get(i).particle.get(j)) + constB*randB*(bestParticle.get(j)-pop.get(i).particle.get(j)));
-				
-				if(pop.get(i).velocity.get(j)<velLowerBound)
-					pop.get(i).velocity.add(j,Math.random() * (velUpperBound - velLowerBound) + velLowerBound);
-				
-				if(pop.get(i).velocity.get(j)>velUpperBound)
-					pop.get(i).velocity.add(j,Math.random() * (velUpperBound - velLowerBound) + velLowerBound);
-				
-				pop.get(i).particle.set(j,fObj.round((pop.get(i).particle.get(j)+pop.get(i).velocity.get(j)),2));	
-				
-				if(pop.get(i).particle.get(j)<fObj.lBound)
-					pop.get(i).particle.set(j,fObj.round(((Math.random() * (fObj.uBound - fObj.lBound)) + fObj.lBound),2));
-				
-				if(pop.get(i).particle.get(j)>fObj.uBound)
-					pop.get(i).particle.set(j,fObj.round(((Math.random() * (fObj.uBound - fObj.lBound)) + fObj.lBound),2));
-				
-							
+				pBest.copyRow(pop, i, i);  
 			}
-			
-			pop.get(i).fitness = fObj.fitnessFunction(pop.get(i).particle); 
-			
-			funEval++;
-			
-			if(pop.get(i).fitness<=pop.get(i).pBestCollective)
-			{
-				pop.get(i).pBestCollective = pop.get(i).fitness;
-				pop.get(i).pBest = deepCopy(pop.get(i).pBest,pop.get(i).particle);  
-			}
-		
 		}
 	
 	}	
 	
+	/**
+	* This method moves particle <i>i</i> with the velocity equation towards its own best and the given best particle of the swarm.
+	* Velocities and positions leaving their bounds are redrawn at random within them.
+	* @param i This is the index of the particle
+	* @param swarmBest This is the best particle of the swarm
+	* @param random This is the random number generator
+	* @param update This is the velocity equation
+	* @since 1.1
+	*/
+	void moveParticle(int i, double[] swarmBest, RandomGenerator random, VelocityUpdate update)
+	{
+		int dim = fObj.getDim();
+		double lBound = fObj.getLowerBound(), uBound = fObj.getUpperBound();
+		double[] particle = pop.genes;
+		double[] best = pBest.genes;
+		double inertia = update.inertia, cognitive = update.cognitive;
+		double social = update.social, constriction = update.constriction;
+		int off = pop.offset(i);
+		for(int j=0;j<dim;j++)
+		{
+			int k = off+j;
+			double randA = random.nextDouble();
+			double randB = random.nextDouble();
+			
+			velocity[k] = constriction*(inertia*velocity[k] + cognitive*randA*(best[k]-particle[k]) + social*randB*(swarmBest[j]-particle[k]));
+			
+			if(velocity[k]<velLowerBound)
+				velocity[k] = random.nextDouble() * (velUpperBound - velLowerBound) + velLowerBound;
+			
+			if(velocity[k]>velUpperBound)
+				velocity[k] = random.nextDouble() * (velUpperBound - velLowerBound) + velLowerBound;
+			
+			particle[k] = fObj.quantize((particle[k]+velocity[k]));	
+			
+			if(particle[k]<lBound)
+				particle[k] = fObj.quantize(((random.nextDouble() * (uBound - lBound)) + lBound));
+			
+			if(particle[k]>uBound)
+				particle[k] = fObj.quantize(((random.nextDouble() * (uBound - lBound)) + lBound));
+		}
+	}
+
 	/**
 	* This the main method which evaluates the chromosomes with pso's equations and stores the result of best chromosome in the <i>.csv</i> file.
 	* @param args Unused
@@ -293,50 +710,7 @@ public class PsoAlgorithm extends FitnessFunction
 	public static void main(String[] args)
 	{
 		PsoAlgorithm psoObj = new PsoAlgorithm(); 
-		psoObj.initializeAll();
-	
-		psoObj.bestParticle = psoObj.pop.get(0).particle;
-		psoObj.bestFitness = psoObj.pop.get(0).fitness;
-	
-	
-		try{
-				psoObj.fileWriter = new FileWriter(psoObj.resultFileName);
-				psoObj.fileWriter.append(fileHeader);
-			
-				for(int i=0;i<iterNumber;i++)
-				{
-					psoObj.psoOperation();
-					psoObj.memorizeGlobalBest();
-				
-				
-				
-					
-					if(i%1==0)
-					{
-						psoObj.fileWriter.append(i+","+psoObj.bestFitness+","+psoObj.bestParticle+"\n");
-					}
-					
-					if(funEval>maxFunEval)
-						break;
-					
-				
-				}
-			
-				System.out.println("CSV file created");
-			
-		}
-		catch (Exception e){
-			e.printStackTrace();
-		}
-		finally{
-			try {
-				fileWriter.flush();
-			  	fileWriter.close();
-			}
-			catch(IOException e){
-			    e.printStackTrace();
-			 }
-		}            
+		psoObj.runFromMain();
 	}
 
 }
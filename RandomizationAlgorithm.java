@@ -1,158 +1,138 @@
-import java.util.ArrayList;
-import java.io.FileWriter;
-import java.io.IOException;
-
-
 /**
 * This class uses the fitness function to evaluate the chromosomes with randomization processes like random-walk.
 * Also, it writes iterations of improved chromosomes into a file with ending on best chromosome iteration.
-* This class also extends FitnessFunction class for using fitness function, lower and upper bounds plus dimensions specified in it.
+* This class uses the FitnessFunction selected for the run, see BenchmarkFunction, for fitness function, lower and upper bounds plus dimensions specified in it.
 * @author Ashish Rana
 * @version 1.0
 * @see FitnessFunction
 * @since 07-02-2018
 */
 
-public class RandomizationAlgorithm extends FitnessFunction
+public class RandomizationAlgorithm extends OptimizationAlgorithm
 	{
 	/**
-	* Name of the algorithm being used.	
+	* Name of the algorithm being used.
 	* @since 1.0
 	*/
-	private static String algorithmName = "RandomizationAlgorithm";
+	private final static String algorithmName = "RandomizationAlgorithm";
 	/**
-	* Number of iterations in algorithm.	
+	* Default number of iterations in algorithm.
 	* @since 1.0
 	*/
-	private final static int iterNumber = 2000;	// Iteration Number 	
+	private final static int defaultIterNumber = 2000;	// Iteration Number
 	/**
-	* best-fitness value in the population.	
+	* Default maximum number of function evaluations in algorithm.
 	* @since 1.0
 	*/
-	private static double bestFitness = 99999999; // Store Best Fitness  
+	private final static int defaultMaxFunEval = 90000; // Max Allowable Function Evaluation
 	/**
-	* best-fitness chromosome in the population.	
-	* @since 1.0
+	* Randomly generated chromosome of the current iteration.
+	* @since 1.1
 	*/
-	private static ArrayList<Double> bestChromosome;
+	private double[] chromValue;
 	/**
-	* File-header to be appended into result file.	
-	* @since 1.0
+	* Fitness value of the chromosome of the current iteration.
+	* @since 1.1
 	*/
-	private static final String fileHeader = "Iteration,Fitness,Chromosome"+"\n";
+	private double chromFitness;
+
 	/**
-	* FileWriter Object for writing into result file.
-	* @see FileWriter	
+	* This creates a run on the fitness function selected with the <i>function</i>, <i>dim</i> and <i>cache</i> system properties.
+	* @see BenchmarkFunction
 	* @since 1.0
 	*/
-	private static FileWriter fileWriter = null;	 
+
+	public RandomizationAlgorithm()
+	{
+		this(EvaluationCache.fromSystemProperty(BenchmarkFunction.fromSystemProperties()));
+	}
+
 	/**
-	* resultant file name specific to algorithm.	
-	* @since 1.0
+	* This creates a run on the given fitness function and initialize <i>bestChromosome</i> to default values.
+	* @param fObj This is the fitness function optimized in the run
+	* @see FitnessFunction
+	* @since 1.1
 	*/
-	private final static String resultFileName = "Result"+algorithmName+".csv";
+
+	public RandomizationAlgorithm(FitnessFunction fObj)
+	{
+		super(algorithmName, fObj, defaultIterNumber, defaultMaxFunEval);
+	}
+
 	/**
-	* Maximum number of function evaluations in algorithm.	
+	* This method fills the given chromosome with random values within the bounds of the fitness function, overwriting its previous values.
+	* @param solChrome This is the chromosome of at least <i>dim</i> entries to be filled
+	* @return double[] This is the <i>solChrome</i> chromosome holding the newly generated values
 	* @since 1.0
 	*/
-	private final static int maxFunEval = 90000; // Max Allowable Function Evaluation
+
+	public double[] genChromosome(double[] solChrome)
+	{
+		int dim = fObj.getDim();
+		double lBound = fObj.getLowerBound(), uBound = fObj.getUpperBound();
+
+		for(int j=0;j<dim;j++)
+			{
+			// Adding chromosome's value with rounded value
+				solChrome[j] = fObj.quantize(((rng.nextDouble() * (uBound - lBound)) + lBound));
+			}
+
+		return solChrome;
+	}
+
 	/**
-	* Stores number of function evaluations in algorithm.	
-	* @since 1.0
+	* This method allocates the chromosome reused by every iteration, nothing is evaluated before the first iteration.
+	* @since 1.1
 	*/
-	private static int funEval = 0;	// Counting Function Evaluations
+
+	@Override
+	public void initializeAll()
+	{
+		chromValue = new double[fObj.getDim()];
+		chromFitness = bestFitness;
+	}
 
 	/**
-	* This initialize <i>bestChromosome</i> to default values when this constructor is called. 
-	* @since 1.0
+	* This method is used for randomly generating chromosome and evaluating its fitness.
+	* @see FitnessFunction
+	* @since 1.1
 	*/
-		
-	public RandomizationAlgorithm()
+
+	@Override
+	public void iterate()
 	{
-		bestChromosome = new ArrayList<>();
+		chromValue = genChromosome(chromValue);
+
+		chromFitness = evaluate(chromValue);
 	}
-	
-		/**
-	* This method creates a deepcopy i.e. a seperate copy of chromosome that will not be side effected by originals manipulation. A seperate copy of the object is created with same values as <i>copyFrom</i> parameter.   
-	* @return ArrayList This is the newly generated <i>double</i> value containing chromosome which is returned
-	* @see Individual
+
+	/**
+	* This method is used for comparing the chromosome of the current iteration with the best-fitness. Storing the most fit chromosome with value until the termination criteria is reached.
 	* @since 1.0
 	*/
 
-	public ArrayList<Double> genChromosome()
+	@Override
+	public void memorizeGlobalBest()
 	{
-		FitnessFunction fObj = new FitnessFunction(); 
-		ArrayList<Double> solChrome = new ArrayList<>();
-		
-		for(int j=0;j<fObj.dim;j++)
-			{
-			// Adding chromosome's value with rounded value		
-				solChrome.add(fObj.round(((Math.random() * (fObj.uBound - fObj.lBound)) + fObj.lBound),2));
-			}
-			
-		return solChrome;	 
+		if(chromFitness<bestFitness)
+		{
+			bestFitness = chromFitness;
+			System.arraycopy(chromValue, 0, bestChromosome, 0, chromValue.length);
+		}
 	}
 
 	/**
-	* This method is used for randomly generating chromosome and comparing with the best-fitness. Storing the most fit chromosome with value until the termination criteria is reached.
-	* @exception NullPointerException This exception is throwned while accessing <code>null</code> list/FileWriterObject.
-	* @see Individual
-	* @see FitnessFunction
-	* @see FileWriter
+	* This the main method which evaluates randomly generated chromosomes and stores the result of best chromosome in the <i>.csv</i> file.
+	* @param args Unused
 	* @since 1.0
 	*/
-	
-	
+
+
 	public static void main(String[] args)
 	{
-		RandomizationAlgorithm ranObj = new RandomizationAlgorithm(); 
-		FitnessFunction fObj = new FitnessFunction(); 
-		
-	
-		try{
-				ranObj.fileWriter = new FileWriter(ranObj.resultFileName);
-				ranObj.fileWriter.append(fileHeader);
-				
-				ArrayList<Double> chromValue;
-				for(int i=0;i<iterNumber;i++)
-				{
-					chromValue = new ArrayList<>();
-					chromValue = ranObj.genChromosome();
-					
-					double fitness = fObj.fitnessFunction(chromValue);
-					funEval++;
-					if(fitness<ranObj.bestFitness)
-					{
-						ranObj.bestFitness = fitness;
-						bestChromosome = chromValue;
-					}
-										
-					if(i%1==0)
-					{
-						ranObj.fileWriter.append(i+","+ranObj.bestFitness+","+ranObj.bestChromosome+"\n");
-					}
-					
-					if(funEval>maxFunEval)
-						break;
-					
-				}
-			
-				System.out.println("CSV file created");
-			
-		}
-		catch (Exception e){
-			e.printStackTrace();
-		}
-		finally{
-			try {
-				fileWriter.flush();
-			  	fileWriter.close();
-			}
-			catch(IOException e){
-			    e.printStackTrace();
-			 }
-		}            
+		RandomizationAlgorithm ranObj = new RandomizationAlgorithm();
+		ranObj.runFromMain();
 	}
-	
+
 
 	}
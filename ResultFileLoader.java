@@ -0,0 +1,437 @@
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+* This class loads the iteration and fitness columns of a result file into a ResultSeries.
+* A <i>.csv</i> file is memory-mapped in windows and parsed byte by byte, numbers are parsed by hand straight from the mapped bytes,
+* so nothing is allocated per line and the chromosome text is skipped without being decoded. Binary <i>.oarb</i> files are read with BinaryResultFormat.
+* Loading runs on the calling thread, it reports its progress in percent and stops when the thread is interrupted, so it can run in a SwingWorker.
+* @author Ashish Rana
+* @version 1.1
+* @see ResultSeries
+* @see GraphPlotGui
+* @since 1.1
+*/
+
+public class ResultFileLoader{
+
+	/**
+	* Largest part of the file mapped at once.
+	* @since 1.1
+	*/
+	private static final long MAX_WINDOW = 1L<<30;
+	/**
+	* Number of lines between progress reports and interrupt checks.
+	* @since 1.1
+	*/
+	private static final int CHECK_EVERY = 1<<14;
+	/**
+	* Powers of ten exactly representable as double.
+	* @since 1.1
+	*/
+	private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+	/**
+	* Reused characters of a number handed to <i>Double.parseDouble</i> when it is too long for the exact fast path.
+	* @since 1.1
+	*/
+	private char[] slowChars = new char[32];
+
+	/**
+	* This method loads a result file, <i>.oarb</i> files in the binary format and every other file in the <i>.csv</i> layout.
+	* @param fileName This is the result file name
+	* @param progress This is called with the loaded percentage whenever it changes, it may be <code>null</code>
+	* @return ResultSeries Iterations and fitness values of the file, named after the file
+	* @exception IOException If the file can not be read, is malformed or the thread was interrupted
+	* @since 1.1
+	*/
+	public static ResultSeries load(String fileName, IntConsumer progress) throws IOException
+	{
+		ResultFileLoader loader = new ResultFileLoader();
+		return fileName.endsWith(".oarb") ? loader.loadBinary(fileName, progress) : loader.loadCsv(fileName, progress);
+	}
+
+	/**
+	* This method returns the result files in the given files and directories, directories contribute their <i>.csv</i> and <i>.oarb</i>
+	* files in name order except <i>ExperimentSummary.csv</i>.
+	* @param names This is the list of file and directory names
+	* @return List Result files
+	* @since 1.1
+	*/
+	public static List<String> resultFiles(String[] names)
+	{
+		List<String> files = new ArrayList<>();
+		for(String name : names)
+		{
+			File file = new File(name);
+			if(!file.isDirectory())
+			{
+				files.add(name);
+				continue;
+			}
+			File[] children = file.listFiles((dir, child) -> (child.endsWith(".csv") || child.endsWith(".oarb"))
+				&& !child.equals("ExperimentSummary.csv"));
+			if(children==null)
+				continue;
+			Arrays.sort(children);
+			for(File child : children)
+				files.add(child.getPath());
+		}
+		return files;
+	}
+
+	/**
+	* This method loads a binary result file.
+	* @param fileName This is the result file name
+	* @param progress This is called with 100 once the file is loaded, it may be <code>null</code>
+	* @return ResultSeries Iterations and fitness values of the file
+	* @exception IOException If the file can not be read or the thread was interrupted
+	* @since 1.1
+	*/
+	private ResultSeries loadBinary(String fileName, IntConsumer progress) throws IOException
+	{
+		ResultSeries series = new ResultSeries(new File(fileName).getName(), BinaryResultFormat.BLOCK_ROWS);
+		long[] blockOffsets = new long[16];
+		double[][] keyframes = new double[16][];
+		try(BinaryResultFormat.Reader reader = new BinaryResultFormat.Reader(fileName)){
+			while(reader.next())
+			{
+				int row = series.size();
+				if(reader.isFirstOfBlock() && keyframes!=null)
+				{
+					int block = row/BinaryResultFormat.BLOCK_ROWS;
+					if(row%BinaryResultFormat.BLOCK_ROWS!=0)
+						keyframes = null;	// blocks of other sizes, rows are decoded from the start
+					else
+					{
+						if(block==keyframes.length)
+						{
+							blockOffsets = Arrays.copyOf(blockOffsets, block*2);
+							keyframes = Arrays.copyOf(keyframes, block*2);
+						}
+						blockOffsets[block] = reader.getBlockOffset();
+						keyframes[block] = reader.getChromosome().clone();
+					}
+				}
+				series.add(reader.getIteration(), reader.getFitness());
+				if(series.size()%CHECK_EVERY==0 && Thread.currentThread().isInterrupted())
+					throw new InterruptedIOException("Loading "+fileName+" interrupted");
+			}
+		}
+		if(keyframes!=null)
+			series.setSource(fileName, blockOffsets, keyframes);
+		else
+			series.setSource(fileName, null);
+		if(progress!=null)
+			progress.accept(100);
+		return series;
+	}
+
+	/**
+	* This method loads a <i>.csv</i> result file, skipping its header line.
+	* @param fileName This is the result file name
+	* @param progress This is called with the loaded percentage whenever it changes, it may be <code>null</code>
+	* @return ResultSeries Iterations and fitness values of the file
+	* @exception IOException If the file can not be read, is malformed or the thread was interrupted
+	* @since 1.1
+	*/
+	private ResultSeries loadCsv(String fileName, IntConsumer progress) throws IOException
+	{
+		try(FileChannel channel = FileChannel.open(new File(fileName).toPath(), StandardOpenOption.READ)){
+			long length = channel.size();
+			ResultSeries series = new ResultSeries(new File(fileName).getName(), (int)Math.min(length/32, 1<<20));
+			long[] rowOffsets = new long[16];
+			long position = 0;
+			long line = 0;
+			int percent = -1;
+
+			while(position<length)
+			{
+				long windowLength = Math.min(MAX_WINDOW, length-position);
+				boolean lastWindow = position+windowLength==length;
+				MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, position, windowLength);
+				int limit = (int)windowLength;
+
+				int lineStart = 0;
+				while(lineStart<limit)
+				{
+					int lineEnd = indexOf(buf, (byte)'\n', lineStart, limit);
+					if(lineEnd<0)
+					{
+						if(!lastWindow)
+							break;	// the line continues in the next window
+						lineEnd = limit;
+					}
+
+					if(line++>0 && lineEnd>lineStart)
+					{
+						int row = series.size();
+						if(row%ResultSeries.ROW_INDEX_STEP==0)
+						{
+							if(row/ResultSeries.ROW_INDEX_STEP==rowOffsets.length)
+								rowOffsets = Arrays.copyOf(rowOffsets, rowOffsets.length*2);
+							rowOffsets[row/ResultSeries.ROW_INDEX_STEP] = position+lineStart;
+						}
+						parseLine(buf, lineStart, lineEnd, series, line);
+					}
+					lineStart = lineEnd+1;
+
+					if(line%CHECK_EVERY==0)
+					{
+						if(Thread.currentThread().isInterrupted())
+							throw new InterruptedIOException("Loading "+fileName+" interrupted");
+						int p = (int)((position+lineStart)*100/length);
+						if(progress!=null && p!=percent)
+							progress.accept(percent = p);
+					}
+				}
+
+				if(lineStart==0)
+					throw new IOException("Line "+line+" of "+fileName+" is longer than "+MAX_WINDOW+" bytes");
+				position += Math.min(lineStart, limit);
+			}
+
+			series.setSource(fileName, rowOffsets);
+			if(progress!=null)
+				progress.accept(100);
+			return series;
+		}
+	}
+
+	/**
+	* This method reads the best chromosome of one row of the result file a series was loaded from, as it is printed in the <i>.csv</i> layout.
+	* Rows of a <i>.csv</i> file are found through the row index of the series, so at most <i>ROW_INDEX_STEP</i> lines are read.
+	* Binary files store chromosomes as differences to the previous row, so they are decoded up to the row from the start of its block,
+	* whose first chromosome was kept when the series was loaded, so at most <i>BLOCK_ROWS</i> rows are decoded.
+	* @param series This is the series loaded by <i>load</i>
+	* @param row This is the index of the point in the series
+	* @return String Chromosome text or <code>null</code> if the series was not loaded from a file
+	* @exception IOException If the file can not be read or has changed since it was loaded
+	* @since 1.1
+	*/
+	public static String loadChromosome(ResultSeries series, int row) throws IOException
+	{
+		String fileName = series.getSource();
+		if(fileName==null)
+			return null;
+		double[][] keyframes = series.getKeyframes();
+		if(keyframes!=null)
+		{
+			int block = row/BinaryResultFormat.BLOCK_ROWS;
+			if(block>=keyframes.length || keyframes[block]==null)
+				throw new IOException(fileName+" has no row "+row);
+			try(BinaryResultFormat.Reader reader = new BinaryResultFormat.Reader(fileName, series.getRowOffsets()[block], keyframes[block])){
+				for(int i=block*BinaryResultFormat.BLOCK_ROWS;i<=row;i++)
+				{
+					if(!reader.next())
+						throw new IOException(fileName+" has no row "+row);
+				}
+				return Arrays.toString(reader.getChromosome());
+			}
+		}
+		if(series.getRowOffsets()==null)
+		{
+			try(BinaryResultFormat.Reader reader = new BinaryResultFormat.Reader(fileName)){
+				for(int i=0;i<=row;i++)
+				{
+					if(!reader.next())
+						throw new IOException(fileName+" has no row "+row);
+				}
+				return Arrays.toString(reader.getChromosome());
+			}
+		}
+
+		try(FileChannel channel = FileChannel.open(new File(fileName).toPath(), StandardOpenOption.READ)){
+			channel.position(series.getRowOffsets()[row/ResultSeries.ROW_INDEX_STEP]);
+			InputStream in = new BufferedInputStream(Channels.newInputStream(channel), 1<<14);
+			StringBuilder text = new StringBuilder();
+			int skip = row%ResultSeries.ROW_INDEX_STEP;
+			while(true)
+			{
+				text.setLength(0);
+				int c;
+				while((c = in.read())>=0 && c!='\n')
+					text.append((char)c);
+				if(text.length()==0)
+				{
+					if(c<0)
+						throw new IOException(fileName+" has no row "+row);
+					continue;	// empty lines are not rows
+				}
+				if(skip--==0)
+					break;
+			}
+			int fitnessComma = text.indexOf(",");
+			int chromosomeComma = fitnessComma<0 ? -1 : text.indexOf(",", fitnessComma+1);
+			return chromosomeComma<0 ? "" : text.substring(chromosomeComma+1).trim();
+		}
+	}
+
+	/**
+	* This method returns the index of the first occurrence of the byte in <i>[from, to)</i>.
+	* @param buf This is the mapped window
+	* @param b This is the byte searched for
+	* @param from This is the first index searched
+	* @param to This is the index after the last one searched
+	* @return int Index of the byte or -1
+	* @since 1.1
+	*/
+	private static int indexOf(MappedByteBuffer buf, byte b, int from, int to)
+	{
+		for(int k=from;k<to;k++)
+		{
+			if(buf.get(k)==b)
+				return k;
+		}
+		return -1;
+	}
+
+	/**
+	* This method parses the iteration and fitness columns of one line and adds them to the series, the chromosome column is not read.
+	* @param buf This is the mapped window
+	* @param from This is the index of the first byte of the line
+	* @param to This is the index of the line break
+	* @param series This is the series the point is added to
+	* @param line This is the line number, for error messages
+	* @exception IOException If the line is malformed
+	* @since 1.1
+	*/
+	private void parseLine(MappedByteBuffer buf, int from, int to, ResultSeries series, long line) throws IOException
+	{
+		int comma = indexOf(buf, (byte)',', from, to);
+		if(comma<0)
+			throw new IOException("Line "+line+" has no fitness column");
+		int end = indexOf(buf, (byte)',', comma+1, to);
+		if(end<0)
+			end = to;
+		while(end>comma+1 && buf.get(end-1)<=' ')	// trailing \r or spaces
+			end--;
+
+		int iteration = 0;
+		for(int k=from;k<comma;k++)
+		{
+			int digit = buf.get(k)-'0';
+			if(digit<0 || digit>9)
+				throw new IOException("Line "+line+" has a malformed iteration number");
+			iteration = iteration*10+digit;
+		}
+		series.add(iteration, parseDouble(buf, comma+1, end, line));
+	}
+
+	/**
+	* This method parses a number written by <i>Double.toString</i> or in plain decimal notation.
+	* Numbers of at most 15 significant digits with a decimal exponent up to 22, which covers all rounded fitness values, are converted exactly
+	* by one multiplication or division of the digits by a power of ten. Longer numbers are handed to <i>Double.parseDouble</i>.
+	* @param buf This is the mapped window
+	* @param from This is the index of the first character
+	* @param to This is the index after the last character
+	* @param line This is the line number, for error messages
+	* @return double Parsed value
+	* @exception IOException If the number is malformed
+	* @since 1.1
+	*/
+	double parseDouble(MappedByteBuffer buf, int from, int to, long line) throws IOException
+	{
+		int k = from;
+		boolean negative = false;
+		if(k<to && (buf.get(k)=='-' || buf.get(k)=='+'))
+			negative = buf.get(k++)=='-';
+		if(k<to && (buf.get(k)=='I' || buf.get(k)=='N'))
+			return parseSlow(buf, from, to, line);
+
+		long mantissa = 0;
+		int digits = 0, exponent = 0;
+		boolean any = false, point = false;
+		for(;k<to;k++)
+		{
+			byte c = buf.get(k);
+			if(c>='0' && c<='9')
+			{
+				any = true;
+				if(mantissa!=0 || c!='0')
+					digits++;
+				if(digits>15)
+					return parseSlow(buf, from, to, line);
+				mantissa = mantissa*10+(c-'0');
+				if(point)
+					exponent--;
+			}
+			else if(c=='.' && !point)
+				point = true;
+			else
+				break;
+		}
+		if(!any)
+			throw new IOException("Line "+line+" has a malformed fitness value");
+
+		if(k<to)
+		{
+			byte c = buf.get(k++);
+			if(c!='E' && c!='e')
+				throw new IOException("Line "+line+" has a malformed fitness value");
+			boolean negativeExponent = false;
+			if(k<to && (buf.get(k)=='-' || buf.get(k)=='+'))
+				negativeExponent = buf.get(k++)=='-';
+			int e = 0;
+			if(k==to)
+				throw new IOException("Line "+line+" has a malformed fitness value");
+			for(;k<to;k++)
+			{
+				int digit = buf.get(k)-'0';
+				if(digit<0 || digit>9)
+					throw new IOException("Line "+line+" has a malformed fitness value");
+				if(e<100000)
+					e = e*10+digit;
+			}
+			exponent += negativeExponent ? -e : e;
+		}
+
+		double value;
+		if(mantissa==0)
+			value = 0;
+		else if(exponent>=0 && exponent<POW10.length)
+			value = mantissa*POW10[exponent];
+		else if(exponent<0 && -exponent<POW10.length)
+			value = mantissa/POW10[-exponent];
+		else
+			return parseSlow(buf, from, to, line);
+		return negative ? -value : value;
+	}
+
+	/**
+	* This method parses a number with <i>Double.parseDouble</i>, copying its characters into a reused buffer.
+	* @param buf This is the mapped window
+	* @param from This is the index of the first character
+	* @param to This is the index after the last character
+	* @param line This is the line number, for error messages
+	* @return double Parsed value
+	* @exception IOException If the number is malformed
+	* @since 1.1
+	*/
+	private double parseSlow(MappedByteBuffer buf, int from, int to, long line) throws IOException
+	{
+		int length = to-from;
+		if(slowChars.length<length)
+			slowChars = new char[length];
+		for(int k=0;k<length;k++)
+			slowChars[k] = (char)buf.get(from+k);
+		try{
+			return Double.parseDouble(new String(slowChars, 0, length));
+		}
+		catch(NumberFormatException e){
+			throw new IOException("Line "+line+" has a malformed fitness value", e);
+		}
+	}
+}
@@ -0,0 +1,203 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+* This interface describes the layout of a result file. A format opens an <i>Encoder</i> for every file, which turns the records of the run
+* into bytes on the writer thread of AsyncResultWriter.
+* Two formats are provided, <i>Csv</i> with the <i>Iteration,Fitness,Chromosome</i> text layout read by GraphPlotGui, and BinaryResultFormat
+* with fixed-width columns and delta-encoded chromosomes which can be converted back into the text layout.
+* The format of a run is selected with the <i>resultFormat</i> system property, either <i>csv</i> (default), <i>binary</i> or <i>binary-deflate</i>.
+* @author Ashish Rana
+* @version 1.1
+* @see AsyncResultWriter
+* @see BinaryResultFormat
+* @since 1.1
+*/
+
+public interface ResultFormat{
+
+	/**
+	* This method returns the file name with the extension of this format.
+	* @param resultFileName This is the result file name of the run
+	* @return String File name for this format
+	* @since 1.1
+	*/
+	String fileName(String resultFileName);
+
+	/**
+	* This method starts a new file by writing its header and returns the encoder of its records.
+	* @param out This is the stream of the file
+	* @param dim This is the number of dimensions of the recorded chromosomes
+	* @return Encoder Encoder of the records of the file
+	* @exception IOException If the header can not be written
+	* @since 1.1
+	*/
+	Encoder open(OutputStream out, int dim) throws IOException;
+
+	/**
+	* This interface encodes the records of one file, it is used by a single thread only.
+	* @since 1.1
+	*/
+	interface Encoder{
+		/**
+		* This method encodes one record, the chromosome is copied or encoded before the method returns.
+		* @param iteration This is the iteration number
+		* @param funEval This is the number of function evaluations or -1 when unknown
+		* @param nanos This is the time since the start of the run in nanoseconds
+		* @param fitness This is the best fitness value
+		* @param x This is the array holding the best chromosome
+		* @param offset This is the index of the first gene in <i>x</i>
+		* @exception IOException If the file can not be written
+		* @since 1.1
+		*/
+		void append(int iteration, long funEval, long nanos, double fitness, double[] x, int offset) throws IOException;
+
+		/**
+		* This method writes everything still buffered, the stream is closed by the caller.
+		* @exception IOException If the file can not be written
+		* @since 1.1
+		*/
+		void finish() throws IOException;
+	}
+
+	/**
+	* This method returns the format for the given name, <i>csv</i>, <i>binary</i> or <i>binary-deflate</i>.
+	* @param name This is the name of the format
+	* @return ResultFormat Format for the name
+	* @exception IllegalArgumentException If the name is unknown
+	* @since 1.1
+	*/
+	static ResultFormat forName(String name)
+	{
+		switch(name.trim().toLowerCase(Locale.ROOT))
+		{
+			case "csv": return Csv.INSTANCE;
+			case "binary": return new BinaryResultFormat(false);
+			case "binary-deflate": return new BinaryResultFormat(true);
+			default: throw new IllegalArgumentException("Unknown result format "+name);
+		}
+	}
+
+	/**
+	* This method returns the format selected by the <i>resultFormat</i> system property, by default the <i>.csv</i> text layout.
+	* @return ResultFormat Format of the current run
+	* @since 1.1
+	*/
+	static ResultFormat fromSystemProperty()
+	{
+		return forName(System.getProperty("resultFormat", "csv"));
+	}
+
+	/**
+	* This format writes the <i>Iteration,Fitness,Chromosome</i> text layout, the chromosome printed like an ArrayList of Double.
+	* Evaluation counts and times are not stored. Numbers are appended to a reused StringBuilder and written in large batches.
+	* @since 1.1
+	*/
+	public static final class Csv implements ResultFormat{
+		/**
+		* Shared instance as the format carries no state.
+		* @since 1.1
+		*/
+		public static final Csv INSTANCE = new Csv();
+		/**
+		* Number of buffered characters written to the file at once.
+		* @since 1.1
+		*/
+		private static final int BATCH_CHARS = 1<<16;
+
+		private Csv()
+		{
+		}
+
+		@Override
+		public String fileName(String resultFileName)
+		{
+			return resultFileName;
+		}
+
+		@Override
+		public Encoder open(OutputStream out, int dim) throws IOException
+		{
+			TextEncoder encoder = new TextEncoder(out, dim);
+			encoder.sb.append(OptimizationAlgorithm.fileHeader);
+			return encoder;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "csv";
+		}
+
+		/**
+		* This class formats the rows of one file.
+		* @since 1.1
+		*/
+		private static final class TextEncoder implements Encoder{
+			/**
+			* Stream of the file.
+			* @since 1.1
+			*/
+			private final OutputStream out;
+			/**
+			* Number of dimensions of every chromosome.
+			* @since 1.1
+			*/
+			private final int dim;
+			/**
+			* Text of the rows not written yet.
+			* @since 1.1
+			*/
+			private final StringBuilder sb = new StringBuilder(BATCH_CHARS+256);
+			/**
+			* Reused buffer of the bytes of the text.
+			* @since 1.1
+			*/
+			private byte[] bytes = new byte[BATCH_CHARS+256];
+
+			TextEncoder(OutputStream out, int dim)
+			{
+				this.out = out;
+				this.dim = dim;
+			}
+
+			@Override
+			public void append(int iteration, long funEval, long nanos, double fitness, double[] x, int offset) throws IOException
+			{
+				sb.append(iteration).append(',').append(fitness).append(",[");
+				for(int j=0;j<dim;j++)
+				{
+					if(j>0)
+						sb.append(", ");
+					sb.append(x[offset+j]);
+				}
+				sb.append("]\n");
+				if(sb.length()>=BATCH_CHARS)
+					write();
+			}
+
+			@Override
+			public void finish() throws IOException
+			{
+				write();
+			}
+
+			/**
+			* This method writes the buffered text, which is plain ASCII, and empties the StringBuilder.
+			* @exception IOException If the file can not be written
+			* @since 1.1
+			*/
+			private void write() throws IOException
+			{
+				int length = sb.length();
+				if(length>bytes.length)
+					bytes = new byte[length];
+				for(int k=0;k<length;k++)
+					bytes[k] = (byte)sb.charAt(k);
+				out.write(bytes, 0, length);
+				sb.setLength(0);
+			}
+		}
+	}
+}
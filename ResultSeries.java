@@ -0,0 +1,258 @@
+import java.util.Arrays;
+
+/**
+* This class holds the best fitness value of every stored iteration of a result file in primitive arrays, in the order of the file.
+* Iteration numbers are kept next to the fitness values, as sampled result files do not store every iteration.
+* @author Ashish Rana
+* @version 1.1
+* @see ResultFileLoader
+* @since 1.1
+*/
+
+public class ResultSeries{
+
+	/**
+	* Name of the series, e.g. the result file it was loaded from.
+	* @since 1.1
+	*/
+	private final String name;
+	/**
+	* Iteration number of every point, only the first <i>size</i> entries are used.
+	* @since 1.1
+	*/
+	private int[] iterations;
+	/**
+	* Best fitness value of every point, only the first <i>size</i> entries are used.
+	* @since 1.1
+	*/
+	private double[] fitness;
+	/**
+	* Number of points.
+	* @since 1.1
+	*/
+	private int size;
+	/**
+	* Result file the series was loaded from, <code>null</code> if it was not loaded from a file.
+	* @since 1.1
+	*/
+	private String source;
+	/**
+	* Byte offset of every <i>ROW_INDEX_STEP</i>-th row in a <i>.csv</i> source, or of every block in a binary source, <code>null</code> for other sources.
+	* @since 1.1
+	*/
+	private long[] rowOffsets;
+	/**
+	* Chromosome of the first row of every block in a binary source, <code>null</code> for other sources.
+	* @since 1.1
+	*/
+	private double[][] keyframes;
+
+	/**
+	* Number of rows between two entries of the row index.
+	* @since 1.1
+	*/
+	public static final int ROW_INDEX_STEP = 64;
+
+	/**
+	* This creates an empty series with room for the expected number of points.
+	* @param name This is the name of the series
+	* @param expectedSize This is the expected number of points, the series grows beyond it when needed
+	* @since 1.1
+	*/
+	public ResultSeries(String name, int expectedSize)
+	{
+		this.name = name;
+		this.iterations = new int[Math.max(expectedSize, 16)];
+		this.fitness = new double[iterations.length];
+	}
+
+	/**
+	* This creates a series of consecutive iterations starting at 0 from the given fitness values.
+	* @param name This is the name of the series
+	* @param fitness This is the fitness value of every iteration, it is copied
+	* @since 1.1
+	*/
+	public ResultSeries(String name, double[] fitness)
+	{
+		this(name, fitness.length);
+		for(int i=0;i<fitness.length;i++)
+			add(i, fitness[i]);
+	}
+
+	/**
+	* This method appends a point to the series.
+	* @param iteration This is the iteration number
+	* @param value This is the best fitness value of the iteration
+	* @since 1.1
+	*/
+	public void add(int iteration, double value)
+	{
+		if(size==fitness.length)
+		{
+			int grown = size+(size>>1);
+			iterations = Arrays.copyOf(iterations, grown);
+			fitness = Arrays.copyOf(fitness, grown);
+		}
+		iterations[size] = iteration;
+		fitness[size] = value;
+		size++;
+	}
+
+	/**
+	* This method returns the name of the series.
+	* @return String Name
+	* @since 1.1
+	*/
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	* This method returns the number of points.
+	* @return int Number of points
+	* @since 1.1
+	*/
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	* This method returns the iteration number of point <i>i</i>.
+	* @param i This is the point index
+	* @return int Iteration number
+	* @since 1.1
+	*/
+	public int iteration(int i)
+	{
+		return iterations[i];
+	}
+
+	/**
+	* This method returns the best fitness value of point <i>i</i>.
+	* @param i This is the point index
+	* @return double Fitness value
+	* @since 1.1
+	*/
+	public double fitness(int i)
+	{
+		return fitness[i];
+	}
+
+	/**
+	* This method returns the backing fitness array, it is shared and not copied and only its first <i>size()</i> entries are used.
+	* @return double[] Fitness values
+	* @since 1.1
+	*/
+	public double[] fitness()
+	{
+		return fitness;
+	}
+
+	/**
+	* This method returns the index of the point with the iteration closest to the given one in <i>[from, to)</i> by binary search,
+	* as iteration numbers do not decrease.
+	* @param iteration This is the iteration searched for
+	* @param from This is the index of the first point searched
+	* @param to This is the index after the last point searched, it must be above <i>from</i>
+	* @return int Index of the closest point, the earlier one on ties
+	* @since 1.1
+	*/
+	public int nearest(double iteration, int from, int to)
+	{
+		int i = lowerBound(iteration, from, to);
+		if(i==to)
+			return to-1;
+		if(i>from && iteration-iterations[i-1]<=iterations[i]-iteration)
+			return i-1;
+		return i;
+	}
+
+	/**
+	* This method returns the index of the first point in <i>[from, to)</i> whose iteration is not below the given one, by binary search.
+	* @param iteration This is the iteration searched for
+	* @param from This is the index of the first point searched
+	* @param to This is the index after the last point searched
+	* @return int Index of the point or <i>to</i> if all iterations are below
+	* @since 1.1
+	*/
+	public int lowerBound(double iteration, int from, int to)
+	{
+		int lo = from, hi = to;
+		while(lo<hi)
+		{
+			int mid = (lo+hi)>>>1;
+			if(iterations[mid]<iteration)
+				lo = mid+1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	* This method returns the result file the series was loaded from.
+	* @return String File name or <code>null</code>
+	* @since 1.1
+	*/
+	public String getSource()
+	{
+		return source;
+	}
+
+	/**
+	* This method sets the result file the series was loaded from and the byte offsets of every <i>ROW_INDEX_STEP</i>-th row in it.
+	* @param source This is the file name
+	* @param rowOffsets This is the row index or <code>null</code> if the file has none
+	* @since 1.1
+	*/
+	void setSource(String source, long[] rowOffsets)
+	{
+		setSource(source, rowOffsets, null);
+	}
+
+	/**
+	* This method sets the result file the series was loaded from, for a binary file with the byte offset and the first chromosome of every block.
+	* @param source This is the file name
+	* @param rowOffsets This is the row or block index or <code>null</code> if the file has none
+	* @param keyframes This is the first chromosome of every block or <code>null</code> for a <i>.csv</i> file
+	* @since 1.1
+	*/
+	void setSource(String source, long[] rowOffsets, double[][] keyframes)
+	{
+		this.source = source;
+		this.rowOffsets = rowOffsets;
+		this.keyframes = keyframes;
+	}
+
+	/**
+	* This method returns the byte offsets of every <i>ROW_INDEX_STEP</i>-th row in a <i>.csv</i> source file, or of every block in a binary one.
+	* @return long[] Row or block index or <code>null</code>
+	* @since 1.1
+	*/
+	long[] getRowOffsets()
+	{
+		return rowOffsets;
+	}
+
+	/**
+	* This method returns the first chromosome of every block of a binary source file.
+	* @return double[][] Keyframes or <code>null</code>
+	* @since 1.1
+	*/
+	double[][] getKeyframes()
+	{
+		return keyframes;
+	}
+
+	/**
+	* This method returns the backing iteration array, it is shared and not copied and only its first <i>size()</i> entries are used.
+	* @return int[] Iteration numbers
+	* @since 1.1
+	*/
+	public int[] iterations()
+	{
+		return iterations;
+	}
+}
@@ -0,0 +1,35 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+* This interface receives the best chromosome of the sampled iterations of a run, e.g. for storing it in the result file.
+* The time of every record is taken when it is recorded.
+* Implementations copy what they keep, so the caller may change the chromosome right after <i>record</i> returns.
+* @author Ashish Rana
+* @version 1.1
+* @see AsyncResultWriter
+* @see SamplingPolicy
+* @since 1.1
+*/
+
+public interface ResultSink extends Closeable{
+
+	/**
+	* This method records the best fitness and chromosome of an iteration.
+	* @param iteration This is the iteration number
+	* @param funEval This is the number of function evaluations so far or -1 when unknown
+	* @param fitness This is the best fitness value
+	* @param chromosome This is the best chromosome
+	* @exception IOException If an earlier record could not be stored
+	* @since 1.1
+	*/
+	void record(int iteration, long funEval, double fitness, double[] chromosome) throws IOException;
+
+	/**
+	* This method stores all recorded iterations and releases the sink.
+	* @exception IOException If a record could not be stored
+	* @since 1.1
+	*/
+	@Override
+	void close() throws IOException;
+}
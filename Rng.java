@@ -0,0 +1,119 @@
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+* This class creates the random number generators of the runs and derives their seeds from one master seed, so every run draws from its own
+* stream without sharing any state with other threads, and a run draws the same numbers for the same seed however many runs execute at once.
+* The master seed is set with the <i>seed</i> system property, without it a random master seed is drawn and printed so the runs can be repeated.
+* Generators are splittable, by default <i>SplittableRandom</i>, another algorithm of <i>java.util.random</i> is selected with the <i>rng</i> system property,
+* e.g. <i>L64X128MixRandom</i>.
+* @author Ashish Rana
+* @version 1.1
+* @see OptimizationAlgorithm
+* @since 1.1
+*/
+
+public final class Rng{
+
+	/**
+	* Algorithm of the generators, set with the <i>rng</i> system property.
+	* @since 1.1
+	*/
+	private static final String algorithm = System.getProperty("rng", "SplittableRandom");
+	/**
+	* Master seed of the JVM, set with the <i>seed</i> system property or drawn at random.
+	* @since 1.1
+	*/
+	private static final long masterSeed = Long.getLong("seed", new SecureRandom().nextLong());
+
+	private Rng()
+	{
+	}
+
+	/**
+	* This method returns the master seed, all seeds of the runs of the JVM are derived from it.
+	* @return long Master seed
+	* @since 1.1
+	*/
+	public static long masterSeed()
+	{
+		return masterSeed;
+	}
+
+	/**
+	* This method returns whether the master seed was set with the <i>seed</i> system property.
+	* @return boolean <i>true</i> if it was set
+	* @since 1.1
+	*/
+	public static boolean isSeeded()
+	{
+		return System.getProperty("seed")!=null;
+	}
+
+	/**
+	* This method derives the seed of a stream from a seed and the name of the stream, e.g. algorithm, function and repetition of a run.
+	* The name is hashed with String.hashCode, which is fixed by the language, and mixed with the SplitMix64 finalizer,
+	* so the seed is the same on every JVM and streams of similar names are unrelated.
+	* @param seed This is the seed the stream is derived from
+	* @param stream This is the name of the stream
+	* @return long Seed of the stream
+	* @since 1.1
+	*/
+	public static long derive(long seed, String stream)
+	{
+		return mix(seed+mix(stream.hashCode()+0x9E3779B97F4A7C15L*stream.length()));
+	}
+
+	/**
+	* This method derives the seed of a numbered stream, e.g. an island of a run.
+	* @param seed This is the seed the stream is derived from
+	* @param stream This is the number of the stream
+	* @return long Seed of the stream
+	* @since 1.1
+	*/
+	public static long derive(long seed, long stream)
+	{
+		return mix(seed+mix(stream+0x632BE59BD9B4E019L));
+	}
+
+	/**
+	* This method mixes the bits of a value, the finalizer of SplitMix64.
+	* @param z This is the value
+	* @return long Mixed value
+	* @since 1.1
+	*/
+	private static long mix(long z)
+	{
+		z = (z^(z>>>30))*0xBF58476D1CE4E5B9L;
+		z = (z^(z>>>27))*0x94D049BB133111EBL;
+		return z^(z>>>31);
+	}
+
+	/**
+	* This method creates a generator of the selected algorithm.
+	* @param seed This is the seed of the generator
+	* @return RandomGenerator.SplittableGenerator New generator
+	* @exception IllegalArgumentException If the algorithm selected with the <i>rng</i> system property is unknown or not splittable
+	* @since 1.1
+	*/
+	public static RandomGenerator.SplittableGenerator create(long seed)
+	{
+		RandomGeneratorFactory<RandomGenerator> factory = RandomGeneratorFactory.of(algorithm);
+		if(!factory.isSplittable())
+			throw new IllegalArgumentException("Random generator "+algorithm+" is not splittable");
+		return (RandomGenerator.SplittableGenerator)factory.create(seed);
+	}
+
+	/**
+	* This method returns the seed of a run of an algorithm started from its main method, derived from the master seed and the algorithm name.
+	* @param algorithmName This is the name of the algorithm
+	* @return long Seed of the run
+	* @since 1.1
+	*/
+	public static long seedOf(String algorithmName)
+	{
+		return derive(masterSeed, algorithmName.toLowerCase(Locale.ROOT));
+	}
+}
@@ -0,0 +1,266 @@
+import java.util.Arrays;
+
+/**
+* This class aggregates the convergence of many repetitions of the same configuration without keeping the runs in memory.
+* Every run is resampled onto a common grid of iterations, taking the best fitness of the last stored iteration at or before a grid point,
+* and is added to a running mean (Welford's algorithm) and to P<sup>2</sup> estimators of a lower and an upper quantile at every grid point.
+* The grid is laid out by the first run with up to <i>GRID_POINTS</i> points, longer runs added later extend it, in which case the shorter runs
+* count with their final best fitness.
+* @author Ashish Rana
+* @version 1.1
+* @see P2Quantile
+* @see ComparisonPlotGui
+* @since 1.1
+*/
+
+public class RunAggregate{
+
+	/**
+	* Largest number of grid points laid out for the first run.
+	* @since 1.1
+	*/
+	public static final int GRID_POINTS = 1024;
+
+	/**
+	* Name of the aggregated configuration.
+	* @since 1.1
+	*/
+	private final String name;
+	/**
+	* Lower quantile of the band, e.g. 0.1.
+	* @since 1.1
+	*/
+	private final double lowerQuantile;
+	/**
+	* Upper quantile of the band, e.g. 0.9.
+	* @since 1.1
+	*/
+	private final double upperQuantile;
+	/**
+	* Iteration of the first grid point.
+	* @since 1.1
+	*/
+	private int firstIteration;
+	/**
+	* Iterations between two grid points.
+	* @since 1.1
+	*/
+	private int step;
+	/**
+	* Number of grid points.
+	* @since 1.1
+	*/
+	private int points = 0;
+	/**
+	* Number of aggregated runs.
+	* @since 1.1
+	*/
+	private int runs = 0;
+	/**
+	* Running mean of every grid point.
+	* @since 1.1
+	*/
+	private double[] mean = new double[0];
+	/**
+	* Running sum of squared differences from the mean of every grid point.
+	* @since 1.1
+	*/
+	private double[] m2 = new double[0];
+	/**
+	* Lower quantile estimator of every grid point.
+	* @since 1.1
+	*/
+	private P2Quantile[] lower = new P2Quantile[0];
+	/**
+	* Upper quantile estimator of every grid point.
+	* @since 1.1
+	*/
+	private P2Quantile[] upper = new P2Quantile[0];
+	/**
+	* Final best fitness of every aggregated run, used when a later run extends the grid.
+	* @since 1.1
+	*/
+	private double[] finals = new double[16];
+
+	/**
+	* This creates an empty aggregate.
+	* @param name This is the name of the configuration
+	* @param lowerQuantile This is the lower quantile of the band
+	* @param upperQuantile This is the upper quantile of the band
+	* @since 1.1
+	*/
+	public RunAggregate(String name, double lowerQuantile, double upperQuantile)
+	{
+		this.name = name;
+		this.lowerQuantile = lowerQuantile;
+		this.upperQuantile = upperQuantile;
+	}
+
+	/**
+	* This method adds a run to the aggregate, the run is not referenced afterwards. Empty runs are ignored.
+	* @param run This is the series of the run
+	* @since 1.1
+	*/
+	public void add(ResultSeries run)
+	{
+		int size = run.size();
+		if(size==0)
+			return;
+		int lastIteration = run.iteration(size-1);
+		if(runs==0)
+		{
+			firstIteration = run.iteration(0);
+			step = Math.max(1, (int)Math.ceil((lastIteration-firstIteration+1.0)/GRID_POINTS));
+		}
+		if(points==0 || lastIteration>iteration(points-1))
+			extend((lastIteration-firstIteration)/step+1);
+
+		double[] fitness = run.fitness();
+		int[] iterations = run.iterations();
+		int j = 0;
+		double n = runs+1;
+		for(int c=0;c<points;c++)
+		{
+			int t = iteration(c);
+			while(j+1<size && iterations[j+1]<=t)
+				j++;
+			double value = fitness[j];
+			double delta = value-mean[c];
+			mean[c] += delta/n;
+			m2[c] += delta*(value-mean[c]);
+			lower[c].add(value);
+			upper[c].add(value);
+		}
+
+		if(runs==finals.length)
+			finals = Arrays.copyOf(finals, runs*2);
+		finals[runs++] = fitness[size-1];
+	}
+
+	/**
+	* This method grows the grid to the given number of points, the new points start with the final best fitness of the runs added so far.
+	* @param newPoints This is the new number of grid points
+	* @since 1.1
+	*/
+	private void extend(int newPoints)
+	{
+		if(newPoints<=points)
+			return;
+		mean = Arrays.copyOf(mean, newPoints);
+		m2 = Arrays.copyOf(m2, newPoints);
+		lower = Arrays.copyOf(lower, newPoints);
+		upper = Arrays.copyOf(upper, newPoints);
+		for(int c=points;c<newPoints;c++)
+		{
+			lower[c] = new P2Quantile(lowerQuantile);
+			upper[c] = new P2Quantile(upperQuantile);
+			for(int r=0;r<runs;r++)
+			{
+				double delta = finals[r]-mean[c];
+				mean[c] += delta/(r+1);
+				m2[c] += delta*(finals[r]-mean[c]);
+				lower[c].add(finals[r]);
+				upper[c].add(finals[r]);
+			}
+		}
+		points = newPoints;
+	}
+
+	/**
+	* This method returns the name of the configuration.
+	* @return String Name
+	* @since 1.1
+	*/
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	* This method returns the number of aggregated runs.
+	* @return int Number of runs
+	* @since 1.1
+	*/
+	public int getRuns()
+	{
+		return runs;
+	}
+
+	/**
+	* This method returns the number of grid points.
+	* @return int Number of grid points
+	* @since 1.1
+	*/
+	public int size()
+	{
+		return points;
+	}
+
+	/**
+	* This method returns the iteration of grid point <i>c</i>.
+	* @param c This is the grid point
+	* @return int Iteration
+	* @since 1.1
+	*/
+	public int iteration(int c)
+	{
+		return firstIteration+c*step;
+	}
+
+	/**
+	* This method returns the mean best fitness at grid point <i>c</i>.
+	* @param c This is the grid point
+	* @return double Mean
+	* @since 1.1
+	*/
+	public double mean(int c)
+	{
+		return mean[c];
+	}
+
+	/**
+	* This method returns the sample standard deviation of the best fitness at grid point <i>c</i>.
+	* @param c This is the grid point
+	* @return double Standard deviation, 0 for a single run
+	* @since 1.1
+	*/
+	public double standardDeviation(int c)
+	{
+		return runs>1 ? Math.sqrt(m2[c]/(runs-1)) : 0;
+	}
+
+	/**
+	* This method returns the estimated lower quantile of the best fitness at grid point <i>c</i>.
+	* @param c This is the grid point
+	* @return double Lower quantile
+	* @since 1.1
+	*/
+	public double lower(int c)
+	{
+		return lower[c].get();
+	}
+
+	/**
+	* This method returns the estimated upper quantile of the best fitness at grid point <i>c</i>.
+	* @param c This is the grid point
+	* @return double Upper quantile
+	* @since 1.1
+	*/
+	public double upper(int c)
+	{
+		return upper[c].get();
+	}
+
+	/**
+	* This method returns the mean best fitness of every grid point as a series.
+	* @return ResultSeries Series of the means
+	* @since 1.1
+	*/
+	public ResultSeries meanSeries()
+	{
+		ResultSeries series = new ResultSeries(name, points);
+		for(int c=0;c<points;c++)
+			series.add(iteration(c), mean[c]);
+		return series;
+	}
+}
@@ -0,0 +1,153 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+* This class holds the Java Flight Recorder events of the runs, so recordings show which generation of which run was going on
+* during a GC pause, CPU sample or latency spike. The events are emitted by the run loop of OptimizationAlgorithm for every algorithm.
+* <ul>
+* <li><i>optimizer.Generation</i> - one iteration of a run, recorded when it takes at least 100 us</li>
+* <li><i>optimizer.EvaluationBatch</i> - evaluation of a block of the population, recorded when it takes at least 100 us</li>
+* <li><i>optimizer.Improvement</i> - a new best fitness, recorded always</li>
+* </ul>
+* The thresholds can be changed in the <i>.jfc</i> settings of the recording. When no recording is running, or an event is disabled,
+* emitting it costs a check of a flag, the event objects do not escape and are not allocated.
+* Generations are numbered from 0, the initialization of a run is generation -1.
+* @author Ashish Rana
+* @version 1.1
+* @see OptimizationAlgorithm
+* @since 1.1
+*/
+
+public final class RunEvents{
+
+	private RunEvents()
+	{
+	}
+
+	/**
+	* This event spans one iteration of a run, including the update of the best chromosome.
+	* @since 1.1
+	*/
+	@Name("optimizer.Generation")
+	@Label("Generation")
+	@Category({"Optimization", "Run"})
+	@Description("One iteration of an optimization algorithm run")
+	@Threshold("100 us")
+	@StackTrace(false)
+	static final class Generation extends Event{
+		/**
+		* Name of the algorithm.
+		* @since 1.1
+		*/
+		@Label("Algorithm")
+		String algorithm;
+		/**
+		* Index of the generation.
+		* @since 1.1
+		*/
+		@Label("Generation")
+		int generation;
+		/**
+		* Function evaluations of the run at the end of the generation.
+		* @since 1.1
+		*/
+		@Label("Function Evaluations")
+		long funEval;
+		/**
+		* Best fitness of the run at the end of the generation.
+		* @since 1.1
+		*/
+		@Label("Best Fitness")
+		double bestFitness;
+		/**
+		* Whether the generation improved the best fitness.
+		* @since 1.1
+		*/
+		@Label("Improved")
+		boolean improved;
+	}
+
+	/**
+	* This event spans the evaluation of a block of chromosomes by the fitness function.
+	* @since 1.1
+	*/
+	@Name("optimizer.EvaluationBatch")
+	@Label("Evaluation Batch")
+	@Category({"Optimization", "Run"})
+	@Description("Evaluation of a block of chromosomes by the fitness function")
+	@Threshold("100 us")
+	@StackTrace(false)
+	static final class EvaluationBatch extends Event{
+		/**
+		* Name of the algorithm.
+		* @since 1.1
+		*/
+		@Label("Algorithm")
+		String algorithm;
+		/**
+		* Index of the generation, -1 for the initialization.
+		* @since 1.1
+		*/
+		@Label("Generation")
+		int generation;
+		/**
+		* Number of chromosomes evaluated.
+		* @since 1.1
+		*/
+		@Label("Chromosomes")
+		int size;
+		/**
+		* Function evaluations of the run after the batch.
+		* @since 1.1
+		*/
+		@Label("Function Evaluations")
+		long funEval;
+	}
+
+	/**
+	* This event marks a generation which found a better fitness.
+	* @since 1.1
+	*/
+	@Name("optimizer.Improvement")
+	@Label("Best Fitness Improvement")
+	@Category({"Optimization", "Run"})
+	@Description("A run found a better fitness")
+	@StackTrace(false)
+	static final class Improvement extends Event{
+		/**
+		* Name of the algorithm.
+		* @since 1.1
+		*/
+		@Label("Algorithm")
+		String algorithm;
+		/**
+		* Index of the generation.
+		* @since 1.1
+		*/
+		@Label("Generation")
+		int generation;
+		/**
+		* Function evaluations of the run.
+		* @since 1.1
+		*/
+		@Label("Function Evaluations")
+		long funEval;
+		/**
+		* Best fitness before the improvement.
+		* @since 1.1
+		*/
+		@Label("Previous Best Fitness")
+		double previousFitness;
+		/**
+		* New best fitness.
+		* @since 1.1
+		*/
+		@Label("Best Fitness")
+		double bestFitness;
+	}
+}
@@ -0,0 +1,157 @@
+import java.util.Locale;
+
+/**
+* This interface decides which iterations of a run are stored in the result file.
+* Three policies are provided, <i>EveryN</i> which stores every n-th iteration, <i>OnImprovement</i> which stores only the iterations
+* improving the best fitness and <i>LogSpaced</i> which stores iterations 0-9, 10, 20, ... 90, 100, 200, ... so long runs stay small and still plot well on a log scale.
+* The last iteration of a run is always stored.
+* The policy of a run is selected with the <i>sampling</i> system property, either a number <i>n</i>, <i>improvement</i> or <i>log</i> (default <i>1</i>, every iteration).
+* @author Ashish Rana
+* @version 1.1
+* @see ResultSink
+* @since 1.1
+*/
+
+public interface SamplingPolicy{
+
+	/**
+	* This method decides whether the iteration is stored.
+	* @param iteration This is the iteration number, starting at 0
+	* @param improved This is <i>true</i> when the iteration improved the best fitness
+	* @return boolean <i>true</i> if the iteration is stored
+	* @since 1.1
+	*/
+	boolean sample(int iteration, boolean improved);
+
+	/**
+	* This method returns the policy for the given name, a number <i>n</i> or <i>every:n</i> for every n-th iteration, <i>improvement</i> or <i>log</i>.
+	* @param name This is the name of the policy
+	* @return SamplingPolicy Policy for the name
+	* @exception IllegalArgumentException If the name is unknown
+	* @since 1.1
+	*/
+	static SamplingPolicy forName(String name)
+	{
+		String n = name.trim().toLowerCase(Locale.ROOT);
+		switch(n)
+		{
+			case "improvement": return OnImprovement.INSTANCE;
+			case "log": return LogSpaced.INSTANCE;
+		}
+		try{
+			return new EveryN(Integer.parseInt(n.startsWith("every:") ? n.substring(6) : n));
+		}
+		catch(NumberFormatException e){
+			throw new IllegalArgumentException("Unknown sampling policy "+name, e);
+		}
+	}
+
+	/**
+	* This method returns the policy selected by the <i>sampling</i> system property, by default every iteration is stored.
+	* @return SamplingPolicy Policy for the current run
+	* @since 1.1
+	*/
+	static SamplingPolicy fromSystemProperty()
+	{
+		return forName(System.getProperty("sampling", "1"));
+	}
+
+	/**
+	* This policy stores every n-th iteration, starting with iteration 0.
+	* @since 1.1
+	*/
+	public static final class EveryN implements SamplingPolicy{
+		/**
+		* Distance between stored iterations.
+		* @since 1.1
+		*/
+		private final int n;
+
+		/**
+		* This creates the policy storing every n-th iteration.
+		* @param n This is the distance between stored iterations
+		* @exception IllegalArgumentException If n is not positive
+		* @since 1.1
+		*/
+		public EveryN(int n)
+		{
+			if(n<1)
+				throw new IllegalArgumentException("Sampling distance must be positive, not "+n);
+			this.n = n;
+		}
+
+		@Override
+		public boolean sample(int iteration, boolean improved)
+		{
+			return iteration%n==0;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "every:"+n;
+		}
+	}
+
+	/**
+	* This policy stores the first iteration and every iteration improving the best fitness.
+	* @since 1.1
+	*/
+	public static final class OnImprovement implements SamplingPolicy{
+		/**
+		* Shared instance as the policy carries no state.
+		* @since 1.1
+		*/
+		public static final OnImprovement INSTANCE = new OnImprovement();
+
+		private OnImprovement()
+		{
+		}
+
+		@Override
+		public boolean sample(int iteration, boolean improved)
+		{
+			return improved || iteration==0;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "improvement";
+		}
+	}
+
+	/**
+	* This policy stores the iterations whose number is a single digit followed by zeros, i.e. nine iterations per decade.
+	* @since 1.1
+	*/
+	public static final class LogSpaced implements SamplingPolicy{
+		/**
+		* Shared instance as the policy carries no state.
+		* @since 1.1
+		*/
+		public static final LogSpaced INSTANCE = new LogSpaced();
+
+		private LogSpaced()
+		{
+		}
+
+		@Override
+		public boolean sample(int iteration, boolean improved)
+		{
+			while(iteration>=10)
+			{
+				if(iteration%10!=0)
+					return false;
+				iteration /= 10;
+			}
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "log";
+		}
+	}
+}
@@ -0,0 +1,191 @@
+import java.lang.reflect.InvocationTargetException;
+
+/**
+* This class computes the fitness kernels with plain loops, one gene after the other, which is also the fallback where the Vector API is missing.
+* With fast math the sines and cosines are computed by the polynomial approximations of this class instead of Math.
+* It also loads the vector kernels, which are compiled separately from <i>vector/VectorKernels.java</i> as they need the incubator module.
+* @author Ashish Rana
+* @version 1.1
+* @see FitnessKernels
+* @since 1.1
+*/
+
+public final class ScalarKernels implements FitnessKernels{
+
+	/**
+	* Coefficients of the Taylor series of cosine in <i>x<sup>2</sup></i> up to <i>x<sup>12</sup></i>, enough for an absolute error
+	* below 1e-8 on <i>[-pi/2, pi/2]</i>.
+	* @since 1.1
+	*/
+	static final double C1 = -1.0/2, C2 = 1.0/24, C3 = -1.0/720, C4 = 1.0/40320, C5 = -1.0/3628800, C6 = 1.0/479001600;
+	/**
+	* <i>2*pi</i> split into a head with trailing zero bits and the rest, so subtracting multiples of it stays exact for large arguments.
+	* @since 1.1
+	*/
+	static final double TWO_PI_HI = 6.28318530717958623200e+00, TWO_PI_LO = 2.44929359829470635445e-16;
+
+	/**
+	* Whether sines and cosines are approximated.
+	* @since 1.1
+	*/
+	private final boolean fastMath;
+
+	/**
+	* This creates the scalar kernels.
+	* @param fastMath This is <i>true</i> for approximations of sine and cosine
+	* @since 1.1
+	*/
+	public ScalarKernels(boolean fastMath)
+	{
+		this.fastMath = fastMath;
+	}
+
+	/**
+	* This method loads the vector kernels when the <i>jdk.incubator.vector</i> module is part of the JVM and they were compiled.
+	* @param fastMath This is <i>true</i> for approximations of sine and cosine
+	* @return FitnessKernels Vector kernels or <code>null</code> if they are not available
+	* @since 1.1
+	*/
+	static FitnessKernels vectorKernels(boolean fastMath)
+	{
+		if(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+			return null;
+		String pkg = ScalarKernels.class.getPackageName();
+		try{
+			return (FitnessKernels)Class.forName(pkg.isEmpty() ? "VectorKernels" : pkg+".VectorKernels").getConstructor(boolean.class).newInstance(fastMath);
+		}
+		catch(ClassNotFoundException | NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e){
+			return null;
+		}
+	}
+
+	/**
+	* This method approximates the cosine with an absolute error below 1e-8. The argument is reduced to <i>[-pi, pi]</i>,
+	* folded onto <i>[0, pi/2]</i> and the Taylor series is evaluated there.
+	* @param x This is the argument in radians
+	* @return double Approximate cosine
+	* @since 1.1
+	*/
+	public static double cos(double x)
+	{
+		double k = Math.rint(x*(1/(2*Math.PI)));
+		double y = Math.abs(x-k*TWO_PI_HI-k*TWO_PI_LO);
+		boolean folded = y>Math.PI/2;
+		if(folded)
+			y = Math.PI-y;
+		double z = y*y;
+		double c = 1+z*(C1+z*(C2+z*(C3+z*(C4+z*(C5+z*C6)))));
+		return folded ? -c : c;
+	}
+
+	/**
+	* This method approximates the sine with an absolute error below 1e-8, as cosine shifted by <i>pi/2</i>.
+	* @param x This is the argument in radians
+	* @return double Approximate sine
+	* @since 1.1
+	*/
+	public static double sin(double x)
+	{
+		return cos(x-Math.PI/2);
+	}
+
+	@Override
+	public double squares(double[] x, int from, int to)
+	{
+		double sum = 0;
+		for(int i=from;i<to;i++)
+			sum += x[i]*x[i];
+		return sum;
+	}
+
+	@Override
+	public double cosines(double[] x, int from, int to, double scale)
+	{
+		double sum = 0;
+		if(fastMath)
+		{
+			for(int i=from;i<to;i++)
+				sum += cos(scale*x[i]);
+		}
+		else
+		{
+			for(int i=from;i<to;i++)
+				sum += Math.cos(scale*x[i]);
+		}
+		return sum;
+	}
+
+	@Override
+	public double cosineProduct(double[] x, int from, int to, double[] scales)
+	{
+		double prod = 1;
+		for(int i=from;i<to;i++)
+			prod *= fastMath ? cos(x[i]*scales[i-from]) : Math.cos(x[i]*scales[i-from]);
+		return prod;
+	}
+
+	@Override
+	public double weightedSum(double[] x, int from, int to)
+	{
+		double sum = 0;
+		for(int i=from;i<to;i++)
+			sum += (i-from+1)*x[i];
+		return sum;
+	}
+
+	@Override
+	public double schwefel(double[] x, int from, int to)
+	{
+		double sum = 0;
+		for(int i=from;i<to;i++)
+		{
+			double r = Math.sqrt(Math.abs(x[i]));
+			sum += x[i]*(fastMath ? sin(r) : Math.sin(r));
+		}
+		return sum;
+	}
+
+	@Override
+	public double rosenbrock(double[] x, int from, int to)
+	{
+		double sum = 0;
+		for(int i=from;i<to-1;i++)
+		{
+			double a = x[i+1] - x[i]*x[i];
+			double b = x[i] - 1;
+			sum += 100*a*a + b*b;
+		}
+		return sum;
+	}
+
+	@Override
+	public double levy(double[] x, int from, int to)
+	{
+		double sum = 0;
+		for(int i=from;i<to;i++)
+		{
+			double w = 1 + (x[i]-1)/4;
+			double s = fastMath ? sin(Math.PI*w+1) : Math.sin(Math.PI*w+1);
+			sum += (w-1)*(w-1)*(1+10*s*s);
+		}
+		return sum;
+	}
+
+	@Override
+	public double cosine(double x)
+	{
+		return fastMath ? cos(x) : Math.cos(x);
+	}
+
+	@Override
+	public double sine(double x)
+	{
+		return fastMath ? sin(x) : Math.sin(x);
+	}
+
+	@Override
+	public String toString()
+	{
+		return fastMath ? "scalar-fastMath" : "scalar";
+	}
+}
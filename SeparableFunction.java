@@ -0,0 +1,290 @@
+/**
+* This interface describes fitness functions whose value is made of a few sums over the dimensions in which every gene, or a gene
+* with its neighbours, has its own terms, like <i>Ackley's Function</i> with its sum of squares and sum of cosines.
+* Chromosomes of a Population with partial sums enabled carry these sums, so after changing a single gene with Population.mutate
+* the fitness is updated from the terms of that gene alone instead of going over all dimensions again.
+* Chromosomes changed in any other way, or in more than one gene, are evaluated in full, which also recomputes their sums.
+* With prefix sums enabled as well, a one-point crossover child is evaluated from the prefix sums of its parents in constant time.
+* Every update rounds the sums a little differently than a full evaluation does, so every chromosome carries a bound of the rounding
+* errors of its sums. A fitness value computed from updated sums is only taken if no value within these bounds rounds off differently,
+* all others are evaluated in full. So the fitness values always equal <i>fitnessFunction</i>, with full precision every chromosome
+* changed since its last evaluation is evaluated in full.
+* @author Ashish Rana
+* @version 1.1
+* @see Population#enablePartialSums(int)
+* @see BenchmarkFunction
+* @since 1.1
+*/
+
+public interface SeparableFunction extends FitnessFunction{
+
+	/**
+	* Bound of the relative rounding error of a single term or addition, a margin above the unit roundoff <i>2^-53</i> of double.
+	* @since 1.1
+	*/
+	double ROUNDING_ERROR = 0x1p-50;
+	/**
+	* Growth of the error bounds of derived prefix sums over those of computed ones after which <i>refreshPrefixSums</i> recomputes them.
+	* @since 1.1
+	*/
+	double PREFIX_ERROR_GROWTH = 1024;
+
+	/**
+	* This method returns the number of partial sums every chromosome carries.
+	* @return int Number of partial sums
+	* @since 1.1
+	*/
+	int partialSums();
+
+	/**
+	* This method computes the partial sums of a chromosome over all its dimensions.
+	* @param x This is array containing the chromosome starting at <i>offset</i>
+	* @param offset This is the index of the first dimension of the chromosome in <i>x</i>
+	* @param sums This is the array the partial sums are stored in
+	* @param at This is the index of the first partial sum of the chromosome in <i>sums</i>
+	* @since 1.1
+	*/
+	void partialSums(double[] x, int offset, double[] sums, int at);
+
+	/**
+	* This method updates the partial sums of a chromosome after one of its genes has changed.
+	* @param x This is array containing the chromosome with the new gene starting at <i>offset</i>
+	* @param offset This is the index of the first dimension of the chromosome in <i>x</i>
+	* @param gene This is the dimension of the changed gene
+	* @param previous This is the value of the gene the partial sums were computed with
+	* @param sums This is the array holding the partial sums
+	* @param at This is the index of the first partial sum of the chromosome in <i>sums</i>
+	* @since 1.1
+	*/
+	void updatePartialSums(double[] x, int offset, int gene, double previous, double[] sums, int at);
+
+	/**
+	* This method computes the prefix sums of the partial sums of a chromosome, entry <i>at+m*partialSums()+s</i> holding partial sum
+	* <i>s</i> over the genes <i>[0, m)</i> for <i>m</i> from 0 to <i>dim</i>. The terms of a gene may depend on its successor,
+	* they belong to the gene itself.
+	* @param x This is array containing the chromosome starting at <i>offset</i>
+	* @param offset This is the index of the first dimension of the chromosome in <i>x</i>
+	* @param prefix This is the array the prefix sums are stored in
+	* @param at This is the index of the first prefix sum of the chromosome in <i>prefix</i>
+	* @since 1.1
+	*/
+	void prefixSums(double[] x, int offset, double[] prefix, int at);
+
+	/**
+	* This method corrects the partial sums of a one-point crossover child joined from the prefix sums of its parents for terms which
+	* depend on genes on both sides of the crossing point. Functions whose terms only depend on their own gene need no correction.
+	* @param x This is array containing both parents
+	* @param head This is the index of the first dimension of the parent giving the genes before the crossing point
+	* @param tail This is the index of the first dimension of the parent giving the genes from the crossing point on
+	* @param cross This is the crossing point
+	* @param sums This is the array holding the joined partial sums
+	* @param at This is the index of the first partial sum of the child in <i>sums</i>
+	* @since 1.1
+	*/
+	default void joinPartialSums(double[] x, int head, int tail, int cross, double[] sums, int at)
+	{
+	}
+
+	/**
+	* This method computes the raw function value of a chromosome from its partial sums with the same operations as the full evaluation,
+	* without any rounding off.
+	* @param sums This is the array holding the partial sums
+	* @param at This is the index of the first partial sum of the chromosome in <i>sums</i>
+	* @return double Raw function value
+	* @since 1.1
+	*/
+	double valueOfSums(double[] sums, int at);
+
+	/**
+	* This method computes the fitness value of a chromosome from its partial sums, rounded off like fitnessFunction.
+	* @param sums This is the array holding the partial sums
+	* @param at This is the index of the first partial sum of the chromosome in <i>sums</i>
+	* @return double Fitness value
+	* @since 1.1
+	*/
+	default double fitnessOfSums(double[] sums, int at)
+	{
+		return getPrecision().apply(valueOfSums(sums, at));
+	}
+
+	/**
+	* This method bounds the sum of the absolute values of the terms making up a partial sum, which bounds its rounding errors.
+	* @param sums This is the array holding the partial sums
+	* @param at This is the index of the first partial sum of the chromosome in <i>sums</i>
+	* @param s This is the index of the partial sum
+	* @return double Bound of the absolute terms, for genes within the bounds of the function
+	* @since 1.1
+	*/
+	double absoluteSum(double[] sums, int at, int s);
+
+	/**
+	* This method bounds the rounding error of computing a function value from its partial sums, by default a rounding error of the value.
+	* Functions subtracting their sums from constants bound it with the constants.
+	* @param value This is the function value computed from the partial sums
+	* @return double Bound of the rounding error
+	* @since 1.1
+	*/
+	default double roundingOfValue(double value)
+	{
+		return ROUNDING_ERROR*Math.abs(value);
+	}
+
+	/**
+	* This method evaluates the chromosomes <i>[from, to)</i> of a population with partial sums, updating the sums of chromosomes
+	* changed in a single gene since their last evaluation, joining the sums of crossover children from the prefix sums of their parents
+	* and computing them in full for all others, together with their prefix sums if enabled.
+	* Updated and joined sums whose rounding errors could change the fitness value are computed in full as well.
+	* @param pop This is the population with partial sums enabled
+	* @param from This is the index of the first chromosome evaluated
+	* @param to This is the index after the last chromosome evaluated
+	* @exception IllegalArgumentException If the population does not carry the partial sums of this function
+	* @since 1.1
+	*/
+	default void evaluateIncrementally(Population pop, int from, int to)
+	{
+		int count = partialSums();
+		if(pop.sumCount!=count)
+			throw new IllegalArgumentException("Population carries "+pop.sumCount+" partial sums instead of "+count);
+		int dim = pop.dim;
+		double[] genes = pop.genes;
+		double[] fitness = pop.fitness;
+		double[] sums = pop.sums;
+		double[] errors = pop.sumErrors;
+		double[] prefix = pop.prefix;
+		int[] changedGene = pop.changedGene;
+		for(int i=from, off=from*dim, at=from*count;i<to;i++, off+=dim, at+=count)
+		{
+			int gene = changedGene[i];
+			int cross = prefix!=null ? pop.crossPoint[i] : -1;
+			if(cross>=0)
+			{
+				Population src = pop.crossSource;
+				int head = pop.crossHead[i], tail = pop.crossTail[i];
+				if(src.prefixValid[head] && src.prefixValid[tail])
+				{
+					double[] p = src.prefix;
+					double[] pe = src.prefixErrors;
+					int h = src.prefixOffset(head)+cross*count, t = src.prefixOffset(tail);
+					for(int s=0;s<count;s++)
+					{
+						sums[at+s] = p[h+s] + p[t+dim*count+s] - p[t+cross*count+s];
+						errors[at+s] = pe[head*count+s] + 2*pe[tail*count+s]
+							+ 2*ROUNDING_ERROR*(absoluteSum(src.sums, head*count, s) + absoluteSum(src.sums, tail*count, s));
+					}
+					joinPartialSums(src.genes, head*dim, tail*dim, cross, sums, at);
+					for(int s=0;s<count;s++)
+					{
+						double childSum = absoluteSum(sums, at, s);
+						errors[at+s] += ROUNDING_ERROR*childSum;
+						// materialize shifts the prefix sums of the tail parent by the difference of their ends to the joined sums
+						pop.prefixErrors[i*count+s] = Math.max(pe[head*count+s], 2*pe[tail*count+s] + errors[at+s]
+							+ 2*ROUNDING_ERROR*(absoluteSum(src.sums, tail*count, s) + childSum));
+					}
+					double fit = checkedFitness(sums, errors, at, dim);
+					if(!Double.isNaN(fit))
+					{
+						fitness[i] = fit;
+						continue;
+					}
+					sums[at] = Double.NaN;
+				}
+				pop.materialize(i);
+			}
+			if(gene>=0 && !Double.isNaN(sums[at]))
+			{
+				for(int s=0;s<count;s++)
+					errors[at+s] += 2*ROUNDING_ERROR*absoluteSum(sums, at, s);
+				updatePartialSums(genes, off, gene, pop.previousGene[i], sums, at);
+				for(int s=0;s<count;s++)
+					errors[at+s] += 2*ROUNDING_ERROR*absoluteSum(sums, at, s);
+				changedGene[i] = Population.UNCHANGED;
+				double fit = checkedFitness(sums, errors, at, dim);
+				if(!Double.isNaN(fit))
+				{
+					fitness[i] = fit;
+					continue;
+				}
+			}
+			// the sums are computed like in fitnessFunction, the prefix sums on top of them
+			partialSums(genes, off, sums, at);
+			for(int s=0;s<count;s++)
+				errors[at+s] = dim*ROUNDING_ERROR*absoluteSum(sums, at, s);
+			if(prefix!=null)
+				computePrefixSums(pop, i);
+			changedGene[i] = Population.UNCHANGED;
+			fitness[i] = fitnessOfSums(sums, at);
+		}
+	}
+
+	/**
+	* This method returns the fitness value of a chromosome from its updated or joined partial sums, if every value within the rounding
+	* errors of the sums, and of the sums of a full evaluation, rounds off to it. The sums are moved to both ends of their errors one at a time,
+	* twice the resulting changes of the value bound its error.
+	* @param sums This is the array holding the partial sums
+	* @param errors This is the array holding the bounds of the rounding errors of the partial sums
+	* @param at This is the index of the first partial sum of the chromosome in <i>sums</i>
+	* @param dim This is the number of dimensions of the chromosome
+	* @return double Fitness value or NaN if the chromosome has to be evaluated in full
+	* @since 1.1
+	*/
+	private double checkedFitness(double[] sums, double[] errors, int at, int dim)
+	{
+		int count = partialSums();
+		double value = valueOfSums(sums, at);
+		double tolerance = roundingOfValue(value);
+		for(int s=0;s<count;s++)
+		{
+			double sum = sums[at+s];
+			double error = errors[at+s] + dim*ROUNDING_ERROR*absoluteSum(sums, at, s);
+			sums[at+s] = sum+error;
+			double above = valueOfSums(sums, at);
+			sums[at+s] = sum-error;
+			double below = valueOfSums(sums, at);
+			sums[at+s] = sum;
+			tolerance += 2*Math.max(Math.abs(above-value), Math.abs(below-value));
+		}
+		PrecisionPolicy precision = getPrecision();
+		double fit = precision.apply(value);
+		// a NaN tolerance fails both comparisons
+		if(precision.apply(value-tolerance)==fit && precision.apply(value+tolerance)==fit)
+			return fit;
+		return Double.NaN;
+	}
+
+	/**
+	* This method computes the prefix sums of chromosome <i>i</i> from its genes and bounds their rounding errors with its partial sums.
+	* @param pop This is the population with prefix sums enabled
+	* @param i This is the chromosome index
+	* @since 1.1
+	*/
+	private void computePrefixSums(Population pop, int i)
+	{
+		int count = pop.sumCount;
+		prefixSums(pop.genes, i*pop.dim, pop.prefix, pop.prefixOffset(i));
+		for(int s=0;s<count;s++)
+			pop.prefixErrors[i*count+s] = pop.dim*ROUNDING_ERROR*absoluteSum(pop.sums, i*count, s);
+		pop.prefixValid[i] = true;
+	}
+
+	/**
+	* This method recomputes the prefix sums of the chromosomes which have none matching their genes, e.g. after a mutation replaced them,
+	* so they can be parents of crossover children. Their fitness values and partial sums are kept, this does not count as an evaluation.
+	* Every crossover child derives its prefix sums from differences of those of its parents, which may double their error bounds,
+	* so prefix sums whose bounds have grown <i>PREFIX_ERROR_GROWTH</i> times beyond those of computed ones are recomputed as well.
+	* @param pop This is the population with prefix sums enabled
+	* @since 1.1
+	*/
+	default void refreshPrefixSums(Population pop)
+	{
+		int count = pop.sumCount;
+		double limit = PREFIX_ERROR_GROWTH*pop.dim*ROUNDING_ERROR;
+		for(int i=0;i<pop.size;i++)
+		{
+			boolean refresh = !pop.prefixValid[i];
+			for(int s=0;s<count && !refresh;s++)
+				refresh = pop.prefixErrors[i*count+s] > limit*absoluteSum(pop.sums, i*count, s);
+			if(refresh)
+				computePrefixSums(pop, i);
+		}
+	}
+}
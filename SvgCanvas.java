@@ -0,0 +1,249 @@
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Stroke;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+* This class records the drawing operations of a plot as an SVG document, without any display or extra library.
+* Texts are laid out with the metrics of the same font in Java2D, so labels are placed as in the Gui.
+* @author Ashish Rana
+* @version 1.1
+* @see PlotCanvas
+* @see BatchPlotRenderer
+* @since 1.1
+*/
+
+public class SvgCanvas implements PlotCanvas{
+
+	/**
+	* Elements of the document written so far.
+	* @since 1.1
+	*/
+	private final StringBuilder body = new StringBuilder(1<<16);
+	/**
+	* Width of the document.
+	* @since 1.1
+	*/
+	private final int width;
+	/**
+	* Height of the document.
+	* @since 1.1
+	*/
+	private final int height;
+	/**
+	* Font of the texts.
+	* @since 1.1
+	*/
+	private final Font font;
+	/**
+	* Metrics of the font, taken from an image as there is no display.
+	* @since 1.1
+	*/
+	private final FontMetrics metrics;
+	/**
+	* Current color.
+	* @since 1.1
+	*/
+	private Color color = Color.BLACK;
+	/**
+	* Current stroke.
+	* @since 1.1
+	*/
+	private Stroke stroke = new BasicStroke();
+	/**
+	* Number of clip paths defined so far.
+	* @since 1.1
+	*/
+	private int clipPaths = 0;
+	/**
+	* Whether a clipped group is open.
+	* @since 1.1
+	*/
+	private boolean clipped = false;
+
+	/**
+	* This creates an empty document.
+	* @param width This is the width of the document
+	* @param height This is the height of the document
+	* @param font This is the font of the texts
+	* @since 1.1
+	*/
+	public SvgCanvas(int width, int height, Font font)
+	{
+		this.width = width;
+		this.height = height;
+		this.font = font;
+		Graphics2D scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+		try{
+			this.metrics = scratch.getFontMetrics(font);
+		}
+		finally{
+			scratch.dispose();
+		}
+	}
+
+	@Override
+	public void setColor(Color color)
+	{
+		this.color = color;
+	}
+
+	@Override
+	public Stroke getStroke()
+	{
+		return stroke;
+	}
+
+	@Override
+	public void setStroke(Stroke stroke)
+	{
+		this.stroke = stroke;
+	}
+
+	@Override
+	public FontMetrics getFontMetrics()
+	{
+		return metrics;
+	}
+
+	@Override
+	public void drawLine(int x1, int y1, int x2, int y2)
+	{
+		body.append("<line x1=\"").append(x1).append("\" y1=\"").append(y1).append("\" x2=\"").append(x2).append("\" y2=\"").append(y2).append('"');
+		appendStroke();
+		body.append("/>\n");
+	}
+
+	@Override
+	public void drawPolyline(int[] xPoints, int[] yPoints, int points)
+	{
+		if(points<2)
+			return;
+		body.append("<polyline points=\"");
+		for(int k=0;k<points;k++)
+		{
+			if(k>0)
+				body.append(' ');
+			body.append(xPoints[k]).append(',').append(yPoints[k]);
+		}
+		body.append("\" fill=\"none\" stroke-linejoin=\"round\"");
+		appendStroke();
+		body.append("/>\n");
+	}
+
+	@Override
+	public void fillRect(int x, int y, int width, int height)
+	{
+		body.append("<rect x=\"").append(x).append("\" y=\"").append(y).append("\" width=\"").append(width).append("\" height=\"").append(height).append('"');
+		appendFill();
+		body.append("/>\n");
+	}
+
+	@Override
+	public void fillOval(int x, int y, int width, int height)
+	{
+		body.append("<ellipse cx=\"").append(x+width/2.0).append("\" cy=\"").append(y+height/2.0).append("\" rx=\"").append(width/2.0).append("\" ry=\"")
+			.append(height/2.0).append('"');
+		appendFill();
+		body.append("/>\n");
+	}
+
+	@Override
+	public void drawString(String text, int x, int y)
+	{
+		body.append("<text x=\"").append(x).append("\" y=\"").append(y).append('"');
+		appendFill();
+		body.append('>');
+		for(int k=0;k<text.length();k++)
+		{
+			char c = text.charAt(k);
+			switch(c)
+			{
+				case '<': body.append("&lt;"); break;
+				case '>': body.append("&gt;"); break;
+				case '&': body.append("&amp;"); break;
+				default: body.append(c);
+			}
+		}
+		body.append("</text>\n");
+	}
+
+	@Override
+	public void setClip(int x, int y, int width, int height)
+	{
+		clearClip();
+		String id = "clip"+(clipPaths++);
+		body.append("<clipPath id=\"").append(id).append("\"><rect x=\"").append(x).append("\" y=\"").append(y).append("\" width=\"").append(width)
+			.append("\" height=\"").append(height).append("\"/></clipPath>\n<g clip-path=\"url(#").append(id).append(")\">\n");
+		clipped = true;
+	}
+
+	@Override
+	public void clearClip()
+	{
+		if(clipped)
+			body.append("</g>\n");
+		clipped = false;
+	}
+
+	/**
+	* This method appends the stroke attributes of the current color and stroke.
+	* @since 1.1
+	*/
+	private void appendStroke()
+	{
+		body.append(" stroke=\"");
+		appendColor();
+		body.append("\" stroke-width=\"").append(stroke instanceof BasicStroke ? ((BasicStroke)stroke).getLineWidth() : 1f).append('"');
+		if(color.getAlpha()<255)
+			body.append(" stroke-opacity=\"").append(color.getAlpha()/255f).append('"');
+	}
+
+	/**
+	* This method appends the fill attributes of the current color.
+	* @since 1.1
+	*/
+	private void appendFill()
+	{
+		body.append(" fill=\"");
+		appendColor();
+		body.append('"');
+		if(color.getAlpha()<255)
+			body.append(" fill-opacity=\"").append(color.getAlpha()/255f).append('"');
+	}
+
+	/**
+	* This method appends the current color without its alpha value in hexadecimal notation.
+	* @since 1.1
+	*/
+	private void appendColor()
+	{
+		body.append('#');
+		String rgb = Integer.toHexString(color.getRGB()&0xFFFFFF);
+		for(int k=rgb.length();k<6;k++)
+			body.append('0');
+		body.append(rgb);
+	}
+
+	/**
+	* This method writes the complete SVG document.
+	* @param out This is the writer of the document, it is not closed
+	* @exception IOException If the document can not be written
+	* @since 1.1
+	*/
+	public void writeTo(Writer out) throws IOException
+	{
+		out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\""+width+"\" height=\""+height+"\" viewBox=\"0 0 "+width+" "+height
+			+"\" font-family=\""+font.getFamily().replace("\"", "")+", sans-serif\" font-size=\""+font.getSize()+"\">\n");
+		out.append(body);
+		if(clipped)
+			out.write("</g>\n");
+		out.write("</svg>\n");
+	}
+}
@@ -0,0 +1,613 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+* This interface decides when a run stops, it is checked by the run loop after every iteration of every algorithm.
+* Besides the iteration and evaluation budgets of the algorithms a run can stop once it reaches a target fitness, once the best fitness
+* stagnates, once the diversity of the population collapses or at a wall-clock deadline, and criteria can be combined with <i>AllOf</i> and <i>AnyOf</i>.
+* The criterion of a run is selected with the <i>termination</i> system property, terms joined with <i>&amp;</i> (all of them) and <i>|</i>
+* (any of them), where <i>&amp;</i> binds tighter, e.g. <i>-Dtermination="target:0.01|stagnation:200:1e-6&amp;iterations:500|time:10m"</i>:
+* <ul>
+* <li><i>target:f</i> - best fitness at or below <i>f</i></li>
+* <li><i>stagnation:n</i> or <i>stagnation:n:epsilon</i> - best fitness not improved by more than <i>epsilon</i> (default 0) for <i>n</i> iterations</li>
+* <li><i>diversity:d</i> - mean standard deviation of the genes of the population below <i>d</i> times the range of the bounds</li>
+* <li><i>time:t</i> - <i>t</i> wall-clock time since the start of the run, in <i>ms</i>, <i>s</i>, <i>m</i> or <i>h</i>, seconds without a unit</li>
+* <li><i>evaluations:n</i> - more than <i>n</i> function evaluations</li>
+* <li><i>iterations:n</i> - at least <i>n</i> iterations</li>
+* </ul>
+* The iteration and evaluation budgets of the algorithm always apply, so a criterion can only stop a run earlier.
+* Criteria keep state of the run they were started for, so every run needs its own instance.
+* @author Ashish Rana
+* @version 1.1
+* @see OptimizationAlgorithm
+* @since 1.1
+*/
+
+public interface TerminationCriterion{
+
+	/**
+	* This method is called once at the start of a run, before its initialization, and resets any state of the criterion.
+	* @param run This is the run
+	* @since 1.1
+	*/
+	default void start(OptimizationAlgorithm run)
+	{
+	}
+
+	/**
+	* This method decides whether the run stops after the iteration just finished.
+	* @param run This is the run
+	* @return boolean <i>true</i> if the run stops
+	* @since 1.1
+	*/
+	boolean isMet(OptimizationAlgorithm run);
+
+	/**
+	* This method returns whether the criterion reads the population of the run, so algorithms moving their population on worker threads
+	* hold the workers while it is checked.
+	* @return boolean <i>true</i> if the population is read
+	* @since 1.1
+	*/
+	default boolean readsPopulation()
+	{
+		return false;
+	}
+
+	/**
+	* This method parses a criterion, terms joined with <i>&amp;</i> and <i>|</i> as described for the <i>termination</i> system property.
+	* @param expression This is the criterion
+	* @return TerminationCriterion New criterion
+	* @exception IllegalArgumentException If a term is unknown or its arguments are invalid
+	* @since 1.1
+	*/
+	static TerminationCriterion forName(String expression)
+	{
+		// empty terms, e.g. of a trailing operator, are kept and rejected instead of being dropped by split
+		List<TerminationCriterion> any = new ArrayList<>();
+		for(String alternative : expression.split("\\|", -1))
+		{
+			List<TerminationCriterion> all = new ArrayList<>();
+			for(String term : alternative.split("&", -1))
+				all.add(term(term));
+			any.add(all.size()==1 ? all.get(0) : new AllOf(all));
+		}
+		return any.size()==1 ? any.get(0) : new AnyOf(any);
+	}
+
+	/**
+	* This method parses a single term of a criterion.
+	* @param term This is the term, e.g. <i>stagnation:200:1e-6</i>
+	* @return TerminationCriterion New criterion
+	* @exception IllegalArgumentException If the term is unknown or its arguments are invalid
+	* @since 1.1
+	*/
+	private static TerminationCriterion term(String term)
+	{
+		String[] parts = term.trim().toLowerCase(Locale.ROOT).split(":");
+		try{
+			switch(parts[0])
+			{
+				case "target":
+					if(parts.length==2)
+						return new Target(Double.parseDouble(parts[1]));
+					break;
+				case "stagnation":
+					if(parts.length==2 || parts.length==3)
+						return new Stagnation(Integer.parseInt(parts[1]), parts.length==3 ? Double.parseDouble(parts[2]) : 0);
+					break;
+				case "diversity":
+					if(parts.length==2)
+						return new Diversity(Double.parseDouble(parts[1]));
+					break;
+				case "time":
+					if(parts.length==2)
+						return new Deadline(Deadline.parseMillis(parts[1]));
+					break;
+				case "evaluations":
+					if(parts.length==2)
+						return new Evaluations(Integer.parseInt(parts[1]));
+					break;
+				case "iterations":
+					if(parts.length==2)
+						return new Iterations(Integer.parseInt(parts[1]));
+					break;
+			}
+		}
+		catch(NumberFormatException e){
+			throw new IllegalArgumentException("Invalid termination criterion "+term, e);
+		}
+		throw new IllegalArgumentException("Unknown termination criterion "+term);
+	}
+
+	/**
+	* This method returns the criterion of a run with the given budgets, any of the budgets or the criterion selected by the
+	* <i>termination</i> system property.
+	* @param iterNumber This is the number of iterations of the run
+	* @param maxFunEval This is the number of function evaluations after which the run stops
+	* @return TerminationCriterion New criterion for the run
+	* @exception IllegalArgumentException If the <i>termination</i> system property is invalid
+	* @since 1.1
+	*/
+	static TerminationCriterion fromSystemProperty(int iterNumber, int maxFunEval)
+	{
+		TerminationCriterion budget = new AnyOf(List.of(new Iterations(iterNumber), new Evaluations(maxFunEval)));
+		String expression = System.getProperty("termination");
+		if(expression==null || expression.isBlank())
+			return budget;
+		return new AnyOf(List.of(budget, forName(expression)));
+	}
+
+	/**
+	* This method joins criteria with an operator.
+	* @param criteria This is the criteria
+	* @param operator This is the operator
+	* @return String Joined criteria
+	* @since 1.1
+	*/
+	private static String join(TerminationCriterion[] criteria, String operator)
+	{
+		StringBuilder sb = new StringBuilder();
+		for(TerminationCriterion c : criteria)
+			sb.append(sb.length()>0 ? operator : "").append(c);
+		return sb.toString();
+	}
+
+	/**
+	* This criterion is met once the run has done a number of iterations.
+	* @since 1.1
+	*/
+	public static final class Iterations implements TerminationCriterion{
+		/**
+		* Number of iterations.
+		* @since 1.1
+		*/
+		private final int iterations;
+
+		/**
+		* This creates the criterion.
+		* @param iterations This is the number of iterations
+		* @since 1.1
+		*/
+		public Iterations(int iterations)
+		{
+			this.iterations = iterations;
+		}
+
+		@Override
+		public boolean isMet(OptimizationAlgorithm run)
+		{
+			return run.iterations>=iterations;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "iterations:"+iterations;
+		}
+	}
+
+	/**
+	* This criterion is met once the run has done more than a number of function evaluations.
+	* @since 1.1
+	*/
+	public static final class Evaluations implements TerminationCriterion{
+		/**
+		* Number of function evaluations.
+		* @since 1.1
+		*/
+		private final int evaluations;
+
+		/**
+		* This creates the criterion.
+		* @param evaluations This is the number of function evaluations which may be exceeded by the last iteration
+		* @since 1.1
+		*/
+		public Evaluations(int evaluations)
+		{
+			this.evaluations = evaluations;
+		}
+
+		@Override
+		public boolean isMet(OptimizationAlgorithm run)
+		{
+			return run.funEval>evaluations;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "evaluations:"+evaluations;
+		}
+	}
+
+	/**
+	* This criterion is met once the best fitness reaches a target.
+	* @since 1.1
+	*/
+	public static final class Target implements TerminationCriterion{
+		/**
+		* Target fitness.
+		* @since 1.1
+		*/
+		private final double target;
+
+		/**
+		* This creates the criterion.
+		* @param target This is the target fitness, the run stops at or below it
+		* @since 1.1
+		*/
+		public Target(double target)
+		{
+			this.target = target;
+		}
+
+		@Override
+		public boolean isMet(OptimizationAlgorithm run)
+		{
+			return run.bestFitness<=target;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "target:"+target;
+		}
+	}
+
+	/**
+	* This criterion is met once the best fitness did not improve by more than epsilon for a number of iterations.
+	* @since 1.1
+	*/
+	public static final class Stagnation implements TerminationCriterion{
+		/**
+		* Number of iterations without improvement.
+		* @since 1.1
+		*/
+		private final int iterations;
+		/**
+		* Smallest improvement which counts.
+		* @since 1.1
+		*/
+		private final double epsilon;
+		/**
+		* Best fitness at the last improvement.
+		* @since 1.1
+		*/
+		private double reference;
+		/**
+		* Iterations of the run at the last improvement.
+		* @since 1.1
+		*/
+		private int improvedAt;
+
+		/**
+		* This creates the criterion.
+		* @param iterations This is the number of iterations without improvement
+		* @param epsilon This is the smallest improvement which counts
+		* @exception IllegalArgumentException If iterations is not positive or epsilon is negative
+		* @since 1.1
+		*/
+		public Stagnation(int iterations, double epsilon)
+		{
+			if(iterations<1 || !(epsilon>=0))
+				throw new IllegalArgumentException("Invalid stagnation "+iterations+" iterations, epsilon "+epsilon);
+			this.iterations = iterations;
+			this.epsilon = epsilon;
+		}
+
+		@Override
+		public void start(OptimizationAlgorithm run)
+		{
+			reference = Double.POSITIVE_INFINITY;
+			improvedAt = 0;
+		}
+
+		@Override
+		public boolean isMet(OptimizationAlgorithm run)
+		{
+			if(run.bestFitness<reference-epsilon)
+			{
+				reference = run.bestFitness;
+				improvedAt = run.iterations;
+			}
+			return run.iterations-improvedAt>=iterations;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "stagnation:"+iterations+":"+epsilon;
+		}
+	}
+
+	/**
+	* This criterion is met once the genes of the population have collapsed, i.e. their standard deviation averaged over the dimensions
+	* falls below a fraction of the range of the bounds. It is never met by algorithms without a population.
+	* @since 1.1
+	*/
+	public static final class Diversity implements TerminationCriterion{
+		/**
+		* Fraction of the range of the bounds.
+		* @since 1.1
+		*/
+		private final double threshold;
+		/**
+		* Mean of every dimension, reused between iterations.
+		* @since 1.1
+		*/
+		private double[] mean;
+		/**
+		* Squared deviations of every dimension, reused between iterations.
+		* @since 1.1
+		*/
+		private double[] squares;
+
+		/**
+		* This creates the criterion.
+		* @param threshold This is the fraction of the range of the bounds
+		* @exception IllegalArgumentException If threshold is negative
+		* @since 1.1
+		*/
+		public Diversity(double threshold)
+		{
+			if(!(threshold>=0))
+				throw new IllegalArgumentException("Invalid diversity threshold "+threshold);
+			this.threshold = threshold;
+		}
+
+		@Override
+		public void start(OptimizationAlgorithm run)
+		{
+			int dim = run.fObj.getDim();
+			mean = new double[dim];
+			squares = new double[dim];
+		}
+
+		@Override
+		public boolean isMet(OptimizationAlgorithm run)
+		{
+			Population pop = run.getPopulation();
+			if(pop==null || pop.size<2)
+				return false;
+			return diversity(pop)<threshold*(run.fObj.getUpperBound()-run.fObj.getLowerBound());
+		}
+
+		@Override
+		public boolean readsPopulation()
+		{
+			return true;
+		}
+
+		/**
+		* This method computes the standard deviation of the genes of every dimension, averaged over the dimensions, going over the
+		* gene matrix row by row.
+		* @param pop This is the population
+		* @return double Mean standard deviation
+		* @since 1.1
+		*/
+		double diversity(Population pop)
+		{
+			int dim = pop.dim;
+			double[] genes = pop.genes;
+			Arrays.fill(mean, 0);
+			Arrays.fill(squares, 0);
+			for(int off=0;off<genes.length;off+=dim)
+				for(int j=0;j<dim;j++)
+					mean[j] += genes[off+j];
+			for(int j=0;j<dim;j++)
+				mean[j] /= pop.size;
+			for(int off=0;off<genes.length;off+=dim)
+				for(int j=0;j<dim;j++)
+				{
+					double d = genes[off+j]-mean[j];
+					squares[j] += d*d;
+				}
+			double sum = 0;
+			for(int j=0;j<dim;j++)
+				sum += Math.sqrt(squares[j]/pop.size);
+			return sum/dim;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "diversity:"+threshold;
+		}
+	}
+
+	/**
+	* This criterion is met once a wall-clock time has passed since the start of the run.
+	* @since 1.1
+	*/
+	public static final class Deadline implements TerminationCriterion{
+		/**
+		* Time of the run in milliseconds.
+		* @since 1.1
+		*/
+		private final long millis;
+		/**
+		* System.nanoTime at which the run stops.
+		* @since 1.1
+		*/
+		private long deadline;
+
+		/**
+		* This creates the criterion.
+		* @param millis This is the time of the run in milliseconds
+		* @since 1.1
+		*/
+		public Deadline(long millis)
+		{
+			this.millis = millis;
+		}
+
+		/**
+		* This method parses a time with the unit <i>ms</i>, <i>s</i>, <i>m</i> or <i>h</i>, seconds without a unit.
+		* @param time This is the time, e.g. <i>90s</i>
+		* @return long Time in milliseconds
+		* @exception NumberFormatException If the time is not a number with a unit
+		* @since 1.1
+		*/
+		static long parseMillis(String time)
+		{
+			if(time.endsWith("ms"))
+				return Math.round(Double.parseDouble(time.substring(0, time.length()-2)));
+			long unit = 1000;
+			if(time.endsWith("h"))
+				unit = 3600000;
+			else if(time.endsWith("m"))
+				unit = 60000;
+			else if(!time.endsWith("s"))
+				return Math.round(Double.parseDouble(time)*unit);
+			return Math.round(Double.parseDouble(time.substring(0, time.length()-1))*unit);
+		}
+
+		@Override
+		public void start(OptimizationAlgorithm run)
+		{
+			deadline = System.nanoTime()+millis*1000000;
+		}
+
+		@Override
+		public boolean isMet(OptimizationAlgorithm run)
+		{
+			return System.nanoTime()-deadline>=0;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "time:"+millis+"ms";
+		}
+	}
+
+	/**
+	* This criterion is met when all of its criteria are met.
+	* @since 1.1
+	*/
+	public static final class AllOf implements TerminationCriterion{
+		/**
+		* Combined criteria.
+		* @since 1.1
+		*/
+		private final TerminationCriterion[] criteria;
+
+		/**
+		* This creates the criterion.
+		* @param criteria This is the combined criteria
+		* @since 1.1
+		*/
+		public AllOf(List<TerminationCriterion> criteria)
+		{
+			this.criteria = criteria.toArray(new TerminationCriterion[0]);
+		}
+
+		@Override
+		public void start(OptimizationAlgorithm run)
+		{
+			for(TerminationCriterion c : criteria)
+				c.start(run);
+		}
+
+		@Override
+		public boolean isMet(OptimizationAlgorithm run)
+		{
+			// every criterion is checked, so stateful ones like Stagnation see every iteration
+			boolean met = true;
+			for(TerminationCriterion c : criteria)
+				met &= c.isMet(run);
+			return met;
+		}
+
+		@Override
+		public boolean readsPopulation()
+		{
+			for(TerminationCriterion c : criteria)
+				if(c.readsPopulation())
+					return true;
+			return false;
+		}
+
+		@Override
+		public String toString()
+		{
+			return join(criteria, "&");
+		}
+	}
+
+	/**
+	* This criterion is met when any of its criteria is met.
+	* @since 1.1
+	*/
+	public static final class AnyOf implements TerminationCriterion{
+		/**
+		* Combined criteria.
+		* @since 1.1
+		*/
+		private final TerminationCriterion[] criteria;
+		/**
+		* First criterion found met, <code>null</code> while the run goes on.
+		* @since 1.1
+		*/
+		private TerminationCriterion met;
+
+		/**
+		* This creates the criterion.
+		* @param criteria This is the combined criteria
+		* @since 1.1
+		*/
+		public AnyOf(List<TerminationCriterion> criteria)
+		{
+			this.criteria = criteria.toArray(new TerminationCriterion[0]);
+		}
+
+		@Override
+		public void start(OptimizationAlgorithm run)
+		{
+			met = null;
+			for(TerminationCriterion c : criteria)
+				c.start(run);
+		}
+
+		@Override
+		public boolean isMet(OptimizationAlgorithm run)
+		{
+			// every criterion is checked, so stateful ones like Stagnation see every iteration
+			boolean any = false;
+			for(TerminationCriterion c : criteria)
+				if(c.isMet(run) && !any)
+				{
+					any = true;
+					met = c;
+				}
+			return any;
+		}
+
+		@Override
+		public boolean readsPopulation()
+		{
+			for(TerminationCriterion c : criteria)
+				if(c.readsPopulation())
+					return true;
+			return false;
+		}
+
+		/**
+		* This method returns the criterion which stopped the run, looking into nested AnyOf criteria.
+		* @return TerminationCriterion Criterion met or <code>null</code> while the run goes on
+		* @since 1.1
+		*/
+		public TerminationCriterion getMet()
+		{
+			return met instanceof AnyOf && ((AnyOf)met).getMet()!=null ? ((AnyOf)met).getMet() : met;
+		}
+
+		@Override
+		public String toString()
+		{
+			return join(criteria, "|");
+		}
+	}
+}
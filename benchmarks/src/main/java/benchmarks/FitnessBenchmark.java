@@ -0,0 +1,106 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* This class measures the throughput of single fitness function evaluations of every benchmark function, with the default rounding of
+* fitness values and with full precision, over random chromosomes within the bounds of the function.
+* @author Ashish Rana
+* @version 1.1
+* @see FitnessFunction
+* @since 1.1
+*/
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FitnessBenchmark{
+
+	/**
+	* Number of chromosomes cycled through, so the branch predictor can not learn a single chromosome.
+	* @since 1.1
+	*/
+	private static final int POINTS = 64;
+
+	/**
+	* Name of the benchmark function.
+	* @since 1.1
+	*/
+	@Param({"sphere", "rastrigin", "rosenbrock", "griewank", "schwefel", "ackley", "levy", "zakharov"})
+	public String function;
+	/**
+	* Dimensions of the benchmark function.
+	* @since 1.1
+	*/
+	@Param({"10", "30", "100"})
+	public int dim;
+	/**
+	* Precision of fitness values, <i>full</i> or decimal places.
+	* @see PrecisionPolicy
+	* @since 1.1
+	*/
+	@Param({"2", "full"})
+	public String precision;
+
+	/**
+	* Fitness function measured.
+	* @since 1.1
+	*/
+	private FitnessFunction fObj;
+	/**
+	* Random chromosomes stored row-major.
+	* @since 1.1
+	*/
+	private double[] points;
+	/**
+	* Index of the next chromosome.
+	* @since 1.1
+	*/
+	private int next;
+
+	/**
+	* This method creates the fitness function and the random chromosomes.
+	* @since 1.1
+	*/
+	@Setup
+	public void setUp()
+	{
+		BenchmarkFunction function = BenchmarkFunction.forName(this.function, dim);
+		function.setPrecision(PrecisionPolicy.forName(precision));
+		fObj = function;
+
+		SplittableRandom random = new SplittableRandom(42);
+		points = new double[POINTS*dim];
+		for(int k=0;k<points.length;k++)
+			points[k] = random.nextDouble(fObj.getLowerBound(), fObj.getUpperBound());
+	}
+
+	/**
+	* This method evaluates the next chromosome in place in the row-major array.
+	* @return double Fitness value
+	* @since 1.1
+	*/
+	@Benchmark
+	public double fitnessFunction()
+	{
+		int i = next;
+		next = (i+1)&(POINTS-1);
+		return fObj.fitnessFunction(points, i*dim);
+	}
+}
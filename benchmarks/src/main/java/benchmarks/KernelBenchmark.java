@@ -0,0 +1,98 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* This class measures the time of a fitness function evaluation of a high dimensional chromosome with the vector and the scalar kernels,
+* with and without fast math, for the functions dominated by sines and cosines.
+* @author Ashish Rana
+* @version 1.1
+* @see FitnessKernels
+* @since 1.1
+*/
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class KernelBenchmark{
+
+	/**
+	* Name of the benchmark function.
+	* @since 1.1
+	*/
+	@Param({"ackley", "rastrigin", "griewank", "schwefel", "levy"})
+	public String function;
+	/**
+	* Dimensions of the benchmark function.
+	* @since 1.1
+	*/
+	@Param({"1000", "10000", "100000"})
+	public int dim;
+	/**
+	* Kernels, <i>vector</i> or <i>scalar</i>.
+	* @since 1.1
+	*/
+	@Param({"vector", "scalar"})
+	public String kernels;
+	/**
+	* Whether sines and cosines are approximated.
+	* @since 1.1
+	*/
+	@Param({"false", "true"})
+	public boolean fastMath;
+
+	/**
+	* Fitness function measured.
+	* @since 1.1
+	*/
+	private FitnessFunction fObj;
+	/**
+	* Random chromosome.
+	* @since 1.1
+	*/
+	private double[] point;
+
+	/**
+	* This method creates the fitness function with the kernels and the random chromosome.
+	* @since 1.1
+	*/
+	@Setup
+	public void setUp()
+	{
+		fObj = BenchmarkFunction.forName(function, dim)
+			.setKernels(FitnessKernels.forName(kernels, fastMath))
+			.setPrecision(PrecisionPolicy.forName("full"));
+
+		SplittableRandom random = new SplittableRandom(42);
+		point = new double[dim];
+		for(int k=0;k<dim;k++)
+			point[k] = random.nextDouble(fObj.getLowerBound(), fObj.getUpperBound());
+	}
+
+	/**
+	* This method evaluates the chromosome.
+	* @return double Fitness value
+	* @since 1.1
+	*/
+	@Benchmark
+	public double evaluate()
+	{
+		return fObj.fitnessFunction(point, 0);
+	}
+}
@@ -0,0 +1,162 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* This class measures the throughput of one pass of the population operators of the algorithms, i.e. genetic algorithm's crossover and
+* mutation, differential evolution's generation and particle swarm's move, including the fitness evaluations of the pass.
+* Every operator runs on Ackley's function with a sequential evaluator and keeps evolving the same population between invocations.
+* @author Ashish Rana
+* @version 1.1
+* @see OptimizationAlgorithm
+* @since 1.1
+*/
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorBenchmark{
+
+	/**
+	* This class holds one initialized run of an algorithm for the given dimensions and population size.
+	* @since 1.1
+	*/
+	@State(Scope.Thread)
+	public abstract static class AlgorithmState{
+		/**
+		* Dimensions of the fitness function.
+		* @since 1.1
+		*/
+		@Param({"10", "30", "100"})
+		public int dim;
+		/**
+		* Size of the population.
+		* @since 1.1
+		*/
+		@Param({"50", "100", "400"})
+		public int popSize;
+
+		/**
+		* This method creates the run of the algorithm.
+		* @param fObj This is the fitness function of the run
+		* @param evaluator This is the sequential evaluator of the run
+		* @return OptimizationAlgorithm Run of the algorithm
+		* @since 1.1
+		*/
+		abstract OptimizationAlgorithm create(FitnessFunction fObj, ParallelEvaluator evaluator);
+
+		/**
+		* This method initializes the population of the run.
+		* @since 1.1
+		*/
+		@Setup(Level.Trial)
+		public void setUp()
+		{
+			OptimizationAlgorithm algorithm = create(BenchmarkFunction.forName("ackley", dim), new ParallelEvaluator(1));
+			algorithm.setVerbose(false);
+			algorithm.initializeAll();
+			algorithm.memorizeGlobalBest();
+		}
+	}
+
+	/**
+	* This class holds a genetic algorithm run.
+	* @since 1.1
+	*/
+	public static class GaState extends AlgorithmState{
+		GeneticAlgorithm ga;
+
+		@Override
+		OptimizationAlgorithm create(FitnessFunction fObj, ParallelEvaluator evaluator)
+		{
+			return ga = new GeneticAlgorithm(fObj, evaluator, popSize);
+		}
+	}
+
+	/**
+	* This class holds a differential evolution run.
+	* @since 1.1
+	*/
+	public static class DeState extends AlgorithmState{
+		DeAlgorithm de;
+
+		@Override
+		OptimizationAlgorithm create(FitnessFunction fObj, ParallelEvaluator evaluator)
+		{
+			return de = new DeAlgorithm(fObj, evaluator, popSize);
+		}
+	}
+
+	/**
+	* This class holds a particle swarm run.
+	* @since 1.1
+	*/
+	public static class PsoState extends AlgorithmState{
+		PsoAlgorithm pso;
+
+		@Override
+		OptimizationAlgorithm create(FitnessFunction fObj, ParallelEvaluator evaluator)
+		{
+			return pso = new PsoAlgorithm(fObj, evaluator, popSize);
+		}
+	}
+
+	/**
+	* This method performs one crossover pass of genetic algorithm.
+	* @param state This is the genetic algorithm run
+	* @since 1.1
+	*/
+	@Benchmark
+	public void gaCrossGene(GaState state)
+	{
+		state.ga.crossGene();
+	}
+
+	/**
+	* This method performs one mutation pass of genetic algorithm.
+	* @param state This is the genetic algorithm run
+	* @since 1.1
+	*/
+	@Benchmark
+	public void gaMutateGene(GaState state)
+	{
+		state.ga.mutateGene();
+	}
+
+	/**
+	* This method performs one generation of differential evolution.
+	* @param state This is the differential evolution run
+	* @since 1.1
+	*/
+	@Benchmark
+	public void deOperation(DeState state)
+	{
+		state.de.deOperation();
+	}
+
+	/**
+	* This method performs one move of the particle swarm.
+	* @param state This is the particle swarm run
+	* @since 1.1
+	*/
+	@Benchmark
+	public void psoOperation(PsoState state)
+	{
+		state.pso.psoOperation();
+	}
+}
@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* This class measures the throughput of rounding values to decimal places with <i>FitnessFunction.round</i>, which every fitness
+* value and generated gene goes through, against the BigDecimal rounding it replaced.
+* @author Ashish Rana
+* @version 1.1
+* @see PrecisionPolicy
+* @since 1.1
+*/
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundBenchmark{
+
+	/**
+	* Number of values cycled through.
+	* @since 1.1
+	*/
+	private static final int VALUES = 1024;
+
+	/**
+	* Decimal places rounded to.
+	* @since 1.1
+	*/
+	@Param({"2", "6"})
+	public int decimalPlace;
+
+	/**
+	* Random values spread over the magnitudes of genes and fitness values.
+	* @since 1.1
+	*/
+	private double[] values;
+	/**
+	* Index of the next value.
+	* @since 1.1
+	*/
+	private int next;
+
+	/**
+	* This method creates the random values.
+	* @since 1.1
+	*/
+	@Setup
+	public void setUp()
+	{
+		SplittableRandom random = new SplittableRandom(42);
+		values = new double[VALUES];
+		for(int k=0;k<VALUES;k++)
+			values[k] = random.nextDouble(-1, 1)*Math.pow(10, random.nextInt(-2, 5));
+	}
+
+	/**
+	* This method rounds the next value with the arithmetic rounding.
+	* @return double Rounded value
+	* @since 1.1
+	*/
+	@Benchmark
+	public double round()
+	{
+		int k = next;
+		next = (k+1)&(VALUES-1);
+		return FitnessFunction.round(values[k], decimalPlace);
+	}
+
+	/**
+	* This method rounds the next value with BigDecimal, as every value was rounded before.
+	* @return double Rounded value
+	* @since 1.1
+	*/
+	@Benchmark
+	public double roundBigDecimal()
+	{
+		int k = next;
+		next = (k+1)&(VALUES-1);
+		return PrecisionPolicy.QuantizedPrecision.roundBigDecimal(values[k], decimalPlace);
+	}
+}
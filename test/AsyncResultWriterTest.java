@@ -0,0 +1,89 @@
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+* This class tests that a failure of the encoder on the writer thread reaches the recording thread, also when it is not an IOException.
+* @author Ashish Rana
+* @version 1.1
+* @see AsyncResultWriter
+* @since 1.1
+*/
+
+public class AsyncResultWriterTest{
+
+	/**
+	* Number of recorded records.
+	* @since 1.1
+	*/
+	private static final int records = 20;
+
+	/**
+	* Directory of the written files.
+	* @since 1.1
+	*/
+	@TempDir
+	Path dir;
+
+	/**
+	* This class is a format whose encoder throws the given exception at the last record, so the recording thread meets it only when closing.
+	* @since 1.1
+	*/
+	private static final class FailingFormat implements ResultFormat{
+		private final RuntimeException failure;
+
+		FailingFormat(RuntimeException failure)
+		{
+			this.failure = failure;
+		}
+
+		@Override
+		public Encoder open(OutputStream out, int dim)
+		{
+			return new Encoder(){
+				@Override
+				public void append(int iteration, long funEval, long nanos, double fitness, double[] x, int offset)
+				{
+					if(iteration==records-1)
+						throw failure;
+				}
+
+				@Override
+				public void finish()
+				{
+				}
+			};
+		}
+
+		@Override
+		public String fileName(String resultFileName)
+		{
+			return resultFileName;
+		}
+	}
+
+	/**
+	* This method records up to the failing record and checks that closing the writer rethrows the failure as the cause of an IOException.
+	* Before, the writer thread died of it and the file ended silently without its last record.
+	* @exception IOException If the file can not be opened
+	* @since 1.1
+	*/
+	@Test
+	public void runtimeFailureIsReportedOnClose() throws IOException
+	{
+		IllegalStateException failure = new IllegalStateException("encoder bug");
+		AsyncResultWriter writer = new AsyncResultWriter(dir.resolve("Result.csv").toString(), new FailingFormat(failure), 2);
+		double[] x = {1, 2};
+		for(int i=0;i<records;i++)
+			writer.record(i, i, 1.0/(i+1), x);
+		IOException e = assertThrows(IOException.class, writer::close);
+		assertSame(failure, e.getCause());
+		assertThrows(IOException.class, () -> writer.record(records, records, 0, x));
+	}
+}
@@ -0,0 +1,141 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+* This class tests that records written in the binary result format read back unchanged and convert to exactly the <i>.csv</i> file
+* the text format writes for the same records, with and without deflate.
+* @author Ashish Rana
+* @version 1.1
+* @see BinaryResultFormat
+* @since 1.1
+*/
+
+public class BinaryResultFormatTest{
+
+	/**
+	* Number of records, more than two blocks.
+	* @since 1.1
+	*/
+	private static final int rows = 2*BinaryResultFormat.BLOCK_ROWS+123;
+
+	/**
+	* Directory of the written files.
+	* @since 1.1
+	*/
+	@TempDir
+	Path dir;
+
+	/**
+	* This method writes records whose chromosomes stay unchanged, change in a few genes or change in all genes from one record
+	* to the next, with negative zeros, NaN and infinite genes and unknown evaluation counts in between.
+	* @param format This is the format written
+	* @param out This is the stream of the file
+	* @param dim This is the number of dimensions
+	* @param chromosomes This is the array every written chromosome is stored in, row after row
+	* @exception IOException If the file can not be written
+	* @since 1.1
+	*/
+	private static void write(ResultFormat format, OutputStream out, int dim, double[] chromosomes) throws IOException
+	{
+		SplittableRandom random = new SplittableRandom(dim);
+		ResultFormat.Encoder encoder = format.open(out, dim);
+		double[] x = new double[dim];
+		for(int i=0;i<rows;i++)
+		{
+			int change = random.nextInt(3);
+			for(int j=0;j<dim;j++)
+			{
+				if(change==2 || (change==1 && random.nextInt(4)==0))
+					x[j] = random.nextInt(50)==0 ? special(random) : Math.round(random.nextDouble(-5, 5)*100)/100.0;
+			}
+			System.arraycopy(x, 0, chromosomes, i*dim, dim);
+			encoder.append(i, i%10==0 ? -1 : 100L*i, 1000L*i, fitness(i), x, 0);
+		}
+		encoder.finish();
+	}
+
+	/**
+	* This method returns the fitness value of record <i>i</i>, falling with some steps of plain decimals and some of full precision.
+	* @param i This is the record number
+	* @return double Fitness value
+	* @since 1.1
+	*/
+	private static double fitness(int i)
+	{
+		return i%3==0 ? 1000.0/(i+1) : Math.round(100000.0/(i+1))/100.0;
+	}
+
+	/**
+	* This method returns one of the special gene values.
+	* @param random This is the random generator
+	* @return double Negative zero, NaN or an infinite value
+	* @since 1.1
+	*/
+	private static double special(SplittableRandom random)
+	{
+		double[] values = {-0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE};
+		return values[random.nextInt(values.length)];
+	}
+
+	/**
+	* This method writes the records in the binary format, reads them back field by field and through the keyframes of a loaded series,
+	* and converts the file to <i>.csv</i>, which has to equal the file written by the text format.
+	* @param compressed This is whether the blocks are deflated
+	* @param dim This is the number of dimensions
+	* @exception IOException If a file can not be written or read
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@CsvSource({"false, 1", "false, 30", "true, 1", "true, 30"})
+	public void roundTripMatchesCsv(boolean compressed, int dim) throws IOException
+	{
+		String binary = dir.resolve("Result.oarb").toString();
+		double[] chromosomes = new double[rows*dim];
+		try(OutputStream out = new FileOutputStream(binary)){
+			write(new BinaryResultFormat(compressed), out, dim, chromosomes);
+		}
+
+		try(BinaryResultFormat.Reader reader = new BinaryResultFormat.Reader(binary)){
+			assertEquals(dim, reader.getDim());
+			for(int i=0;i<rows;i++)
+			{
+				assertTrue(reader.next(), "record "+i);
+				assertEquals(i, reader.getIteration());
+				assertEquals(i%10==0 ? -1 : 100L*i, reader.getFunEval());
+				assertEquals(1000L*i, reader.getNanos());
+				assertEquals(Double.doubleToRawLongBits(fitness(i)), Double.doubleToRawLongBits(reader.getFitness()), "record "+i);
+				double[] x = reader.getChromosome();
+				for(int j=0;j<dim;j++)
+					assertEquals(Double.doubleToLongBits(chromosomes[i*dim+j]), Double.doubleToLongBits(x[j]), "record "+i+" gene "+j);
+			}
+			assertFalse(reader.next());
+		}
+
+		ResultSeries series = ResultFileLoader.load(binary, null);
+		assertEquals(rows, series.size());
+		int block = BinaryResultFormat.BLOCK_ROWS;
+		for(int i : new int[]{rows-1, 0, block-1, block, block+1, 2*block+7, 5})
+			assertEquals(Arrays.toString(Arrays.copyOfRange(chromosomes, i*dim, (i+1)*dim)), ResultFileLoader.loadChromosome(series, i), "record "+i);
+
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		write(ResultFormat.Csv.INSTANCE, csv, dim, new double[rows*dim]);
+		String converted = dir.resolve("Result.csv").toString();
+		assertEquals(rows, BinaryResultFormat.toCsv(binary, converted));
+		assertArrayEquals(csv.toByteArray(), Files.readAllBytes(Path.of(converted)));
+	}
+}
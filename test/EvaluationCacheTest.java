@@ -0,0 +1,145 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+* This class tests the bounds, the CLOCK eviction and the counters of the evaluation cache.
+* @author Ashish Rana
+* @version 1.1
+* @see EvaluationCache
+* @since 1.1
+*/
+
+public class EvaluationCacheTest{
+
+	/**
+	* Dimensions of the cached chromosomes.
+	* @since 1.1
+	*/
+	private static final int dim = 2;
+	/**
+	* Entries per segment of the tested caches.
+	* @since 1.1
+	*/
+	private static final int entriesPerSegment = 8;
+
+	/**
+	* This class counts the evaluations of the sphere function behind the cache.
+	* @since 1.1
+	*/
+	private static final class CountingSphere extends BenchmarkFunction.Sphere{
+		int evaluations;
+
+		CountingSphere()
+		{
+			super(EvaluationCacheTest.dim);
+		}
+
+		@Override
+		public synchronized double fitnessFunction(double[] x, int offset)
+		{
+			evaluations++;
+			return super.fitnessFunction(x, offset);
+		}
+	}
+
+	/**
+	* This method creates a cache with <i>entriesPerSegment</i> entries in each of its 16 segments.
+	* @param fObj This is the function behind the cache
+	* @return EvaluationCache Cache of 128 entries
+	* @since 1.1
+	*/
+	private static EvaluationCache cache(FitnessFunction fObj)
+	{
+		EvaluationCache cache = new EvaluationCache(fObj, 16*entriesPerSegment*EvaluationCache.bytesPerEntry(dim));
+		assertEquals(16*entriesPerSegment, cache.capacity());
+		return cache;
+	}
+
+	/**
+	* This method returns chromosome <i>i</i>, different for every <i>i</i> after rounding off to 2 decimal places.
+	* @param i This is the chromosome number
+	* @return double[] Chromosome
+	* @since 1.1
+	*/
+	private static double[] chromosome(int i)
+	{
+		return new double[]{(i%1000)/100.0, (i/1000)/100.0};
+	}
+
+	/**
+	* This method fills the cache far beyond its capacity with distinct chromosomes and checks that it never holds more entries than its
+	* capacity, and that every miss beyond the free entries of its segment evicted one.
+	* @since 1.1
+	*/
+	@Test
+	public void capacityIsNeverExceeded()
+	{
+		EvaluationCache cache = cache(new CountingSphere());
+		for(int i=0;i<20000;i++)
+		{
+			cache.fitnessFunction(chromosome(i));
+			assertTrue(cache.size()<=cache.capacity(), "size "+cache.size()+" after "+(i+1)+" chromosomes");
+		}
+		assertEquals(cache.capacity(), cache.size(), "every segment is full");
+		assertEquals(cache.getMisses()-cache.size(), cache.getEvictions());
+	}
+
+	/**
+	* This method keeps looking up one chromosome between insertions of distinct ones, the CLOCK hand finds it referenced on every pass
+	* and it is evaluated only once, while a chromosome looked up once is evicted and evaluated again.
+	* @since 1.1
+	*/
+	@Test
+	public void referencedEntriesSurviveSweeps()
+	{
+		CountingSphere fObj = new CountingSphere();
+		EvaluationCache cache = cache(fObj);
+		double[] hot = {-1, -1}, cold = {-2, -2};
+		cache.fitnessFunction(hot);
+		cache.fitnessFunction(cold);
+		for(int i=0;i<20000;i++)
+		{
+			cache.fitnessFunction(chromosome(i));
+			cache.fitnessFunction(hot);
+		}
+		assertTrue(cache.getEvictions()>10*cache.capacity(), "the CLOCK hand swept every segment many times");
+
+		int evaluations = fObj.evaluations;
+		cache.fitnessFunction(hot);
+		assertEquals(evaluations, fObj.evaluations, "the referenced chromosome is still cached");
+		cache.fitnessFunction(cold);
+		assertEquals(evaluations+1, fObj.evaluations, "the chromosome never referenced again is evicted");
+	}
+
+	/**
+	* This method looks up chromosomes repeatedly and checks that hits and misses add up to the lookups, every miss being one evaluation.
+	* @since 1.1
+	*/
+	@Test
+	public void countersMatchLookups()
+	{
+		CountingSphere fObj = new CountingSphere();
+		EvaluationCache cache = cache(fObj);
+		int lookups = 0;
+		for(int i=0;i<50;i++)
+		{
+			for(int repeat=0;repeat<=i%3;repeat++)
+			{
+				cache.fitnessFunction(chromosome(i));
+				lookups++;
+			}
+		}
+		assertEquals(50, cache.getMisses());
+		assertEquals(lookups-50, cache.getHits());
+		assertEquals(lookups, cache.getHits()+cache.getMisses());
+		assertEquals(fObj.evaluations, cache.getMisses());
+		assertEquals((double)(lookups-50)/lookups, cache.getHitRate(), 1e-12);
+
+		// genes equal after rounding off hit the same entry
+		cache.fitnessFunction(new double[]{0.001, -0.0});
+		assertEquals(lookups-49, cache.getHits());
+		assertEquals(50, fObj.evaluations);
+	}
+}
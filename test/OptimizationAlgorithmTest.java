@@ -0,0 +1,39 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+* This class tests the best chromosome remembered by the runs of every algorithm.
+* @author Ashish Rana
+* @version 1.1
+* @see OptimizationAlgorithm
+* @since 1.1
+*/
+
+public class OptimizationAlgorithmTest{
+
+	/**
+	* This method checks that the best chromosome comes from the population even when all fitness values are huge,
+	* e.g. Zakharov's function at 200 dimensions where every initial chromosome scores above 1e8.
+	* @param algorithm This is the short name of the algorithm
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@ValueSource(strings = {"ga", "de", "pso", "random"})
+	public void bestChromosomeIsEvaluatedForHugeFitness(String algorithm)
+	{
+		FitnessFunction fObj = BenchmarkFunction.forName("zakharov", 200);
+		OptimizationAlgorithm run = OptimizationAlgorithm.forName(algorithm, fObj, new ParallelEvaluator(1));
+		run.setVerbose(false);
+		run.setSeed(1);
+		run.initializeAll();
+		run.memorizeGlobalBest();
+		run.iterate();
+		run.memorizeGlobalBest();
+
+		assertTrue(run.getBestFitness()>1e8, "initial chromosomes of this function score above 1e8");
+		assertEquals(fObj.fitnessFunction(run.getBestChromosome()), run.getBestFitness());
+	}
+}
@@ -0,0 +1,158 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+* This class tests that evaluating generations in parallel gives exactly the result rows of the sequential evaluation,
+* and that the seeded generators repeat a run bit for bit whatever the number of threads evaluating it or running next to it.
+* @author Ashish Rana
+* @version 1.1
+* @see ParallelEvaluator
+* @since 1.1
+*/
+
+public class ParallelEvaluatorTest{
+
+	/**
+	* Number of iterations of the tested runs.
+	* @since 1.1
+	*/
+	private static final int iterations = 60;
+	/**
+	* Parallelism level compared with the sequential evaluation.
+	* @since 1.1
+	*/
+	private static final int parallelism = 4;
+
+	/**
+	* This class keeps the recorded rows of a run as text, fitness and chromosome printed exactly.
+	* @since 1.1
+	*/
+	static final class RowCollector implements ResultSink{
+		final List<String> rows = new ArrayList<>();
+
+		@Override
+		public void record(int iteration, long funEval, double fitness, double[] chromosome)
+		{
+			rows.add(iteration+","+funEval+","+fitness+","+Arrays.toString(chromosome));
+		}
+
+		@Override
+		public void close()
+		{
+		}
+	}
+
+	/**
+	* This method runs an algorithm with the given seed and parallelism and returns its recorded rows.
+	* @param algorithm This is the short name of the algorithm
+	* @param function This is the name of the benchmark function
+	* @param seed This is the master seed of the run
+	* @param parallelism This is the number of threads evaluating the chromosomes
+	* @return List Recorded rows of the run
+	* @exception IOException If the run fails to record its rows
+	* @since 1.1
+	*/
+	static List<String> rows(String algorithm, String function, long seed, int parallelism) throws IOException
+	{
+		ParallelEvaluator evaluator = new ParallelEvaluator(parallelism);
+		try{
+			OptimizationAlgorithm run = OptimizationAlgorithm.forName(algorithm, BenchmarkFunction.forName(function, 30), evaluator);
+			RowCollector collector = new RowCollector();
+			run.setVerbose(false);
+			run.setSeed(seed);
+			run.setResultFileName(null);
+			run.setTermination(new TerminationCriterion.Iterations(iterations));
+			run.setProgressSink(collector);
+			run.run();
+			return collector.rows;
+		}
+		finally{
+			evaluator.shutdown();
+		}
+	}
+
+	/**
+	* This method runs every population-based algorithm sequentially and in parallel with the same seed and compares the rows exactly.
+	* Ackley's function is separable, so the genetic algorithm evaluates from partial sums, Griewank's function is evaluated in full.
+	* @param algorithm This is the short name of the algorithm
+	* @exception IOException If a run fails to record its rows
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@ValueSource(strings = {"ga", "de", "pso"})
+	public void parallelRunMatchesSequentialRun(String algorithm) throws IOException
+	{
+		for(String function : new String[]{"ackley", "griewank"})
+		{
+			List<String> sequential = rows(algorithm, function, 11, 1);
+			assertFalse(sequential.isEmpty());
+			assertEquals(sequential, rows(algorithm, function, 11, parallelism), function);
+		}
+	}
+
+	/**
+	* This method runs every algorithm twice with the same seed and once with another one, the rows of the first two have to be identical.
+	* @param algorithm This is the short name of the algorithm
+	* @exception IOException If a run fails to record its rows
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@ValueSource(strings = {"ga", "de", "pso", "random"})
+	public void sameSeedGivesSameRows(String algorithm) throws IOException
+	{
+		List<String> first = rows(algorithm, "rastrigin", 23, 1);
+		assertEquals(first, rows(algorithm, "rastrigin", 23, 1));
+		assertNotEquals(first, rows(algorithm, "rastrigin", 24, 1));
+	}
+
+	/**
+	* This method runs every population-based algorithm with 1, 2, 3 and 8 evaluating threads and compares the rows exactly.
+	* @param algorithm This is the short name of the algorithm
+	* @exception IOException If a run fails to record its rows
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@ValueSource(strings = {"ga", "de", "pso"})
+	public void rowsDoNotDependOnThreadCount(String algorithm) throws IOException
+	{
+		List<String> sequential = rows(algorithm, "rastrigin", 29, 1);
+		for(int threads : new int[]{2, 3, 8})
+			assertEquals(sequential, rows(algorithm, "rastrigin", 29, threads), threads+" threads");
+	}
+
+	/**
+	* This method runs the same seeded run on 4 threads at once, each has to draw its own stream and record the rows of a run alone.
+	* @param algorithm This is the short name of the algorithm
+	* @exception Exception If a run fails
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@ValueSource(strings = {"ga", "de", "pso", "random"})
+	public void concurrentRunsGiveSameRows(String algorithm) throws Exception
+	{
+		List<String> alone = rows(algorithm, "levy", 31, 1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try{
+			List<Future<List<String>>> runs = new ArrayList<>();
+			for(int r=0;r<4;r++)
+				runs.add(executor.submit(() -> rows(algorithm, "levy", 31, 2)));
+			for(Future<List<String>> run : runs)
+				assertEquals(alone, run.get());
+		}
+		finally{
+			executor.shutdown();
+		}
+	}
+}
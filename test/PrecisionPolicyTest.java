@@ -0,0 +1,128 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+* This class tests the arithmetic rounding of QuantizedPrecision against HALF_UP rounding with BigDecimal of the printed value,
+* on ties, negative values, large magnitudes and random values of every scale.
+* @author Ashish Rana
+* @version 1.1
+* @see PrecisionPolicy.QuantizedPrecision
+* @since 1.1
+*/
+
+public class PrecisionPolicyTest{
+
+	/**
+	* This method rounds a value with BigDecimal, the definition the fast path has to match bit for bit.
+	* @param d This is the value
+	* @param decimalPlace This is the number of decimal places
+	* @return double Rounded value
+	* @since 1.1
+	*/
+	private static double reference(double d, int decimalPlace)
+	{
+		return new BigDecimal(Double.toString(d)).setScale(decimalPlace, RoundingMode.HALF_UP).doubleValue();
+	}
+
+	/**
+	* This method checks a value and its negation against the reference.
+	* @param d This is the value
+	* @param decimalPlace This is the number of decimal places
+	* @since 1.1
+	*/
+	private static void assertRoundsLikeBigDecimal(double d, int decimalPlace)
+	{
+		for(double v : new double[]{d, -d})
+		{
+			double expected = reference(v, decimalPlace);
+			double actual = PrecisionPolicy.QuantizedPrecision.round(v, decimalPlace);
+			assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual), v+" to "+decimalPlace+" places gave "+actual+" instead of "+expected);
+		}
+	}
+
+	/**
+	* This method checks printed ties, which round away from zero, exact binary ties and the neighbouring doubles of ties.
+	* @param decimalPlace This is the number of decimal places
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@ValueSource(ints = {0, 1, 2, 3, 6, 10})
+	public void tiesRoundAwayFromZero(int decimalPlace)
+	{
+		double scale = Math.pow(10, decimalPlace);
+		for(long n=0;n<2000;n++)
+		{
+			double tie = (2*n+1)/(2*scale);
+			assertRoundsLikeBigDecimal(tie, decimalPlace);
+			assertRoundsLikeBigDecimal(Math.nextUp(tie), decimalPlace);
+			assertRoundsLikeBigDecimal(Math.nextDown(tie), decimalPlace);
+			assertRoundsLikeBigDecimal(n/scale, decimalPlace);
+		}
+		assertEquals(2.68, PrecisionPolicy.QuantizedPrecision.round(2.675, 2));
+		assertEquals(-2.68, PrecisionPolicy.QuantizedPrecision.round(-2.675, 2));
+		assertEquals(0.13, PrecisionPolicy.QuantizedPrecision.round(0.125, 2));
+		assertEquals(-1.0, PrecisionPolicy.QuantizedPrecision.round(-0.5, 0));
+	}
+
+	/**
+	* This method checks zeros, tiny values, values around the limit of the fast path and huge values handled by BigDecimal.
+	* @since 1.1
+	*/
+	@Test
+	public void edgeCases()
+	{
+		double[] values = {0.0, -0.0, Double.MIN_VALUE, 1e-300, 0.004999999999999999, 0.005, 0.49999999999999994, 0.5,
+			999999999999.995, 1e12-0.5, 1e12+0.5, 4503599627370495.5, 9007199254740993.0, 1e15+0.3, 1e17, 1.7976931348623157e308};
+		for(int decimalPlace=0;decimalPlace<=17;decimalPlace++)
+		{
+			for(double d : values)
+				assertRoundsLikeBigDecimal(d, decimalPlace);
+		}
+		assertEquals(0.0, PrecisionPolicy.QuantizedPrecision.round(-0.001, 2));
+		assertThrows(NumberFormatException.class, () -> PrecisionPolicy.QuantizedPrecision.round(Double.NaN, 2));
+		assertThrows(NumberFormatException.class, () -> PrecisionPolicy.QuantizedPrecision.round(Double.POSITIVE_INFINITY, 2));
+	}
+
+	/**
+	* This method checks random values of magnitudes from 1e-6 to 1e16, uniform ones and ones with few decimal digits which often
+	* lie on ties, for every number of decimal places up to 16.
+	* @since 1.1
+	*/
+	@Test
+	public void randomValuesRoundLikeBigDecimal()
+	{
+		SplittableRandom random = new SplittableRandom(2);
+		for(int k=0;k<200000;k++)
+		{
+			int decimalPlace = random.nextInt(17);
+			double magnitude = Math.pow(10, random.nextInt(-6, 17));
+			double d = random.nextDouble()*magnitude;
+			if(random.nextBoolean())
+				d = Math.round(d*1000)/1000.0;
+			assertRoundsLikeBigDecimal(d, decimalPlace);
+		}
+	}
+
+	/**
+	* This method checks the policies created from their names.
+	* @since 1.1
+	*/
+	@Test
+	public void policiesForNames()
+	{
+		assertSame(PrecisionPolicy.FullPrecision.INSTANCE, PrecisionPolicy.forName(" Full "));
+		assertEquals(3, ((PrecisionPolicy.QuantizedPrecision)PrecisionPolicy.forName("3")).getDecimalPlace());
+		assertEquals(1.23, PrecisionPolicy.forName("2").apply(1.2345));
+		assertThrows(IllegalArgumentException.class, () -> PrecisionPolicy.forName("-1"));
+		assertThrows(IllegalArgumentException.class, () -> PrecisionPolicy.forName("two"));
+	}
+}
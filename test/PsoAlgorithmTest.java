@@ -0,0 +1,173 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.random.RandomGenerator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+* This class tests the velocity equations of the particle swarm against hand-computed steps, the clamping of velocities
+* and that runs with the same seed move the swarm the same way.
+* @author Ashish Rana
+* @version 1.1
+* @see PsoAlgorithm
+* @since 1.1
+*/
+
+public class PsoAlgorithmTest{
+
+	/**
+	* Number of particles of the tested swarm.
+	* @since 1.1
+	*/
+	private static final int popSize = 4;
+	/**
+	* Dimensions of the tested fitness function.
+	* @since 1.1
+	*/
+	private static final int dim = 1;
+
+	/**
+	* This class returns scripted random numbers in a row, so a step of the velocity equation can be computed by hand.
+	* @since 1.1
+	*/
+	private static final class ScriptedRandom implements RandomGenerator{
+		private final double[] values;
+		private int next = 0;
+
+		ScriptedRandom(double... values)
+		{
+			this.values = values;
+		}
+
+		@Override
+		public double nextDouble()
+		{
+			return values[next++];
+		}
+
+		@Override
+		public long nextLong()
+		{
+			throw new UnsupportedOperationException("Only scripted doubles");
+		}
+	}
+
+	/**
+	* This method creates a swarm on the sphere function without rounding off, whose particle 0 is at 1 with velocity 0.1 and its own best at 0.5.
+	* @param update This is the velocity equation
+	* @return PsoAlgorithm Initialized swarm
+	* @since 1.1
+	*/
+	private static PsoAlgorithm swarm(PsoAlgorithm.VelocityUpdate update)
+	{
+		BenchmarkFunction fObj = BenchmarkFunction.forName("sphere", dim).setPrecision(PrecisionPolicy.forName("full"));
+		PsoAlgorithm pso = new PsoAlgorithm(fObj, new ParallelEvaluator(1), popSize).setVelocityUpdate(update);
+		pso.setVerbose(false);
+		pso.setSeed(1);
+		pso.initializeAll();
+		pso.getPopulation().genes[0] = 1;
+		pso.velocity[0] = 0.1;
+		pso.pBest.genes[0] = 0.5;
+		return pso;
+	}
+
+	/**
+	* This method checks the constriction factor against Clerc and Kennedy's <i>2/|2-phi-sqrt(phi^2-4phi)|</i> with <i>phi</i> the sum
+	* of both acceleration constants.
+	* @since 1.1
+	*/
+	@Test
+	public void constrictionFactorFollowsAccelerationConstants()
+	{
+		PsoAlgorithm.VelocityUpdate update = PsoAlgorithm.VelocityUpdate.CONSTRICTION;
+		double phi = update.cognitive+update.social;
+		assertEquals(4.1, phi, 1e-15);
+		assertEquals(2/Math.abs(2-phi-Math.sqrt(phi*phi-4*phi)), update.constriction, 1e-15);
+		assertEquals(1, update.inertia);
+		assertEquals(1, PsoAlgorithm.VelocityUpdate.INERTIA.constriction);
+	}
+
+	/**
+	* This method moves a particle one step with the inertia weight, random numbers 0.5 and 0.25 and the swarm's best at 0.5:
+	* <i>0.8*0.1 + 1.5*0.5*(0.5-1) + 1.5*0.25*(0.5-1) = -0.4825</i>.
+	* @since 1.1
+	*/
+	@Test
+	public void inertiaStep()
+	{
+		PsoAlgorithm pso = swarm(PsoAlgorithm.VelocityUpdate.INERTIA);
+		pso.moveParticle(0, new double[]{0.5}, new ScriptedRandom(0.5, 0.25), PsoAlgorithm.VelocityUpdate.INERTIA);
+		assertEquals(-0.4825, pso.velocity[0], 1e-15);
+		assertEquals(1-0.4825, pso.getPopulation().genes[0], 1e-15);
+	}
+
+	/**
+	* This method moves a particle one step with the constriction factor, random numbers 0.5 and 0.25 and the swarm's best at 0.5:
+	* <i>0.7298437881283576*(0.1 + 2.05*0.5*(0.5-1) + 2.05*0.25*(0.5-1)) = -0.48808303331083913</i>.
+	* @since 1.1
+	*/
+	@Test
+	public void constrictionStep()
+	{
+		PsoAlgorithm pso = swarm(PsoAlgorithm.VelocityUpdate.CONSTRICTION);
+		pso.moveParticle(0, new double[]{0.5}, new ScriptedRandom(0.5, 0.25), PsoAlgorithm.VelocityUpdate.CONSTRICTION);
+		assertEquals(-0.48808303331083913, pso.velocity[0], 1e-15);
+		assertEquals(1-0.48808303331083913, pso.getPopulation().genes[0], 1e-15);
+	}
+
+	/**
+	* This method checks that velocities beyond [-1, 1] are redrawn uniformly within it, here from the random number 0.75 to 0.5:
+	* with the swarm's best at -4 the inertia step is <i>0.08 - 0.375 - 1.5*0.5*5 = -4.045</i>.
+	* @param update This is the velocity equation
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@EnumSource(PsoAlgorithm.VelocityUpdate.class)
+	public void velocityIsClamped(PsoAlgorithm.VelocityUpdate update)
+	{
+		PsoAlgorithm pso = swarm(update);
+		pso.moveParticle(0, new double[]{-4}, new ScriptedRandom(0.5, 0.5, 0.75), update);
+		assertEquals(0.5, pso.velocity[0], 1e-15);
+		assertEquals(1.5, pso.getPopulation().genes[0], 1e-15);
+
+		pso.velocity[0] = -0.1;
+		pso.pBest.genes[0] = 4;
+		pso.moveParticle(0, new double[]{5}, new ScriptedRandom(0.5, 0.5, 0.25), update);
+		assertEquals(-0.5, pso.velocity[0], 1e-15);
+		assertEquals(1, pso.getPopulation().genes[0], 1e-15);
+	}
+
+	/**
+	* This method runs two swarms with the same seed and checks that positions, velocities and the best particle stay identical.
+	* @param update This is the velocity equation
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@EnumSource(PsoAlgorithm.VelocityUpdate.class)
+	public void sameSeedMovesSwarmTheSameWay(PsoAlgorithm.VelocityUpdate update)
+	{
+		PsoAlgorithm[] runs = new PsoAlgorithm[2];
+		for(int r=0;r<runs.length;r++)
+		{
+			runs[r] = new PsoAlgorithm(BenchmarkFunction.forName("rastrigin", 10), new ParallelEvaluator(1), 20).setVelocityUpdate(update);
+			runs[r].setVerbose(false);
+			runs[r].setSeed(42);
+			runs[r].initializeAll();
+			runs[r].memorizeGlobalBest();
+		}
+		for(int i=0;i<200;i++)
+		{
+			for(PsoAlgorithm run : runs)
+			{
+				run.iterate();
+				run.memorizeGlobalBest();
+			}
+			assertArrayEquals(runs[0].getPopulation().genes, runs[1].getPopulation().genes);
+			assertArrayEquals(runs[0].velocity, runs[1].velocity);
+			assertEquals(runs[0].getBestFitness(), runs[1].getBestFitness());
+		}
+	}
+}
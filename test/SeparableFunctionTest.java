@@ -0,0 +1,195 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+* This class tests that fitness values evaluated from partial sums equal <i>fitnessFunction</i> of the chromosomes bit for bit,
+* for every separable benchmark function under both quantized and full precision.
+* @author Ashish Rana
+* @version 1.1
+* @see SeparableFunction
+* @since 1.1
+*/
+
+public class SeparableFunctionTest{
+
+	/**
+	* Names of the separable benchmark functions.
+	* @since 1.1
+	*/
+	private static final String[] functions = {"sphere", "rastrigin", "rosenbrock", "schwefel", "ackley", "levy", "zakharov"};
+	/**
+	* Number of chromosomes of the tested populations.
+	* @since 1.1
+	*/
+	private static final int popSize = 20;
+	/**
+	* Number of mutate and evaluate rounds.
+	* @since 1.1
+	*/
+	private static final int rounds = 300;
+
+	/**
+	* This method returns every separable function with both precision policies and a small and a large dimension.
+	* @return List Arguments of function name, precision and dimensions
+	* @since 1.1
+	*/
+	static List<Arguments> functionsAndPrecisions()
+	{
+		List<Arguments> arguments = new ArrayList<>();
+		for(String function : functions)
+		{
+			for(String precision : new String[]{"2", "full"})
+			{
+				arguments.add(Arguments.of(function, precision, 5));
+				arguments.add(Arguments.of(function, precision, 200));
+			}
+		}
+		return arguments;
+	}
+
+	/**
+	* This method creates the function and a population of random chromosomes with partial sums, and prefix sums if asked for,
+	* evaluated once in full. Genes quantized like the generated ones of the algorithms put many sums right on rounding ties.
+	* @param fObj This is the separable function
+	* @param prefixSums This is whether the population carries prefix sums
+	* @param random This is the random generator of the genes
+	* @return Population Evaluated population
+	* @since 1.1
+	*/
+	static Population population(BenchmarkFunction fObj, boolean prefixSums, Random random)
+	{
+		Population pop = new Population(popSize, fObj.getDim());
+		pop.enablePartialSums(((SeparableFunction)fObj).partialSums());
+		if(prefixSums)
+			pop.enablePrefixSums();
+		for(int k=0;k<pop.genes.length;k++)
+			pop.genes[k] = gene(fObj, random);
+		fObj.evaluate(pop, 0, popSize);
+		return pop;
+	}
+
+	/**
+	* This method draws a gene within the bounds of the function, every other one quantized to 2 decimal places.
+	* @param fObj This is the function
+	* @param random This is the random generator
+	* @return double Gene value
+	* @since 1.1
+	*/
+	static double gene(BenchmarkFunction fObj, Random random)
+	{
+		double value = random.nextDouble()*(fObj.getUpperBound()-fObj.getLowerBound())+fObj.getLowerBound();
+		return random.nextBoolean() ? FitnessFunction.round(value, 2) : value;
+	}
+
+	/**
+	* This method checks the fitness value of every chromosome against <i>fitnessFunction</i> of its genes.
+	* @param fObj This is the function
+	* @param pop This is the evaluated population
+	* @param round This is the round shown on failures
+	* @since 1.1
+	*/
+	static void assertFitnessMatches(BenchmarkFunction fObj, Population pop, int round)
+	{
+		double[] chromosome = new double[pop.dim];
+		for(int i=0;i<pop.size;i++)
+		{
+			pop.copyRowTo(i, chromosome);
+			assertEquals(fObj.fitnessFunction(chromosome), pop.fitness[i], 0, "chromosome "+i+" in round "+round);
+		}
+	}
+
+	/**
+	* This method mutates single genes of the chromosomes over many rounds, sometimes the same chromosome again before its evaluation,
+	* and checks every evaluation against the full one.
+	* @param function This is the function name
+	* @param precision This is the precision policy name
+	* @param dim This is the number of dimensions
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@MethodSource("functionsAndPrecisions")
+	public void mutatedFitnessEqualsFullEvaluation(String function, String precision, int dim)
+	{
+		BenchmarkFunction fObj = BenchmarkFunction.forName(function, dim).setPrecision(PrecisionPolicy.forName(precision));
+		Random random = new Random(function.hashCode()+dim);
+		for(boolean prefixSums : new boolean[]{false, true})
+		{
+			Population pop = population(fObj, prefixSums, random);
+			for(int round=0;round<rounds;round++)
+			{
+				for(int i=0;i<popSize;i++)
+				{
+					int mutations = random.nextInt(10)==0 ? 2 : 1;
+					for(int m=0;m<mutations;m++)
+						pop.mutate(i, random.nextInt(dim), gene(fObj, random));
+				}
+				fObj.evaluate(pop, 0, popSize);
+				if(prefixSums)
+					((SeparableFunction)fObj).refreshPrefixSums(pop);
+				assertFitnessMatches(fObj, pop, round);
+			}
+		}
+	}
+
+	/**
+	* This method crosses random parents at random points, including both ends, over many generations in which better children replace
+	* their parents, and checks every child against the full evaluation of its materialized genes. Under quantized precision most children
+	* have to be evaluated from the prefix sums of their parents, with <i>joinPartialSums</i> for terms spanning the crossing point.
+	* @param function This is the function name
+	* @param precision This is the precision policy name
+	* @param dim This is the number of dimensions
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@MethodSource("functionsAndPrecisions")
+	public void crossoverFitnessEqualsFullEvaluation(String function, String precision, int dim)
+	{
+		BenchmarkFunction fObj = BenchmarkFunction.forName(function, dim).setPrecision(PrecisionPolicy.forName(precision));
+		SeparableFunction separable = (SeparableFunction)fObj;
+		Random random = new Random(function.hashCode()-dim);
+		Population pop = population(fObj, true, random);
+		Population children = new Population(popSize, dim);
+		children.enablePartialSums(separable.partialSums());
+		children.enablePrefixSums();
+		int joined = 0;
+		for(int round=0;round<rounds;round++)
+		{
+			separable.refreshPrefixSums(pop);
+			for(int i=0;i<popSize;i++)
+				children.cross(i, pop, random.nextInt(popSize), random.nextInt(popSize), random.nextInt(dim+1));
+			fObj.evaluate(children, 0, popSize);
+			for(int i=0;i<popSize;i++)
+			{
+				if(children.crossPoint[i]>=0)
+					joined++;
+				children.materialize(i);
+			}
+			assertFitnessMatches(fObj, children, round);
+
+			// better children replace random chromosomes, some mutated afterwards, so later parents carry derived prefix sums
+			for(int i=0;i<popSize;i++)
+			{
+				int parent = random.nextInt(popSize);
+				if(children.fitness[i]<=pop.fitness[parent])
+					pop.copyRow(children, i, parent);
+			}
+			for(int i=0;i<popSize;i++)
+			{
+				if(random.nextInt(5)==0)
+					pop.mutate(i, random.nextInt(dim), gene(fObj, random));
+			}
+			fObj.evaluate(pop, 0, popSize);
+			assertFitnessMatches(fObj, pop, round);
+		}
+		if(precision.equals("2") && dim==5)
+			assertTrue(joined>rounds*popSize/2, "only "+joined+" children were evaluated from the prefix sums of their parents");
+	}
+}
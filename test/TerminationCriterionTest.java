@@ -0,0 +1,190 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+* This class tests the parser of the termination criteria and the criteria stopping runs whose best fitness follows a script.
+* @author Ashish Rana
+* @version 1.1
+* @see TerminationCriterion
+* @since 1.1
+*/
+
+public class TerminationCriterionTest{
+
+	/**
+	* Best fitness after every iteration of the scripted run, improving by less than 1e-3 in iterations 4 and 5 and by 0.499 in iteration 6.
+	* @since 1.1
+	*/
+	private static final double[] script = {10, 9, 9, 8.9995, 8.999, 8.5, 8.5, 8.5, 8.5, 8.5, 8.5, 8.5};
+
+	/**
+	* This class is a run without a population whose best fitness after iteration <i>i</i> is <i>script[i-1]</i>, with 10 evaluations per iteration.
+	* @since 1.1
+	*/
+	private static final class ScriptedRun extends OptimizationAlgorithm{
+		private int iteration;
+
+		ScriptedRun(TerminationCriterion termination)
+		{
+			super("Scripted", BenchmarkFunction.forName("sphere", 2), script.length, Integer.MAX_VALUE);
+			setVerbose(false);
+			setResultFileName(null);
+			setTermination(termination);
+		}
+
+		@Override
+		public void initializeAll()
+		{
+			iteration = 0;
+		}
+
+		@Override
+		public void iterate()
+		{
+			iteration++;
+			funEval += 10;
+		}
+
+		@Override
+		public void memorizeGlobalBest()
+		{
+			if(iteration>0)
+				bestFitness = script[iteration-1];
+		}
+	}
+
+	/**
+	* This method runs the script with a parsed criterion, twice so that the second run shows the state was reset at its start.
+	* @param expression This is the criterion
+	* @return ScriptedRun The finished second run
+	* @exception IOException If the run fails
+	* @since 1.1
+	*/
+	private static ScriptedRun run(String expression) throws IOException
+	{
+		TerminationCriterion criterion = TerminationCriterion.forName(expression);
+		ScriptedRun first = new ScriptedRun(criterion);
+		first.run();
+		ScriptedRun second = new ScriptedRun(criterion);
+		second.run();
+		assertEquals(first.getIterations(), second.getIterations(), "a second run with the same criterion");
+		return second;
+	}
+
+	/**
+	* This method checks the iteration at which scripted runs stop and the criterion reported as met.
+	* With epsilon 1e-3 the improvements of iterations 4 and 5 do not count, so 3 iterations without improvement end at iteration 5,
+	* with epsilon 0 the last improvement is in iteration 6 and they end at iteration 9.
+	* @param expression This is the criterion
+	* @param iterations This is the iteration the run stops after
+	* @param stoppedBy This is the criterion met
+	* @exception IOException If the run fails
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@CsvSource(delimiter = ';', value = {
+		"stagnation:3:1e-3; 5; stagnation:3:0.001",
+		"stagnation:3; 9; stagnation:3:0.0",
+		"stagnation:3:1e-3 & iterations:7; 9; stagnation:3:0.001&iterations:7",
+		"stagnation:3:1e-3 | iterations:4; 4; iterations:4",
+		"target:8.5 | stagnation:3:1e-3; 5; stagnation:3:0.001",
+		"target:8.9995; 4; target:8.9995",
+		"evaluations:25; 3; evaluations:25",
+		"stagnation:100; 12; iterations:12"})
+	public void scriptedRunsStop(String expression, int iterations, String stoppedBy) throws IOException
+	{
+		ScriptedRun run = run(expression);
+		assertEquals(iterations, run.getIterations());
+		assertEquals(stoppedBy, run.getStoppedBy().toString());
+	}
+
+	/**
+	* This method feeds the stagnation criterion the script directly, one iteration at a time.
+	* @since 1.1
+	*/
+	@Test
+	public void stagnationFollowsScript()
+	{
+		ScriptedRun run = new ScriptedRun(null);
+		TerminationCriterion stagnation = new TerminationCriterion.Stagnation(3, 1e-3);
+		boolean[] expected = {false, false, false, false, true, false, false, false, true, true, true, true};
+		stagnation.start(run);
+		for(int i=0;i<script.length;i++)
+		{
+			run.iterations = i+1;
+			run.bestFitness = script[i];
+			assertEquals(expected[i], stagnation.isMet(run), "iteration "+(i+1));
+		}
+	}
+
+	/**
+	* This method checks that <i>&amp;</i> binds tighter than <i>|</i>, with whitespace and upper case ignored.
+	* @since 1.1
+	*/
+	@Test
+	public void nestedExpressions()
+	{
+		TerminationCriterion c = TerminationCriterion.forName(" Target:0.01 | stagnation:200:1e-6 & iterations:500 & diversity:0.1 | TIME:10m ");
+		assertEquals("target:0.01|stagnation:200:1.0E-6&iterations:500&diversity:0.1|time:600000ms", c.toString());
+		assertInstanceOf(TerminationCriterion.AnyOf.class, c);
+		assertEquals(Boolean.TRUE, c.readsPopulation());
+
+		TerminationCriterion all = TerminationCriterion.forName("iterations:5&evaluations:10");
+		assertInstanceOf(TerminationCriterion.AllOf.class, all);
+		assertEquals(Boolean.FALSE, all.readsPopulation());
+		assertInstanceOf(TerminationCriterion.Iterations.class, TerminationCriterion.forName("iterations:5"));
+	}
+
+	/**
+	* This method checks the time units of the deadline.
+	* @since 1.1
+	*/
+	@Test
+	public void deadlineUnits()
+	{
+		assertEquals(250, TerminationCriterion.Deadline.parseMillis("250ms"));
+		assertEquals(1500, TerminationCriterion.Deadline.parseMillis("1.5s"));
+		assertEquals(3000, TerminationCriterion.Deadline.parseMillis("3"));
+		assertEquals(600000, TerminationCriterion.Deadline.parseMillis("10m"));
+		assertEquals(7200000, TerminationCriterion.Deadline.parseMillis("2h"));
+	}
+
+	/**
+	* This method checks that malformed criteria are rejected, unknown terms, missing, extra or invalid arguments and empty terms.
+	* @param expression This is the malformed criterion
+	* @since 1.1
+	*/
+	@ParameterizedTest
+	@ValueSource(strings = {"", " ", "target", "target:", "target:x", "target:1:2", "stagnation", "stagnation:0", "stagnation:5:-1",
+		"stagnation:1.5", "stagnation:5:1:2", "diversity:-0.1", "diversity:abc", "time:abc", "time:5x", "iterations:1.5", "evaluations:",
+		"generations:5", "target:1|", "|target:1", "target:1||iterations:5", "target:1&", "&target:1", "target:1&&iterations:5", "target:1&|iterations:5"})
+	public void malformedCriteriaAreRejected(String expression)
+	{
+		assertThrows(IllegalArgumentException.class, () -> TerminationCriterion.forName(expression));
+	}
+
+	/**
+	* This method checks that the run reports the budget of the algorithm when no criterion was met before it.
+	* @exception IOException If the run fails
+	* @since 1.1
+	*/
+	@Test
+	public void budgetStopsRunWithoutCriterionMet() throws IOException
+	{
+		TerminationCriterion target = new TerminationCriterion.Target(0);
+		ScriptedRun run = new ScriptedRun(target);
+		run.run();
+		assertEquals(script.length, run.getIterations());
+		assertInstanceOf(TerminationCriterion.Iterations.class, run.getStoppedBy());
+		assertSame(target, run.getTermination());
+	}
+}
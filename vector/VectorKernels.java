@@ -0,0 +1,238 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+* This class computes the fitness kernels with the Vector API, as many genes at once as the widest SIMD registers of the CPU hold,
+* and the remaining genes of a chromosome one after the other. Sines and cosines are computed by the vector math of the JDK,
+* with fast math by the same polynomial approximations as ScalarKernels, evaluated on whole vectors with the same operations,
+* so they give the same sine or cosine of a gene bit for bit.
+* It lives apart from the other sources because it needs the incubator module <i>jdk.incubator.vector</i> to compile and to run,
+* the gradle build adds it and ScalarKernels loads this class only when the module is added to the JVM.
+* @author Ashish Rana
+* @version 1.1
+* @see FitnessKernels
+* @see ScalarKernels
+* @since 1.1
+*/
+
+public final class VectorKernels implements FitnessKernels{
+
+	/**
+	* Widest vector shape of the CPU.
+	* @since 1.1
+	*/
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+	/**
+	* Lanes of a vector.
+	* @since 1.1
+	*/
+	private static final int LANES = SPECIES.length();
+	/**
+	* <i>1.5*2<sup>52</sup></i>, adding and subtracting it rounds values below <i>2<sup>51</sup></i> to the nearest integer.
+	* @since 1.1
+	*/
+	private static final double ROUND = 0x1.8p52;
+	/**
+	* Lane indices <i>1, 2, ..., LANES</i>.
+	* @since 1.1
+	*/
+	private static final DoubleVector POSITIONS;
+
+	static
+	{
+		double[] positions = new double[LANES];
+		for(int i=0;i<LANES;i++)
+			positions[i] = i+1;
+		POSITIONS = DoubleVector.fromArray(SPECIES, positions, 0);
+	}
+
+	/**
+	* Whether sines and cosines are approximated.
+	* @since 1.1
+	*/
+	private final boolean fastMath;
+
+	/**
+	* This creates the vector kernels.
+	* @param fastMath This is <i>true</i> for approximations of sine and cosine
+	* @since 1.1
+	*/
+	public VectorKernels(boolean fastMath)
+	{
+		this.fastMath = fastMath;
+	}
+
+	/**
+	* This method computes the cosine of every lane, approximated like ScalarKernels.cos with fast math.
+	* @param v This is the arguments in radians
+	* @return DoubleVector Cosines
+	* @since 1.1
+	*/
+	private DoubleVector cos(DoubleVector v)
+	{
+		if(!fastMath)
+			return v.lanewise(VectorOperators.COS);
+		DoubleVector k = v.mul(1/(2*Math.PI)).add(ROUND).sub(ROUND);
+		DoubleVector y = v.sub(k.mul(ScalarKernels.TWO_PI_HI)).sub(k.mul(ScalarKernels.TWO_PI_LO)).abs();
+		VectorMask<Double> folded = y.compare(VectorOperators.GT, Math.PI/2);
+		y = y.blend(y.neg().add(Math.PI), folded);
+		DoubleVector z = y.mul(y);
+		DoubleVector c = z.mul(ScalarKernels.C6).add(ScalarKernels.C5);
+		c = c.mul(z).add(ScalarKernels.C4);
+		c = c.mul(z).add(ScalarKernels.C3);
+		c = c.mul(z).add(ScalarKernels.C2);
+		c = c.mul(z).add(ScalarKernels.C1);
+		c = c.mul(z).add(1);
+		return c.blend(c.neg(), folded);
+	}
+
+	/**
+	* This method computes the sine of every lane, approximated like ScalarKernels.sin with fast math.
+	* @param v This is the arguments in radians
+	* @return DoubleVector Sines
+	* @since 1.1
+	*/
+	private DoubleVector sin(DoubleVector v)
+	{
+		if(!fastMath)
+			return v.lanewise(VectorOperators.SIN);
+		return cos(v.sub(Math.PI/2));
+	}
+
+	@Override
+	public double squares(double[] x, int from, int to)
+	{
+		DoubleVector acc = DoubleVector.zero(SPECIES);
+		int i = from;
+		for(int end=from+SPECIES.loopBound(to-from);i<end;i+=LANES)
+		{
+			DoubleVector v = DoubleVector.fromArray(SPECIES, x, i);
+			acc = v.fma(v, acc);
+		}
+		double sum = acc.reduceLanes(VectorOperators.ADD);
+		for(;i<to;i++)
+			sum += x[i]*x[i];
+		return sum;
+	}
+
+	@Override
+	public double cosines(double[] x, int from, int to, double scale)
+	{
+		DoubleVector acc = DoubleVector.zero(SPECIES);
+		int i = from;
+		for(int end=from+SPECIES.loopBound(to-from);i<end;i+=LANES)
+			acc = acc.add(cos(DoubleVector.fromArray(SPECIES, x, i).mul(scale)));
+		double sum = acc.reduceLanes(VectorOperators.ADD);
+		for(;i<to;i++)
+			sum += fastMath ? ScalarKernels.cos(scale*x[i]) : Math.cos(scale*x[i]);
+		return sum;
+	}
+
+	@Override
+	public double cosineProduct(double[] x, int from, int to, double[] scales)
+	{
+		DoubleVector acc = DoubleVector.broadcast(SPECIES, 1);
+		int i = from;
+		for(int end=from+SPECIES.loopBound(to-from);i<end;i+=LANES)
+			acc = acc.mul(cos(DoubleVector.fromArray(SPECIES, x, i).mul(DoubleVector.fromArray(SPECIES, scales, i-from))));
+		double prod = acc.reduceLanes(VectorOperators.MUL);
+		for(;i<to;i++)
+			prod *= fastMath ? ScalarKernels.cos(x[i]*scales[i-from]) : Math.cos(x[i]*scales[i-from]);
+		return prod;
+	}
+
+	@Override
+	public double weightedSum(double[] x, int from, int to)
+	{
+		DoubleVector acc = DoubleVector.zero(SPECIES);
+		int i = from;
+		for(int end=from+SPECIES.loopBound(to-from);i<end;i+=LANES)
+			acc = DoubleVector.fromArray(SPECIES, x, i).fma(POSITIONS.add(i-from), acc);
+		double sum = acc.reduceLanes(VectorOperators.ADD);
+		for(;i<to;i++)
+			sum += (i-from+1)*x[i];
+		return sum;
+	}
+
+	@Override
+	public double schwefel(double[] x, int from, int to)
+	{
+		DoubleVector acc = DoubleVector.zero(SPECIES);
+		int i = from;
+		for(int end=from+SPECIES.loopBound(to-from);i<end;i+=LANES)
+		{
+			DoubleVector v = DoubleVector.fromArray(SPECIES, x, i);
+			acc = v.fma(sin(v.abs().sqrt()), acc);
+		}
+		double sum = acc.reduceLanes(VectorOperators.ADD);
+		for(;i<to;i++)
+		{
+			double r = Math.sqrt(Math.abs(x[i]));
+			sum += x[i]*(fastMath ? ScalarKernels.sin(r) : Math.sin(r));
+		}
+		return sum;
+	}
+
+	@Override
+	public double rosenbrock(double[] x, int from, int to)
+	{
+		DoubleVector acc = DoubleVector.zero(SPECIES);
+		int i = from;
+		for(int end=from+SPECIES.loopBound(to-1-from);i<end;i+=LANES)
+		{
+			DoubleVector v = DoubleVector.fromArray(SPECIES, x, i);
+			DoubleVector a = v.neg().fma(v, DoubleVector.fromArray(SPECIES, x, i+1));
+			DoubleVector b = v.sub(1);
+			acc = acc.add(a.mul(a).mul(100).add(b.mul(b)));
+		}
+		double sum = acc.reduceLanes(VectorOperators.ADD);
+		for(;i<to-1;i++)
+		{
+			double a = x[i+1] - x[i]*x[i];
+			double b = x[i] - 1;
+			sum += 100*a*a + b*b;
+		}
+		return sum;
+	}
+
+	@Override
+	public double levy(double[] x, int from, int to)
+	{
+		DoubleVector acc = DoubleVector.zero(SPECIES);
+		int i = from;
+		for(int end=from+SPECIES.loopBound(to-from);i<end;i+=LANES)
+		{
+			DoubleVector d = DoubleVector.fromArray(SPECIES, x, i).sub(1).mul(0.25);
+			DoubleVector s = sin(d.add(1).mul(Math.PI).add(1));
+			acc = d.mul(d).fma(s.mul(s).mul(10).add(1), acc);
+		}
+		double sum = acc.reduceLanes(VectorOperators.ADD);
+		for(;i<to;i++)
+		{
+			double w = 1 + (x[i]-1)/4;
+			double s = fastMath ? ScalarKernels.sin(Math.PI*w+1) : Math.sin(Math.PI*w+1);
+			sum += (w-1)*(w-1)*(1+10*s*s);
+		}
+		return sum;
+	}
+
+	@Override
+	public double cosine(double x)
+	{
+		return fastMath ? ScalarKernels.cos(x) : Math.cos(x);
+	}
+
+	@Override
+	public double sine(double x)
+	{
+		return fastMath ? ScalarKernels.sin(x) : Math.sin(x);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "vector"+SPECIES.vectorBitSize()+(fastMath ? "-fastMath" : "");
+	}
+}